@@ -16,10 +16,19 @@
 
 package com.fuhouyu.framework.cache;
 
+import com.fuhouyu.framework.cache.properties.CacheServiceProperties;
+import com.fuhouyu.framework.cache.service.impl.RefreshAhead;
 import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>
@@ -29,10 +38,30 @@ import org.springframework.context.annotation.Import;
  * @author fuhouyu
  * @since 2024/8/13 21:00
  */
-@Import({RedisCacheAutoConfiguration.class, CaffeineCacheAutoconfiguration.class})
+@Import({RedisCacheAutoConfiguration.class, CaffeineCacheAutoconfiguration.class,
+        MultiLevelCacheAutoConfiguration.class, ShardedRedisCacheAutoConfiguration.class,
+        HotKeyCacheAutoConfiguration.class, WriteBehindCacheAutoConfiguration.class,
+        CacheRegionAutoConfiguration.class, CachedAspectAutoConfiguration.class})
 @EnableConfigurationProperties(CacheProperties.class)
 @ConfigurationPropertiesScan(basePackageClasses = CacheAutoConfiguration.class)
 public class CacheAutoConfiguration {
 
-
+    /**
+     * getOrLoad 的提前刷新，各缓存实现共用一个有界刷新线程池
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @return 提前刷新
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+            name = "refresh-ahead.enabled",
+            havingValue = "true")
+    public RefreshAhead<String> cacheRefreshAhead(CacheServiceProperties cacheServiceProperties) {
+        CacheServiceProperties.RefreshAhead refreshAhead = cacheServiceProperties.getRefreshAhead();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("cache-refresh-");
+        threadFactory.setDaemon(true);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(refreshAhead.getThreads(), refreshAhead.getThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(refreshAhead.getQueueCapacity()), threadFactory);
+        return new RefreshAhead<>(refreshAhead.getBeta(), executor, refreshAhead.getMaximumSize());
+    }
 }
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache;
+
+import com.fuhouyu.framework.cache.annotations.CacheRegion;
+import com.fuhouyu.framework.cache.enums.CacheServiceTypeEnum;
+import com.fuhouyu.framework.cache.properties.CacheServiceProperties;
+import com.fuhouyu.framework.cache.service.CacheRegionRegistry;
+import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.impl.CacheEntryWeigher;
+import com.fuhouyu.framework.cache.service.impl.CacheExpiry;
+import com.fuhouyu.framework.cache.service.impl.CaffeineCacheServiceImpl;
+import com.fuhouyu.framework.cache.service.impl.DefaultCacheRegionRegistry;
+import com.fuhouyu.framework.cache.service.impl.MultiLevelCacheServiceImpl;
+import com.fuhouyu.framework.cache.service.impl.RedisCacheService;
+import com.fuhouyu.framework.cache.service.impl.RedisStreamInvalidationBus;
+import com.fuhouyu.framework.cache.service.impl.RefreshAhead;
+import com.fuhouyu.framework.cache.service.impl.RegionCacheService;
+import com.fuhouyu.framework.cache.service.impl.TtlJitter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.AutowireCandidateQualifier;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * <p>
+ * 缓存区域自动装配类，{@code cache.service.regions} 下的每个区域注册为一个独立的缓存服务 bean，
+ * 可通过 {@link CacheRegion} 按名称注入，也可以通过 {@link CacheRegionRegistry} 获取。
+ * 区域之间不共享本地缓存的容量，某个区域的突发写入不会淘汰其他区域的数据。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 19:20
+ */
+@Configuration
+@Import(CacheRegionAutoConfiguration.CacheRegionBeanRegistrar.class)
+public class CacheRegionAutoConfiguration {
+
+    /**
+     * 创建区域缓存服务的工厂 bean 名称
+     */
+    static final String REGION_FACTORY_BEAN_NAME = "cacheRegionFactory";
+
+    /**
+     * 区域缓存服务 bean 名称的后缀
+     */
+    private static final String REGION_BEAN_NAME_SUFFIX = "CacheRegion";
+
+    /**
+     * 区域指标前缀
+     */
+    private static final String METRIC_REGION_PREFIX = "cache.region";
+
+    /**
+     * 发布区域本地缓存指标时使用的缓存名称，各区域以 region 标签区分
+     */
+    private static final String METRIC_CACHE_NAME = "cacheRegion";
+
+    /**
+     * 区域缓存服务的工厂
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @param beanFactory            用于查找 redis 连接工厂
+     * @param meterRegistryProvider  指标注册，存在时发布各区域的命中次数
+     * @param refreshAheadProvider   提前刷新，开启时各区域共用
+     * @return 区域缓存服务的工厂
+     */
+    @Bean(REGION_FACTORY_BEAN_NAME)
+    public CacheRegionFactory cacheRegionFactory(CacheServiceProperties cacheServiceProperties,
+                                                 BeanFactory beanFactory,
+                                                 ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                                 ObjectProvider<RefreshAhead<String>> refreshAheadProvider) {
+        return new CacheRegionFactory(cacheServiceProperties, beanFactory, meterRegistryProvider,
+                refreshAheadProvider);
+    }
+
+    /**
+     * 缓存区域注册表，未配置的区域使用默认的缓存服务
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @param beanFactory            用于获取区域缓存服务 bean
+     * @param cacheServiceProvider   默认的缓存服务
+     * @return 缓存区域注册表
+     */
+    @Bean
+    public CacheRegionRegistry cacheRegionRegistry(CacheServiceProperties cacheServiceProperties,
+                                                   BeanFactory beanFactory,
+                                                   ObjectProvider<CacheService<String, Object>> cacheServiceProvider) {
+        Map<String, String> regionBeanNames = new LinkedHashMap<>();
+        cacheServiceProperties.getRegions().keySet()
+                .forEach(name -> regionBeanNames.put(name, regionBeanName(name)));
+        return new DefaultCacheRegionRegistry(beanFactory, regionBeanNames, cacheServiceProvider.getIfAvailable());
+    }
+
+    /**
+     * 区域缓存服务的 bean 名称
+     *
+     * @param name 区域名称
+     * @return bean 名称
+     */
+    static String regionBeanName(String name) {
+        return name + REGION_BEAN_NAME_SUFFIX;
+    }
+
+    /**
+     * 按配置注册区域缓存服务的 bean 定义，实例由 {@link CacheRegionFactory#create(String)} 创建，
+     * 因此同样会经过容器中的缓存服务装饰器
+     */
+    static class CacheRegionBeanRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware {
+
+        private Environment environment;
+
+        @Override
+        public void setEnvironment(Environment environment) {
+            this.environment = environment;
+        }
+
+        @Override
+        public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+            Map<String, CacheServiceProperties.Region> regions = Binder.get(environment)
+                    .bind(CacheServiceProperties.PREFIX + ".regions",
+                            Bindable.mapOf(String.class, CacheServiceProperties.Region.class))
+                    .orElseGet(Map::of);
+            for (String name : regions.keySet()) {
+                RootBeanDefinition definition = new RootBeanDefinition();
+                definition.setTargetType(ResolvableType.forClassWithGenerics(CacheService.class,
+                        String.class, Object.class));
+                definition.setFactoryBeanName(REGION_FACTORY_BEAN_NAME);
+                definition.setFactoryMethodName("create");
+                definition.getConstructorArgumentValues().addIndexedArgumentValue(0, name);
+                definition.addQualifier(new AutowireCandidateQualifier(CacheRegion.class, name));
+                definition.setDestroyMethodName(AbstractBeanDefinition.INFER_METHOD);
+                registry.registerBeanDefinition(regionBeanName(name), definition);
+            }
+        }
+    }
+
+    /**
+     * 区域缓存服务的工厂，按区域配置创建独立的 caffeine 缓存或 redis 缓存，
+     * 并以 {@link RegionCacheService} 包装，附加键前缀及默认过期时间
+     */
+    public static class CacheRegionFactory implements DisposableBean {
+
+        private final CacheServiceProperties cacheServiceProperties;
+
+        private final BeanFactory beanFactory;
+
+        private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+        private final ObjectProvider<RefreshAhead<String>> refreshAheadProvider;
+
+        /**
+         * 多级缓存区域共用的失效通知监听容器，类型为 {@code RedisMessageListenerContainer}，
+         * 这里不直接声明该类型，未引入 redis 时不影响本类的加载
+         */
+        private volatile DisposableBean invalidationListenerContainer;
+
+        /**
+         * 容器中没有失效通知 bean 时，多级缓存区域共用的基于 redis stream 的失效通知，
+         * 类型为 {@code RedisStreamInvalidationBus}，原因同上
+         */
+        private volatile AutoCloseable invalidationBus;
+
+        CacheRegionFactory(CacheServiceProperties cacheServiceProperties,
+                           BeanFactory beanFactory,
+                           ObjectProvider<MeterRegistry> meterRegistryProvider,
+                           ObjectProvider<RefreshAhead<String>> refreshAheadProvider) {
+            this.cacheServiceProperties = cacheServiceProperties;
+            this.beanFactory = beanFactory;
+            this.meterRegistryProvider = meterRegistryProvider;
+            this.refreshAheadProvider = refreshAheadProvider;
+        }
+
+        /**
+         * 创建区域缓存服务
+         *
+         * @param name 区域名称
+         * @return 区域缓存服务
+         */
+        public CacheService<String, Object> create(String name) {
+            CacheServiceProperties.Region region = cacheServiceProperties.getRegions().get(name);
+            Assert.notNull(region, "缓存区域不存在: " + name);
+            CacheServiceTypeEnum backend = Objects.isNull(region.getBackend())
+                    ? cacheServiceProperties.getCacheServiceType() : region.getBackend();
+            Assert.notNull(backend, "缓存区域未指定存储: " + name);
+            CacheService<String, Object> cacheService = switch (backend) {
+                case CAFFEINE -> this.createCaffeine(name, region);
+                case REDIS -> RedisRegions.createRedis(this);
+                case MULTI_LEVEL -> RedisRegions.createMultiLevel(this, name, region);
+                case SHARDED_REDIS -> throw new IllegalArgumentException("缓存区域不支持客户端分片: " + name);
+            };
+            String keyPrefix = StringUtils.hasText(region.getKeyPrefix()) ? region.getKeyPrefix() : name + ":";
+            RegionCacheService<Object> regionCacheService =
+                    new RegionCacheService<>(cacheService, name, keyPrefix, region.getExpireTime());
+            meterRegistryProvider.ifAvailable(registry -> {
+                FunctionCounter.builder(METRIC_REGION_PREFIX + ".gets", regionCacheService,
+                                RegionCacheService::hitCount)
+                        .description("缓存区域的读取次数")
+                        .tags("region", name, "result", "hit")
+                        .register(registry);
+                FunctionCounter.builder(METRIC_REGION_PREFIX + ".gets", regionCacheService,
+                                RegionCacheService::missCount)
+                        .description("缓存区域的读取次数")
+                        .tags("region", name, "result", "miss")
+                        .register(registry);
+            });
+            return regionCacheService;
+        }
+
+        @Override
+        public void destroy() throws Exception {
+            if (Objects.nonNull(invalidationListenerContainer)) {
+                invalidationListenerContainer.destroy();
+            }
+            if (Objects.nonNull(invalidationBus)) {
+                invalidationBus.close();
+            }
+        }
+
+        /**
+         * caffeine 区域，对象键与 byte[] 键各自使用区域配置的容量
+         */
+        private CacheService<String, Object> createCaffeine(String name, CacheServiceProperties.Region region) {
+            Cache<String, Object> cache = this.newLocalBuilder(region, Long.MAX_VALUE, false).build();
+            CaffeineCacheServiceImpl<String, Object> cacheService =
+                    new CaffeineCacheServiceImpl<>(cache, this.newLocalBuilder(region, Long.MAX_VALUE, false).build());
+            cacheService.setTtlJitter(new TtlJitter(cacheServiceProperties.getTtlJitterRatio()));
+            CacheServiceProperties.NullValue nullValue = cacheServiceProperties.getNullValue();
+            if (nullValue.isEnabled()) {
+                cacheService.setNullValueCache(nullValue.getExpireTime(), nullValue.getMaximumSize());
+            }
+            refreshAheadProvider.ifAvailable(cacheService::setRefreshAhead);
+            meterRegistryProvider.ifAvailable(registry ->
+                    CaffeineCacheMetrics.monitor(registry, cache, METRIC_CACHE_NAME, Tags.of("region", name)));
+            return cacheService;
+        }
+
+        /**
+         * 按区域配置创建本地缓存构建器，存在指标注册时开启统计
+         *
+         * @param region        区域配置
+         * @param expireNanos   创建时的过期时间
+         * @param resetOnUpdate 更新时是否重置过期时间
+         * @return caffeine 构建器
+         */
+        private Caffeine<Object, Object> newLocalBuilder(CacheServiceProperties.Region region, long expireNanos,
+                                                         boolean resetOnUpdate) {
+            Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                    .expireAfter(new CacheExpiry(expireNanos, resetOnUpdate));
+            if (region.getMaximumWeight() > 0) {
+                builder.maximumWeight(region.getMaximumWeight())
+                        .weigher(new CacheEntryWeigher<>());
+            } else {
+                builder.maximumSize(region.getMaximumSize());
+            }
+            if (Objects.nonNull(meterRegistryProvider.getIfAvailable())) {
+                builder.recordStats();
+            }
+            return builder;
+        }
+    }
+
+    /**
+     * 使用 redis 的区域，与 redis 相关的类型只在这里出现，未使用 redis 的区域不会加载
+     */
+    private static final class RedisRegions {
+
+        private RedisRegions() {
+        }
+
+        private static RedisCacheService<String, Object> createRedis(CacheRegionFactory factory) {
+            RedisTemplate<String, Object> redisTemplate = RedisCacheAutoConfiguration.createRedisTemplate(
+                    factory.beanFactory.getBean(RedisConnectionFactory.class), factory.cacheServiceProperties);
+            return RedisCacheAutoConfiguration.createRedisCacheService(redisTemplate,
+                    factory.cacheServiceProperties, factory.refreshAheadProvider);
+        }
+
+        /**
+         * 多级缓存区域，本地缓存使用区域配置的容量，失效通知使用 {@code 频道:区域名称}，与其他区域互不影响。
+         * 开启 redis stream 失效通知时以 {@code 频道:区域名称} 作为主题
+         */
+        private static MultiLevelCacheServiceImpl<String, Object> createMultiLevel(CacheRegionFactory factory,
+                                                                                   String name,
+                                                                                   CacheServiceProperties.Region region) {
+            RedisConnectionFactory connectionFactory = factory.beanFactory.getBean(RedisConnectionFactory.class);
+            RedisTemplate<String, Object> redisTemplate = RedisCacheAutoConfiguration.createRedisTemplate(
+                    connectionFactory, factory.cacheServiceProperties);
+            CacheServiceProperties.MultiLevel multiLevel = factory.cacheServiceProperties.getMultiLevel();
+            long localExpireNanos = multiLevel.getLocalExpireTime().toNanos();
+            String channel = multiLevel.getInvalidationChannel() + ":" + name;
+            MultiLevelCacheServiceImpl<String, Object> cacheService = new MultiLevelCacheServiceImpl<>(
+                    new CaffeineCacheServiceImpl<>(
+                            factory.newLocalBuilder(region, localExpireNanos, true).build(),
+                            factory.newLocalBuilder(region, localExpireNanos, true).build()),
+                    RedisCacheAutoConfiguration.createRedisCacheService(redisTemplate,
+                            factory.cacheServiceProperties, factory.refreshAheadProvider),
+                    redisTemplate,
+                    channel,
+                    multiLevel.getLocalExpireTime());
+            if (multiLevel.getInvalidationStream().isEnabled()) {
+                RedisStreamInvalidationBus invalidationBus = invalidationBus(factory, connectionFactory);
+                cacheService.setInvalidationBus(invalidationBus);
+                invalidationBus.subscribe(channel, cacheService);
+            } else {
+                listenerContainer(factory, connectionFactory)
+                        .addMessageListener(cacheService, new ChannelTopic(channel));
+            }
+            return cacheService;
+        }
+
+        private static RedisStreamInvalidationBus invalidationBus(CacheRegionFactory factory,
+                                                                  RedisConnectionFactory connectionFactory) {
+            RedisStreamInvalidationBus invalidationBus = factory.beanFactory
+                    .getBeanProvider(RedisStreamInvalidationBus.class).getIfAvailable();
+            if (Objects.nonNull(invalidationBus)) {
+                return invalidationBus;
+            }
+            synchronized (factory) {
+                if (Objects.isNull(factory.invalidationBus)) {
+                    RedisStreamInvalidationBus created = MultiLevelCacheAutoConfiguration.createInvalidationBus(
+                            connectionFactory, factory.cacheServiceProperties);
+                    factory.meterRegistryProvider.ifAvailable(created::bindTo);
+                    factory.invalidationBus = created;
+                }
+                return (RedisStreamInvalidationBus) factory.invalidationBus;
+            }
+        }
+
+        private static RedisMessageListenerContainer listenerContainer(CacheRegionFactory factory,
+                                                                       RedisConnectionFactory connectionFactory) {
+            synchronized (factory) {
+                if (Objects.isNull(factory.invalidationListenerContainer)) {
+                    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+                    container.setConnectionFactory(connectionFactory);
+                    container.afterPropertiesSet();
+                    container.start();
+                    factory.invalidationListenerContainer = container;
+                }
+                return (RedisMessageListenerContainer) factory.invalidationListenerContainer;
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache;
+
+import com.fuhouyu.framework.cache.annotations.CacheInvalidate;
+import com.fuhouyu.framework.cache.annotations.Cached;
+import com.fuhouyu.framework.cache.aspectj.CachedAspectj;
+import com.fuhouyu.framework.cache.service.CacheRegionRegistry;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.expression.BeanFactoryResolver;
+
+/**
+ * <p>
+ * {@link Cached} 及 {@link CacheInvalidate} 注解的自动装配类，缓存服务通过 {@link CacheRegionRegistry} 按区域获取
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 20:50
+ */
+@Configuration
+public class CachedAspectAutoConfiguration {
+
+    /**
+     * 缓存注解切面
+     *
+     * @param cacheRegionRegistry 缓存区域注册表
+     * @param beanFactory         用于表达式中通过 {@code @beanName} 引用 bean
+     * @return 缓存注解切面
+     */
+    @Bean
+    public CachedAspectj cachedAspectj(CacheRegionRegistry cacheRegionRegistry, BeanFactory beanFactory) {
+        return new CachedAspectj(cacheRegionRegistry, new BeanFactoryResolver(beanFactory));
+    }
+}
@@ -17,16 +17,44 @@
 package com.fuhouyu.framework.cache;
 
 import com.fuhouyu.framework.cache.properties.CacheServiceProperties;
+import com.fuhouyu.framework.cache.serializer.CompactRedisSerializer;
+import com.fuhouyu.framework.cache.service.AsyncCacheService;
+import com.fuhouyu.framework.cache.service.BloomFilterFactory;
 import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.RateLimiterFactory;
+import com.fuhouyu.framework.cache.service.impl.ByteArrayKey;
+import com.fuhouyu.framework.cache.service.impl.CacheEntryWeigher;
+import com.fuhouyu.framework.cache.service.impl.CacheExpiry;
+import com.fuhouyu.framework.cache.service.impl.CaffeineAsyncCacheServiceImpl;
 import com.fuhouyu.framework.cache.service.impl.CaffeineCacheServiceImpl;
+import com.fuhouyu.framework.cache.service.impl.CaffeineSnapshot;
+import com.fuhouyu.framework.cache.service.impl.LocalBloomFilterFactory;
+import com.fuhouyu.framework.cache.service.impl.LocalRateLimiterFactory;
+import com.fuhouyu.framework.cache.service.impl.OffHeapByteStore;
+import com.fuhouyu.framework.cache.service.impl.RefreshAhead;
+import com.fuhouyu.framework.cache.service.impl.TtlJitter;
+import com.github.benmanes.caffeine.cache.AsyncCache;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.Expiry;
-import org.checkerframework.checker.index.qual.NonNegative;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.StringUtils;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>
@@ -42,31 +70,273 @@ import org.springframework.context.annotation.Primary;
         havingValue = "caffeine")
 public class CaffeineCacheAutoconfiguration {
 
+    /**
+     * 发布缓存指标时使用的缓存名称
+     */
+    private static final String METRIC_CACHE_NAME = "cacheService";
+
+    /**
+     * 发布 byte[] 键缓存指标时使用的缓存名称
+     */
+    private static final String METRIC_BYTES_CACHE_NAME = "cacheServiceBytes";
+
+    /**
+     * 堆外存储指标前缀
+     */
+    private static final String METRIC_OFF_HEAP_PREFIX = "cache.off.heap";
+
+    /**
+     * 固定间隔刷新使用的线程池 bean 名称
+     */
+    private static final String REFRESH_EXECUTOR_BEAN_NAME = "caffeineRefreshExecutor";
+
+    /**
+     * 同步与异步缓存服务共用的本地缓存
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @param beanFactory            用于查找配置的线程池
+     * @param meterRegistryProvider  指标注册，开启统计时发布缓存指标
+     * @return caffeine 异步缓存
+     */
+    @Bean
+    public AsyncCache<String, Object> caffeineAsyncCache(CacheServiceProperties cacheServiceProperties,
+                                                         BeanFactory beanFactory,
+                                                         ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        CacheServiceProperties.Caffeine caffeine = cacheServiceProperties.getCaffeine();
+        AsyncCache<String, Object> cache = this.newBuilder(caffeine, beanFactory).buildAsync();
+        if (caffeine.isRecordStats()) {
+            meterRegistryProvider.ifAvailable(registry ->
+                    CaffeineCacheMetrics.monitor(registry, cache.synchronous(), METRIC_CACHE_NAME));
+        }
+        return cache;
+    }
+
+    /**
+     * 同步与异步缓存服务共用的 byte[] 键缓存，与对象键缓存使用相同的配置，容量分别计算
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @param beanFactory            用于查找配置的线程池
+     * @param meterRegistryProvider  指标注册，开启统计时发布缓存指标
+     * @return caffeine 缓存
+     */
+    @Bean
+    public Cache<ByteArrayKey, byte[]> caffeineBytesCache(CacheServiceProperties cacheServiceProperties,
+                                                          BeanFactory beanFactory,
+                                                          ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        CacheServiceProperties.Caffeine caffeine = cacheServiceProperties.getCaffeine();
+        Cache<ByteArrayKey, byte[]> cache = this.newBuilder(caffeine, beanFactory).build();
+        if (caffeine.isRecordStats()) {
+            meterRegistryProvider.ifAvailable(registry ->
+                    CaffeineCacheMetrics.monitor(registry, cache, METRIC_BYTES_CACHE_NAME));
+        }
+        return cache;
+    }
+
+    /**
+     * byte[] 值的堆外存储
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @param meterRegistryProvider  指标注册，存在时发布堆外内存占用
+     * @return 堆外存储
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+            name = "caffeine.off-heap.enabled",
+            havingValue = "true")
+    public OffHeapByteStore caffeineOffHeapStore(CacheServiceProperties cacheServiceProperties,
+                                                 ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        CacheServiceProperties.Caffeine caffeine = cacheServiceProperties.getCaffeine();
+        CacheServiceProperties.OffHeap offHeap = caffeine.getOffHeap();
+        OffHeapByteStore offHeapStore = new OffHeapByteStore(offHeap.getCapacity(), offHeap.getPageSize(),
+                caffeine.getExpireTime());
+        meterRegistryProvider.ifAvailable(registry -> {
+            Gauge.builder(METRIC_OFF_HEAP_PREFIX + ".size", offHeapStore, OffHeapByteStore::size)
+                    .description("堆外存储的值数量")
+                    .register(registry);
+            Gauge.builder(METRIC_OFF_HEAP_PREFIX + ".used", offHeapStore, OffHeapByteStore::usedBytes)
+                    .description("堆外存储已占用的字节数")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder(METRIC_OFF_HEAP_PREFIX + ".allocated", offHeapStore, OffHeapByteStore::allocatedBytes)
+                    .description("堆外存储已申请的直接内存")
+                    .baseUnit("bytes")
+                    .register(registry);
+            Gauge.builder(METRIC_OFF_HEAP_PREFIX + ".evictions", offHeapStore, OffHeapByteStore::evictionCount)
+                    .description("堆外存储因空间不足淘汰的值数量")
+                    .register(registry);
+        });
+        return offHeapStore;
+    }
+
+    /**
+     * 本地缓存快照，创建时恢复上一次的快照，关闭时写入新的快照
+     *
+     * @param caffeineAsyncCache     对象键的缓存
+     * @param caffeineBytesCache     byte[] 键的缓存
+     * @param cacheServiceProperties 缓存配置
+     * @return 本地缓存快照
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+            name = "caffeine.snapshot.enabled",
+            havingValue = "true")
+    public CaffeineSnapshot<String, Object> caffeineSnapshot(AsyncCache<String, Object> caffeineAsyncCache,
+                                                             Cache<ByteArrayKey, byte[]> caffeineBytesCache,
+                                                             CacheServiceProperties cacheServiceProperties) {
+        CacheServiceProperties.Snapshot snapshot = cacheServiceProperties.getCaffeine().getSnapshot();
+        CacheServiceProperties.Codec codec = cacheServiceProperties.getCodec();
+        CompactRedisSerializer serializer = new CompactRedisSerializer(RedisCacheAutoConfiguration.createObjectMapper(),
+                snapshot.getCodec(), codec.getCompression(), codec.getCompressionThreshold());
+        int segments = snapshot.getSegments() > 0 ? snapshot.getSegments()
+                : Runtime.getRuntime().availableProcessors();
+        CaffeineSnapshot<String, Object> caffeineSnapshot = new CaffeineSnapshot<>(caffeineAsyncCache.synchronous(),
+                caffeineBytesCache, serializer, Path.of(snapshot.getPath()), snapshot.getMaximumAge(), segments,
+                snapshot.isSaveOnShutdown());
+        caffeineSnapshot.restore();
+        if (Objects.nonNull(snapshot.getInterval())) {
+            caffeineSnapshot.scheduleSave(snapshot.getInterval());
+        }
+        return caffeineSnapshot;
+    }
+
+    /**
+     * 固定间隔刷新使用的有界线程池，未配置 caffeine 线程池时使用，避免刷新时的加载占用公共线程池。
+     * 线程数及队列容量与提前刷新的配置相同，队列满时放弃刷新
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @return 线程池
+     */
+    @Bean(name = REFRESH_EXECUTOR_BEAN_NAME, destroyMethod = "shutdown")
+    @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+            name = "caffeine.refresh-after-write")
+    public ThreadPoolExecutor caffeineRefreshExecutor(CacheServiceProperties cacheServiceProperties) {
+        CacheServiceProperties.RefreshAhead refreshAhead = cacheServiceProperties.getRefreshAhead();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("caffeine-refresh-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(refreshAhead.getThreads(), refreshAhead.getThreads(),
+                60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(refreshAhead.getQueueCapacity()), threadFactory);
+    }
+
     @Bean
     @Primary
-    public CacheService<String, Object> cacheService() {
-        Cache<String, Object> cache = Caffeine.newBuilder()
-                // 这里先行固定写死，永不过期
-                .expireAfter(new Expiry<String, Object>() {
-                    @Override
-                    public long expireAfterCreate(String key, Object value, long currentTime) {
-                        return Long.MAX_VALUE;
-                    }
-
-                    @Override
-                    public long expireAfterUpdate(String key, Object value, long currentTime, @NonNegative long currentDuration) {
-                        return currentDuration;
-                    }
-
-                    @Override
-                    public long expireAfterRead(String key, Object value, long currentTime, @NonNegative long currentDuration) {
-                        return currentDuration;
-                    }
-                })
-                .initialCapacity(10000)
-                .maximumSize(10000)
-                .build();
-        return new CaffeineCacheServiceImpl<>(cache);
+    public CacheService<String, Object> cacheService(AsyncCache<String, Object> caffeineAsyncCache,
+                                                     Cache<ByteArrayKey, byte[]> caffeineBytesCache,
+                                                     CacheServiceProperties cacheServiceProperties,
+                                                     BeanFactory beanFactory,
+                                                     ObjectProvider<RefreshAhead<String>> refreshAheadProvider,
+                                                     ObjectProvider<OffHeapByteStore> offHeapStoreProvider,
+                                                     ObjectProvider<CaffeineSnapshot<String, Object>> snapshotProvider) {
+        // 开启快照时先恢复快照，再对外提供缓存服务
+        snapshotProvider.getIfAvailable();
+        CaffeineCacheServiceImpl<String, Object> cacheService =
+                new CaffeineCacheServiceImpl<>(caffeineAsyncCache.synchronous(), caffeineBytesCache);
+        offHeapStoreProvider.ifAvailable(cacheService::setOffHeapStore);
+        cacheService.setTtlJitter(new TtlJitter(cacheServiceProperties.getTtlJitterRatio()));
+        CacheServiceProperties.NullValue nullValue = cacheServiceProperties.getNullValue();
+        if (nullValue.isEnabled()) {
+            cacheService.setNullValueCache(nullValue.getExpireTime(), nullValue.getMaximumSize());
+        }
+        CacheServiceProperties.Caffeine caffeine = cacheServiceProperties.getCaffeine();
+        if (Objects.isNull(caffeine.getRefreshAfterWrite())) {
+            refreshAheadProvider.ifAvailable(cacheService::setRefreshAhead);
+        } else {
+            // 固定间隔刷新使用 caffeine 的线程池，开启提前刷新时同时保留按概率提前刷新
+            CacheServiceProperties.RefreshAhead refreshAhead = cacheServiceProperties.getRefreshAhead();
+            double beta = refreshAhead.isEnabled() ? refreshAhead.getBeta() : 0;
+            cacheService.setRefreshAhead(new RefreshAhead<>(beta, caffeine.getRefreshAfterWrite(),
+                    this.refreshExecutor(caffeine, beanFactory), caffeine.getMaximumSize()));
+        }
+        return cacheService;
+    }
+
+    /**
+     * 当前 jvm 内的布隆过滤器工厂
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @return 布隆过滤器工厂
+     */
+    @Bean
+    public BloomFilterFactory bloomFilterFactory(CacheServiceProperties cacheServiceProperties) {
+        CacheServiceProperties.BloomFilter bloomFilter = cacheServiceProperties.getBloomFilter();
+        return new LocalBloomFilterFactory(bloomFilter.getExpectedInsertions(), bloomFilter.getFpp(),
+                bloomFilter.getMaximumBytes());
+    }
+
+    /**
+     * 当前 jvm 内的限流器工厂
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @return 限流器工厂
+     */
+    @Bean
+    public RateLimiterFactory rateLimiterFactory(CacheServiceProperties cacheServiceProperties) {
+        CacheServiceProperties.RateLimiter rateLimiter = cacheServiceProperties.getRateLimiter();
+        return new LocalRateLimiterFactory(rateLimiter.getAlgorithm(), rateLimiter.getPermits(),
+                rateLimiter.getPeriod(), rateLimiter.getMaximumKeys());
+    }
+
+    @Bean
+    public AsyncCacheService<String, Object> asyncCacheService(AsyncCache<String, Object> caffeineAsyncCache,
+                                                               Cache<ByteArrayKey, byte[]> caffeineBytesCache,
+                                                               ObjectProvider<OffHeapByteStore> offHeapStoreProvider) {
+        CaffeineCacheServiceImpl<String, Object> delegate =
+                new CaffeineCacheServiceImpl<>(caffeineAsyncCache.synchronous(), caffeineBytesCache);
+        offHeapStoreProvider.ifAvailable(delegate::setOffHeapStore);
+        return new CaffeineAsyncCacheServiceImpl<>(caffeineAsyncCache, delegate);
+    }
+
+    /**
+     * 按配置创建 caffeine 构建器
+     *
+     * @param caffeine    caffeine 配置
+     * @param beanFactory beanFactory
+     * @return caffeine 构建器
+     */
+    private Caffeine<Object, Object> newBuilder(CacheServiceProperties.Caffeine caffeine, BeanFactory beanFactory) {
+        long expireNanos = Objects.isNull(caffeine.getExpireTime()) ? Long.MAX_VALUE
+                : caffeine.getExpireTime().toNanos();
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfter(new CacheExpiry(expireNanos, false))
+                .initialCapacity(caffeine.getInitialCapacity())
+                .executor(this.caffeineExecutor(caffeine, beanFactory));
+        if (caffeine.getMaximumWeight() > 0) {
+            // 按估算的内存占用淘汰，避免少量超大的 hash、list、set 只被当作一个条目
+            builder.maximumWeight(caffeine.getMaximumWeight())
+                    .weigher(new CacheEntryWeigher<>());
+        } else {
+            builder.maximumSize(caffeine.getMaximumSize());
+        }
+        if (caffeine.isRecordStats()) {
+            builder.recordStats();
+        }
+        return builder;
+    }
+
+    /**
+     * 固定间隔刷新使用的线程池，优先使用配置的线程池，未配置时使用专用的有界线程池
+     *
+     * @param caffeine    caffeine 配置
+     * @param beanFactory beanFactory
+     * @return 线程池
+     */
+    private Executor refreshExecutor(CacheServiceProperties.Caffeine caffeine, BeanFactory beanFactory) {
+        if (!StringUtils.hasText(caffeine.getExecutor())) {
+            return beanFactory.getBean(REFRESH_EXECUTOR_BEAN_NAME, Executor.class);
+        }
+        return beanFactory.getBean(caffeine.getExecutor(), Executor.class);
+    }
 
+    /**
+     * 配置的线程池，未配置时使用公共线程池
+     *
+     * @param caffeine    caffeine 配置
+     * @param beanFactory beanFactory
+     * @return 线程池
+     */
+    private Executor caffeineExecutor(CacheServiceProperties.Caffeine caffeine, BeanFactory beanFactory) {
+        if (!StringUtils.hasText(caffeine.getExecutor())) {
+            return ForkJoinPool.commonPool();
+        }
+        return beanFactory.getBean(caffeine.getExecutor(), Executor.class);
     }
 }
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache;
+
+import com.fuhouyu.framework.cache.endpoint.CacheHotKeysEndpoint;
+import com.fuhouyu.framework.cache.properties.CacheServiceProperties;
+import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.impl.HotKeyCacheService;
+import com.fuhouyu.framework.cache.service.impl.HotKeyDetector;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * <p>
+ * 热点键探测自动装配类，开启后容器中的缓存服务均被 {@link HotKeyCacheService} 装饰，
+ * 共用同一个 {@link HotKeyDetector}
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 17:50
+ */
+@Configuration
+@ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+        name = "hot-key.enabled",
+        havingValue = "true")
+public class HotKeyCacheAutoConfiguration {
+
+    /**
+     * 热点键指标前缀
+     */
+    private static final String METRIC_HOT_KEY_PREFIX = "cache.hot.key";
+
+    /**
+     * 热点键探测
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @param meterRegistryProvider  指标注册，存在时发布热点键数量及每个候选键的每秒操作次数
+     * @return 热点键探测
+     */
+    @Bean
+    public HotKeyDetector cacheHotKeyDetector(CacheServiceProperties cacheServiceProperties,
+                                              ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        CacheServiceProperties.HotKey hotKey = cacheServiceProperties.getHotKey();
+        HotKeyDetector detector = new HotKeyDetector(hotKey.getSampleRate(), hotKey.getTopK(), hotKey.getWidth(),
+                hotKey.getDepth(), hotKey.getWindow(), hotKey.getThreshold());
+        meterRegistryProvider.ifAvailable(registry -> {
+            Gauge.builder(METRIC_HOT_KEY_PREFIX + ".count", detector, d -> d.hotKeys().size())
+                    .description("上一个统计窗口内的热点键数量")
+                    .register(registry);
+            MultiGauge ops = MultiGauge.builder(METRIC_HOT_KEY_PREFIX + ".ops")
+                    .description("上一个统计窗口内候选键的估算每秒操作次数")
+                    .baseUnit("operations")
+                    .register(registry);
+            // 每个窗口覆盖一次，键的数量不超过 topK
+            detector.addListener(topKeys -> ops.register(topKeys.stream()
+                    .map(key -> MultiGauge.Row.of(Tags.of("key", key.getKey()), key.getOpsPerSecond()))
+                    .toList(), true));
+        });
+        return detector;
+    }
+
+    /**
+     * 装饰容器中的缓存服务
+     *
+     * @param detectorProvider               热点键探测
+     * @param cacheServicePropertiesProvider 缓存配置
+     * @return bean 后置处理器
+     */
+    @Bean
+    public static BeanPostProcessor hotKeyCacheServicePostProcessor(
+            ObjectProvider<HotKeyDetector> detectorProvider,
+            ObjectProvider<CacheServiceProperties> cacheServicePropertiesProvider) {
+        return new BeanPostProcessor() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof CacheService<?, ?>) || bean instanceof HotKeyCacheService<?, ?>) {
+                    return bean;
+                }
+                CacheService<Object, Object> cacheService = (CacheService<Object, Object>) bean;
+                HotKeyDetector detector = detectorProvider.getObject();
+                CacheServiceProperties.HotKey hotKey = cacheServicePropertiesProvider.getObject().getHotKey();
+                if (!hotKey.isPromote()) {
+                    return new HotKeyCacheService<>(cacheService, detector);
+                }
+                return new HotKeyCacheService<>(cacheService, detector,
+                        hotKey.getPromoteExpireTime(), hotKey.getPromoteMaximumSize());
+            }
+        };
+    }
+
+    /**
+     * 存在 actuator 时注册热点键端点
+     */
+    @Configuration
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+    static class HotKeyEndpointConfiguration {
+
+        @Bean
+        public CacheHotKeysEndpoint cacheHotKeysEndpoint(HotKeyDetector cacheHotKeyDetector) {
+            return new CacheHotKeysEndpoint(cacheHotKeyDetector);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache;
+
+import com.fuhouyu.framework.cache.properties.CacheServiceProperties;
+import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.impl.CacheExpiry;
+import com.fuhouyu.framework.cache.service.impl.CaffeineCacheServiceImpl;
+import com.fuhouyu.framework.cache.service.impl.MultiLevelCacheServiceImpl;
+import com.fuhouyu.framework.cache.service.impl.RedisStreamInvalidationBus;
+import com.fuhouyu.framework.cache.service.impl.RefreshAhead;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.Objects;
+
+/**
+ * <p>
+ * 多级缓存自动装配类，本地 caffeine 作为一级缓存，redis 作为二级缓存
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 10:40
+ */
+@ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+        name = "cache-service-type",
+        havingValue = "multi_level")
+@AutoConfigureAfter(RedisCacheAutoConfiguration.class)
+@RequiredArgsConstructor
+public class MultiLevelCacheAutoConfiguration {
+
+    private final CacheServiceProperties cacheServiceProperties;
+
+    /**
+     * 失效通知的监听容器
+     *
+     * @param connectionFactory redis连接工厂
+     * @return 监听容器
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    /**
+     * 基于 redis stream 的失效通知
+     *
+     * @param connectionFactory     redis连接工厂
+     * @param meterRegistryProvider 指标注册
+     * @return 失效通知
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+            name = "multi-level.invalidation-stream.enabled",
+            havingValue = "true")
+    public RedisStreamInvalidationBus cacheInvalidationBus(RedisConnectionFactory connectionFactory,
+                                                           ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        RedisStreamInvalidationBus invalidationBus = createInvalidationBus(connectionFactory, cacheServiceProperties);
+        meterRegistryProvider.ifAvailable(invalidationBus::bindTo);
+        return invalidationBus;
+    }
+
+    /**
+     * 按配置创建并启动基于 redis stream 的失效通知，多级缓存与多级缓存区域共用
+     *
+     * @param connectionFactory      redis连接工厂
+     * @param cacheServiceProperties 缓存配置
+     * @return 失效通知
+     */
+    static RedisStreamInvalidationBus createInvalidationBus(RedisConnectionFactory connectionFactory,
+                                                            CacheServiceProperties cacheServiceProperties) {
+        CacheServiceProperties.InvalidationStream stream =
+                cacheServiceProperties.getMultiLevel().getInvalidationStream();
+        RedisStreamInvalidationBus invalidationBus = new RedisStreamInvalidationBus(connectionFactory,
+                stream.getKey(), stream.getMaxLength(), stream.getBatchSize(),
+                stream.getPollTimeout(), stream.getRetryInterval());
+        invalidationBus.start();
+        return invalidationBus;
+    }
+
+    /**
+     * 多级缓存
+     *
+     * @param redisTemplate           redisTemplate
+     * @param listenerContainer       失效通知的监听容器
+     * @param invalidationBusProvider 基于 redis stream 的失效通知，开启时代替 pub/sub
+     * @param meterRegistryProvider   指标注册，存在时发布本地命中率及失效延迟
+     * @param refreshAheadProvider    提前刷新，开启时作用于 redis 二级缓存
+     * @return 多级缓存
+     */
+    @Bean
+    @Primary
+    public CacheService<String, Object> cacheService(RedisTemplate<String, Object> redisTemplate,
+                                                     RedisMessageListenerContainer listenerContainer,
+                                                     ObjectProvider<RedisStreamInvalidationBus> invalidationBusProvider,
+                                                     ObjectProvider<MeterRegistry> meterRegistryProvider,
+                                                     ObjectProvider<RefreshAhead<String>> refreshAheadProvider) {
+        CacheServiceProperties.MultiLevel multiLevel = cacheServiceProperties.getMultiLevel();
+        long localExpireNanos = multiLevel.getLocalExpireTime().toNanos();
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfter(new CacheExpiry(localExpireNanos, true))
+                .maximumSize(multiLevel.getLocalMaximumSize());
+        Cache<String, Object> cache = builder.build();
+        MultiLevelCacheServiceImpl<String, Object> cacheService = new MultiLevelCacheServiceImpl<>(
+                new CaffeineCacheServiceImpl<>(cache, builder.build()),
+                RedisCacheAutoConfiguration.createRedisCacheService(redisTemplate, cacheServiceProperties,
+                        refreshAheadProvider),
+                redisTemplate,
+                multiLevel.getInvalidationChannel(),
+                multiLevel.getLocalExpireTime());
+        RedisStreamInvalidationBus invalidationBus = invalidationBusProvider.getIfAvailable();
+        if (Objects.nonNull(invalidationBus)) {
+            cacheService.setInvalidationBus(invalidationBus);
+            invalidationBus.subscribe(multiLevel.getInvalidationChannel(), cacheService);
+        } else {
+            listenerContainer.addMessageListener(cacheService, new ChannelTopic(multiLevel.getInvalidationChannel()));
+        }
+        meterRegistryProvider.ifAvailable(cacheService::bindTo);
+        return cacheService;
+    }
+}
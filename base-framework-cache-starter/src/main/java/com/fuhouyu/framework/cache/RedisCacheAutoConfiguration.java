@@ -21,16 +21,40 @@ import com.fasterxml.jackson.annotation.PropertyAccessor;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fuhouyu.framework.cache.properties.CacheServiceProperties;
+import com.fuhouyu.framework.cache.serializer.CompactRedisSerializer;
+import com.fuhouyu.framework.cache.service.AsyncCacheService;
+import com.fuhouyu.framework.cache.service.BloomFilterFactory;
 import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.RateLimiterFactory;
+import com.fuhouyu.framework.cache.service.impl.RedisAsyncCacheService;
+import com.fuhouyu.framework.cache.service.impl.RedisBloomFilterFactory;
 import com.fuhouyu.framework.cache.service.impl.RedisCacheService;
+import com.fuhouyu.framework.cache.service.impl.RedisClientSideCache;
+import com.fuhouyu.framework.cache.service.impl.RedisRateLimiterFactory;
+import com.fuhouyu.framework.cache.service.impl.RefreshAhead;
+import com.fuhouyu.framework.cache.service.impl.TtlJitter;
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.cluster.RedisClusterClient;
+import io.lettuce.core.cluster.api.StatefulRedisClusterConnection;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.Assert;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -43,36 +67,210 @@ import java.util.List;
  * @author fuhouyu
  * @since 2024/8/13 21:06
  */
-@ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
-        name = "cache-service-type",
-        havingValue = "redis")
+@Conditional(RedisCacheAutoConfiguration.OnRedisCacheServiceCondition.class)
 @AutoConfigureAfter(RedisAutoConfiguration.class)
 public class RedisCacheAutoConfiguration {
 
 
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       CacheServiceProperties cacheServiceProperties) {
+        return createRedisTemplate(connectionFactory, cacheServiceProperties);
+    }
+
+    /**
+     * 按配置创建 redisTemplate，键使用字符串序列化，值使用配置的编码及压缩方式
+     *
+     * @param connectionFactory      redis连接工厂
+     * @param cacheServiceProperties 缓存配置
+     * @return redisTemplate
+     */
+    static RedisTemplate<String, Object> createRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                             CacheServiceProperties cacheServiceProperties) {
         StringRedisSerializer stringRedisSerializer = new StringRedisSerializer();
         RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
         redisTemplate.setConnectionFactory(connectionFactory);
         redisTemplate.setKeySerializer(stringRedisSerializer);
         redisTemplate.setHashKeySerializer(stringRedisSerializer);
 
+        CacheServiceProperties.Codec codec = cacheServiceProperties.getCodec();
+        CompactRedisSerializer valueSerializer = new CompactRedisSerializer(createObjectMapper(),
+                codec.getType(), codec.getCompression(), codec.getCompressionThreshold());
+
+        redisTemplate.setValueSerializer(valueSerializer);
+        redisTemplate.setHashValueSerializer(valueSerializer);
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+
+    /**
+     * 缓存值编码使用的 objectMapper
+     *
+     * @return objectMapper
+     */
+    static ObjectMapper createObjectMapper() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.ANY);
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         objectMapper.registerSubtypes(List.class, ArrayList.class);
+        return objectMapper;
+    }
 
-        GenericJackson2JsonRedisSerializer jackson2JsonRedisSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
+    /**
+     * redis 缓存服务，多级缓存模式下由多级缓存自行创建 redis 二级缓存，这里不再重复装配
+     *
+     * @param redisTemplate          redisTemplate
+     * @param cacheServiceProperties 缓存配置
+     * @param refreshAheadProvider   提前刷新，开启时存在
+     * @param clientSideCacheProvider 客户端缓存，开启 client-tracking 时存在
+     * @return redis 缓存服务
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+            name = "cache-service-type",
+            havingValue = "redis")
+    public CacheService<String, Object> redisCacheService(RedisTemplate<String, Object> redisTemplate,
+                                                          CacheServiceProperties cacheServiceProperties,
+                                                          ObjectProvider<RefreshAhead<String>> refreshAheadProvider,
+                                                          ObjectProvider<RedisClientSideCache> clientSideCacheProvider) {
+        RedisCacheService<String, Object> redisCacheService =
+                createRedisCacheService(redisTemplate, cacheServiceProperties, refreshAheadProvider);
+        clientSideCacheProvider.ifAvailable(redisCacheService::setClientSideCache);
+        return redisCacheService;
+    }
 
-        redisTemplate.setValueSerializer(jackson2JsonRedisSerializer);
-        redisTemplate.setHashValueSerializer(jackson2JsonRedisSerializer);
-        redisTemplate.afterPropertiesSet();
-        return redisTemplate;
+    /**
+     * 按配置创建 redis 缓存服务，redis 模式与多级缓存模式共用
+     *
+     * @param redisTemplate          redisTemplate
+     * @param cacheServiceProperties 缓存配置
+     * @param refreshAheadProvider   提前刷新，开启时存在
+     * @return redis 缓存服务
+     */
+    static RedisCacheService<String, Object> createRedisCacheService(RedisTemplate<String, Object> redisTemplate,
+                                                                     CacheServiceProperties cacheServiceProperties,
+                                                                     ObjectProvider<RefreshAhead<String>> refreshAheadProvider) {
+        RedisCacheService<String, Object> redisCacheService = new RedisCacheService<>(redisTemplate);
+        CacheServiceProperties.LoadLease loadLease = cacheServiceProperties.getLoadLease();
+        if (loadLease.isEnabled()) {
+            redisCacheService.setLoadLease(loadLease.getLeaseTime(), loadLease.getRetryInterval());
+        }
+        redisCacheService.setTtlJitter(new TtlJitter(cacheServiceProperties.getTtlJitterRatio()));
+        refreshAheadProvider.ifAvailable(redisCacheService::setRefreshAhead);
+        CacheServiceProperties.NullValue nullValue = cacheServiceProperties.getNullValue();
+        if (nullValue.isEnabled()) {
+            redisCacheService.setNullValueExpireTime(nullValue.getExpireTime());
+        }
+        return redisCacheService;
+    }
+
+    /**
+     * 基于 redis 位图的布隆过滤器工厂
+     *
+     * @param connectionFactory      redis连接工厂
+     * @param cacheServiceProperties 缓存配置
+     * @return 布隆过滤器工厂
+     */
+    @Bean
+    public BloomFilterFactory bloomFilterFactory(RedisConnectionFactory connectionFactory,
+                                                 CacheServiceProperties cacheServiceProperties) {
+        CacheServiceProperties.BloomFilter bloomFilter = cacheServiceProperties.getBloomFilter();
+        return new RedisBloomFilterFactory(key -> connectionFactory, bloomFilter.getKeyPrefix(),
+                bloomFilter.getExpectedInsertions(), bloomFilter.getFpp(), bloomFilter.getMaximumBytes());
     }
 
+    /**
+     * 基于 redis 的限流器工厂
+     *
+     * @param connectionFactory      redis连接工厂
+     * @param cacheServiceProperties 缓存配置
+     * @return 限流器工厂
+     */
     @Bean
-    public CacheService<String, Object> redisCacheService(RedisTemplate<String, Object> redisTemplate) {
-        return new RedisCacheService<>(redisTemplate);
+    public RateLimiterFactory rateLimiterFactory(RedisConnectionFactory connectionFactory,
+                                                 CacheServiceProperties cacheServiceProperties) {
+        CacheServiceProperties.RateLimiter rateLimiter = cacheServiceProperties.getRateLimiter();
+        return new RedisRateLimiterFactory(key -> connectionFactory, rateLimiter.getKeyPrefix(),
+                rateLimiter.getAlgorithm(), rateLimiter.getPermits(), rateLimiter.getPeriod(),
+                rateLimiter.getLeasePermits(), rateLimiter.getLeaseTime(), rateLimiter.getMaximumKeys());
+    }
+
+    /**
+     * lettuce 异步缓存服务，仅在 redis 模式下装配。
+     * 使用独立的连接，与 redisTemplate 共享序列化方式。
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.lettuce.core.RedisClient")
+    @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+            name = "cache-service-type",
+            havingValue = "redis")
+    static class LettuceAsyncCacheConfiguration {
+
+        @Bean
+        public AsyncCacheService<String, Object> asyncCacheService(RedisConnectionFactory connectionFactory,
+                                                                   RedisTemplate<String, Object> redisTemplate) {
+            Assert.isInstanceOf(LettuceConnectionFactory.class, connectionFactory, "异步缓存服务需要使用 lettuce 客户端");
+            AbstractRedisClient client = ((LettuceConnectionFactory) connectionFactory).getRequiredNativeClient();
+            if (client instanceof RedisClusterClient clusterClient) {
+                StatefulRedisClusterConnection<byte[], byte[]> connection = clusterClient.connect(ByteArrayCodec.INSTANCE);
+                return new RedisAsyncCacheService<>(connection, connection.async(), redisTemplate);
+            }
+            StatefulRedisConnection<byte[], byte[]> connection = ((RedisClient) client).connect(ByteArrayCodec.INSTANCE);
+            return new RedisAsyncCacheService<>(connection, connection.async(), redisTemplate);
+        }
+    }
+
+    /**
+     * redis 服务端协助的客户端缓存，仅在 redis 模式下开启 client-tracking 时装配。
+     * 使用独立的 RESP3 连接接收失效推送，目前只支持单机及主从模式。
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.lettuce.core.RedisClient")
+    @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+            name = "cache-service-type",
+            havingValue = "redis")
+    static class ClientSideCacheConfiguration {
+
+        @Bean(destroyMethod = "close")
+        @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+                name = "client-tracking.enabled",
+                havingValue = "true")
+        public RedisClientSideCache redisClientSideCache(RedisConnectionFactory connectionFactory,
+                                                         CacheServiceProperties cacheServiceProperties,
+                                                         ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            Assert.isInstanceOf(LettuceConnectionFactory.class, connectionFactory, "客户端缓存需要使用 lettuce 客户端");
+            AbstractRedisClient client = ((LettuceConnectionFactory) connectionFactory).getRequiredNativeClient();
+            Assert.isInstanceOf(RedisClient.class, client, "客户端缓存暂不支持 redis 集群");
+            CacheServiceProperties.ClientTracking clientTracking = cacheServiceProperties.getClientTracking();
+            RedisClientSideCache clientSideCache = new RedisClientSideCache((RedisClient) client,
+                    clientTracking.isBroadcast(), clientTracking.getPrefixes(), clientTracking.getMaximumSize());
+            meterRegistryProvider.ifAvailable(clientSideCache::bindTo);
+            return clientSideCache;
+        }
+    }
+
+    /**
+     * 使用 redis 或多级缓存时，都需要装配 redisTemplate
+     */
+    static class OnRedisCacheServiceCondition extends AnyNestedCondition {
+
+        OnRedisCacheServiceCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+                name = "cache-service-type",
+                havingValue = "redis")
+        static class Redis {
+
+        }
+
+        @ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+                name = "cache-service-type",
+                havingValue = "multi_level")
+        static class MultiLevel {
+
+        }
     }
 }
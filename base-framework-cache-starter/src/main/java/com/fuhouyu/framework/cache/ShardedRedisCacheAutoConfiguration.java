@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache;
+
+import com.fuhouyu.framework.cache.properties.CacheServiceProperties;
+import com.fuhouyu.framework.cache.service.BloomFilterFactory;
+import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.RateLimiterFactory;
+import com.fuhouyu.framework.cache.service.impl.ConsistentHashRing;
+import com.fuhouyu.framework.cache.service.impl.RedisBloomFilterFactory;
+import com.fuhouyu.framework.cache.service.impl.RedisCacheService;
+import com.fuhouyu.framework.cache.service.impl.RedisRateLimiterFactory;
+import com.fuhouyu.framework.cache.service.impl.RefreshAhead;
+import com.fuhouyu.framework.cache.service.impl.ShardedRedisCacheService;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * <p>
+ * 客户端分片缓存自动装配类，按配置的节点各自创建连接，通过一致性哈希分散键
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 16:20
+ */
+@ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+        name = "cache-service-type",
+        havingValue = "sharded_redis")
+public class ShardedRedisCacheAutoConfiguration {
+
+    /**
+     * 各分片节点的连接工厂
+     *
+     * @param cacheServiceProperties 缓存配置
+     * @return 分片节点的连接工厂
+     */
+    @Bean
+    public ShardConnectionFactories shardConnectionFactories(CacheServiceProperties cacheServiceProperties) {
+        CacheServiceProperties.Sharded sharded = cacheServiceProperties.getSharded();
+        Assert.notEmpty(sharded.getNodes(), "分片缓存至少需要配置一个节点");
+        Map<String, LettuceConnectionFactory> connectionFactories = new LinkedHashMap<>();
+        for (CacheServiceProperties.ShardNode node : sharded.getNodes()) {
+            String name = StringUtils.hasText(node.getName()) ? node.getName() : node.getHost() + ":" + node.getPort();
+            Assert.isTrue(!connectionFactories.containsKey(name), "分片节点名称重复: " + name);
+            RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(node.getHost(), node.getPort());
+            configuration.setDatabase(node.getDatabase());
+            if (StringUtils.hasText(node.getUsername())) {
+                configuration.setUsername(node.getUsername());
+            }
+            if (StringUtils.hasText(node.getPassword())) {
+                configuration.setPassword(RedisPassword.of(node.getPassword()));
+            }
+            LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(configuration);
+            connectionFactory.afterPropertiesSet();
+            connectionFactories.put(name, connectionFactory);
+        }
+        return new ShardConnectionFactories(connectionFactories);
+    }
+
+    /**
+     * 分片缓存，每个分片使用与 redis 模式相同的序列化及加载配置
+     *
+     * @param shardConnectionFactories 分片节点的连接工厂
+     * @param cacheServiceProperties   缓存配置
+     * @param refreshAheadProvider     提前刷新，开启时各分片共用
+     * @return 分片缓存
+     */
+    @Bean
+    @Primary
+    public CacheService<String, Object> shardedRedisCacheService(ShardConnectionFactories shardConnectionFactories,
+                                                                 CacheServiceProperties cacheServiceProperties,
+                                                                 ObjectProvider<RefreshAhead<String>> refreshAheadProvider) {
+        Map<String, RedisCacheService<String, Object>> shards = new LinkedHashMap<>();
+        shardConnectionFactories.getConnectionFactories().forEach((name, connectionFactory) -> {
+            RedisTemplate<String, Object> redisTemplate =
+                    RedisCacheAutoConfiguration.createRedisTemplate(connectionFactory, cacheServiceProperties);
+            shards.put(name, RedisCacheAutoConfiguration.createRedisCacheService(redisTemplate,
+                    cacheServiceProperties, refreshAheadProvider));
+        });
+        return new ShardedRedisCacheService<>(shards, new StringRedisSerializer(),
+                cacheServiceProperties.getSharded().getVirtualNodes());
+    }
+
+    /**
+     * 基于 redis 位图的布隆过滤器工厂，每个过滤器按键存放在一致性哈希选出的分片上
+     *
+     * @param shardConnectionFactories 分片节点的连接工厂
+     * @param cacheServiceProperties   缓存配置
+     * @return 布隆过滤器工厂
+     */
+    @Bean
+    public BloomFilterFactory bloomFilterFactory(ShardConnectionFactories shardConnectionFactories,
+                                                 CacheServiceProperties cacheServiceProperties) {
+        ConsistentHashRing<RedisConnectionFactory> ring = new ConsistentHashRing<>(
+                new LinkedHashMap<String, RedisConnectionFactory>(shardConnectionFactories.getConnectionFactories()),
+                cacheServiceProperties.getSharded().getVirtualNodes());
+        CacheServiceProperties.BloomFilter bloomFilter = cacheServiceProperties.getBloomFilter();
+        return new RedisBloomFilterFactory(ring::get, bloomFilter.getKeyPrefix(),
+                bloomFilter.getExpectedInsertions(), bloomFilter.getFpp(), bloomFilter.getMaximumBytes());
+    }
+
+    /**
+     * 基于 redis 的限流器工厂，每个限流的键按一致性哈希存放在对应的分片上
+     *
+     * @param shardConnectionFactories 分片节点的连接工厂
+     * @param cacheServiceProperties   缓存配置
+     * @return 限流器工厂
+     */
+    @Bean
+    public RateLimiterFactory rateLimiterFactory(ShardConnectionFactories shardConnectionFactories,
+                                                 CacheServiceProperties cacheServiceProperties) {
+        ConsistentHashRing<RedisConnectionFactory> ring = new ConsistentHashRing<>(
+                new LinkedHashMap<String, RedisConnectionFactory>(shardConnectionFactories.getConnectionFactories()),
+                cacheServiceProperties.getSharded().getVirtualNodes());
+        CacheServiceProperties.RateLimiter rateLimiter = cacheServiceProperties.getRateLimiter();
+        return new RedisRateLimiterFactory(ring::get, rateLimiter.getKeyPrefix(),
+                rateLimiter.getAlgorithm(), rateLimiter.getPermits(), rateLimiter.getPeriod(),
+                rateLimiter.getLeasePermits(), rateLimiter.getLeaseTime(), rateLimiter.getMaximumKeys());
+    }
+
+    /**
+     * 分片节点的连接工厂，未注册为 bean 的连接工厂在容器关闭时随之销毁
+     */
+    public static class ShardConnectionFactories implements DisposableBean {
+
+        private final Map<String, LettuceConnectionFactory> connectionFactories;
+
+        ShardConnectionFactories(Map<String, LettuceConnectionFactory> connectionFactories) {
+            this.connectionFactories = Collections.unmodifiableMap(connectionFactories);
+        }
+
+        /**
+         * 节点名称及连接工厂
+         *
+         * @return 连接工厂
+         */
+        public Map<String, LettuceConnectionFactory> getConnectionFactories() {
+            return connectionFactories;
+        }
+
+        @Override
+        public void destroy() {
+            connectionFactories.values().forEach(LettuceConnectionFactory::destroy);
+        }
+    }
+}
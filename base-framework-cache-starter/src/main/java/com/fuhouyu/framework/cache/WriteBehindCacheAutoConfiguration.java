@@ -0,0 +1,124 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache;
+
+import com.fuhouyu.framework.cache.properties.CacheServiceProperties;
+import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.impl.WriteBehindCacheService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * <p>
+ * 延迟写入自动装配类，开启后容器中的缓存服务均被 {@link WriteBehindCacheService} 装饰。
+ * 延迟写入位于其他装饰器的最内层，直接包装具体的缓存实现；
+ * 容器关闭时通过推断的 close 方法逐层关闭装饰器并刷新缓冲区。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 18:40
+ */
+@Configuration
+@ConditionalOnProperty(prefix = CacheServiceProperties.PREFIX,
+        name = "write-behind.enabled",
+        havingValue = "true")
+public class WriteBehindCacheAutoConfiguration {
+
+    /**
+     * 延迟写入指标前缀
+     */
+    private static final String METRIC_WRITE_BEHIND_PREFIX = "cache.write.behind";
+
+    /**
+     * 装饰容器中的缓存服务
+     *
+     * @param cacheServicePropertiesProvider 缓存配置
+     * @param meterRegistryProvider          指标注册，存在时发布缓冲区大小及刷新次数
+     * @return bean 后置处理器
+     */
+    @Bean
+    public static BeanPostProcessor writeBehindCacheServicePostProcessor(
+            ObjectProvider<CacheServiceProperties> cacheServicePropertiesProvider,
+            ObjectProvider<MeterRegistry> meterRegistryProvider) {
+        return new WriteBehindPostProcessor(cacheServicePropertiesProvider, meterRegistryProvider);
+    }
+
+    /**
+     * 先于其他缓存服务装饰器执行，使延迟写入位于最内层
+     */
+    private static final class WriteBehindPostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<CacheServiceProperties> cacheServicePropertiesProvider;
+
+        private final ObjectProvider<MeterRegistry> meterRegistryProvider;
+
+        private WriteBehindPostProcessor(ObjectProvider<CacheServiceProperties> cacheServicePropertiesProvider,
+                                         ObjectProvider<MeterRegistry> meterRegistryProvider) {
+            this.cacheServicePropertiesProvider = cacheServicePropertiesProvider;
+            this.meterRegistryProvider = meterRegistryProvider;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof CacheService<?, ?>) || bean instanceof WriteBehindCacheService<?, ?>) {
+                return bean;
+            }
+            CacheServiceProperties.WriteBehind writeBehind =
+                    cacheServicePropertiesProvider.getObject().getWriteBehind();
+            WriteBehindCacheService<Object, Object> cacheService = new WriteBehindCacheService<>(
+                    (CacheService<Object, Object>) bean, writeBehind.getFlushInterval(), writeBehind.getBatchSize(),
+                    writeBehind.getMaximumPending(), writeBehind.getDurability(), writeBehind.isFlushOnShutdown());
+            meterRegistryProvider.ifAvailable(registry -> {
+                Gauge.builder(METRIC_WRITE_BEHIND_PREFIX + ".pending", cacheService,
+                                WriteBehindCacheService::pendingCount)
+                        .description("延迟写入缓冲区中等待刷新的键数量")
+                        .tag("bean", beanName)
+                        .register(registry);
+                FunctionCounter.builder(METRIC_WRITE_BEHIND_PREFIX + ".coalesced", cacheService,
+                                WriteBehindCacheService::coalescedCount)
+                        .description("被合并掉的写入次数")
+                        .tag("bean", beanName)
+                        .register(registry);
+                FunctionCounter.builder(METRIC_WRITE_BEHIND_PREFIX + ".flushed", cacheService,
+                                WriteBehindCacheService::flushedCount)
+                        .description("已刷新的键数量")
+                        .tag("bean", beanName)
+                        .register(registry);
+                FunctionCounter.builder(METRIC_WRITE_BEHIND_PREFIX + ".failed", cacheService,
+                                WriteBehindCacheService::failedCount)
+                        .description("刷新失败的键数量")
+                        .tag("bean", beanName)
+                        .register(registry);
+            });
+            return cacheService;
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.annotations;
+
+import java.lang.annotation.*;
+
+/**
+ * <p>
+ * 删除 {@link Cached} 缓存的注解，默认在方法正常返回后删除，方法抛出异常时不删除。
+ * 缓存键的计算方式与 {@link Cached} 相同。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 20:50
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface CacheInvalidate {
+
+    /**
+     * 缓存名称
+     *
+     * @return 缓存名称
+     * @see Cached#name()
+     */
+    String name();
+
+    /**
+     * 缓存键的 SpEL 表达式
+     *
+     * @return 缓存键的表达式
+     * @see Cached#key()
+     */
+    String key() default "";
+
+    /**
+     * 缓存区域，为空时使用默认的缓存服务
+     *
+     * @return 缓存区域
+     */
+    String region() default "";
+
+    /**
+     * 是否删除该缓存名称下的全部缓存，为 true 时忽略 key，按前缀分批删除
+     *
+     * @return 是否删除全部
+     */
+    boolean allEntries() default false;
+
+    /**
+     * 是否在方法执行前删除，为 true 时方法抛出异常也会删除
+     *
+     * @return 是否在方法执行前删除
+     */
+    boolean beforeInvocation() default false;
+
+    /**
+     * 是否删除的 SpEL 表达式，结果为 false 时不删除，为空时总是删除
+     *
+     * @return 条件表达式
+     */
+    String condition() default "";
+}
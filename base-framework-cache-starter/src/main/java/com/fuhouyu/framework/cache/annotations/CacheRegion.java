@@ -0,0 +1,45 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.annotations;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+
+import java.lang.annotation.*;
+
+/**
+ * <p>
+ * 按区域名称注入缓存服务，区域在 {@code cache.service.regions} 下配置，
+ * 例如 {@code @CacheRegion("token") CacheService<String, Object> cacheService}
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 19:20
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.PARAMETER, ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Documented
+@Qualifier
+public @interface CacheRegion {
+
+    /**
+     * 区域名称
+     *
+     * @return 区域名称
+     */
+    String value();
+}
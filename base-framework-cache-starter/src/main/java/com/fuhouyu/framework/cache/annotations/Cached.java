@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.annotations;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 旁路缓存注解，方法的返回值以 {@code name + ":" + key} 为键缓存，命中时不再执行方法。
+ * 未命中时通过缓存服务的 getOrLoad 加载，同一个键的并发加载只执行一次方法，
+ * 返回 null 时按缓存服务的空值配置决定是否缓存。返回 {@link java.util.Optional} 时缓存其中的值。
+ * </p>
+ * <p>
+ * key 及 condition 为 SpEL 表达式，可通过 {@code #参数名}、{@code #p0}、{@code #a0} 引用参数，
+ * 通过 {@code #root.args}、{@code #root.methodName} 引用调用信息，通过 {@code @beanName} 引用 bean。
+ * 表达式在每个方法首次调用时解析一次，调用一定次数后编译为字节码执行。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 20:50
+ */
+@Target({ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+@Documented
+public @interface Cached {
+
+    /**
+     * 缓存名称，作为缓存键的前缀，与 {@link CacheInvalidate#name()} 相同时两者作用于同一个键
+     *
+     * @return 缓存名称
+     */
+    String name();
+
+    /**
+     * 缓存键的 SpEL 表达式，为空时使用全部参数以 {@code :} 拼接，
+     * 只引用单个参数（如 {@code #id}）时直接取参数值，不经过表达式求值
+     *
+     * @return 缓存键的表达式
+     */
+    String key() default "";
+
+    /**
+     * 缓存区域，为空时使用默认的缓存服务
+     *
+     * @return 缓存区域
+     * @see CacheRegion
+     */
+    String region() default "";
+
+    /**
+     * 过期时间，小于等于0时使用区域的默认过期时间，未配置区域时不过期
+     *
+     * @return 过期时间
+     */
+    long timeout() default -1;
+
+    /**
+     * 过期时间的单位
+     *
+     * @return 时间单位
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * 是否使用缓存的 SpEL 表达式，结果为 false 时直接执行方法，为空时总是使用缓存
+     *
+     * @return 条件表达式
+     */
+    String condition() default "";
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.aspectj;
+
+import java.lang.reflect.Method;
+
+/**
+ * <p>
+ * 缓存键表达式的根对象，通过 {@code #root} 引用
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 20:50
+ */
+public final class CacheExpressionRoot {
+
+    private final Method method;
+
+    private final Object target;
+
+    private final Object[] args;
+
+    CacheExpressionRoot(Method method, Object target, Object[] args) {
+        this.method = method;
+        this.target = target;
+        this.args = args;
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getMethodName() {
+        return method.getName();
+    }
+
+    public Object getTarget() {
+        return target;
+    }
+
+    public Class<?> getTargetClass() {
+        return target.getClass();
+    }
+
+    public Object[] getArgs() {
+        return args;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.aspectj;
+
+import com.fuhouyu.framework.cache.service.CacheService;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.ObjectUtils;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 单个方法的缓存操作，注解属性、参数名、解析后的表达式及缓存服务均在首次调用时确定，
+ * 调用时只做表达式求值，单参数的键直接取参数值。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 20:50
+ */
+final class CacheOperation {
+
+    /**
+     * 缓存名称与键之间的分隔符
+     */
+    static final char SEPARATOR = ':';
+
+    private final Method method;
+
+    private final CacheService<String, Object> cacheService;
+
+    private final String name;
+
+    /**
+     * 键直接引用的参数下标，小于0时使用表达式或全部参数
+     */
+    private final int keyParameterIndex;
+
+    private final Expression keyExpression;
+
+    private final Expression conditionExpression;
+
+    /**
+     * 每个参数在表达式中可用的变量名
+     */
+    private final String[][] variableNames;
+
+    private final BeanResolver beanResolver;
+
+    private final long timeout;
+
+    private final TimeUnit unit;
+
+    private final boolean optional;
+
+    private final boolean allEntries;
+
+    private final boolean beforeInvocation;
+
+    CacheOperation(Method method, CacheService<String, Object> cacheService, String name,
+                   int keyParameterIndex, Expression keyExpression, Expression conditionExpression,
+                   String[][] variableNames, BeanResolver beanResolver,
+                   long timeout, TimeUnit unit, boolean allEntries, boolean beforeInvocation) {
+        this.method = method;
+        this.cacheService = cacheService;
+        this.name = name;
+        this.keyParameterIndex = keyParameterIndex;
+        this.keyExpression = keyExpression;
+        this.conditionExpression = conditionExpression;
+        this.variableNames = variableNames;
+        this.beanResolver = beanResolver;
+        this.timeout = timeout;
+        this.unit = unit;
+        this.optional = Optional.class == method.getReturnType();
+        this.allEntries = allEntries;
+        this.beforeInvocation = beforeInvocation;
+    }
+
+    /**
+     * 创建表达式上下文，键和条件都不需要表达式时返回 null
+     *
+     * @param target 目标对象
+     * @param args   参数
+     * @return 表达式上下文
+     */
+    EvaluationContext createContext(Object target, Object[] args) {
+        if (Objects.isNull(keyExpression) && Objects.isNull(conditionExpression)) {
+            return null;
+        }
+        StandardEvaluationContext context = new StandardEvaluationContext(new CacheExpressionRoot(method, target, args));
+        context.setBeanResolver(beanResolver);
+        for (int i = 0; i < args.length; i++) {
+            for (String variableName : variableNames[i]) {
+                context.setVariable(variableName, args[i]);
+            }
+        }
+        return context;
+    }
+
+    /**
+     * 条件是否满足
+     *
+     * @param context 表达式上下文
+     * @return 是否满足
+     */
+    boolean isConditionPassing(EvaluationContext context) {
+        return Objects.isNull(conditionExpression)
+                || Boolean.TRUE.equals(conditionExpression.getValue(context, Boolean.class));
+    }
+
+    /**
+     * 计算缓存键
+     *
+     * @param context 表达式上下文
+     * @param args    参数
+     * @return 缓存键
+     */
+    String generateKey(EvaluationContext context, Object[] args) {
+        if (keyParameterIndex >= 0) {
+            return name + SEPARATOR + ObjectUtils.nullSafeToString(args[keyParameterIndex]);
+        }
+        if (Objects.nonNull(keyExpression)) {
+            return name + SEPARATOR + ObjectUtils.nullSafeToString(keyExpression.getValue(context));
+        }
+        if (args.length == 0) {
+            return name;
+        }
+        StringBuilder key = new StringBuilder(name);
+        for (Object arg : args) {
+            key.append(SEPARATOR).append(ObjectUtils.nullSafeToString(arg));
+        }
+        return key.toString();
+    }
+
+    /**
+     * 该缓存名称下全部键的匹配模式
+     *
+     * @return 匹配模式
+     */
+    String allEntriesPattern() {
+        return name + SEPARATOR + '*';
+    }
+
+    /**
+     * 方法返回值转换为缓存值
+     *
+     * @param result 方法返回值
+     * @return 缓存值
+     */
+    Object toCacheValue(Object result) {
+        return optional && Objects.nonNull(result) ? ((Optional<?>) result).orElse(null) : result;
+    }
+
+    /**
+     * 缓存值转换为方法返回值
+     *
+     * @param value 缓存值
+     * @return 方法返回值
+     */
+    Object toResult(Object value) {
+        return optional ? Optional.ofNullable(value) : value;
+    }
+
+    CacheService<String, Object> getCacheService() {
+        return cacheService;
+    }
+
+    long getTimeout() {
+        return timeout;
+    }
+
+    TimeUnit getUnit() {
+        return unit;
+    }
+
+    boolean isAllEntries() {
+        return allEntries;
+    }
+
+    boolean isBeforeInvocation() {
+        return beforeInvocation;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.aspectj;
+
+import com.fuhouyu.framework.cache.annotations.CacheInvalidate;
+import com.fuhouyu.framework.cache.annotations.Cached;
+import com.fuhouyu.framework.cache.service.CacheRegionRegistry;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * 按方法缓存 {@link Cached} 及 {@link CacheInvalidate} 解析后的缓存操作，
+ * 注解查找、参数名获取及表达式解析只在每个方法首次调用时执行一次。
+ * 表达式使用 {@link SpelCompilerMode#MIXED} 模式，调用一定次数后编译为字节码，参数类型变化时回退为解释执行。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 20:50
+ */
+final class CacheOperationSource {
+
+    /**
+     * 只引用单个变量的表达式，如 {@code #id}
+     */
+    private static final Pattern VARIABLE_REFERENCE = Pattern.compile("#(\\w+)");
+
+    private final ConcurrentMap<MethodClassKey, CacheOperation> cachedOperations = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<MethodClassKey, CacheOperation> invalidateOperations = new ConcurrentHashMap<>();
+
+    private final ParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
+
+    private final CacheRegionRegistry cacheRegionRegistry;
+
+    private final BeanResolver beanResolver;
+
+    CacheOperationSource(CacheRegionRegistry cacheRegionRegistry, BeanResolver beanResolver) {
+        this.cacheRegionRegistry = cacheRegionRegistry;
+        this.beanResolver = beanResolver;
+    }
+
+    /**
+     * 获取方法的 {@link Cached} 缓存操作
+     *
+     * @param method      被调用的方法
+     * @param targetClass 目标类
+     * @return 缓存操作
+     */
+    CacheOperation getCachedOperation(Method method, Class<?> targetClass) {
+        MethodClassKey methodKey = new MethodClassKey(method, targetClass);
+        CacheOperation operation = cachedOperations.get(methodKey);
+        if (Objects.nonNull(operation)) {
+            return operation;
+        }
+        return cachedOperations.computeIfAbsent(methodKey, ignored -> {
+            Method specificMethod = ClassUtils.getMostSpecificMethod(method, targetClass);
+            Cached cached = AnnotatedElementUtils.findMergedAnnotation(specificMethod, Cached.class);
+            Assert.notNull(cached, () -> "方法未标注 @Cached: " + specificMethod);
+            Assert.state(void.class != specificMethod.getReturnType(), () -> "@Cached 不能用于没有返回值的方法: " + specificMethod);
+            return this.createOperation(specificMethod, targetClass, cached.name(), cached.key(), cached.region(),
+                    cached.condition(), cached.timeout(), cached.unit(), false, false);
+        });
+    }
+
+    /**
+     * 获取方法的 {@link CacheInvalidate} 缓存操作
+     *
+     * @param method      被调用的方法
+     * @param targetClass 目标类
+     * @return 缓存操作
+     */
+    CacheOperation getInvalidateOperation(Method method, Class<?> targetClass) {
+        MethodClassKey methodKey = new MethodClassKey(method, targetClass);
+        CacheOperation operation = invalidateOperations.get(methodKey);
+        if (Objects.nonNull(operation)) {
+            return operation;
+        }
+        return invalidateOperations.computeIfAbsent(methodKey, ignored -> {
+            Method specificMethod = ClassUtils.getMostSpecificMethod(method, targetClass);
+            CacheInvalidate invalidate = AnnotatedElementUtils.findMergedAnnotation(specificMethod, CacheInvalidate.class);
+            Assert.notNull(invalidate, () -> "方法未标注 @CacheInvalidate: " + specificMethod);
+            return this.createOperation(specificMethod, targetClass, invalidate.name(), invalidate.key(), invalidate.region(),
+                    invalidate.condition(), -1, null, invalidate.allEntries(), invalidate.beforeInvocation());
+        });
+    }
+
+    private CacheOperation createOperation(Method method, Class<?> targetClass, String name, String key, String region,
+                                           String condition, long timeout, TimeUnit unit,
+                                           boolean allEntries, boolean beforeInvocation) {
+        Assert.hasText(name, () -> "缓存名称不能为空: " + method);
+        String[] parameterNames = discoverer.getParameterNames(method);
+        String[][] variableNames = new String[method.getParameterCount()][];
+        for (int i = 0; i < variableNames.length; i++) {
+            variableNames[i] = Objects.isNull(parameterNames)
+                    ? new String[]{"p" + i, "a" + i}
+                    : new String[]{parameterNames[i], "p" + i, "a" + i};
+        }
+        SpelExpressionParser parser = new SpelExpressionParser(
+                new SpelParserConfiguration(SpelCompilerMode.MIXED, targetClass.getClassLoader()));
+        int keyParameterIndex = this.keyParameterIndex(key, variableNames);
+        Expression keyExpression = keyParameterIndex < 0 && StringUtils.hasText(key)
+                ? parser.parseExpression(key) : null;
+        Expression conditionExpression = StringUtils.hasText(condition) ? parser.parseExpression(condition) : null;
+        return new CacheOperation(method, cacheRegionRegistry.getRegion(region), name,
+                keyParameterIndex, keyExpression, conditionExpression, variableNames, beanResolver,
+                timeout, unit, allEntries, beforeInvocation);
+    }
+
+    /**
+     * 键只引用单个参数时返回参数下标
+     *
+     * @param key           缓存键的表达式
+     * @param variableNames 每个参数可用的变量名
+     * @return 参数下标，不是单个参数时返回 -1
+     */
+    private int keyParameterIndex(String key, String[][] variableNames) {
+        if (!StringUtils.hasText(key)) {
+            return -1;
+        }
+        Matcher matcher = VARIABLE_REFERENCE.matcher(key.trim());
+        if (!matcher.matches()) {
+            return -1;
+        }
+        String variableName = matcher.group(1);
+        for (int i = 0; i < variableNames.length; i++) {
+            for (String name : variableNames[i]) {
+                if (name.equals(variableName)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.aspectj;
+
+import com.fuhouyu.framework.cache.annotations.CacheInvalidate;
+import com.fuhouyu.framework.cache.annotations.Cached;
+import com.fuhouyu.framework.cache.service.CacheRegionRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.expression.BeanResolver;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.util.ClassUtils;
+
+/**
+ * <p>
+ * {@link Cached} 及 {@link CacheInvalidate} 注解的切面
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 20:50
+ */
+@Aspect
+public class CachedAspectj {
+
+    /**
+     * 按前缀删除时每批扫描的键数量
+     */
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    private final CacheOperationSource operationSource;
+
+    public CachedAspectj(CacheRegionRegistry cacheRegionRegistry, BeanResolver beanResolver) {
+        this.operationSource = new CacheOperationSource(cacheRegionRegistry, beanResolver);
+    }
+
+    /**
+     * 缓存命中时直接返回，未命中时执行方法并写入缓存
+     *
+     * @param joinPoint 连接点
+     * @return 方法返回值
+     * @throws Throwable 方法抛出的异常
+     */
+    @Around("@annotation(com.fuhouyu.framework.cache.annotations.Cached)")
+    public Object doCached(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object target = joinPoint.getTarget();
+        CacheOperation operation = operationSource.getCachedOperation(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), ClassUtils.getUserClass(target));
+        Object[] args = joinPoint.getArgs();
+        EvaluationContext context = operation.createContext(target, args);
+        if (!operation.isConditionPassing(context)) {
+            return joinPoint.proceed();
+        }
+        String key = operation.generateKey(context, args);
+        try {
+            Object value = operation.getCacheService().getOrLoad(key,
+                    ignored -> operation.toCacheValue(this.proceed(joinPoint)),
+                    operation.getTimeout(), operation.getUnit());
+            return operation.toResult(value);
+        } catch (InvocationFailure e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 按配置在方法执行前或正常返回后删除缓存
+     *
+     * @param joinPoint 连接点
+     * @return 方法返回值
+     * @throws Throwable 方法抛出的异常
+     */
+    @Around("@annotation(com.fuhouyu.framework.cache.annotations.CacheInvalidate)")
+    public Object doInvalidate(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object target = joinPoint.getTarget();
+        CacheOperation operation = operationSource.getInvalidateOperation(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(), ClassUtils.getUserClass(target));
+        Object[] args = joinPoint.getArgs();
+        EvaluationContext context = operation.createContext(target, args);
+        if (!operation.isConditionPassing(context)) {
+            return joinPoint.proceed();
+        }
+        if (operation.isBeforeInvocation()) {
+            this.invalidate(operation, context, args);
+            return joinPoint.proceed();
+        }
+        Object result = joinPoint.proceed();
+        this.invalidate(operation, context, args);
+        return result;
+    }
+
+    private void invalidate(CacheOperation operation, EvaluationContext context, Object[] args) {
+        if (operation.isAllEntries()) {
+            operation.getCacheService().deleteByPattern(operation.allEntriesPattern(), DELETE_BATCH_SIZE);
+            return;
+        }
+        operation.getCacheService().delete(operation.generateKey(context, args));
+    }
+
+    /**
+     * 在加载函数中执行方法，受检异常包装后抛出，由切面还原
+     *
+     * @param joinPoint 连接点
+     * @return 方法返回值
+     */
+    private Object proceed(ProceedingJoinPoint joinPoint) {
+        try {
+            return joinPoint.proceed();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationFailure(e);
+        }
+    }
+
+    /**
+     * 包装方法抛出的受检异常，穿过缓存服务的加载逻辑后还原
+     */
+    private static final class InvocationFailure extends RuntimeException {
+
+        InvocationFailure(Throwable cause) {
+            super(null, cause, false, false);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.endpoint;
+
+import com.fuhouyu.framework.cache.model.HotKey;
+import com.fuhouyu.framework.cache.service.impl.HotKeyDetector;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>
+ * 热点键端点，返回上一个完整统计窗口内的热点键及候选键
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 17:50
+ */
+@Endpoint(id = "cachehotkeys")
+public class CacheHotKeysEndpoint {
+
+    private final HotKeyDetector detector;
+
+    public CacheHotKeysEndpoint(HotKeyDetector detector) {
+        this.detector = detector;
+    }
+
+    /**
+     * 热点键统计
+     *
+     * @return hotKeys 为达到阈值的热点键，topKeys 为全部候选键，sampled 为累计采样次数
+     */
+    @ReadOperation
+    public Map<String, Object> hotKeys() {
+        List<HotKey> topKeys = detector.topKeys();
+        Map<String, Object> result = new LinkedHashMap<>(4);
+        result.put("hotKeys", detector.hotKeys());
+        result.put("topKeys", topKeys);
+        result.put("sampled", detector.sampledCount());
+        return result;
+    }
+}
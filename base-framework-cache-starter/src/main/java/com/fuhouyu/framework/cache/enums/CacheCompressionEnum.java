@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.enums;
+
+import lombok.Getter;
+
+/**
+ * <p>
+ * redis 缓存值的压缩算法枚举
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 13:40
+ */
+@Getter
+public enum CacheCompressionEnum {
+
+    NONE(0),
+
+    LZ4(1),
+
+    ZSTD(2);
+
+    /**
+     * 写入头字节中的编号，占 2 位，不可修改
+     */
+    private final int id;
+
+    CacheCompressionEnum(int id) {
+        this.id = id;
+    }
+
+    /**
+     * 根据编号获取压缩算法
+     *
+     * @param id 编号
+     * @return 压缩算法
+     */
+    public static CacheCompressionEnum of(int id) {
+        for (CacheCompressionEnum compression : values()) {
+            if (compression.id == id) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException("unknown cache compression id: " + id);
+    }
+}
@@ -28,5 +28,15 @@ public enum CacheServiceTypeEnum {
 
     REDIS,
 
-    CAFFEINE
+    CAFFEINE,
+
+    /**
+     * 多级缓存，本地 caffeine 作为一级缓存，redis 作为二级缓存
+     */
+    MULTI_LEVEL,
+
+    /**
+     * 客户端分片，按一致性哈希把键分散到多个独立的 redis 节点
+     */
+    SHARDED_REDIS
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.enums;
+
+import lombok.Getter;
+
+/**
+ * <p>
+ * redis 缓存值的编码格式枚举
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 13:40
+ */
+@Getter
+public enum CacheValueCodecEnum {
+
+    /**
+     * json 文本，默认格式，不压缩时与历史数据完全一致
+     */
+    JSON(0),
+
+    /**
+     * jackson smile 二进制 json
+     */
+    SMILE(1),
+
+    /**
+     * jackson cbor 二进制 json
+     */
+    CBOR(2),
+
+    /**
+     * kryo 二进制
+     */
+    KRYO(3);
+
+    /**
+     * 写入头字节中的编号，占 2 位，不可修改
+     */
+    private final int id;
+
+    CacheValueCodecEnum(int id) {
+        this.id = id;
+    }
+
+    /**
+     * 根据编号获取编码格式
+     *
+     * @param id 编号
+     * @return 编码格式
+     */
+    public static CacheValueCodecEnum of(int id) {
+        for (CacheValueCodecEnum codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        throw new IllegalArgumentException("unknown cache value codec id: " + id);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.enums;
+
+/**
+ * <p>
+ * 限流算法枚举
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+public enum RateLimiterAlgorithmEnum {
+
+    /**
+     * 令牌桶，容量为周期内的许可数，按 许可数/周期 的速率匀速补充，允许一次性用完桶内的令牌（突发）。
+     * 以 GCRA 实现，每个键只保存一个时间戳
+     */
+    TOKEN_BUCKET,
+
+    /**
+     * 滑动窗口日志，记录每次获取的时间，任意一个周期内获取的许可不超过许可数。
+     * 精确但每个键保存的记录数与许可数相同，许可数较大时建议使用令牌桶
+     */
+    SLIDING_WINDOW
+}
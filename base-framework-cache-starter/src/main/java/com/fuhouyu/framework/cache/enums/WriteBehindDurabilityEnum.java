@@ -0,0 +1,44 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.enums;
+
+/**
+ * <p>
+ * 延迟写入的可靠性级别枚举
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 18:40
+ */
+public enum WriteBehindDurabilityEnum {
+
+    /**
+     * 刷新失败的批次记录日志后丢弃
+     */
+    BEST_EFFORT,
+
+    /**
+     * 刷新失败的批次放回缓冲区，在下一次刷新时重试，期间被更新的键以新值为准
+     */
+    RETRY,
+
+    /**
+     * 不缓冲，所有写入直接转发，用于临时关闭延迟写入而不改变装配
+     */
+    WRITE_THROUGH
+}
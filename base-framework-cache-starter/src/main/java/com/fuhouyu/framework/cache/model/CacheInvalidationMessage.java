@@ -0,0 +1,60 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * <p>
+ * 多级缓存跨节点失效消息
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 10:20
+ */
+@ToString
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheInvalidationMessage {
+
+    /**
+     * 发送消息的节点id，节点会忽略自己发出的消息
+     */
+    private String nodeId;
+
+    /**
+     * 消息发送时间戳（毫秒），用于统计失效延迟
+     */
+    private long timestamp;
+
+    /**
+     * 需要失效的缓存键，均为序列化后的字节
+     */
+    private List<byte[]> keys;
+
+    public CacheInvalidationMessage(String nodeId, long timestamp, List<byte[]> keys) {
+        this.nodeId = nodeId;
+        this.timestamp = timestamp;
+        this.keys = keys;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Objects;
+
+/**
+ * <p>
+ * compareAndSet 的结果。成功时 current 为写入后的值；版本冲突时 current 为缓存中的当前值，
+ * 键不存在时为 null，调用方可以直接基于当前值重新计算后重试，不需要再读取一次。
+ * </p>
+ *
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 21:10
+ */
+@ToString
+@Getter
+public class CompareAndSetResult<V> {
+
+    /**
+     * 是否写入成功
+     */
+    private final boolean success;
+
+    /**
+     * 写入后的值或冲突时的当前值
+     */
+    private final VersionedValue<V> current;
+
+    private CompareAndSetResult(boolean success, VersionedValue<V> current) {
+        this.success = success;
+        this.current = current;
+    }
+
+    /**
+     * 写入成功
+     *
+     * @param current 写入后的值
+     * @param <V>     缓存值的类型
+     * @return 结果
+     */
+    public static <V> CompareAndSetResult<V> success(VersionedValue<V> current) {
+        return new CompareAndSetResult<>(true, current);
+    }
+
+    /**
+     * 版本冲突
+     *
+     * @param current 缓存中的当前值，键不存在时为 null
+     * @param <V>     缓存值的类型
+     * @return 结果
+     */
+    public static <V> CompareAndSetResult<V> conflict(VersionedValue<V> current) {
+        return new CompareAndSetResult<>(false, current);
+    }
+
+    /**
+     * 当前版本号，键不存在时为0，可直接作为下一次 compareAndSet 的期望版本号
+     *
+     * @return 版本号
+     */
+    public long getVersion() {
+        return Objects.isNull(current) ? 0 : current.getVersion();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * <p>
+ * 带剩余过期时间的缓存值，多级缓存回填本地缓存时用于限制本地的过期时间，
+ * 批量写入时作为每个键的值及过期时间
+ * </p>
+ *
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 22:10
+ */
+@ToString
+@Getter
+public class ExpiringValue<V> {
+
+    /**
+     * 永不过期
+     */
+    public static final long NO_EXPIRE = -1;
+
+    /**
+     * 缓存值
+     */
+    private final V value;
+
+    /**
+     * 剩余过期时间（毫秒），{@link #NO_EXPIRE} 表示永不过期
+     */
+    private final long ttlMillis;
+
+    public ExpiringValue(V value, long ttlMillis) {
+        this.value = value;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 是否设置了过期时间
+     *
+     * @return 是否会过期
+     */
+    public boolean isExpiring() {
+        return ttlMillis != NO_EXPIRE;
+    }
+}
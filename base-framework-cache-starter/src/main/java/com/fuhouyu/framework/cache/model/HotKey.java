@@ -0,0 +1,55 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * <p>
+ * 热点键统计，数值均按采样率放大后的估算值
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 17:20
+ */
+@ToString
+@Getter
+public class HotKey {
+
+    /**
+     * 缓存键，byte[] 键按 UTF-8 解码
+     */
+    private final String key;
+
+    /**
+     * 统计窗口内的估算操作次数
+     */
+    private final long count;
+
+    /**
+     * 统计窗口内的估算每秒操作次数
+     */
+    private final double opsPerSecond;
+
+    public HotKey(String key, long count, double opsPerSecond) {
+        this.key = key;
+        this.count = count;
+        this.opsPerSecond = opsPerSecond;
+    }
+}
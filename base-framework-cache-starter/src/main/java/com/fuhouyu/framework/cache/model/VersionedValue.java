@@ -0,0 +1,49 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.model;
+
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * <p>
+ * 带版本号的缓存值，版本号从1开始，每次 compareAndSet 成功后加1
+ * </p>
+ *
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 21:10
+ */
+@ToString
+@Getter
+public class VersionedValue<V> {
+
+    /**
+     * 缓存值
+     */
+    private final V value;
+
+    /**
+     * 版本号
+     */
+    private final long version;
+
+    public VersionedValue(V value, long version) {
+        this.value = value;
+        this.version = version;
+    }
+}
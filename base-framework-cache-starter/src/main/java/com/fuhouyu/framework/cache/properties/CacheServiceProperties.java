@@ -16,13 +16,23 @@
 
 package com.fuhouyu.framework.cache.properties;
 
+import com.fuhouyu.framework.cache.enums.CacheCompressionEnum;
 import com.fuhouyu.framework.cache.enums.CacheServiceTypeEnum;
+import com.fuhouyu.framework.cache.enums.CacheValueCodecEnum;
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+import com.fuhouyu.framework.cache.enums.WriteBehindDurabilityEnum;
 import com.fuhouyu.framework.common.constants.ConfigPropertiesConstant;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * <p>
  * 缓存配置
@@ -41,4 +51,671 @@ public class CacheServiceProperties {
             ConfigPropertiesConstant.PROPERTIES_PREFIX + "cache.service";
 
     private CacheServiceTypeEnum cacheServiceType;
+
+    /**
+     * 多级缓存配置，仅在 {@link CacheServiceTypeEnum#MULTI_LEVEL} 时生效
+     */
+    private MultiLevel multiLevel = new MultiLevel();
+
+    /**
+     * 客户端分片配置
+     */
+    private Sharded sharded = new Sharded();
+
+    /**
+     * 本地 caffeine 缓存配置，仅在 {@link CacheServiceTypeEnum#CAFFEINE} 时生效
+     */
+    private Caffeine caffeine = new Caffeine();
+
+    /**
+     * redis 缓存值的编码及压缩
+     */
+    private Codec codec = new Codec();
+
+    /**
+     * 过期时间抖动比例，取值 [0, 1)，带过期时间的写入会在 [timeout * (1 - ratio), timeout] 内随机取值，0 表示不抖动
+     */
+    private double ttlJitterRatio = 0;
+
+    /**
+     * getOrLoad 的提前刷新
+     */
+    private RefreshAhead refreshAhead = new RefreshAhead();
+
+    /**
+     * getOrLoad 的分布式加载租约，仅在使用 redis 时生效
+     */
+    private LoadLease loadLease = new LoadLease();
+
+    /**
+     * 热点键探测
+     */
+    private HotKey hotKey = new HotKey();
+
+    /**
+     * getOrLoad 的空值缓存
+     */
+    private NullValue nullValue = new NullValue();
+
+    /**
+     * 布隆过滤器
+     */
+    private BloomFilter bloomFilter = new BloomFilter();
+
+    /**
+     * 限流器
+     */
+    private RateLimiter rateLimiter = new RateLimiter();
+
+    /**
+     * 延迟写入
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * redis 服务端协助的客户端缓存
+     */
+    private ClientTracking clientTracking = new ClientTracking();
+
+    /**
+     * 缓存区域，键为区域名称，每个区域使用独立的存储、容量及默认过期时间，
+     * 可通过 {@code @CacheRegion("区域名称")} 注入
+     */
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    /**
+     * 多级缓存配置
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class MultiLevel {
+
+        /**
+         * 本地缓存最大条目数，对象键与 byte[] 键分别存放在两个本地缓存中，各自使用该上限，合计最多为该值的两倍
+         */
+        private long localMaximumSize = 10000;
+
+        /**
+         * 本地缓存的最长存活时间，失效通知丢失时以此兜底
+         */
+        private Duration localExpireTime = Duration.ofMinutes(5);
+
+        /**
+         * 跨节点失效通知的频道，使用 redis stream 时作为通知的主题
+         */
+        private String invalidationChannel = "base:framework:cache:invalidation";
+
+        /**
+         * 通过 redis stream 发送失效通知，代替 pub/sub
+         */
+        private InvalidationStream invalidationStream = new InvalidationStream();
+    }
+
+    /**
+     * 基于 redis stream 的失效通知配置。各节点记录读取位置，断线重连后补齐错过的通知，
+     * 错过的通知已被裁剪时清空本地缓存。所有多级缓存（包括多级缓存区域）共用一个 stream
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class InvalidationStream {
+
+        /**
+         * 是否开启
+         */
+        private boolean enabled = false;
+
+        /**
+         * 保存失效通知的 stream
+         */
+        private String key = "base:framework:cache:invalidation:stream";
+
+        /**
+         * stream 的近似最大长度，节点断线期间写入的通知超过该长度时，重连后清空本地缓存
+         */
+        private long maxLength = 10000;
+
+        /**
+         * 每次读取的最大通知数，同一次读取的通知合并后失效本地缓存
+         */
+        private int batchSize = 500;
+
+        /**
+         * 每次阻塞读取的最长等待时间
+         */
+        private Duration pollTimeout = Duration.ofSeconds(1);
+
+        /**
+         * 读取失败后的重试间隔
+         */
+        private Duration retryInterval = Duration.ofSeconds(1);
+    }
+
+    /**
+     * redis 服务端协助的客户端缓存配置（CLIENT TRACKING），仅在 {@link CacheServiceTypeEnum#REDIS} 时生效，
+     * 需要 redis 6 及以上版本，且 lettuce 使用 RESP3 协议
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class ClientTracking {
+
+        /**
+         * 是否开启
+         */
+        private boolean enabled = false;
+
+        /**
+         * 是否使用广播模式，广播模式下服务端按前缀通知所有键的修改，不再记录每个客户端读取过的键
+         */
+        private boolean broadcast = false;
+
+        /**
+         * 广播模式下关注的键前缀，为空时关注所有键
+         */
+        private List<String> prefixes = new ArrayList<>();
+
+        /**
+         * 本地最多缓存的键数量
+         */
+        private long maximumSize = 10000;
+    }
+
+    /**
+     * 分布式加载租约配置，开启后缓存未命中时通过 SET NX PX 抢占租约，同一时刻只有一个节点执行加载
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class LoadLease {
+
+        /**
+         * 是否开启
+         */
+        private boolean enabled = false;
+
+        /**
+         * 租约时长，应略大于加载函数的耗时
+         */
+        private Duration leaseTime = Duration.ofSeconds(3);
+
+        /**
+         * 未抢到租约时轮询缓存的间隔
+         */
+        private Duration retryInterval = Duration.ofMillis(50);
+    }
+
+    /**
+     * 空值缓存配置，开启后 getOrLoad 加载结果为空的键在过期前直接返回空，不再调用加载函数
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class NullValue {
+
+        /**
+         * 是否开启
+         */
+        private boolean enabled = false;
+
+        /**
+         * 空值的过期时间，即数据新增后最长多久可以被读到
+         */
+        private Duration expireTime = Duration.ofSeconds(30);
+
+        /**
+         * 本地缓存最多记录的空值数量，仅在 {@link CacheServiceTypeEnum#CAFFEINE} 时生效
+         */
+        private long maximumSize = 10000;
+    }
+
+    /**
+     * 布隆过滤器配置，使用 redis 时过滤器存放在 redis 位图中，caffeine 模式下存放在当前 jvm
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class BloomFilter {
+
+        /**
+         * 默认的预计元素数量
+         */
+        private long expectedInsertions = 1_000_000;
+
+        /**
+         * 默认的误判率
+         */
+        private double fpp = 0.01;
+
+        /**
+         * 单个过滤器的内存上限（字节），按预计元素数量及误判率计算出的大小超过上限时按上限创建
+         */
+        private long maximumBytes = 64L * 1024 * 1024;
+
+        /**
+         * redis 中过滤器键的前缀
+         */
+        private String keyPrefix = "base:framework:bloom:";
+    }
+
+    /**
+     * 限流器配置
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class RateLimiter {
+
+        /**
+         * 默认的限流算法
+         */
+        private RateLimiterAlgorithmEnum algorithm = RateLimiterAlgorithmEnum.TOKEN_BUCKET;
+
+        /**
+         * 默认每个周期的许可数
+         */
+        private long permits = 100;
+
+        /**
+         * 默认的周期
+         */
+        private Duration period = Duration.ofSeconds(1);
+
+        /**
+         * 每个限流器在本地最多保存的键数量，caffeine 模式下为计数状态，redis 模式下为预获取的许可
+         */
+        private long maximumKeys = 100_000;
+
+        /**
+         * redis 中限流键的前缀
+         */
+        private String keyPrefix = "base:framework:rate-limit:";
+
+        /**
+         * redis 模式下每次向 redis 最多预获取的许可数，多出的部分在本地扣减，小于等于1时不预获取
+         */
+        private long leasePermits = 0;
+
+        /**
+         * 预获取的许可在本地的有效期，过期未用完的部分作废
+         */
+        private Duration leaseTime = Duration.ofMillis(100);
+    }
+
+    /**
+     * 缓存区域配置
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class Region {
+
+        /**
+         * 区域使用的存储，为空时与 {@link CacheServiceProperties#cacheServiceType} 相同，不支持客户端分片
+         */
+        private CacheServiceTypeEnum backend;
+
+        /**
+         * 本地缓存最大条目数，使用 caffeine 或多级缓存时生效。
+         * 对象键与 byte[] 键分别存放在两个本地缓存中，各自使用该上限，合计最多为该值的两倍
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * 本地缓存最大权重（按估算的字节数），大于0时代替 maximumSize 按内存占用淘汰。
+         * 与 maximumSize 相同，对象键与 byte[] 键的缓存各自使用该上限
+         */
+        private long maximumWeight = 0;
+
+        /**
+         * 默认过期时间，未指定过期时间的写入使用该值，为空时不过期
+         */
+        private Duration expireTime;
+
+        /**
+         * 键前缀，为空时使用 {@code 区域名称:}，共用同一个 redis 的区域依靠前缀隔离
+         */
+        private String keyPrefix;
+    }
+
+    /**
+     * 延迟写入配置，开启后字符串值及 hash 字段的写入先在内存中按键合并，再分批刷新
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class WriteBehind {
+
+        /**
+         * 是否开启
+         */
+        private boolean enabled = false;
+
+        /**
+         * 刷新间隔，即写入最长多久后对其他节点可见
+         */
+        private Duration flushInterval = Duration.ofMillis(100);
+
+        /**
+         * 每批刷新的最大键数量，缓冲区达到该数量时立即刷新
+         */
+        private int batchSize = 500;
+
+        /**
+         * 缓冲区的最大键数量，达到上限后新键的写入直接转发
+         */
+        private int maximumPending = 100000;
+
+        /**
+         * 刷新失败时的处理方式
+         */
+        private WriteBehindDurabilityEnum durability = WriteBehindDurabilityEnum.BEST_EFFORT;
+
+        /**
+         * 关闭时是否刷新缓冲区中剩余的数据
+         */
+        private boolean flushOnShutdown = true;
+    }
+
+    /**
+     * 热点键探测配置，开启后缓存服务的按键操作按采样率计入 Count-Min Sketch，统计每个窗口内操作最多的键
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class HotKey {
+
+        /**
+         * 是否开启
+         */
+        private boolean enabled = false;
+
+        /**
+         * 采样率，取值 (0, 1]
+         */
+        private double sampleRate = 0.1;
+
+        /**
+         * 保留的候选键数量
+         */
+        private int topK = 20;
+
+        /**
+         * Count-Min Sketch 每一行的计数器数量
+         */
+        private int width = 2048;
+
+        /**
+         * Count-Min Sketch 的行数
+         */
+        private int depth = 4;
+
+        /**
+         * 统计窗口
+         */
+        private Duration window = Duration.ofSeconds(10);
+
+        /**
+         * 每秒操作次数达到该值的键视为热点键
+         */
+        private double threshold = 100;
+
+        /**
+         * 是否把热点键的值提升到本地短期缓存
+         */
+        private boolean promote = false;
+
+        /**
+         * 本地短期缓存的过期时间，即热点键可接受的最大不一致时间
+         */
+        private Duration promoteExpireTime = Duration.ofSeconds(1);
+
+        /**
+         * 本地短期缓存的最大条目数
+         */
+        private long promoteMaximumSize = 1000;
+    }
+
+    /**
+     * 提前刷新配置，开启后 getOrLoad 命中时按 XFetch 算法以一定概率在过期前异步重新加载
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class RefreshAhead {
+
+        /**
+         * 是否开启
+         */
+        private boolean enabled = false;
+
+        /**
+         * 提前刷新系数，大于 1 时更倾向于提前刷新
+         */
+        private double beta = 1.0;
+
+        /**
+         * 刷新线程数
+         */
+        private int threads = 2;
+
+        /**
+         * 刷新任务队列容量，队列满时放弃刷新
+         */
+        private int queueCapacity = 1000;
+
+        /**
+         * 最多记录加载耗时的键数量
+         */
+        private long maximumSize = 10000;
+    }
+
+    /**
+     * redis 缓存值的编码及压缩配置，读取时按数据自身的头字节解码，切换配置不影响已写入数据的读取
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class Codec {
+
+        /**
+         * 写入时使用的编码格式
+         */
+        private CacheValueCodecEnum type = CacheValueCodecEnum.JSON;
+
+        /**
+         * 写入时使用的压缩算法
+         */
+        private CacheCompressionEnum compression = CacheCompressionEnum.NONE;
+
+        /**
+         * 编码后的字节数达到该值时才压缩
+         */
+        private int compressionThreshold = 1024;
+    }
+
+    /**
+     * 本地 caffeine 缓存配置
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class Caffeine {
+
+        /**
+         * 初始容量
+         */
+        private int initialCapacity = 10000;
+
+        /**
+         * 最大条目数。对象键与 byte[] 键分别存放在两个缓存中，各自使用该上限，合计最多为该值的两倍
+         */
+        private long maximumSize = 10000;
+
+        /**
+         * 按估算内存占用（字节）淘汰的上限，大于 0 时生效并忽略最大条目数。
+         * 与最大条目数相同，对象键与 byte[] 键的缓存各自使用该上限，合计内存占用最多为该值的两倍
+         */
+        private long maximumWeight = 0;
+
+        /**
+         * 未指定过期时间写入时的默认过期时间，为空时永不过期
+         */
+        private Duration expireTime;
+
+        /**
+         * getOrLoad 写入的键距上一次加载超过该间隔后，下一次命中会异步刷新，为空时不刷新
+         */
+        private Duration refreshAfterWrite;
+
+        /**
+         * caffeine 维护任务及刷新任务使用的线程池 bean 名称。为空时维护任务使用
+         * {@link java.util.concurrent.ForkJoinPool#commonPool()}，刷新任务使用专用的有界线程池，
+         * 线程数及队列容量取 refresh-ahead 的配置
+         */
+        private String executor;
+
+        /**
+         * 是否统计命中率等指标，开启后存在 MeterRegistry 时通过 micrometer 发布
+         */
+        private boolean recordStats = false;
+
+        /**
+         * byte[] 值的堆外存储
+         */
+        private OffHeap offHeap = new OffHeap();
+
+        /**
+         * 重启时恢复本地缓存的快照
+         */
+        private Snapshot snapshot = new Snapshot();
+    }
+
+    /**
+     * 客户端分片配置
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class Sharded {
+
+        /**
+         * 每个节点在一致性哈希环上的虚拟节点数量
+         */
+        private int virtualNodes = 160;
+
+        /**
+         * 分片节点
+         */
+        private List<ShardNode> nodes = new ArrayList<>();
+    }
+
+    /**
+     * 分片节点配置
+     */
+    @ToString(exclude = "password")
+    @Getter
+    @Setter
+    public static class ShardNode {
+
+        /**
+         * 节点名称，决定节点在哈希环上的位置，为空时使用 host:port。
+         * 更换节点地址时保持名称不变可以避免键迁移
+         */
+        private String name;
+
+        /**
+         * 主机地址
+         */
+        private String host = "localhost";
+
+        /**
+         * 端口
+         */
+        private int port = 6379;
+
+        /**
+         * 用户名
+         */
+        private String username;
+
+        /**
+         * 密码
+         */
+        private String password;
+
+        /**
+         * 数据库
+         */
+        private int database = 0;
+    }
+
+    /**
+     * 本地缓存快照配置，关闭时（或按间隔）写入内存映射文件，启动时并行恢复
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class Snapshot {
+
+        /**
+         * 是否开启
+         */
+        private boolean enabled = false;
+
+        /**
+         * 快照文件路径，同一台机器上的多个实例需使用不同的路径
+         */
+        private String path = "cache-snapshot/caffeine.snapshot";
+
+        /**
+         * 定时写入的间隔，为空时只在关闭时写入
+         */
+        private Duration interval;
+
+        /**
+         * 关闭时是否写入快照
+         */
+        private boolean saveOnShutdown = true;
+
+        /**
+         * 快照的最长保留时间，超过后启动时不再恢复，避免恢复过旧的数据
+         */
+        private Duration maximumAge = Duration.ofHours(1);
+
+        /**
+         * 分段数，即写入及恢复的并行度，小于等于0时使用 cpu 核数
+         */
+        private int segments = 0;
+
+        /**
+         * 对象值的编码方式，需能还原原始类型，默认使用 kryo
+         */
+        private CacheValueCodecEnum codec = CacheValueCodecEnum.KRYO;
+    }
+
+    /**
+     * 本地缓存 byte[] 值的堆外存储配置
+     */
+    @ToString
+    @Getter
+    @Setter
+    public static class OffHeap {
+
+        /**
+         * 是否开启，开启后 byte[] 值写入堆外内存，堆内只保留索引
+         */
+        private boolean enabled = false;
+
+        /**
+         * 堆外内存上限（字节），用满后按 LRU 淘汰
+         */
+        private long capacity = 256L * 1024 * 1024;
+
+        /**
+         * 每次申请的堆外内存页大小（字节），超过该大小的值仍存放在堆内
+         */
+        private int pageSize = 1024 * 1024;
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fuhouyu.framework.cache.enums.CacheCompressionEnum;
+import com.fuhouyu.framework.cache.enums.CacheValueCodecEnum;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * 可切换编码格式及压缩算法的 redis 值序列化器。
+ * </p>
+ * <p>
+ * 除 json 且未压缩的值外，所有值均以一个头字节开头：高 4 位固定为 {@code 0xB}，
+ * 随后 2 位为编码格式编号，最后 2 位为压缩算法编号；压缩时头字节后紧跟 4 字节的原始长度。
+ * json 文本不可能以 {@code 0xB0 ~ 0xBF} 开头，因此不带头字节的历史 json 数据可以被正确识别，
+ * 滚动发布期间新旧格式可以同时存在。json 且未压缩的值不写头字节，与历史数据完全一致，旧版本节点仍可读取。
+ * </p>
+ * <p>
+ * 读取时根据头字节选择解码方式，与当前配置的写入格式无关，
+ * 因此切换格式后已写入的数据仍可读取，前提是对应的编码及压缩依赖在 classpath 中。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 14:00
+ */
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
+
+    private static final int MAGIC = 0xB0;
+
+    private static final int MAGIC_MASK = 0xF0;
+
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    private static final int DEFAULT_ZSTD_LEVEL = 3;
+
+    private final ObjectMapper objectMapper;
+
+    private final CacheValueCodecEnum codec;
+
+    private final CacheCompressionEnum compression;
+
+    private final int compressionThreshold;
+
+    private final ValueCodec writeCodec;
+
+    private final Compressor writeCompressor;
+
+    private final Map<CacheValueCodecEnum, ValueCodec> codecs = new ConcurrentHashMap<>();
+
+    private final Map<CacheCompressionEnum, Compressor> compressors = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param objectMapper         json 使用的 objectMapper，smile、cbor 会复制其配置
+     * @param codec                写入时使用的编码格式
+     * @param compression          写入时使用的压缩算法
+     * @param compressionThreshold 编码后的字节数达到该值时才压缩
+     */
+    public CompactRedisSerializer(ObjectMapper objectMapper,
+                                  CacheValueCodecEnum codec,
+                                  CacheCompressionEnum compression,
+                                  int compressionThreshold) {
+        this.objectMapper = objectMapper;
+        this.codec = codec;
+        this.compression = compression;
+        this.compressionThreshold = compressionThreshold;
+        // 提前创建写入所需的编码和压缩，依赖缺失时在启动阶段即可发现
+        this.writeCodec = this.codec(codec);
+        this.writeCompressor = compression == CacheCompressionEnum.NONE ? null : this.compressor(compression);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (Objects.isNull(value)) {
+            return EMPTY_BYTE_ARRAY;
+        }
+        byte[] encoded = writeCodec.encode(value);
+        CacheCompressionEnum usedCompression = CacheCompressionEnum.NONE;
+        byte[] payload = encoded;
+        if (Objects.nonNull(writeCompressor) && encoded.length >= compressionThreshold) {
+            byte[] compressed = writeCompressor.compress(encoded);
+            // 压缩后没有变小时直接存储原始数据
+            if (compressed.length + LENGTH_BYTES < encoded.length) {
+                usedCompression = compression;
+                payload = compressed;
+            }
+        }
+        if (codec == CacheValueCodecEnum.JSON && usedCompression == CacheCompressionEnum.NONE) {
+            return encoded;
+        }
+        boolean compressed = usedCompression != CacheCompressionEnum.NONE;
+        ByteBuffer buffer = ByteBuffer.allocate(1 + (compressed ? LENGTH_BYTES : 0) + payload.length);
+        buffer.put((byte) (MAGIC | codec.getId() << 2 | usedCompression.getId()));
+        if (compressed) {
+            buffer.putInt(encoded.length);
+        }
+        buffer.put(payload);
+        return buffer.array();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (Objects.isNull(bytes) || bytes.length == 0) {
+            return null;
+        }
+        int header = bytes[0] & 0xFF;
+        if ((header & MAGIC_MASK) != MAGIC) {
+            // 不带头字节的历史 json 数据
+            return this.codec(CacheValueCodecEnum.JSON).decode(bytes, 0, bytes.length);
+        }
+        ValueCodec valueCodec = this.codec(CacheValueCodecEnum.of(header >> 2 & 0x03));
+        CacheCompressionEnum usedCompression = CacheCompressionEnum.of(header & 0x03);
+        if (usedCompression == CacheCompressionEnum.NONE) {
+            return valueCodec.decode(bytes, 1, bytes.length - 1);
+        }
+        int originalLength = ByteBuffer.wrap(bytes, 1, LENGTH_BYTES).getInt();
+        byte[] decompressed = this.compressor(usedCompression).decompress(bytes, 1 + LENGTH_BYTES, originalLength);
+        return valueCodec.decode(decompressed, 0, decompressed.length);
+    }
+
+    private ValueCodec codec(CacheValueCodecEnum codec) {
+        return codecs.computeIfAbsent(codec, this::createCodec);
+    }
+
+    private Compressor compressor(CacheCompressionEnum compression) {
+        return compressors.computeIfAbsent(compression, this::createCompressor);
+    }
+
+    private ValueCodec createCodec(CacheValueCodecEnum codec) {
+        try {
+            return switch (codec) {
+                case JSON -> new JacksonValueCodec(objectMapper);
+                case SMILE -> SmileCodecFactory.create(objectMapper);
+                case CBOR -> CborCodecFactory.create(objectMapper);
+                case KRYO -> new KryoValueCodec();
+            };
+        } catch (NoClassDefFoundError e) {
+            throw new SerializationException("cache value codec " + codec + " is not on the classpath", e);
+        }
+    }
+
+    private Compressor createCompressor(CacheCompressionEnum compression) {
+        try {
+            return switch (compression) {
+                case NONE -> throw new IllegalArgumentException("compression NONE has no compressor");
+                case LZ4 -> new Lz4Compressor();
+                case ZSTD -> new ZstdCompressor(DEFAULT_ZSTD_LEVEL);
+            };
+        } catch (NoClassDefFoundError e) {
+            throw new SerializationException("cache compression " + compression + " is not on the classpath", e);
+        }
+    }
+
+    /**
+     * 单独的类中引用 smile 依赖，未引入 smile 时不影响其它格式
+     */
+    private static final class SmileCodecFactory {
+
+        static ValueCodec create(ObjectMapper objectMapper) {
+            return new JacksonValueCodec(objectMapper.copyWith(new SmileFactory()));
+        }
+    }
+
+    /**
+     * 单独的类中引用 cbor 依赖，未引入 cbor 时不影响其它格式
+     */
+    private static final class CborCodecFactory {
+
+        static ValueCodec create(ObjectMapper objectMapper) {
+            return new JacksonValueCodec(objectMapper.copyWith(new CBORFactory()));
+        }
+    }
+}
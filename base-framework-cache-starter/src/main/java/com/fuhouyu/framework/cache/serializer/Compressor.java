@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.serializer;
+
+/**
+ * <p>
+ * 缓存值压缩
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 13:55
+ */
+public interface Compressor {
+
+    /**
+     * 压缩
+     *
+     * @param source 原始字节
+     * @return 压缩后的字节
+     */
+    byte[] compress(byte[] source);
+
+    /**
+     * 解压
+     *
+     * @param source         压缩后的字节
+     * @param offset         压缩数据的起始位置
+     * @param originalLength 原始长度
+     * @return 原始字节
+     */
+    byte[] decompress(byte[] source, int offset, int originalLength);
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.serializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.IOException;
+
+/**
+ * <p>
+ * 基于 jackson 的缓存值编码，json、smile、cbor 仅 {@link ObjectMapper} 的底层格式不同
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 13:45
+ */
+public class JacksonValueCodec implements ValueCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public JacksonValueCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new SerializationException("Could not write value: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) {
+        try {
+            return objectMapper.readValue(bytes, offset, length, Object.class);
+        } catch (IOException e) {
+            throw new SerializationException("Could not read value: " + e.getMessage(), e);
+        }
+    }
+}
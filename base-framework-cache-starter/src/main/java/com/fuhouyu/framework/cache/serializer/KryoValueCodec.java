@@ -0,0 +1,77 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.serializer;
+
+import com.esotericsoftware.kryo.kryo5.Kryo;
+import com.esotericsoftware.kryo.kryo5.io.Input;
+import com.esotericsoftware.kryo.kryo5.io.Output;
+import com.esotericsoftware.kryo.kryo5.objenesis.strategy.StdInstantiatorStrategy;
+import com.esotericsoftware.kryo.kryo5.serializers.ImmutableCollectionsSerializers;
+import com.esotericsoftware.kryo.kryo5.util.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.kryo5.util.Pool;
+
+/**
+ * <p>
+ * 基于 kryo 的缓存值编码，写入类名，无需提前注册类型
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 13:50
+ */
+public class KryoValueCodec implements ValueCodec {
+
+    private static final int BUFFER_SIZE = 256;
+
+    private final Pool<Kryo> kryoPool;
+
+    public KryoValueCodec() {
+        this.kryoPool = new Pool<>(true, false, 8) {
+            @Override
+            protected Kryo create() {
+                Kryo kryo = new Kryo();
+                kryo.setRegistrationRequired(false);
+                kryo.setReferences(true);
+                // 优先使用无参构造器，没有时再绕过构造器创建对象
+                kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+                // List.of、Set.of、Map.of 等不可变集合不能通过 add 反序列化
+                ImmutableCollectionsSerializers.addDefaultSerializers(kryo);
+                return kryo;
+            }
+        };
+    }
+
+    @Override
+    public byte[] encode(Object value) {
+        Kryo kryo = kryoPool.obtain();
+        try (Output output = new Output(BUFFER_SIZE, -1)) {
+            kryo.writeClassAndObject(output, value);
+            return output.toBytes();
+        } finally {
+            kryoPool.free(kryo);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] bytes, int offset, int length) {
+        Kryo kryo = kryoPool.obtain();
+        try (Input input = new Input(bytes, offset, length)) {
+            return kryo.readClassAndObject(input);
+        } finally {
+            kryoPool.free(kryo);
+        }
+    }
+}
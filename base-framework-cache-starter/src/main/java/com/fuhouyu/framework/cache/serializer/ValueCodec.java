@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.serializer;
+
+/**
+ * <p>
+ * 缓存值编码
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 13:45
+ */
+public interface ValueCodec {
+
+    /**
+     * 编码
+     *
+     * @param value 缓存值，不为 null
+     * @return 编码后的字节
+     */
+    byte[] encode(Object value);
+
+    /**
+     * 解码
+     *
+     * @param bytes  字节
+     * @param offset 起始位置
+     * @param length 长度
+     * @return 缓存值
+     */
+    Object decode(byte[] bytes, int offset, int length);
+}
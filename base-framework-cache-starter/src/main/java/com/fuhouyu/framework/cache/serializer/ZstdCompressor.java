@@ -0,0 +1,54 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.serializer;
+
+import com.github.luben.zstd.Zstd;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * zstd 压缩，压缩率高于 lz4，适合较大且不常变更的值
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 13:55
+ */
+public class ZstdCompressor implements Compressor {
+
+    private final int level;
+
+    /**
+     * 构造函数
+     *
+     * @param level 压缩级别，默认 3
+     */
+    public ZstdCompressor(int level) {
+        this.level = level;
+    }
+
+    @Override
+    public byte[] compress(byte[] source) {
+        return Zstd.compress(source, level);
+    }
+
+    @Override
+    public byte[] decompress(byte[] source, int offset, int originalLength) {
+        byte[] compressed = offset == 0 ? source : Arrays.copyOfRange(source, offset, source.length);
+        return Zstd.decompress(compressed, originalLength);
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 异步缓存服务接口，与 {@link CacheService} 一一对应，所有操作立即返回 {@link CompletableFuture}，
+ * 调用线程不会阻塞在 I/O 上，可并发发起多个缓存操作后再组合结果。
+ *
+ * @param <K> 缓存键的类型
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 11:30
+ */
+public interface AsyncCacheService<K, V> {
+
+    // ===== String Operations =====
+
+    /**
+     * 设置字符串值到缓存中。
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> set(byte[] key, byte[] value);
+
+    /**
+     * 设置字符串值到缓存中。
+     *
+     * @param key   缓存键
+     * @param value 缓存值
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> set(K key, V value);
+
+    /**
+     * 设置字符串值到缓存中，并指定过期时间。
+     *
+     * @param key     缓存键
+     * @param value   缓存值
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> set(K key, V value, long timeout, TimeUnit unit);
+
+    /**
+     * 设置字符串值到缓存中，并指定过期时间。
+     *
+     * @param key     缓存键
+     * @param value   缓存值
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> set(byte[] key, byte[] value, long timeout, TimeUnit unit);
+
+    /**
+     * 获取缓存中的字符串值。
+     *
+     * @param key 缓存键
+     * @return 缓存值
+     */
+    CompletableFuture<V> get(K key);
+
+    /**
+     * 获取缓存中的字节数组。
+     *
+     * @param key 缓存键
+     * @return 缓存值
+     */
+    CompletableFuture<byte[]> get(byte[] key);
+
+    /**
+     * 删除缓存中的字符串值。
+     *
+     * @param key 缓存键
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> delete(K key);
+
+    /**
+     * 删除缓存中的字符串值。
+     *
+     * @param key 缓存键
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> delete(byte[] key);
+
+    // ===== Batch Operations =====
+
+    /**
+     * 批量获取缓存中的值，一次往返完成。
+     *
+     * @param keys 缓存键集合
+     * @return 存在的键值对，不存在的键不会出现在结果中
+     */
+    CompletableFuture<Map<K, V>> multiGet(Collection<K> keys);
+
+    /**
+     * 批量获取缓存中的字节数组，一次往返完成。
+     *
+     * @param keys 缓存键集合
+     * @return 与缓存键顺序一一对应的值，不存在的键对应 null
+     */
+    CompletableFuture<List<byte[]>> multiGetBytes(List<byte[]> keys);
+
+    /**
+     * 批量设置缓存值，并指定相同的过期时间，一次往返完成。
+     *
+     * @param map     键值对
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> multiSet(Map<K, V> map, long timeout, TimeUnit unit);
+
+    /**
+     * 批量设置缓存字节数组，并指定相同的过期时间，一次往返完成。
+     * 字节数组作为 map 的键时按引用比较，这里只对其进行遍历。
+     *
+     * @param map     键值对
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit);
+
+    /**
+     * 批量删除缓存值，一次往返完成。
+     *
+     * @param keys 缓存键集合
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> multiDelete(Collection<K> keys);
+
+    /**
+     * 批量删除缓存字节数组，一次往返完成。
+     *
+     * @param keys 缓存键集合
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> multiDeleteBytes(Collection<byte[]> keys);
+
+    // ===== Hash Operations =====
+
+    /**
+     * 将哈希值放入缓存中。
+     *
+     * @param key     缓存键
+     * @param hashKey 哈希键
+     * @param value   哈希值
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> putHash(K key, K hashKey, V value);
+
+    /**
+     * 将哈希值放入缓存中，并指定过期时间。
+     *
+     * @param key     缓存键
+     * @param hashKey 哈希键
+     * @param value   哈希值
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> putHash(K key, K hashKey, V value, long timeout, TimeUnit unit);
+
+    /**
+     * 获取缓存中的哈希值。
+     *
+     * @param key     缓存键
+     * @param hashKey 哈希键
+     * @return 哈希值
+     */
+    CompletableFuture<V> getHash(K key, K hashKey);
+
+    /**
+     * 删除缓存中的哈希值。
+     *
+     * @param key     缓存键
+     * @param hashKey 哈希键
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> deleteHash(K key, K hashKey);
+
+    /**
+     * 批量获取缓存中的哈希值。
+     *
+     * @param key 缓存键
+     * @return 哈希键值对
+     */
+    CompletableFuture<Map<K, V>> getHashAll(K key);
+
+    /**
+     * 批量设置缓存中的哈希值。
+     *
+     * @param key 缓存键
+     * @param map 哈希键值对
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> putHashAll(K key, Map<K, V> map);
+
+    /**
+     * 批量设置缓存中的哈希值，并指定过期时间。
+     *
+     * @param key     缓存键
+     * @param map     哈希键值对
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> putHashAll(K key, Map<K, V> map, long timeout, TimeUnit unit);
+
+    // ===== List Operations =====
+
+    /**
+     * 将值加入列表缓存中。
+     *
+     * @param key   缓存键
+     * @param value 列表值
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> pushToList(K key, V value);
+
+    /**
+     * 将值加入列表缓存中，并指定过期时间。
+     *
+     * @param key     缓存键
+     * @param value   列表值
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> pushToList(K key, V value, long timeout, TimeUnit unit);
+
+    /**
+     * 从列表缓存中弹出一个值。
+     *
+     * @param key 缓存键
+     * @return 列表值
+     */
+    CompletableFuture<V> popFromList(K key);
+
+    /**
+     * 获取列表缓存中的所有值。
+     *
+     * @param key 缓存键
+     * @return 列表值
+     */
+    CompletableFuture<List<V>> getList(K key);
+
+    // ===== Set Operations =====
+
+    /**
+     * 将值加入集合缓存中。
+     *
+     * @param key   缓存键
+     * @param value 集合值
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> addToSet(K key, V value);
+
+    /**
+     * 将值加入集合缓存中，并指定过期时间。
+     *
+     * @param key     缓存键
+     * @param value   集合值
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> addToSet(K key, V value, long timeout, TimeUnit unit);
+
+    /**
+     * 获取集合缓存中的所有值。
+     *
+     * @param key 缓存键
+     * @return 集合值
+     */
+    CompletableFuture<Set<V>> getSet(K key);
+
+    /**
+     * 从集合缓存中移除指定值。
+     *
+     * @param key   缓存键
+     * @param value 要移除的值
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> removeFromSet(K key, V value);
+
+    // ===== Common Operations =====
+
+    /**
+     * 检查缓存中是否存在指定键。
+     *
+     * @param key 缓存键
+     * @return 如果存在则返回 true，否则返回 false
+     */
+    CompletableFuture<Boolean> exists(K key);
+
+    /**
+     * 设置缓存键的过期时间。
+     *
+     * @param key     缓存键
+     * @param timeout 过期时间（秒）
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> expire(K key, long timeout);
+
+    /**
+     * 设置缓存键的过期时间，并指定时间单位。
+     *
+     * @param key     缓存键
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> expire(K key, long timeout, TimeUnit unit);
+
+    /**
+     * 获取缓存中的键值对总数。
+     *
+     * @param key 缓存键
+     * @return 键值对总数
+     */
+    CompletableFuture<Long> size(K key);
+
+    /**
+     * 删除缓存中的多个键值对。
+     *
+     * @param keys 要删除的缓存键集合
+     * @return 操作完成时结束的 future
+     */
+    CompletableFuture<Void> deleteMultiple(Set<K> keys);
+}
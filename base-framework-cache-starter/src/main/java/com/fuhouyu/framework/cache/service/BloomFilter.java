@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service;
+
+import java.util.Collection;
+
+/**
+ * 布隆过滤器，用于在加载前判断元素是否可能存在，拦截对不存在数据的查询（缓存穿透）。
+ * 返回不存在时一定不存在，返回可能存在时有一定概率误判，误判率由预计元素数量及位数组大小决定。
+ * 元素按 UTF-8 编码后计算哈希，只能添加不能删除。
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 18:10
+ */
+public interface BloomFilter {
+
+    /**
+     * 添加元素
+     *
+     * @param element 元素
+     * @return 有位由0变为1时返回 true，返回 false 表示元素可能已经添加过
+     */
+    boolean put(String element);
+
+    /**
+     * 批量添加元素
+     *
+     * @param elements 元素
+     */
+    void putAll(Collection<String> elements);
+
+    /**
+     * 元素是否可能存在
+     *
+     * @param element 元素
+     * @return 返回 false 时元素一定不存在
+     */
+    boolean mightContain(String element);
+
+    /**
+     * 位数组的大小
+     *
+     * @return 位数
+     */
+    long bitSize();
+
+    /**
+     * 每个元素使用的哈希函数数量
+     *
+     * @return 哈希函数数量
+     */
+    int hashFunctions();
+
+    /**
+     * 清空所有元素
+     */
+    void clear();
+}
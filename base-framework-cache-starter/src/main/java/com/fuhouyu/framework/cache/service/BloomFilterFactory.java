@@ -0,0 +1,46 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service;
+
+/**
+ * 布隆过滤器工厂，同一个名称始终返回同一个过滤器，
+ * 使用 redis 的缓存模式下过滤器存放在 redis 中由各节点共享，caffeine 模式下只存在于当前 jvm。
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 18:10
+ */
+public interface BloomFilterFactory {
+
+    /**
+     * 按配置的预计元素数量及误判率获取布隆过滤器
+     *
+     * @param name 过滤器名称
+     * @return 布隆过滤器
+     */
+    BloomFilter getBloomFilter(String name);
+
+    /**
+     * 获取布隆过滤器，名称已存在时忽略本次指定的大小，返回已有的过滤器
+     *
+     * @param name               过滤器名称
+     * @param expectedInsertions 预计元素数量
+     * @param fpp                期望的误判率，取值 (0, 1)
+     * @return 布隆过滤器
+     */
+    BloomFilter getBloomFilter(String name, long expectedInsertions, double fpp);
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service;
+
+import java.util.Set;
+
+/**
+ * 缓存区域注册表，每个区域拥有独立的存储、容量、默认过期时间及键前缀，
+ * 避免某一类数据的突发写入把其他区域的热点数据淘汰。
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 19:20
+ */
+public interface CacheRegionRegistry {
+
+    /**
+     * 获取区域的缓存服务，区域未配置时返回默认的缓存服务
+     *
+     * @param name 区域名称
+     * @return 缓存服务
+     */
+    CacheService<String, Object> getRegion(String name);
+
+    /**
+     * 区域是否已配置
+     *
+     * @param name 区域名称
+     * @return 是否已配置
+     */
+    boolean containsRegion(String name);
+
+    /**
+     * 已配置的区域名称
+     *
+     * @return 区域名称
+     */
+    Set<String> getRegionNames();
+}
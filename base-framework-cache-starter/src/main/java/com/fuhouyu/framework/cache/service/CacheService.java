@@ -16,10 +16,17 @@
 
 package com.fuhouyu.framework.cache.service;
 
+import com.fuhouyu.framework.cache.model.CompareAndSetResult;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
+import com.fuhouyu.framework.cache.model.VersionedValue;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * 通用缓存服务接口，支持多种数据类型的缓存操作，适用于不同的缓存实现。
@@ -98,6 +105,96 @@ public interface CacheService<K, V> {
      */
     void delete(byte[] key);
 
+    // ===== Batch Operations =====
+
+    /**
+     * 批量获取缓存中的值，一次往返完成。
+     *
+     * @param keys 缓存键集合
+     * @return 存在的键值对，不存在的键不会出现在结果中
+     */
+    Map<K, V> multiGet(Collection<K> keys);
+
+    /**
+     * 批量获取缓存中的字节数组，一次往返完成。
+     *
+     * @param keys 缓存键集合
+     * @return 与缓存键顺序一一对应的值，不存在的键对应 null
+     */
+    List<byte[]> multiGetBytes(List<byte[]> keys);
+
+    /**
+     * 批量获取缓存中的值及剩余过期时间，一次往返完成。
+     * 多级缓存回填本地缓存时使用，本地缓存不会比二级缓存存活更久。
+     *
+     * @param keys 缓存键集合
+     * @return 存在的键及其值，不存在的键不会出现在结果中
+     */
+    Map<K, ExpiringValue<V>> multiGetWithTtl(Collection<K> keys);
+
+    /**
+     * 批量获取缓存中的字节数组及剩余过期时间，一次往返完成。
+     *
+     * @param keys 缓存键集合
+     * @return 与缓存键顺序一一对应的值，不存在的键对应 null
+     */
+    List<ExpiringValue<byte[]>> multiGetBytesWithTtl(List<byte[]> keys);
+
+    /**
+     * 批量设置缓存值，并指定相同的过期时间，一次往返完成。
+     *
+     * @param map     键值对
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     */
+    void multiSet(Map<K, V> map, long timeout, TimeUnit unit);
+
+    /**
+     * 批量设置缓存字节数组，并指定相同的过期时间，一次往返完成。
+     * 字节数组作为 map 的键时按引用比较，这里只对其进行遍历。
+     *
+     * @param map     键值对
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     */
+    void multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit);
+
+    /**
+     * 批量设置缓存字节数组，每个键使用各自的过期时间，一次往返完成。
+     * 值与过期时间放在同一个条目中，字节数组作为 map 的键时按引用比较，这里只对其进行遍历。
+     *
+     * @param entries 键及其值与过期时间（毫秒），过期时间小于等于0时不过期
+     */
+    void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries);
+
+    /**
+     * 批量删除缓存值，一次往返完成。
+     *
+     * @param keys 缓存键集合
+     */
+    void multiDelete(Collection<K> keys);
+
+    /**
+     * 批量删除缓存字节数组，一次往返完成。
+     *
+     * @param keys 缓存键集合
+     */
+    void multiDeleteBytes(Collection<byte[]> keys);
+
+    // ===== Load Operations =====
+
+    /**
+     * 获取缓存值，未命中时调用加载函数并写入缓存。
+     * 同一个键在当前 jvm 中同一时刻只会执行一次加载，其余调用方等待同一个加载结果，避免热点键失效时击穿数据源。
+     *
+     * @param key     缓存键
+     * @param loader  加载函数，返回 null 时不写入缓存
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     * @return 缓存值
+     */
+    V getOrLoad(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit);
+
     // ===== Hash Operations =====
 
     /**
@@ -235,6 +332,222 @@ public interface CacheService<K, V> {
      */
     void removeFromSet(K key, V value);
 
+    // ===== Counter Operations =====
+
+    /**
+     * 原子地累加计数器，计数器不存在时从0开始，一次往返完成。
+     * 计数器与普通值的存储方式不同，只能通过 {@link #getCounter(Object)} 读取。
+     *
+     * @param key   缓存键
+     * @param delta 增量，可以为负数
+     * @return 累加后的值
+     */
+    long increment(K key, long delta);
+
+    /**
+     * 原子地累加计数器，并在计数器创建时设置过期时间，一次往返完成。
+     * 之后的累加不会延长过期时间，适合按固定时间窗口计数。
+     *
+     * @param key     缓存键
+     * @param delta   增量，可以为负数
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     * @return 累加后的值
+     */
+    long increment(K key, long delta, long timeout, TimeUnit unit);
+
+    /**
+     * 原子地递减计数器，等同于增量取反的 {@link #increment(Object, long)}。
+     *
+     * @param key   缓存键
+     * @param delta 减量
+     * @return 递减后的值
+     */
+    default long decrement(K key, long delta) {
+        return this.increment(key, -delta);
+    }
+
+    /**
+     * 原子地递减计数器，并在计数器创建时设置过期时间，
+     * 等同于增量取反的 {@link #increment(Object, long, long, TimeUnit)}。
+     *
+     * @param key     缓存键
+     * @param delta   减量
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     * @return 递减后的值
+     */
+    default long decrement(K key, long delta, long timeout, TimeUnit unit) {
+        return this.increment(key, -delta, timeout, unit);
+    }
+
+    /**
+     * 获取计数器的当前值。
+     *
+     * @param key 缓存键
+     * @return 计数器的值，不存在时返回0
+     */
+    long getCounter(K key);
+
+    // ===== Sorted Set Operations =====
+
+    /**
+     * 将值加入有序集合，已存在时更新分数。
+     *
+     * @param key   缓存键
+     * @param value 成员
+     * @param score 分数
+     */
+    void addToSortedSet(K key, V value, double score);
+
+    /**
+     * 将值加入有序集合，已存在时更新分数，并指定过期时间，一次往返完成。
+     *
+     * @param key     缓存键
+     * @param value   成员
+     * @param score   分数
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     */
+    void addToSortedSet(K key, V value, double score, long timeout, TimeUnit unit);
+
+    /**
+     * 原子地累加有序集合成员的分数，成员不存在时从0开始。
+     *
+     * @param key   缓存键
+     * @param value 成员
+     * @param delta 增量，可以为负数
+     * @return 累加后的分数
+     */
+    double incrementScore(K key, V value, double delta);
+
+    /**
+     * 获取有序集合成员的分数。
+     *
+     * @param key   缓存键
+     * @param value 成员
+     * @return 分数，成员不存在时返回 null
+     */
+    Double getScore(K key, V value);
+
+    /**
+     * 获取成员按分数从低到高的排名。
+     *
+     * @param key   缓存键
+     * @param value 成员
+     * @return 从0开始的排名，成员不存在时返回 null
+     */
+    Long rankInSortedSet(K key, V value);
+
+    /**
+     * 获取成员按分数从高到低的排名。
+     *
+     * @param key   缓存键
+     * @param value 成员
+     * @return 从0开始的排名，成员不存在时返回 null
+     */
+    Long reverseRankInSortedSet(K key, V value);
+
+    /**
+     * 按分数从低到高获取排名在指定区间内的成员及分数，区间规则同 redis ZRANGE，负数表示倒数。
+     *
+     * @param key   缓存键
+     * @param start 起始排名（包含）
+     * @param end   结束排名（包含），-1 表示最后一个
+     * @return 按排名排列的成员及分数
+     */
+    List<Map.Entry<V, Double>> rangeSortedSet(K key, long start, long end);
+
+    /**
+     * 按分数从高到低获取排名在指定区间内的成员及分数，适用于排行榜的前 N 名。
+     *
+     * @param key   缓存键
+     * @param start 起始排名（包含）
+     * @param end   结束排名（包含），-1 表示最后一个
+     * @return 按排名排列的成员及分数
+     */
+    List<Map.Entry<V, Double>> reverseRangeSortedSet(K key, long start, long end);
+
+    /**
+     * 从有序集合中移除成员。
+     *
+     * @param key   缓存键
+     * @param value 成员
+     */
+    void removeFromSortedSet(K key, V value);
+
+    /**
+     * 获取有序集合的成员数量。
+     *
+     * @param key 缓存键
+     * @return 成员数量，不存在时返回0
+     */
+    long sortedSetSize(K key);
+
+    // ===== HyperLogLog Operations =====
+
+    /**
+     * 将值加入 HyperLogLog，用于以固定的少量内存估算不重复元素的数量，标准误差约 0.81%。
+     *
+     * @param key    缓存键
+     * @param values 元素
+     * @return 估算的数量是否发生变化
+     */
+    boolean addToHyperLogLog(K key, Collection<V> values);
+
+    /**
+     * 估算 HyperLogLog 中不重复元素的数量。
+     *
+     * @param key 缓存键
+     * @return 不重复元素的估算数量，不存在时返回0
+     */
+    long countHyperLogLog(K key);
+
+    /**
+     * 估算多个 HyperLogLog 合并后不重复元素的数量，不会修改原有的键。
+     *
+     * @param keys 缓存键集合
+     * @return 不重复元素的估算数量
+     */
+    long countHyperLogLog(Collection<K> keys);
+
+    // ===== Versioned Operations =====
+
+    /**
+     * 读取带版本号的值，只能读取通过 {@link #compareAndSet} 写入的键
+     *
+     * @param key 缓存键
+     * @return 带版本号的值，不存在时返回 null
+     */
+    VersionedValue<V> getVersioned(K key);
+
+    /**
+     * 当前版本号等于期望版本号时写入新值并将版本号加1，检查与写入一次往返完成，用于代替加锁的读-改-写。
+     * 版本冲突时不写入，返回缓存中的当前值供调用方重试。带版本号的值与普通值的存储方式不同，
+     * 只能通过 {@link #getVersioned(Object)} 读取，通过 {@link #delete(Object)} 删除。
+     *
+     * @param key             缓存键
+     * @param expectedVersion 期望的版本号，为0时表示期望键不存在
+     * @param newValue        新值
+     * @param timeout         过期时间，小于等于0时保留原有的过期时间，新建的键不过期
+     * @param unit            时间单位
+     * @return 写入结果
+     */
+    CompareAndSetResult<V> compareAndSet(K key, long expectedVersion, V newValue, long timeout, TimeUnit unit);
+
+    /**
+     * 当前版本号等于期望版本号时写入新值，保留原有的过期时间
+     *
+     * @param key             缓存键
+     * @param expectedVersion 期望的版本号，为0时表示期望键不存在
+     * @param newValue        新值
+     * @return 写入结果
+     * @see #compareAndSet(Object, long, Object, long, TimeUnit)
+     */
+    default CompareAndSetResult<V> compareAndSet(K key, long expectedVersion, V newValue) {
+        return this.compareAndSet(key, expectedVersion, newValue, -1, TimeUnit.SECONDS);
+    }
+
     // ===== Common Operations =====
 
     /**
@@ -276,4 +589,55 @@ public interface CacheService<K, V> {
      * @param keys 要删除的缓存键集合
      */
     void deleteMultiple(Set<K> keys);
+
+    // ===== Scan Operations =====
+
+    /**
+     * 分批遍历 hash 的字段及值，不会一次性加载整个 hash。
+     * 遍历期间的修改可能被遗漏或重复返回，使用完毕后需关闭返回的流以释放游标。
+     *
+     * @param key       缓存键
+     * @param batchSize 每批读取的数量
+     * @return 字段及值
+     */
+    Stream<Map.Entry<K, V>> scanHash(K key, int batchSize);
+
+    /**
+     * 按窗口分批遍历 list，不会一次性加载整个 list。
+     * 遍历期间的修改可能被遗漏或重复返回，使用完毕后需关闭返回的流。
+     *
+     * @param key       缓存键
+     * @param batchSize 每批读取的数量
+     * @return list 中的值
+     */
+    Stream<V> scanList(K key, int batchSize);
+
+    /**
+     * 分批遍历 set，不会一次性加载整个 set。
+     * 遍历期间的修改可能被遗漏或重复返回，使用完毕后需关闭返回的流以释放游标。
+     *
+     * @param key       缓存键
+     * @param batchSize 每批读取的数量
+     * @return set 中的值
+     */
+    Stream<V> scanSet(K key, int batchSize);
+
+    /**
+     * 分批遍历匹配的缓存键，使用 redis 的 glob 规则（{@code *}、{@code ?}、{@code [...]}），不会使用 KEYS 命令。
+     * 使用完毕后需关闭返回的流以释放游标。
+     *
+     * @param pattern   键的匹配规则
+     * @param batchSize 每批读取的数量
+     * @return 匹配的缓存键
+     */
+    Stream<K> scanKeys(String pattern, int batchSize);
+
+    /**
+     * 分批删除匹配的缓存键，每批遍历到的键在一次命令中删除。
+     *
+     * @param pattern   键的匹配规则，规则同 {@link #scanKeys(String, int)}
+     * @param batchSize 每批遍历及删除的数量
+     * @return 删除的键数量
+     */
+    long deleteByPattern(String pattern, int batchSize);
 }
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service;
+
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+
+import java.time.Duration;
+
+/**
+ * 限流器，同一个限流器下的不同键（如用户、ip）分别计数，每个键在一个周期内最多获取 {@link #permits()} 个许可。
+ * 获取失败时立即返回，不会阻塞等待。
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+public interface RateLimiter {
+
+    /**
+     * 获取一个许可
+     *
+     * @param key 限流的键
+     * @return 是否获取成功
+     */
+    default boolean tryAcquire(String key) {
+        return this.tryAcquire(key, 1);
+    }
+
+    /**
+     * 获取多个许可，许可不足时一个也不获取
+     *
+     * @param key     限流的键
+     * @param permits 许可数，大于0
+     * @return 是否获取成功
+     */
+    boolean tryAcquire(String key, int permits);
+
+    /**
+     * 限流算法
+     *
+     * @return 限流算法
+     */
+    RateLimiterAlgorithmEnum algorithm();
+
+    /**
+     * 每个周期的许可数
+     *
+     * @return 许可数
+     */
+    long permits();
+
+    /**
+     * 周期
+     *
+     * @return 周期
+     */
+    Duration period();
+}
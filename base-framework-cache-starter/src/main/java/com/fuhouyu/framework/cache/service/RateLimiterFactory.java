@@ -0,0 +1,50 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service;
+
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+
+import java.time.Duration;
+
+/**
+ * 限流器工厂，同一个名称始终返回同一个限流器，
+ * 使用 redis 的缓存模式下计数存放在 redis 中由各节点共享，caffeine 模式下只存在于当前 jvm。
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+public interface RateLimiterFactory {
+
+    /**
+     * 按配置的算法、许可数及周期获取限流器
+     *
+     * @param name 限流器名称
+     * @return 限流器
+     */
+    RateLimiter getRateLimiter(String name);
+
+    /**
+     * 获取限流器，名称已存在时忽略本次指定的参数，返回已有的限流器
+     *
+     * @param name      限流器名称
+     * @param algorithm 限流算法
+     * @param permits   每个周期的许可数
+     * @param period    周期
+     * @return 限流器
+     */
+    RateLimiter getRateLimiter(String name, RateLimiterAlgorithmEnum algorithm, long permits, Duration period);
+}
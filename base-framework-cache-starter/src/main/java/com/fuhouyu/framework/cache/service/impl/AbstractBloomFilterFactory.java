@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.service.BloomFilter;
+import com.fuhouyu.framework.cache.service.BloomFilterFactory;
+import com.fuhouyu.framework.common.utils.LoggerUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * 布隆过滤器工厂的基类，按预计元素数量 n 及误判率 p 计算位数 {@code m = -n * ln(p) / ln(2)^2}
+ * 及哈希函数数量 {@code k = m / n * ln(2)}，位数受内存上限约束，超过上限时按上限创建，实际误判率会高于期望值。
+ * </p>
+ * <p>
+ * 元素的 k 个位置由两次 MurmurHash3 组合得到（Kirsch-Mitzenmacher），
+ * 相同名称、相同大小的过滤器在任意节点上计算出的位置相同。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 18:10
+ */
+@Slf4j
+public abstract class AbstractBloomFilterFactory implements BloomFilterFactory {
+
+    private final long expectedInsertions;
+
+    private final double fpp;
+
+    private final long maximumBits;
+
+    private final ConcurrentMap<String, BloomFilter> bloomFilters = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param expectedInsertions 默认的预计元素数量
+     * @param fpp                默认的误判率
+     * @param maximumBytes       单个过滤器的内存上限（字节）
+     * @param maximumBits        实现本身支持的最大位数
+     */
+    protected AbstractBloomFilterFactory(long expectedInsertions, double fpp, long maximumBytes, long maximumBits) {
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.maximumBits = Math.min(maximumBits, maximumBytes > Long.MAX_VALUE / Byte.SIZE ? Long.MAX_VALUE
+                : maximumBytes * Byte.SIZE);
+    }
+
+    @Override
+    public BloomFilter getBloomFilter(String name) {
+        return this.getBloomFilter(name, expectedInsertions, fpp);
+    }
+
+    @Override
+    public BloomFilter getBloomFilter(String name, long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("expectedInsertions must be positive: " + expectedInsertions);
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("fpp must be in (0, 1): " + fpp);
+        }
+        return bloomFilters.computeIfAbsent(name, key -> {
+            long bits = optimalBits(expectedInsertions, fpp);
+            if (bits > maximumBits) {
+                LoggerUtil.warn(log, "布隆过滤器 {} 需要 {} 位，超过上限 {} 位，误判率将高于 {}",
+                        name, bits, maximumBits, fpp);
+                bits = maximumBits;
+            }
+            return this.create(name, bits, optimalHashes(expectedInsertions, bits));
+        });
+    }
+
+    /**
+     * 创建布隆过滤器
+     *
+     * @param name          过滤器名称
+     * @param bits          位数
+     * @param hashFunctions 哈希函数数量
+     * @return 布隆过滤器
+     */
+    protected abstract BloomFilter create(String name, long bits, int hashFunctions);
+
+    /**
+     * 最优位数
+     *
+     * @param expectedInsertions 预计元素数量
+     * @param fpp                误判率
+     * @return 位数
+     */
+    static long optimalBits(long expectedInsertions, double fpp) {
+        return Math.max(Long.SIZE, (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2))));
+    }
+
+    /**
+     * 最优哈希函数数量
+     *
+     * @param expectedInsertions 预计元素数量
+     * @param bits               位数
+     * @return 哈希函数数量
+     */
+    static int optimalHashes(long expectedInsertions, long bits) {
+        return Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * 元素在位数组中的位置
+     *
+     * @param element       元素
+     * @param hashFunctions 哈希函数数量
+     * @param bits          位数
+     * @return 位置
+     */
+    static long[] bitIndexes(String element, int hashFunctions, long bits) {
+        byte[] data = element.getBytes(StandardCharsets.UTF_8);
+        int hash1 = ConsistentHashRing.murmur3(data, 0, data.length);
+        int hash2 = ConsistentHashRing.murmur3(data, 0, data.length, hash1);
+        long[] indexes = new long[hashFunctions];
+        long combined = Integer.toUnsignedLong(hash1);
+        long step = Integer.toUnsignedLong(hash2) | 1;
+        for (int i = 0; i < hashFunctions; i++) {
+            indexes[i] = (combined & Long.MAX_VALUE) % bits;
+            combined += step;
+        }
+        return indexes;
+    }
+}
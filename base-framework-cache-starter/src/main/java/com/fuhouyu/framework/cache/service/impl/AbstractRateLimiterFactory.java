@@ -0,0 +1,104 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+import com.fuhouyu.framework.cache.service.RateLimiter;
+import com.fuhouyu.framework.cache.service.RateLimiterFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * <p>
+ * 限流器工厂的基类，校验参数并按名称缓存限流器
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+public abstract class AbstractRateLimiterFactory implements RateLimiterFactory {
+
+    private final RateLimiterAlgorithmEnum algorithm;
+
+    private final long permits;
+
+    private final Duration period;
+
+    private final ConcurrentMap<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+    /**
+     * 构造函数
+     *
+     * @param algorithm 默认的限流算法
+     * @param permits   默认每个周期的许可数
+     * @param period    默认的周期
+     */
+    protected AbstractRateLimiterFactory(RateLimiterAlgorithmEnum algorithm, long permits, Duration period) {
+        this.algorithm = algorithm;
+        this.permits = permits;
+        this.period = period;
+    }
+
+    @Override
+    public RateLimiter getRateLimiter(String name) {
+        return this.getRateLimiter(name, algorithm, permits, period);
+    }
+
+    @Override
+    public RateLimiter getRateLimiter(String name, RateLimiterAlgorithmEnum algorithm, long permits, Duration period) {
+        if (Objects.isNull(algorithm)) {
+            throw new IllegalArgumentException("algorithm must not be null");
+        }
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        if (Objects.isNull(period) || period.toMillis() <= 0) {
+            throw new IllegalArgumentException("period must be at least 1ms: " + period);
+        }
+        if (algorithm == RateLimiterAlgorithmEnum.SLIDING_WINDOW && permits > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("sliding window permits must not exceed "
+                    + Integer.MAX_VALUE + ": " + permits);
+        }
+        return rateLimiters.computeIfAbsent(name, key -> this.create(name, algorithm, permits, period));
+    }
+
+    /**
+     * 创建限流器
+     *
+     * @param name      限流器名称
+     * @param algorithm 限流算法
+     * @param permits   每个周期的许可数
+     * @param period    周期
+     * @return 限流器
+     */
+    protected abstract RateLimiter create(String name, RateLimiterAlgorithmEnum algorithm, long permits,
+                                          Duration period);
+
+    /**
+     * 校验单次获取的许可数
+     *
+     * @param permits 许可数
+     */
+    static void checkPermits(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+    }
+}
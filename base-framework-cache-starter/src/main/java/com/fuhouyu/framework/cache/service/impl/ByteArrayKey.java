@@ -0,0 +1,99 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * 字节数组缓存键，按内容比较并预先计算哈希值。
+ * 用于替代 {@code new String(key)}，查询时只包装原数组，不解码也不复制。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 15:10
+ */
+public final class ByteArrayKey {
+
+    private final byte[] bytes;
+
+    private final int hash;
+
+    private ByteArrayKey(byte[] bytes) {
+        this.bytes = bytes;
+        this.hash = Arrays.hashCode(bytes);
+    }
+
+    /**
+     * 包装字节数组，不复制，仅用于查询、删除等不会保存键的操作
+     *
+     * @param bytes 字节数组
+     * @return 缓存键
+     */
+    public static ByteArrayKey wrap(byte[] bytes) {
+        return new ByteArrayKey(bytes);
+    }
+
+    /**
+     * 复制字节数组，用于写入，避免调用方之后修改数组影响缓存
+     *
+     * @param bytes 字节数组
+     * @return 缓存键
+     */
+    public static ByteArrayKey copyOf(byte[] bytes) {
+        return new ByteArrayKey(bytes.clone());
+    }
+
+    /**
+     * 键的长度
+     *
+     * @return 字节数
+     */
+    public int length() {
+        return bytes.length;
+    }
+
+    /**
+     * 键的内容，仅供同一个包内只读使用
+     *
+     * @return 字节数组
+     */
+    byte[] bytes() {
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ByteArrayKey other)) {
+            return false;
+        }
+        return hash == other.hash && Arrays.equals(bytes, other.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "ByteArrayKey[length=" + bytes.length + "]";
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.model.VersionedValue;
+import com.github.benmanes.caffeine.cache.Weigher;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * <p>
+ * 按估算的内存占用（字节）计算缓存条目权重。
+ * hash、list、set、有序集合按元素数量乘以抽样元素的平均大小估算，计算开销与集合大小无关，
+ * 使少量超大集合也会按其实际占用参与淘汰，而不是只算作一个条目。
+ * </p>
+ * <p>
+ * 估算值只用于淘汰，不追求精确；无法识别的对象按固定大小计算。
+ * </p>
+ *
+ * @param <K> 缓存键的类型
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 14:35
+ */
+public class CacheEntryWeigher<K, V> implements Weigher<K, V> {
+
+    private static final int OBJECT_SIZE = 16;
+
+    private static final int STRING_SIZE = 40;
+
+    private static final int COLLECTION_SIZE = 64;
+
+    private static final int NODE_SIZE = 32;
+
+    private static final int UNKNOWN_SIZE = 64;
+
+    private static final int SAMPLE_SIZE = 8;
+
+    private static final int MAX_DEPTH = 2;
+
+    @Override
+    public int weigh(K key, V value) {
+        long weight = estimate(key, 0) + estimate(value, 0);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(1, weight));
+    }
+
+    /**
+     * 估算对象占用的字节数
+     *
+     * @param value 对象
+     * @param depth 嵌套深度，超过后按固定大小计算
+     * @return 估算的字节数
+     */
+    static long estimate(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof byte[] bytes) {
+            return OBJECT_SIZE + bytes.length;
+        }
+        if (value instanceof ByteArrayKey key) {
+            return OBJECT_SIZE * 2 + key.length();
+        }
+        if (value instanceof CharSequence chars) {
+            return STRING_SIZE + chars.length();
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return OBJECT_SIZE;
+        }
+        if (depth >= MAX_DEPTH) {
+            return UNKNOWN_SIZE;
+        }
+        if (value instanceof Map<?, ?> map) {
+            return COLLECTION_SIZE + (long) map.size() * (NODE_SIZE + sampleMap(map, depth + 1));
+        }
+        if (value instanceof Collection<?> collection) {
+            return COLLECTION_SIZE + (long) collection.size() * (NODE_SIZE + sample(collection, depth + 1));
+        }
+        if (value instanceof LocalDeque<?> deque) {
+            return COLLECTION_SIZE + (long) deque.size() * (NODE_SIZE + sample(deque, depth + 1));
+        }
+        if (value instanceof LocalSortedSet<?> sortedSet) {
+            // 成员同时存放在 map 及跳表中
+            return COLLECTION_SIZE * 2 + (long) sortedSet.size() * (NODE_SIZE * 3 + sample(sortedSet, depth + 1));
+        }
+        if (value instanceof LocalHyperLogLog) {
+            return LocalHyperLogLog.SIZE;
+        }
+        if (value instanceof VersionedValue<?> versionedValue) {
+            return OBJECT_SIZE * 2 + estimate(versionedValue.getValue(), depth + 1);
+        }
+        return UNKNOWN_SIZE;
+    }
+
+    /**
+     * 抽样集合的前若干个元素，返回平均大小
+     */
+    private static long sample(Iterable<?> elements, int depth) {
+        Iterator<?> iterator = elements.iterator();
+        long total = 0;
+        int count = 0;
+        while (count < SAMPLE_SIZE && iterator.hasNext()) {
+            total += estimate(iterator.next(), depth);
+            count++;
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * 抽样 map 的前若干个键值对，返回平均大小
+     */
+    private static long sampleMap(Map<?, ?> map, int depth) {
+        Iterator<? extends Map.Entry<?, ?>> iterator = map.entrySet().iterator();
+        long total = 0;
+        int count = 0;
+        while (count < SAMPLE_SIZE && iterator.hasNext()) {
+            Map.Entry<?, ?> entry = iterator.next();
+            total += estimate(entry.getKey(), depth) + estimate(entry.getValue(), depth);
+            count++;
+        }
+        return count == 0 ? 0 : total / count;
+    }
+}
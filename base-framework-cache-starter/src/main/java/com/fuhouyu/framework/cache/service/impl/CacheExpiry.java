@@ -0,0 +1,62 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.checkerframework.checker.index.qual.NonNegative;
+
+/**
+ * <p>
+ * 本地缓存的可变过期策略：创建时使用默认过期时间，读取不影响过期时间，
+ * 单独指定过期时间的写入通过 {@code policy().expireVariably()} 完成。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 15:10
+ */
+public class CacheExpiry implements Expiry<Object, Object> {
+
+    private final long createNanos;
+
+    private final boolean resetOnUpdate;
+
+    /**
+     * 构造函数
+     *
+     * @param createNanos   创建时的过期时间（纳秒），{@link Long#MAX_VALUE} 表示永不过期
+     * @param resetOnUpdate 更新时是否重置为默认过期时间，否则保持剩余时间不变
+     */
+    public CacheExpiry(long createNanos, boolean resetOnUpdate) {
+        this.createNanos = createNanos;
+        this.resetOnUpdate = resetOnUpdate;
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return createNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, @NonNegative long currentDuration) {
+        return resetOnUpdate ? createNanos : currentDuration;
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, @NonNegative long currentDuration) {
+        return currentDuration;
+    }
+}
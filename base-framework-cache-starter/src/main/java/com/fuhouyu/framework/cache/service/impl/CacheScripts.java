@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * <p>
+ * 缓存服务使用的 lua 脚本，同步与异步实现共用，通过 EVALSHA 调用，服务端未缓存时改用 EVAL。
+ * 带过期时间的写入脚本中 ARGV[1] 均为过期毫秒数，小于等于0时不设置过期时间。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 16:50
+ */
+final class CacheScripts {
+
+    /**
+     * 写入 hash 并设置过期时间，ARGV[2] 起为字段与值交替排列
+     */
+    static final RedisScript<Long> HSET_WITH_TTL_SCRIPT = RedisScript.of("for i = 2, #ARGV, 2 do "
+            + "redis.call('hset', KEYS[1], ARGV[i], ARGV[i + 1]) end "
+            + "if tonumber(ARGV[1]) > 0 then redis.call('pexpire', KEYS[1], ARGV[1]) end "
+            + "return 1", Long.class);
+
+    /**
+     * 追加到 list 尾部并设置过期时间，ARGV[2] 为值
+     */
+    static final RedisScript<Long> RPUSH_WITH_TTL_SCRIPT = RedisScript.of(
+            "redis.call('rpush', KEYS[1], ARGV[2]) "
+                    + "if tonumber(ARGV[1]) > 0 then redis.call('pexpire', KEYS[1], ARGV[1]) end "
+                    + "return 1", Long.class);
+
+    /**
+     * 加入 set 并设置过期时间，ARGV[2] 为值
+     */
+    static final RedisScript<Long> SADD_WITH_TTL_SCRIPT = RedisScript.of(
+            "redis.call('sadd', KEYS[1], ARGV[2]) "
+                    + "if tonumber(ARGV[1]) > 0 then redis.call('pexpire', KEYS[1], ARGV[1]) end "
+                    + "return 1", Long.class);
+
+    /**
+     * 加入有序集合并设置过期时间，ARGV[2] 为分数，ARGV[3] 为成员
+     */
+    static final RedisScript<Long> ZADD_WITH_TTL_SCRIPT = RedisScript.of(
+            "redis.call('zadd', KEYS[1], ARGV[2], ARGV[3]) "
+                    + "if tonumber(ARGV[1]) > 0 then redis.call('pexpire', KEYS[1], ARGV[1]) end "
+                    + "return 1", Long.class);
+
+    /**
+     * 累加计数器，计数器没有过期时间（即刚创建）时设置过期时间，ARGV[2] 为增量，返回累加后的值
+     */
+    static final RedisScript<Long> INCRBY_WITH_TTL_SCRIPT = RedisScript.of(
+            "local value = redis.call('incrby', KEYS[1], ARGV[2]) "
+                    + "if tonumber(ARGV[1]) > 0 and redis.call('pttl', KEYS[1]) == -1 then "
+                    + "redis.call('pexpire', KEYS[1], ARGV[1]) end "
+                    + "return value", Long.class);
+
+    /**
+     * 令牌桶限流（GCRA），键中保存理论到达时间（微秒），时间取 redis 服务端时间。
+     * ARGV[1] 为每个许可的间隔微秒数，ARGV[2] 为周期微秒数，ARGV[3] 为最少获取的许可数，ARGV[4] 为最多获取的许可数，
+     * 返回实际获取的许可数，不足最少许可数时返回0且不扣减
+     */
+    static final RedisScript<Long> TOKEN_BUCKET_SCRIPT = RedisScript.of(
+            "local time = redis.call('time') "
+                    + "local now = tonumber(time[1]) * 1000000 + tonumber(time[2]) "
+                    + "local interval = tonumber(ARGV[1]) "
+                    + "local tat = math.max(tonumber(redis.call('get', KEYS[1]) or 0), now) "
+                    + "local granted = math.min(tonumber(ARGV[4]), "
+                    + "math.floor((tonumber(ARGV[2]) - (tat - now)) / interval)) "
+                    + "if granted < tonumber(ARGV[3]) then return 0 end "
+                    + "tat = tat + granted * interval "
+                    + "redis.call('set', KEYS[1], string.format('%.0f', tat), 'px', math.ceil((tat - now) / 1000)) "
+                    + "return granted", Long.class);
+
+    /**
+     * 滑动窗口日志限流，键为有序集合，分数为获取时间（微秒），时间取 redis 服务端时间。
+     * ARGV[1] 为周期微秒数，ARGV[2] 为许可数，ARGV[3] 为最少获取的许可数，ARGV[4] 为最多获取的许可数，
+     * ARGV[5] 为本次调用唯一的成员前缀，返回实际获取的许可数，不足最少许可数时返回0且不记录
+     */
+    static final RedisScript<Long> SLIDING_WINDOW_SCRIPT = RedisScript.of(
+            "local time = redis.call('time') "
+                    + "local now = tonumber(time[1]) * 1000000 + tonumber(time[2]) "
+                    + "local period = tonumber(ARGV[1]) "
+                    + "redis.call('zremrangebyscore', KEYS[1], '-inf', string.format('%.0f', now - period)) "
+                    + "local granted = math.min(tonumber(ARGV[4]), tonumber(ARGV[2]) - redis.call('zcard', KEYS[1])) "
+                    + "if granted < tonumber(ARGV[3]) then return 0 end "
+                    + "local score = string.format('%.0f', now) "
+                    + "for i = 1, granted do redis.call('zadd', KEYS[1], score, ARGV[5] .. i) end "
+                    + "redis.call('pexpire', KEYS[1], math.ceil(period / 1000)) "
+                    + "return granted", Long.class);
+
+    /**
+     * 版本号等于期望值时写入带版本号的值并设置过期时间，以 hash 保存，字段 version 为版本号，value 为值。
+     * ARGV[2] 为期望的版本号，ARGV[3] 为新值，成功返回 {1, 新版本号}，冲突返回 {0, 当前版本号, 当前值}
+     */
+    static final RedisScript<List<Object>> COMPARE_AND_SET_SCRIPT = RedisScript.of(
+            "local current = redis.call('hmget', KEYS[1], 'version', 'value') "
+                    + "local version = tonumber(current[1]) or 0 "
+                    + "if version ~= tonumber(ARGV[2]) then return {0, version, current[2]} end "
+                    + "redis.call('hset', KEYS[1], 'version', version + 1, 'value', ARGV[3]) "
+                    + "if tonumber(ARGV[1]) > 0 then redis.call('pexpire', KEYS[1], ARGV[1]) end "
+                    + "return {1, version + 1}");
+
+    /**
+     * 追加失效通知，序号为最后一条通知的序号加1，stream 被删除后从1重新开始。
+     * 不带过期时间，ARGV[1] 为 stream 的近似最大长度，ARGV[2] 为主题，ARGV[3] 为消息体，返回序号
+     */
+    static final RedisScript<Long> XADD_INVALIDATION_SCRIPT = RedisScript.of(
+            "local last = redis.call('xrevrange', KEYS[1], '+', '-', 'count', 1) "
+                    + "local seq = 1 "
+                    + "if #last > 0 then seq = tonumber(last[1][2][2]) + 1 end "
+                    + "redis.call('xadd', KEYS[1], 'maxlen', '~', ARGV[1], '*', "
+                    + "'seq', seq, 'topic', ARGV[2], 'body', ARGV[3]) "
+                    + "return seq", Long.class);
+
+    private static final String NO_SCRIPT_ERROR = "NOSCRIPT";
+
+    private CacheScripts() {
+    }
+
+    /**
+     * 是否为服务端未缓存脚本的错误
+     *
+     * @param e 异常
+     * @return 是否为 NOSCRIPT 错误
+     */
+    static boolean isNoScriptError(Throwable e) {
+        for (Throwable cause = e; Objects.nonNull(cause); cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (Objects.nonNull(message) && message.contains(NO_SCRIPT_ERROR)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,301 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.service.AsyncCacheService;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * <p>
+ * 基于 Caffeine {@link AsyncCache} 的异步缓存实现。
+ * 读取直接返回缓存中的 future，其余操作均在内存中完成，通过 {@link CaffeineCacheServiceImpl} 作用于同一个缓存，
+ * 并以已完成的 future 返回。
+ * </p>
+ *
+ * @param <K> 缓存键的类型
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 12:20
+ */
+public class CaffeineAsyncCacheServiceImpl<K, V> implements AsyncCacheService<K, V> {
+
+    private final AsyncCache<K, V> cache;
+
+    private final CaffeineCacheServiceImpl<K, V> delegate;
+
+    public CaffeineAsyncCacheServiceImpl(AsyncCache<K, V> cache) {
+        this.cache = cache;
+        this.delegate = new CaffeineCacheServiceImpl<>(cache.synchronous());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param cache      对象键的缓存
+     * @param bytesCache byte[] 键的缓存，与同步缓存服务共用时两者可见同一份数据
+     */
+    public CaffeineAsyncCacheServiceImpl(AsyncCache<K, V> cache, Cache<ByteArrayKey, byte[]> bytesCache) {
+        this.cache = cache;
+        this.delegate = new CaffeineCacheServiceImpl<>(cache.synchronous(), bytesCache);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param cache    对象键的缓存
+     * @param delegate 作用于同一个缓存的同步缓存服务，byte[] 的存储方式由其决定
+     */
+    public CaffeineAsyncCacheServiceImpl(AsyncCache<K, V> cache, CaffeineCacheServiceImpl<K, V> delegate) {
+        this.cache = cache;
+        this.delegate = delegate;
+    }
+
+    // ===== String Operations =====
+
+    @Override
+    public CompletableFuture<Void> set(byte[] key, byte[] value) {
+        return this.run(() -> delegate.set(key, value));
+    }
+
+    @Override
+    public CompletableFuture<Void> set(K key, V value) {
+        cache.put(key, CompletableFuture.completedFuture(value));
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> set(K key, V value, long timeout, TimeUnit unit) {
+        return this.run(() -> delegate.set(key, value, timeout, unit));
+    }
+
+    @Override
+    public CompletableFuture<Void> set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+        return this.run(() -> delegate.set(key, value, timeout, unit));
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        CompletableFuture<V> future = cache.getIfPresent(key);
+        return Objects.isNull(future) ? CompletableFuture.completedFuture(null) : future;
+    }
+
+    @Override
+    public CompletableFuture<byte[]> get(byte[] key) {
+        return this.supply(() -> delegate.get(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(K key) {
+        return this.run(() -> delegate.delete(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(byte[] key) {
+        return this.run(() -> delegate.delete(key));
+    }
+
+    // ===== Batch Operations =====
+
+    @Override
+    public CompletableFuture<Map<K, V>> multiGet(Collection<K> keys) {
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>(keys.size());
+        for (K key : keys) {
+            CompletableFuture<V> future = cache.getIfPresent(key);
+            if (Objects.nonNull(future)) {
+                futures.put(key, future);
+            }
+        }
+        return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    Map<K, V> result = new HashMap<>(futures.size());
+                    futures.forEach((key, future) -> {
+                        V value = future.join();
+                        if (Objects.nonNull(value)) {
+                            result.put(key, value);
+                        }
+                    });
+                    return result;
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<byte[]>> multiGetBytes(List<byte[]> keys) {
+        return this.supply(() -> delegate.multiGetBytes(keys));
+    }
+
+    @Override
+    public CompletableFuture<Void> multiSet(Map<K, V> map, long timeout, TimeUnit unit) {
+        return this.run(() -> delegate.multiSet(map, timeout, unit));
+    }
+
+    @Override
+    public CompletableFuture<Void> multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+        return this.run(() -> delegate.multiSetBytes(map, timeout, unit));
+    }
+
+    @Override
+    public CompletableFuture<Void> multiDelete(Collection<K> keys) {
+        return this.run(() -> delegate.multiDelete(keys));
+    }
+
+    @Override
+    public CompletableFuture<Void> multiDeleteBytes(Collection<byte[]> keys) {
+        return this.run(() -> delegate.multiDeleteBytes(keys));
+    }
+
+    // ===== Hash Operations =====
+
+    @Override
+    public CompletableFuture<Void> putHash(K key, K hashKey, V value) {
+        return this.run(() -> delegate.putHash(key, hashKey, value));
+    }
+
+    @Override
+    public CompletableFuture<Void> putHash(K key, K hashKey, V value, long timeout, TimeUnit unit) {
+        return this.run(() -> delegate.putHash(key, hashKey, value, timeout, unit));
+    }
+
+    @Override
+    public CompletableFuture<V> getHash(K key, K hashKey) {
+        return this.supply(() -> delegate.getHash(key, hashKey));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteHash(K key, K hashKey) {
+        return this.run(() -> delegate.deleteHash(key, hashKey));
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> getHashAll(K key) {
+        return this.supply(() -> delegate.getHashAll(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> putHashAll(K key, Map<K, V> map) {
+        return this.run(() -> delegate.putHashAll(key, map));
+    }
+
+    @Override
+    public CompletableFuture<Void> putHashAll(K key, Map<K, V> map, long timeout, TimeUnit unit) {
+        return this.run(() -> delegate.putHashAll(key, map, timeout, unit));
+    }
+
+    // ===== List Operations =====
+
+    @Override
+    public CompletableFuture<Void> pushToList(K key, V value) {
+        return this.run(() -> delegate.pushToList(key, value));
+    }
+
+    @Override
+    public CompletableFuture<Void> pushToList(K key, V value, long timeout, TimeUnit unit) {
+        return this.run(() -> delegate.pushToList(key, value, timeout, unit));
+    }
+
+    @Override
+    public CompletableFuture<V> popFromList(K key) {
+        return this.supply(() -> delegate.popFromList(key));
+    }
+
+    @Override
+    public CompletableFuture<List<V>> getList(K key) {
+        return this.supply(() -> delegate.getList(key));
+    }
+
+    // ===== Set Operations =====
+
+    @Override
+    public CompletableFuture<Void> addToSet(K key, V value) {
+        return this.run(() -> delegate.addToSet(key, value));
+    }
+
+    @Override
+    public CompletableFuture<Void> addToSet(K key, V value, long timeout, TimeUnit unit) {
+        return this.run(() -> delegate.addToSet(key, value, timeout, unit));
+    }
+
+    @Override
+    public CompletableFuture<Set<V>> getSet(K key) {
+        return this.supply(() -> delegate.getSet(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> removeFromSet(K key, V value) {
+        return this.run(() -> delegate.removeFromSet(key, value));
+    }
+
+    // ===== Common Operations =====
+
+    @Override
+    public CompletableFuture<Boolean> exists(K key) {
+        return this.supply(() -> delegate.exists(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> expire(K key, long timeout) {
+        return this.run(() -> delegate.expire(key, timeout));
+    }
+
+    @Override
+    public CompletableFuture<Void> expire(K key, long timeout, TimeUnit unit) {
+        return this.run(() -> delegate.expire(key, timeout, unit));
+    }
+
+    @Override
+    public CompletableFuture<Long> size(K key) {
+        return this.supply(() -> delegate.size(key));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteMultiple(Set<K> keys) {
+        return this.run(() -> delegate.deleteMultiple(keys));
+    }
+
+    /**
+     * 执行内存操作，异常通过 future 返回而不是直接抛出
+     *
+     * @param runnable 内存操作
+     * @return 已完成的 future
+     */
+    private CompletableFuture<Void> run(Runnable runnable) {
+        return this.supply(() -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * 执行内存操作，异常通过 future 返回而不是直接抛出
+     *
+     * @param supplier 内存操作
+     * @param <T>      结果类型
+     * @return 已完成的 future
+     */
+    private <T> CompletableFuture<T> supply(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.completedFuture(supplier.get());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
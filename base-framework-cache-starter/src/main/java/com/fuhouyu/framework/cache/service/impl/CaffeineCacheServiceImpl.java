@@ -17,51 +17,157 @@
 package com.fuhouyu.framework.cache.service.impl;
 
 
+import com.fuhouyu.framework.cache.model.CompareAndSetResult;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
+import com.fuhouyu.framework.cache.model.VersionedValue;
 import com.fuhouyu.framework.cache.service.CacheService;
 import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * <p>
  * Caffeine 缓存实现
  * </p>
+ * <p>
+ * hash、set 使用 {@link ConcurrentHashMap} 存储，list 使用无锁队列存储，均在键的 compute 中修改，
+ * 写回后由 caffeine 重新计算权重。读取返回的是副本，修改不会影响缓存。
+ * </p>
+ * <p>
+ * 计数器使用 {@link AtomicLong}，累加通过 CAS 完成；HyperLogLog 的寄存器同样通过 CAS 更新，两者占用固定，
+ * 创建后的写入不经过 compute，不加锁。有序集合的排序由无锁的跳表维护，写入同样在键的 compute 中完成。
+ * </p>
+ * <p>
+ * byte[] 键值单独存放在以 {@link ByteArrayKey} 为键的缓存中，读写时不再解码为字符串，
+ * 与对象键互不可见。设置 {@link OffHeapByteStore} 后 byte[] 值优先写入堆外内存，
+ * 堆外无法写入的值（超过页大小等）仍存放在堆内。
+ * </p>
  *
  * @author fuhouyu
  * @since 2024/8/15 13:31
  */
 public class CaffeineCacheServiceImpl<K, V> implements CacheService<K, V> {
 
+    /**
+     * 未指定 byte[] 缓存时默认的最大条目数
+     */
+    private static final long DEFAULT_BYTES_MAXIMUM_SIZE = 10000;
+
+    /**
+     * caffeine 能表示的最长过期时间约为 146 年，剩余时间超过其一半时视为永不过期
+     */
+    private static final long NO_EXPIRE_THRESHOLD_NANOS = Long.MAX_VALUE >> 2;
 
     private final Cache<K, V> cache;
 
+    private final Cache<ByteArrayKey, byte[]> bytesCache;
+
+    private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+    private TtlJitter ttlJitter = TtlJitter.NONE;
+
+    private RefreshAhead<K> refreshAhead;
+
+    private OffHeapByteStore offHeapStore;
+
+    /**
+     * getOrLoad 加载结果为空的键，为空时不缓存空值
+     */
+    private Cache<K, Boolean> nullValues;
+
     public CaffeineCacheServiceImpl(Cache<K, V> cache) {
+        this(cache, Caffeine.newBuilder()
+                .expireAfter(new CacheExpiry(Long.MAX_VALUE, false))
+                .maximumSize(DEFAULT_BYTES_MAXIMUM_SIZE)
+                .build());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param cache      对象键的缓存
+     * @param bytesCache byte[] 键的缓存，需使用可变过期策略
+     */
+    public CaffeineCacheServiceImpl(Cache<K, V> cache, Cache<ByteArrayKey, byte[]> bytesCache) {
         this.cache = cache;
+        this.bytesCache = bytesCache;
+    }
+
+    /**
+     * 设置过期时间抖动，作用于所有带过期时间的写入
+     *
+     * @param ttlJitter 过期时间抖动
+     */
+    public void setTtlJitter(TtlJitter ttlJitter) {
+        this.ttlJitter = ttlJitter;
+    }
+
+    /**
+     * 开启 getOrLoad 的提前刷新
+     *
+     * @param refreshAhead 提前刷新
+     */
+    public void setRefreshAhead(RefreshAhead<K> refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+
+    /**
+     * 开启 getOrLoad 的空值缓存，加载结果为空的键在过期前不再调用加载函数，写入或删除该键时一并清除
+     *
+     * @param expireTime  空值的过期时间
+     * @param maximumSize 最多缓存的空值数量
+     */
+    public void setNullValueCache(Duration expireTime, long maximumSize) {
+        this.nullValues = Caffeine.newBuilder()
+                .expireAfterWrite(expireTime)
+                .maximumSize(maximumSize)
+                .build();
     }
 
 
+    /**
+     * 开启 byte[] 值的堆外存储
+     *
+     * @param offHeapStore 堆外存储
+     */
+    public void setOffHeapStore(OffHeapByteStore offHeapStore) {
+        this.offHeapStore = offHeapStore;
+    }
+
     @Override
-    @SuppressWarnings("unchecked")
     public void set(byte[] key, byte[] value) {
-        cache.put((K) new String(key),
-                (V) value);
+        this.putBytes(key, value, 0, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void set(K key, V value) {
         cache.put(key, value);
+        this.clearNullValue(key);
     }
 
     @Override
     public void set(K key, V value, long timeout, TimeUnit unit) {
         this.addPolicyExpireTime(key, value, timeout, unit);
+        this.clearNullValue(key);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
-        this.addPolicyExpireTime((K) new String(key), (V) value, timeout, unit);
+        this.putBytes(key, value, timeout, unit);
     }
 
     @Override
@@ -70,118 +176,398 @@ public class CaffeineCacheServiceImpl<K, V> implements CacheService<K, V> {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public byte[] get(byte[] key) {
-        return (byte[]) cache.getIfPresent((K) new String(key));
+        if (Objects.nonNull(offHeapStore)) {
+            byte[] value = offHeapStore.get(key);
+            if (Objects.nonNull(value)) {
+                return value;
+            }
+        }
+        return bytesCache.getIfPresent(ByteArrayKey.wrap(key));
     }
 
     @Override
     public void delete(K key) {
         cache.invalidate(key);
+        if (Objects.nonNull(nullValues)) {
+            nullValues.invalidate(key);
+        }
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void delete(byte[] key) {
-        cache.invalidate((K) new String(key));
+        this.deleteBytes(key);
+    }
+
+    @Override
+    public Map<K, V> multiGet(Collection<K> keys) {
+        return cache.getAllPresent(keys);
+    }
+
+    @Override
+    public List<byte[]> multiGetBytes(List<byte[]> keys) {
+        List<byte[]> values = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            values.add(this.get(key));
+        }
+        return values;
+    }
+
+    @Override
+    public Map<K, ExpiringValue<V>> multiGetWithTtl(Collection<K> keys) {
+        Map<K, ExpiringValue<V>> result = new HashMap<>(keys.size());
+        for (K key : keys) {
+            V value = cache.getIfPresent(key);
+            if (Objects.nonNull(value)) {
+                result.put(key, new ExpiringValue<>(value, ttlMillis(cache, key)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 堆外存储不记录剩余过期时间，其中的值按永不过期返回
+     */
+    @Override
+    public List<ExpiringValue<byte[]>> multiGetBytesWithTtl(List<byte[]> keys) {
+        List<ExpiringValue<byte[]>> values = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            byte[] value = Objects.isNull(offHeapStore) ? null : offHeapStore.get(key);
+            if (Objects.nonNull(value)) {
+                values.add(new ExpiringValue<>(value, ExpiringValue.NO_EXPIRE));
+                continue;
+            }
+            ByteArrayKey lookupKey = ByteArrayKey.wrap(key);
+            value = bytesCache.getIfPresent(lookupKey);
+            values.add(Objects.isNull(value) ? null : new ExpiringValue<>(value, ttlMillis(bytesCache, lookupKey)));
+        }
+        return values;
+    }
+
+    @Override
+    public void multiSet(Map<K, V> map, long timeout, TimeUnit unit) {
+        if (timeout <= 0) {
+            cache.putAll(map);
+        } else {
+            for (Map.Entry<K, V> entry : map.entrySet()) {
+                this.addPolicyExpireTime(entry.getKey(), entry.getValue(), timeout, unit);
+            }
+        }
+        if (Objects.nonNull(nullValues)) {
+            nullValues.invalidateAll(map.keySet());
+        }
+    }
+
+    @Override
+    public void multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+        for (Map.Entry<byte[], byte[]> entry : map.entrySet()) {
+            this.putBytes(entry.getKey(), entry.getValue(), timeout, unit);
+        }
+    }
+
+    @Override
+    public void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries) {
+        for (Map.Entry<byte[], ExpiringValue<byte[]>> entry : entries.entrySet()) {
+            this.putBytes(entry.getKey(), entry.getValue().getValue(), entry.getValue().getTtlMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void multiDelete(Collection<K> keys) {
+        cache.invalidateAll(keys);
+        if (Objects.nonNull(nullValues)) {
+            nullValues.invalidateAll(keys);
+        }
+    }
+
+    @Override
+    public void multiDeleteBytes(Collection<byte[]> keys) {
+        for (byte[] key : keys) {
+            this.deleteBytes(key);
+        }
+    }
+
+    @Override
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        V value = cache.getIfPresent(key);
+        if (Objects.nonNull(value)) {
+            if (Objects.nonNull(refreshAhead) && refreshAhead.shouldRefresh(key)) {
+                refreshAhead.refresh(key, () -> this.load(key, loader, timeout, unit));
+            }
+            return value;
+        }
+        return singleFlight.execute(key, () -> {
+            V cached = cache.getIfPresent(key);
+            if (Objects.nonNull(cached)) {
+                return cached;
+            }
+            if (Objects.nonNull(nullValues) && Objects.nonNull(nullValues.getIfPresent(key))) {
+                return null;
+            }
+            return this.load(key, loader, timeout, unit);
+        });
     }
 
     @Override
     public void putHash(K key, K hashKey, V value) {
-        Map<K, V> v = this.getHashByCache(key);
-        v.put(hashKey, value);
+        this.computeHash(key, hash -> hash.put(hashKey, value), 0, TimeUnit.MILLISECONDS);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void putHash(K key, K hashKey, V value, long timeout, TimeUnit unit) {
-        Map<K, V> v = this.getHashByCache(key);
-        v.put(hashKey, value);
-        this.addPolicyExpireTime(key, (V) v, timeout, unit);
+        this.computeHash(key, hash -> hash.put(hashKey, value), timeout, unit);
     }
 
     @Override
     public V getHash(K key, K hashKey) {
-        Map<K, V> v = this.getHashByCache(key);
-        return v.get(hashKey);
+        Map<K, V> hash = this.peekHash(key);
+        return Objects.isNull(hash) ? null : hash.get(hashKey);
     }
 
 
     @Override
+    @SuppressWarnings("unchecked")
     public void deleteHash(K key, K hashKey) {
-        this.getHashByCache(key).remove(hashKey);
+        cache.asMap().computeIfPresent(key, (k, value) -> {
+            Map<K, V> hash = (Map<K, V>) value;
+            hash.remove(hashKey);
+            return hash.isEmpty() ? null : value;
+        });
     }
 
     @Override
     public Map<K, V> getHashAll(K key) {
-        return this.getHashByCache(key);
+        Map<K, V> hash = this.peekHash(key);
+        return Objects.isNull(hash) ? new HashMap<>() : new HashMap<>(hash);
     }
 
     @Override
     public void putHashAll(K key, Map<K, V> map) {
-        Map<K, V> v = this.getHashByCache(key);
-        v.putAll(map);
+        this.computeHash(key, hash -> hash.putAll(map), 0, TimeUnit.MILLISECONDS);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void putHashAll(K key, Map<K, V> map, long timeout, TimeUnit unit) {
-        Map<K, V> v = this.getHashByCache(key);
-        v.putAll(map);
-        this.addPolicyExpireTime(key, (V) v, timeout, unit);
-
-
+        this.computeHash(key, hash -> hash.putAll(map), timeout, unit);
     }
 
     @Override
     public void pushToList(K key, V value) {
-        this.getListByCache(key).add(value);
+        this.computeList(key, list -> list.addLast(value), 0, TimeUnit.MILLISECONDS);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void pushToList(K key, V value, long timeout, TimeUnit unit) {
-        List<V> v = this.getListByCache(key);
-        this.addPolicyExpireTime(key, (V) v, timeout, unit);
-
+        this.computeList(key, list -> list.addLast(value), timeout, unit);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public V popFromList(K key) {
-        List<V> v = this.getListByCache(key);
-        return v.remove(0);
+        List<V> popped = new ArrayList<>(1);
+        cache.asMap().computeIfPresent(key, (k, value) -> {
+            LocalDeque<V> list = (LocalDeque<V>) value;
+            V element = list.pollFirst();
+            if (Objects.nonNull(element)) {
+                popped.add(element);
+            }
+            return list.isEmpty() ? null : value;
+        });
+        return popped.isEmpty() ? null : popped.get(0);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public List<V> getList(K key) {
-        return this.getListByCache(key);
+        V value = cache.getIfPresent(key);
+        return Objects.isNull(value) ? new ArrayList<>() : ((LocalDeque<V>) value).snapshot();
     }
 
     @Override
     public void addToSet(K key, V value) {
-        this.getSetByCache(key).add(value);
+        this.computeSet(key, set -> set.add(value), 0, TimeUnit.MILLISECONDS);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void addToSet(K key, V value, long timeout, TimeUnit unit) {
-        Set<V> v = this.getSetByCache(key);
-        this.addPolicyExpireTime(key, (V) v, timeout, unit);
+        this.computeSet(key, set -> set.add(value), timeout, unit);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public Set<V> getSet(K key) {
-        return this.getSetByCache(key);
+        V value = cache.getIfPresent(key);
+        return Objects.isNull(value) ? new HashSet<>() : new HashSet<>((Set<V>) value);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void removeFromSet(K key, V value) {
-        this.getSetByCache(key).remove(value);
+        cache.asMap().computeIfPresent(key, (k, v) -> {
+            Set<V> set = (Set<V>) v;
+            set.remove(value);
+            return set.isEmpty() ? null : v;
+        });
+    }
+
+    @Override
+    public long increment(K key, long delta) {
+        return this.localStructure(key, AtomicLong.class, AtomicLong::new, 0, TimeUnit.MILLISECONDS)
+                .addAndGet(delta);
+    }
+
+    /**
+     * 过期时间只在创建计数器时设置，不做抖动，避免固定窗口的长度不一致
+     */
+    @Override
+    public long increment(K key, long delta, long timeout, TimeUnit unit) {
+        return this.localStructure(key, AtomicLong.class, AtomicLong::new, timeout, unit).addAndGet(delta);
+    }
+
+    @Override
+    public long getCounter(K key) {
+        AtomicLong counter = this.peekStructure(key, AtomicLong.class);
+        return Objects.isNull(counter) ? 0 : counter.get();
+    }
+
+    @Override
+    public void addToSortedSet(K key, V value, double score) {
+        this.computeSortedSet(key, sortedSet -> sortedSet.add(value, score), 0, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void addToSortedSet(K key, V value, double score, long timeout, TimeUnit unit) {
+        this.computeSortedSet(key, sortedSet -> sortedSet.add(value, score), timeout, unit);
+    }
+
+    @Override
+    public double incrementScore(K key, V value, double delta) {
+        double[] score = new double[1];
+        this.computeSortedSet(key, sortedSet -> score[0] = sortedSet.incrementScore(value, delta),
+                0, TimeUnit.MILLISECONDS);
+        return score[0];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Double getScore(K key, V value) {
+        LocalSortedSet<V> sortedSet = this.peekStructure(key, LocalSortedSet.class);
+        return Objects.isNull(sortedSet) ? null : sortedSet.score(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Long rankInSortedSet(K key, V value) {
+        LocalSortedSet<V> sortedSet = this.peekStructure(key, LocalSortedSet.class);
+        return Objects.isNull(sortedSet) ? null : sortedSet.rank(value, false);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Long reverseRankInSortedSet(K key, V value) {
+        LocalSortedSet<V> sortedSet = this.peekStructure(key, LocalSortedSet.class);
+        return Objects.isNull(sortedSet) ? null : sortedSet.rank(value, true);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Map.Entry<V, Double>> rangeSortedSet(K key, long start, long end) {
+        LocalSortedSet<V> sortedSet = this.peekStructure(key, LocalSortedSet.class);
+        return Objects.isNull(sortedSet) ? new ArrayList<>() : sortedSet.range(start, end, false);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Map.Entry<V, Double>> reverseRangeSortedSet(K key, long start, long end) {
+        LocalSortedSet<V> sortedSet = this.peekStructure(key, LocalSortedSet.class);
+        return Objects.isNull(sortedSet) ? new ArrayList<>() : sortedSet.range(start, end, true);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void removeFromSortedSet(K key, V value) {
+        cache.asMap().computeIfPresent(key, (k, v) -> {
+            LocalSortedSet<V> sortedSet = (LocalSortedSet<V>) v;
+            sortedSet.remove(value);
+            return sortedSet.isEmpty() ? null : v;
+        });
+    }
+
+    @Override
+    public long sortedSetSize(K key) {
+        LocalSortedSet<?> sortedSet = this.peekStructure(key, LocalSortedSet.class);
+        return Objects.isNull(sortedSet) ? 0 : sortedSet.size();
+    }
+
+    @Override
+    public boolean addToHyperLogLog(K key, Collection<V> values) {
+        LocalHyperLogLog hyperLogLog = this.localStructure(key, LocalHyperLogLog.class, LocalHyperLogLog::new,
+                0, TimeUnit.MILLISECONDS);
+        boolean changed = false;
+        for (V value : values) {
+            changed |= hyperLogLog.add(value);
+        }
+        return changed;
+    }
+
+    @Override
+    public long countHyperLogLog(K key) {
+        LocalHyperLogLog hyperLogLog = this.peekStructure(key, LocalHyperLogLog.class);
+        return Objects.isNull(hyperLogLog) ? 0 : hyperLogLog.count();
+    }
+
+    @Override
+    public long countHyperLogLog(Collection<K> keys) {
+        List<LocalHyperLogLog> hyperLogLogs = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            LocalHyperLogLog hyperLogLog = this.peekStructure(key, LocalHyperLogLog.class);
+            if (Objects.nonNull(hyperLogLog)) {
+                hyperLogLogs.add(hyperLogLog);
+            }
+        }
+        return hyperLogLogs.isEmpty() ? 0 : LocalHyperLogLog.count(hyperLogLogs);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public VersionedValue<V> getVersioned(K key) {
+        return this.peekStructure(key, VersionedValue.class);
+    }
+
+    /**
+     * 版本检查、写入及过期时间的设置在同一次 compute 中完成，同一个键的并发写入串行执行。
+     * 冲突时通过异常中止 compute，原值及其过期时间都不变。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public CompareAndSetResult<V> compareAndSet(K key, long expectedVersion, V newValue, long timeout, TimeUnit unit) {
+        Object[] result = new Object[1];
+        try {
+            this.compute(key, (k, value) -> {
+                if (Objects.nonNull(value) && !(value instanceof VersionedValue)) {
+                    throw new IllegalStateException("缓存键的值类型不匹配, key: " + k + ", 需要: "
+                            + VersionedValue.class.getSimpleName());
+                }
+                VersionedValue<V> current = (VersionedValue<V>) value;
+                long version = Objects.isNull(current) ? 0 : current.getVersion();
+                if (version != expectedVersion) {
+                    result[0] = CompareAndSetResult.conflict(current);
+                    throw VersionConflictException.INSTANCE;
+                }
+                VersionedValue<V> updated = new VersionedValue<>(newValue, version + 1);
+                result[0] = CompareAndSetResult.success(updated);
+                return (V) updated;
+            }, timeout, unit);
+        } catch (VersionConflictException ignored) {
+            // 冲突结果已在 compute 中记录
+        }
+        return (CompareAndSetResult<V>) result[0];
     }
 
     @Override
     public boolean exists(K key) {
-        return !this.getSetByCache(key).isEmpty();
+        return Objects.nonNull(cache.getIfPresent(key));
     }
 
     @Override
@@ -203,71 +589,377 @@ public class CaffeineCacheServiceImpl<K, V> implements CacheService<K, V> {
     @Override
     public void deleteMultiple(Set<K> keys) {
         cache.invalidateAll(keys);
+        if (Objects.nonNull(nullValues)) {
+            nullValues.invalidateAll(keys);
+        }
+    }
+
+    // ===== Scan Operations =====
+
+    /**
+     * 直接遍历本地的并发 hash，迭代器弱一致，不复制，批量大小不起作用
+     */
+    @Override
+    public Stream<Map.Entry<K, V>> scanHash(K key, int batchSize) {
+        Map<K, V> hash = this.peekHash(key);
+        if (Objects.isNull(hash)) {
+            return Stream.empty();
+        }
+        return hash.entrySet().stream().map(entry -> Map.entry(entry.getKey(), entry.getValue()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<V> scanList(K key, int batchSize) {
+        V value = cache.getIfPresent(key);
+        if (Objects.isNull(value)) {
+            return Stream.empty();
+        }
+        return StreamSupport.stream(((LocalDeque<V>) value).spliterator(), false);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<V> scanSet(K key, int batchSize) {
+        V value = cache.getIfPresent(key);
+        return Objects.isNull(value) ? Stream.empty() : ((Set<V>) value).stream();
     }
 
     /**
-     * 从缓存中获取hash
+     * 按 {@link String#valueOf(Object)} 匹配对象键，不包含 byte[] 键
+     */
+    @Override
+    public Stream<K> scanKeys(String pattern, int batchSize) {
+        Pattern regex = ScanSupport.compileGlob(pattern);
+        return cache.asMap().keySet().stream()
+                .filter(key -> regex.matcher(String.valueOf(key)).matches());
+    }
+
+    /**
+     * 同时删除匹配的对象键及 byte[] 键，byte[] 键按 UTF-8 解码后匹配
+     */
+    @Override
+    public long deleteByPattern(String pattern, int batchSize) {
+        Pattern regex = ScanSupport.compileGlob(pattern);
+        long deleted = ScanSupport.forEachBatch(this.scanKeys(pattern, batchSize), batchSize, keys -> {
+            cache.invalidateAll(keys);
+            return keys.size();
+        });
+        if (Objects.nonNull(nullValues)) {
+            nullValues.asMap().keySet().removeIf(key -> regex.matcher(String.valueOf(key)).matches());
+        }
+        deleted += ScanSupport.forEachBatch(bytesCache.asMap().keySet().stream()
+                .filter(key -> matches(regex, key.bytes())), batchSize, keys -> {
+            bytesCache.invalidateAll(keys);
+            return keys.size();
+        });
+        if (Objects.nonNull(offHeapStore)) {
+            deleted += offHeapStore.removeIf(key -> matches(regex, key));
+        }
+        return deleted;
+    }
+
+    /**
+     * 在键的锁内修改 hash，不存在时创建。
+     * 通过 compute 写回同一个实例，使 caffeine 重新计算权重。
      *
-     * @param key 键
-     * @return hash
+     * @param key     键
+     * @param action  修改逻辑
+     * @param timeout 过期时间，小于等于0时不修改过期时间
+     * @param unit    时间单位
+     */
+    @SuppressWarnings("unchecked")
+    private void computeHash(K key, Consumer<Map<K, V>> action, long timeout, TimeUnit unit) {
+        this.compute(key, (k, value) -> {
+            Map<K, V> hash = Objects.isNull(value) ? new ConcurrentHashMap<>() : (Map<K, V>) value;
+            action.accept(hash);
+            return (V) hash;
+        }, timeout, unit);
+    }
+
+    /**
+     * 在键的锁内修改 list，不存在时创建
+     *
+     * @param key     键
+     * @param action  修改逻辑
+     * @param timeout 过期时间，小于等于0时不修改过期时间
+     * @param unit    时间单位
+     */
+    @SuppressWarnings("unchecked")
+    private void computeList(K key, Consumer<LocalDeque<V>> action, long timeout, TimeUnit unit) {
+        this.compute(key, (k, value) -> {
+            LocalDeque<V> list = Objects.isNull(value) ? new LocalDeque<>() : (LocalDeque<V>) value;
+            action.accept(list);
+            return (V) list;
+        }, timeout, unit);
+    }
+
+    /**
+     * 在键的锁内修改 set，不存在时创建
+     *
+     * @param key     键
+     * @param action  修改逻辑
+     * @param timeout 过期时间，小于等于0时不修改过期时间
+     * @param unit    时间单位
+     */
+    @SuppressWarnings("unchecked")
+    private void computeSet(K key, Consumer<Set<V>> action, long timeout, TimeUnit unit) {
+        this.compute(key, (k, value) -> {
+            Set<V> set = Objects.isNull(value) ? ConcurrentHashMap.newKeySet() : (Set<V>) value;
+            action.accept(set);
+            return (V) set;
+        }, timeout, unit);
+    }
+
+    /**
+     * 在键的锁内修改有序集合，不存在时创建
+     *
+     * @param key     键
+     * @param action  修改逻辑
+     * @param timeout 过期时间，小于等于0时不修改过期时间
+     * @param unit    时间单位
+     */
+    @SuppressWarnings("unchecked")
+    private void computeSortedSet(K key, Consumer<LocalSortedSet<V>> action, long timeout, TimeUnit unit) {
+        this.compute(key, (k, value) -> {
+            LocalSortedSet<V> sortedSet = Objects.isNull(value) ? new LocalSortedSet<>() : (LocalSortedSet<V>) value;
+            action.accept(sortedSet);
+            return (V) sortedSet;
+        }, timeout, unit);
+    }
+
+    /**
+     * 在键的锁内写入，过期时间大于0时在同一次 compute 中设置，读取方不会看到值已写入而过期时间未设置的状态
+     *
+     * @param key       键
+     * @param remapping 写入逻辑
+     * @param timeout   过期时间，小于等于0时不修改过期时间
+     * @param unit      时间单位
+     */
+    private void compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping, long timeout, TimeUnit unit) {
+        if (timeout > 0) {
+            Optional<Policy.VarExpiration<K, V>> expiration = cache.policy().expireVariably();
+            if (expiration.isPresent()) {
+                expiration.get().compute(key, remapping, Duration.ofNanos(unit.toNanos(ttlJitter.apply(timeout))));
+                return;
+            }
+        }
+        cache.asMap().compute(key, remapping);
+    }
+
+    /**
+     * 获取占用固定、可以无锁修改的结构（计数器、HyperLogLog），不存在时创建，已存在时不加锁。
+     * 创建与过期时间的设置通过一次 putIfAbsent 完成，并发创建时只有一个生效，已存在的结构不会被重置过期时间。
+     *
+     * @param key     键
+     * @param type    结构类型
+     * @param factory 创建逻辑
+     * @param timeout 创建时设置的过期时间，小于等于0时使用默认过期时间
+     * @param unit    时间单位
+     * @param <T>     结构类型
+     * @return 结构
      */
     @SuppressWarnings("unchecked")
-    private Map<K, V> getHashByCache(K key) {
-        V v = cache.getIfPresent(key);
-        if (Objects.isNull(v)) {
-            Map<K, V> map = new HashMap<>();
-            cache.put(key, (V) map);
-            return map;
+    private <T> T localStructure(K key, Class<T> type, Supplier<T> factory, long timeout, TimeUnit unit) {
+        V value = cache.getIfPresent(key);
+        if (Objects.isNull(value)) {
+            V created = (V) factory.get();
+            V existing = this.putIfAbsent(key, created, timeout, unit);
+            value = Objects.isNull(existing) ? created : existing;
+        }
+        if (!type.isInstance(value)) {
+            throw new IllegalStateException("缓存键的值类型不匹配, key: " + key + ", 需要: " + type.getSimpleName());
+        }
+        return (T) value;
+    }
+
+    /**
+     * 键不存在时写入，过期时间大于0时在同一次写入中设置
+     *
+     * @param key     键
+     * @param value   值
+     * @param timeout 过期时间，小于等于0时使用默认过期时间
+     * @param unit    时间单位
+     * @return 已存在的值，写入成功时返回 null
+     */
+    private V putIfAbsent(K key, V value, long timeout, TimeUnit unit) {
+        if (timeout > 0) {
+            Optional<Policy.VarExpiration<K, V>> expiration = cache.policy().expireVariably();
+            if (expiration.isPresent()) {
+                return expiration.get().putIfAbsent(key, value, timeout, unit);
+            }
         }
-        return (Map<K, V>) v;
+        return cache.asMap().putIfAbsent(key, value);
     }
 
     /**
-     * 从缓存中获取List
+     * 读取计数器、有序集合等结构，不存在时返回 null，不会创建
+     *
+     * @param key  键
+     * @param type 结构类型
+     * @param <T>  结构类型
+     * @return 结构
+     */
+    private <T> T peekStructure(K key, Class<T> type) {
+        V value = cache.getIfPresent(key);
+        if (Objects.isNull(value)) {
+            return null;
+        }
+        if (!type.isInstance(value)) {
+            throw new IllegalStateException("缓存键的值类型不匹配, key: " + key + ", 需要: " + type.getSimpleName());
+        }
+        return type.cast(value);
+    }
+
+    /**
+     * 读取 hash，不存在时返回 null，不会创建
      *
      * @param key 键
      * @return hash
      */
     @SuppressWarnings("unchecked")
-    private List<V> getListByCache(K key) {
-        V v = cache.getIfPresent(key);
-        if (Objects.isNull(v)) {
-            List<V> list = new LinkedList<>();
-            cache.put(key, (V) list);
-            return list;
+    private Map<K, V> peekHash(K key) {
+        return (Map<K, V>) cache.getIfPresent(key);
+    }
+
+    /**
+     * 读取键的剩余过期时间
+     *
+     * @param cache 缓存
+     * @param key   键
+     * @param <T>   键的类型
+     * @return 剩余过期时间（毫秒），未使用可变过期策略或永不过期时返回 {@link ExpiringValue#NO_EXPIRE}
+     */
+    private static <T> long ttlMillis(Cache<T, ?> cache, T key) {
+        return cache.policy().expireVariably()
+                .flatMap(expiry -> expiry.getExpiresAfter(key))
+                .filter(expiresAfter -> expiresAfter.toNanos() < NO_EXPIRE_THRESHOLD_NANOS)
+                .map(Duration::toMillis)
+                .orElse(ExpiringValue.NO_EXPIRE);
+    }
+
+    private static boolean matches(Pattern regex, byte[] key) {
+        return regex.matcher(new String(key, StandardCharsets.UTF_8)).matches();
+    }
+
+    /**
+     * 调用加载函数并写入缓存
+     *
+     * @param key     缓存键
+     * @param loader  加载函数
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     * @return 加载结果
+     */
+    private V load(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        long start = System.nanoTime();
+        V loaded = loader.apply(key);
+        if (Objects.isNull(loaded)) {
+            if (Objects.nonNull(nullValues)) {
+                nullValues.put(key, Boolean.TRUE);
+            }
+            return null;
         }
-        return (List<V>) v;
+        if (timeout > 0) {
+            this.addPolicyExpireTime(key, loaded, timeout, unit);
+        } else {
+            cache.put(key, loaded);
+        }
+        if (Objects.nonNull(refreshAhead)) {
+            refreshAhead.recordLoad(key, System.nanoTime() - start, timeout, unit);
+        }
+        return loaded;
     }
 
     /**
-     * 从缓存中获取Set
+     * 删除空值标记，写入的值过期后标记仍存活时 getOrLoad 会返回空
      *
      * @param key 键
-     * @return hash
      */
-    @SuppressWarnings("unchecked")
-    private Set<V> getSetByCache(K key) {
-        V v = cache.getIfPresent(key);
-        if (Objects.isNull(v)) {
-            Set<V> set = new HashSet<>();
-            cache.put(key, (V) set);
-            return set;
+    private void clearNullValue(K key) {
+        if (Objects.nonNull(nullValues)) {
+            nullValues.invalidate(key);
         }
-        return (Set<V>) v;
     }
 
     /**
-     * 添加键值过期时间
+     * 写入键值及过期时间，过期时间小于等于0或未使用可变过期策略时按默认过期时间写入
      *
      * @param key     键
-     * @param value   过期
+     * @param value   值
      * @param timeout 过期时间
      * @param unit    时间格式
      */
     private void addPolicyExpireTime(K key, V value, long timeout, TimeUnit unit) {
-        cache.policy().expireVariably()
-                .ifPresent(e -> {
-                    V ignored = e.put(key, value, timeout, unit);
-                });
+        Optional<Policy.VarExpiration<K, V>> expiration = cache.policy().expireVariably();
+        if (timeout <= 0 || expiration.isEmpty()) {
+            cache.put(key, value);
+            return;
+        }
+        V ignored = expiration.get().put(key, value, ttlJitter.apply(timeout), unit);
+    }
+
+    /**
+     * 写入 byte[] 键值，开启堆外存储时优先写入堆外，并删除另一处可能存在的旧值
+     *
+     * @param key     键
+     * @param value   值
+     * @param timeout 过期时间，小于等于0时使用默认过期时间
+     * @param unit    时间格式
+     */
+    private void putBytes(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+        if (Objects.nonNull(offHeapStore)) {
+            long jittered = timeout > 0 ? ttlJitter.apply(timeout) : timeout;
+            if (offHeapStore.put(key, value, jittered, unit)) {
+                bytesCache.invalidate(ByteArrayKey.wrap(key));
+                return;
+            }
+        }
+        if (timeout > 0) {
+            this.addBytesPolicyExpireTime(ByteArrayKey.copyOf(key), value, timeout, unit);
+        } else {
+            bytesCache.put(ByteArrayKey.copyOf(key), value);
+        }
+    }
+
+    /**
+     * 删除 byte[] 键值
+     *
+     * @param key 键
+     */
+    private void deleteBytes(byte[] key) {
+        if (Objects.nonNull(offHeapStore)) {
+            offHeapStore.remove(key);
+        }
+        bytesCache.invalidate(ByteArrayKey.wrap(key));
+    }
+
+    /**
+     * 写入 byte[] 键值及过期时间，过期时间小于等于0或未使用可变过期策略时按默认过期时间写入
+     *
+     * @param key     键
+     * @param value   值
+     * @param timeout 过期时间
+     * @param unit    时间格式
+     */
+    private void addBytesPolicyExpireTime(ByteArrayKey key, byte[] value, long timeout, TimeUnit unit) {
+        Optional<Policy.VarExpiration<ByteArrayKey, byte[]>> expiration = bytesCache.policy().expireVariably();
+        if (timeout <= 0 || expiration.isEmpty()) {
+            bytesCache.put(key, value);
+            return;
+        }
+        byte[] ignored = expiration.get().put(key, value, ttlJitter.apply(timeout), unit);
+    }
+
+    /**
+     * 版本冲突时中止 compute，不修改原值及其过期时间
+     */
+    private static final class VersionConflictException extends RuntimeException {
+
+        private static final VersionConflictException INSTANCE = new VersionConflictException();
+
+        private VersionConflictException() {
+            super(null, null, false, false);
+        }
     }
 }
@@ -0,0 +1,490 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.common.utils.LoggerUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Policy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * 本地 caffeine 缓存的快照，关闭时（或按固定间隔）把缓存内容写入内存映射文件，启动时并行恢复，
+ * 避免滚动发布后本地缓存为空、所有请求同时回源。
+ * </p>
+ * <p>
+ * 文件格式：头部为魔数、版本号、写入时间及分段数，随后是每个分段的偏移、长度及条目数，最后是各分段的数据。
+ * 每个条目依次为类型（对象键或 byte[] 键）、过期时间点（毫秒时间戳，0 表示不过期）、键及值，
+ * 对象键及值通过指定的序列化方式编码，byte[] 键值原样写入。
+ * 分段之间互不依赖，写入及恢复均按分段并行；版本不一致、文件损坏或超过最长保留时间的快照直接忽略。
+ * </p>
+ * <p>
+ * 快照先写入临时文件，完成后再原子替换，进程在写入过程中退出不会留下不完整的快照。
+ * 恢复时已过期的条目被跳过，其余条目按剩余时间写入，且不会覆盖启动后已写入的键。
+ * 堆外存储中的值及空值标记不在快照范围内。
+ * </p>
+ *
+ * @param <K> 缓存键的类型
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 19:50
+ */
+@Slf4j
+public final class CaffeineSnapshot<K, V> implements AutoCloseable {
+
+    /**
+     * 文件魔数，"BFCS"
+     */
+    private static final int MAGIC = 0x42464353;
+
+    /**
+     * 当前的格式版本，格式变化时递增，旧版本的快照会被忽略
+     */
+    static final int VERSION = 1;
+
+    private static final byte ENTRY_OBJECT = 0;
+
+    private static final byte ENTRY_BYTES = 1;
+
+    private static final int HEADER_BYTES = Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private static final int SEGMENT_HEADER_BYTES = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    /**
+     * 剩余时间超过该值视为不过期，对应 {@link CacheExpiry} 中以 {@link Long#MAX_VALUE} 表示的永不过期
+     */
+    private static final long NEVER_EXPIRE_NANOS = Long.MAX_VALUE / 2;
+
+    private final Cache<K, V> cache;
+
+    private final Cache<ByteArrayKey, byte[]> bytesCache;
+
+    private final RedisSerializer<Object> serializer;
+
+    private final Path path;
+
+    private final Duration maximumAge;
+
+    private final int segments;
+
+    private final Object saveLock = new Object();
+
+    private final boolean saveOnClose;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 构造函数
+     *
+     * @param cache       对象键的缓存
+     * @param bytesCache  byte[] 键的缓存，为 null 时只处理对象键
+     * @param serializer  对象键及值的序列化方式，需能还原原始类型
+     * @param path        快照文件
+     * @param maximumAge  快照的最长保留时间，超过后不再恢复，为 null 时不限制
+     * @param segments    分段数，即写入及恢复的并行度
+     * @param saveOnClose 关闭时是否写入快照
+     */
+    public CaffeineSnapshot(Cache<K, V> cache,
+                            Cache<ByteArrayKey, byte[]> bytesCache,
+                            RedisSerializer<Object> serializer,
+                            Path path,
+                            Duration maximumAge,
+                            int segments,
+                            boolean saveOnClose) {
+        this.cache = cache;
+        this.bytesCache = bytesCache;
+        this.serializer = serializer;
+        this.path = path;
+        this.maximumAge = maximumAge;
+        this.segments = Math.max(1, segments);
+        this.saveOnClose = saveOnClose;
+    }
+
+    /**
+     * 按固定间隔写入快照，进程被强制终止时最多丢失一个间隔内的变化
+     *
+     * @param interval 写入间隔
+     */
+    public synchronized void scheduleSave(Duration interval) {
+        if (Objects.nonNull(scheduler)) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, interval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::saveQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 写入快照
+     *
+     * @return 写入的条目数
+     */
+    public long save() {
+        synchronized (saveLock) {
+            long now = System.currentTimeMillis();
+            List<List<SnapshotEntry>> entries = this.collect(now);
+            EncodedSegment[] encoded = IntStream.range(0, segments).parallel()
+                    .mapToObj(segment -> this.encode(entries.get(segment)))
+                    .toArray(EncodedSegment[]::new);
+            long[] offsets = new long[segments];
+            long offset = HEADER_BYTES + (long) SEGMENT_HEADER_BYTES * segments;
+            long count = 0;
+            for (int segment = 0; segment < segments; segment++) {
+                offsets[segment] = offset;
+                offset += encoded[segment].bytes().length;
+                count += encoded[segment].count();
+            }
+            try {
+                Path parent = path.toAbsolutePath().getParent();
+                if (Objects.nonNull(parent)) {
+                    Files.createDirectories(parent);
+                }
+                Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+                try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, offsets[0]);
+                    header.putInt(MAGIC).putInt(VERSION).putLong(now).putInt(segments);
+                    for (int segment = 0; segment < segments; segment++) {
+                        header.putLong(offsets[segment])
+                                .putInt(encoded[segment].bytes().length)
+                                .putInt(encoded[segment].count());
+                    }
+                    header.force();
+                    IntStream.range(0, segments).parallel()
+                            .filter(segment -> encoded[segment].bytes().length > 0)
+                            .forEach(segment -> this.write(channel, offsets[segment], encoded[segment].bytes()));
+                }
+                this.replace(temporary);
+            } catch (IOException | UncheckedIOException e) {
+                LoggerUtil.warn(log, "本地缓存快照写入失败, path: {}, {}", path, e.getMessage(), e);
+                return 0;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * 并行恢复快照，版本不一致、文件损坏或超过最长保留时间时忽略该快照
+     *
+     * @return 恢复的条目数，不包括已过期及启动后已写入的键
+     */
+    public long restore() {
+        if (!Files.isRegularFile(path)) {
+            return 0;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                LoggerUtil.warn(log, "本地缓存快照不完整，已忽略, path: {}", path);
+                return 0;
+            }
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            int magic = header.getInt();
+            int version = header.getInt();
+            long createdAt = header.getLong();
+            int segmentCount = header.getInt();
+            if (magic != MAGIC || version != VERSION) {
+                LoggerUtil.warn(log, "本地缓存快照格式不兼容，已忽略, path: {}, version: {}", path, version);
+                return 0;
+            }
+            long now = System.currentTimeMillis();
+            if (Objects.nonNull(maximumAge) && now - createdAt > maximumAge.toMillis()) {
+                LoggerUtil.warn(log, "本地缓存快照已超过最长保留时间，已忽略, path: {}", path);
+                return 0;
+            }
+            if (segmentCount < 0 || HEADER_BYTES + (long) SEGMENT_HEADER_BYTES * segmentCount > size) {
+                LoggerUtil.warn(log, "本地缓存快照不完整，已忽略, path: {}", path);
+                return 0;
+            }
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES,
+                    (long) SEGMENT_HEADER_BYTES * segmentCount);
+            List<Segment> segmentList = new ArrayList<>(segmentCount);
+            for (int i = 0; i < segmentCount; i++) {
+                Segment segment = new Segment(table.getLong(), table.getInt(), table.getInt());
+                if (segment.offset() < 0 || segment.length() < 0 || segment.offset() + segment.length() > size) {
+                    LoggerUtil.warn(log, "本地缓存快照不完整，已忽略, path: {}", path);
+                    return 0;
+                }
+                segmentList.add(segment);
+            }
+            long restored = segmentList.parallelStream()
+                    .mapToLong(segment -> this.restore(channel, segment, now))
+                    .sum();
+            LoggerUtil.info(log, "本地缓存快照恢复完成, path: {}, 条目数: {}, 耗时: {}ms", path, restored,
+                    System.currentTimeMillis() - now);
+            return restored;
+        } catch (IOException e) {
+            LoggerUtil.warn(log, "本地缓存快照读取失败, path: {}, {}", path, e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * 停止定时写入，并在需要时写入最后一次快照
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (Objects.nonNull(scheduler)) {
+                scheduler.shutdownNow();
+            }
+        }
+        if (saveOnClose) {
+            this.save();
+        }
+    }
+
+    private void saveQuietly() {
+        try {
+            this.save();
+        } catch (RuntimeException e) {
+            LoggerUtil.warn(log, "本地缓存快照写入失败, path: {}, {}", path, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 遍历缓存，按顺序轮流分配到各分段，已过期的条目不写入
+     */
+    private List<List<SnapshotEntry>> collect(long now) {
+        List<List<SnapshotEntry>> entries = new ArrayList<>(segments);
+        for (int segment = 0; segment < segments; segment++) {
+            entries.add(new ArrayList<>());
+        }
+        int next = 0;
+        Optional<Policy.VarExpiration<K, V>> expiration = cache.policy().expireVariably();
+        for (Map.Entry<K, V> entry : cache.asMap().entrySet()) {
+            long expireAt = this.expireAt(expiration, entry.getKey(), now);
+            if (expireAt >= 0) {
+                entries.get(next++ % segments)
+                        .add(new SnapshotEntry(ENTRY_OBJECT, expireAt, entry.getKey(), entry.getValue()));
+            }
+        }
+        if (Objects.nonNull(bytesCache)) {
+            Optional<Policy.VarExpiration<ByteArrayKey, byte[]>> bytesExpiration =
+                    bytesCache.policy().expireVariably();
+            for (Map.Entry<ByteArrayKey, byte[]> entry : bytesCache.asMap().entrySet()) {
+                long expireAt = this.expireAt(bytesExpiration, entry.getKey(), now);
+                if (expireAt >= 0) {
+                    entries.get(next++ % segments)
+                            .add(new SnapshotEntry(ENTRY_BYTES, expireAt, entry.getKey().bytes(), entry.getValue()));
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * 条目的过期时间点
+     *
+     * @return 毫秒时间戳，不过期时为 0，条目已不存在时为 -1
+     */
+    private <T, R> long expireAt(Optional<Policy.VarExpiration<T, R>> expiration, T key, long now) {
+        if (expiration.isEmpty()) {
+            return 0;
+        }
+        OptionalLong remaining = expiration.get().getExpiresAfter(key, TimeUnit.NANOSECONDS);
+        if (remaining.isEmpty()) {
+            return -1;
+        }
+        if (remaining.getAsLong() >= NEVER_EXPIRE_NANOS) {
+            return 0;
+        }
+        return now + Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining.getAsLong()));
+    }
+
+    /**
+     * 编码一个分段，无法序列化的条目被跳过，分段中的条目数以实际写入的为准
+     */
+    private EncodedSegment encode(List<SnapshotEntry> entries) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        int count = 0;
+        try {
+            for (SnapshotEntry entry : entries) {
+                byte[] key;
+                byte[] value;
+                try {
+                    key = entry.type() == ENTRY_BYTES ? (byte[]) entry.key() : serializer.serialize(entry.key());
+                    value = entry.type() == ENTRY_BYTES ? (byte[]) entry.value() : serializer.serialize(entry.value());
+                } catch (RuntimeException e) {
+                    LoggerUtil.warn(log, "本地缓存快照跳过无法序列化的条目, key: {}, {}", entry.key(), e.getMessage());
+                    continue;
+                }
+                if (Objects.isNull(key) || Objects.isNull(value)) {
+                    continue;
+                }
+                output.writeByte(entry.type());
+                output.writeLong(entry.expireAt());
+                output.writeInt(key.length);
+                output.write(key);
+                output.writeInt(value.length);
+                output.write(value);
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new EncodedSegment(bytes.toByteArray(), count);
+    }
+
+    private void write(FileChannel channel, long offset, byte[] bytes) {
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, offset, bytes.length);
+            buffer.put(bytes);
+            buffer.force();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void replace(Path temporary) throws IOException {
+        try {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 恢复一个分段，分段损坏时放弃该分段剩余的条目
+     */
+    @SuppressWarnings("unchecked")
+    private long restore(FileChannel channel, Segment segment, long now) {
+        if (segment.length() == 0) {
+            return 0;
+        }
+        long restored = 0;
+        try {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, segment.offset(), segment.length());
+            Optional<Policy.VarExpiration<K, V>> expiration = cache.policy().expireVariably();
+            Optional<Policy.VarExpiration<ByteArrayKey, byte[]>> bytesExpiration = Objects.isNull(bytesCache)
+                    ? Optional.empty() : bytesCache.policy().expireVariably();
+            for (int i = 0; i < segment.count(); i++) {
+                byte type = buffer.get();
+                long expireAt = buffer.getLong();
+                byte[] key = new byte[buffer.getInt()];
+                buffer.get(key);
+                byte[] value = new byte[buffer.getInt()];
+                buffer.get(value);
+                long remainingMillis = expireAt == 0 ? 0 : expireAt - now;
+                if (expireAt != 0 && remainingMillis <= 0) {
+                    continue;
+                }
+                if (type == ENTRY_BYTES) {
+                    if (Objects.nonNull(bytesCache)
+                            && this.putIfAbsent(bytesCache, bytesExpiration, ByteArrayKey.wrap(key), value,
+                            remainingMillis)) {
+                        restored++;
+                    }
+                    continue;
+                }
+                try {
+                    if (this.putIfAbsent(cache, expiration, (K) serializer.deserialize(key),
+                            (V) serializer.deserialize(value), remainingMillis)) {
+                        restored++;
+                    }
+                } catch (RuntimeException e) {
+                    // 类已删除或字段不兼容等，条目之间按长度分隔，跳过该条目即可
+                    LoggerUtil.warn(log, "本地缓存快照跳过无法还原的条目, path: {}, {}", path, e.getMessage());
+                }
+            }
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException | NegativeArraySizeException e) {
+            LoggerUtil.warn(log, "本地缓存快照分段损坏，已跳过剩余条目, path: {}, {}", path, e.getMessage());
+        }
+        return restored;
+    }
+
+    /**
+     * 写入恢复的条目，启动后已写入的键保持不变
+     *
+     * @return 是否写入
+     */
+    private <T, R> boolean putIfAbsent(Cache<T, R> target, Optional<Policy.VarExpiration<T, R>> expiration,
+                                       T key, R value, long remainingMillis) {
+        if (Objects.isNull(key) || Objects.isNull(value)) {
+            return false;
+        }
+        if (remainingMillis > 0 && expiration.isPresent()) {
+            return Objects.isNull(expiration.get().putIfAbsent(key, value, remainingMillis, TimeUnit.MILLISECONDS));
+        }
+        return Objects.isNull(target.asMap().putIfAbsent(key, value));
+    }
+
+    /**
+     * 待写入的条目
+     *
+     * @param type     条目类型
+     * @param expireAt 过期时间点，0 表示不过期
+     * @param key      缓存键，byte[] 键时为原始字节
+     * @param value    缓存值
+     */
+    private record SnapshotEntry(byte type, long expireAt, Object key, Object value) {
+
+    }
+
+    /**
+     * 编码后的分段
+     *
+     * @param bytes 分段数据
+     * @param count 实际写入的条目数
+     */
+    private record EncodedSegment(byte[] bytes, int count) {
+
+    }
+
+    /**
+     * 分段信息
+     *
+     * @param offset 数据在文件中的偏移
+     * @param length 数据长度
+     * @param count  条目数
+     */
+    private record Segment(long offset, int length, int count) {
+
+    }
+}
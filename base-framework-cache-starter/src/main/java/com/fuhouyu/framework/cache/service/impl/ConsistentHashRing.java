@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <p>
+ * 带虚拟节点的一致性哈希环，哈希函数为 MurmurHash3（x86 32 位）。
+ * 每个节点按 {@code 名称#序号} 在环上放置若干虚拟节点，键顺时针落到第一个虚拟节点所属的节点，
+ * 增删节点时只有相邻区间的键会迁移。节点名称决定位置，与配置顺序无关。
+ * </p>
+ * <p>
+ * 支持与 redis cluster 相同的 hash tag：键中包含 {@code {...}} 且括号内不为空时，只对括号内的部分计算哈希，
+ * 例如 {@code token:{abc}:access} 与 {@code token:{abc}:refresh} 总是落在同一个节点。
+ * </p>
+ * <p>
+ * 构造后不可变，查询无锁。
+ * </p>
+ *
+ * @param <T> 节点的类型
+ * @author fuhouyu
+ * @since 2026/10/18 16:20
+ */
+public final class ConsistentHashRing<T> {
+
+    private static final int SEED = 0;
+
+    private final int[] points;
+
+    private final List<T> owners;
+
+    private final Map<String, T> nodes;
+
+    /**
+     * 构造函数
+     *
+     * @param nodes        节点名称及节点
+     * @param virtualNodes 每个节点的虚拟节点数量
+     */
+    public ConsistentHashRing(Map<String, T> nodes, int virtualNodes) {
+        Assert.notEmpty(nodes, "一致性哈希环至少需要一个节点");
+        Assert.isTrue(virtualNodes > 0, "虚拟节点数量必须大于0");
+        TreeMap<Integer, T> ring = new TreeMap<>();
+        nodes.forEach((name, node) -> {
+            for (int i = 0; i < virtualNodes; i++) {
+                byte[] label = (name + "#" + i).getBytes(StandardCharsets.UTF_8);
+                // 位置冲突时保留先放置的节点，避免结果依赖遍历顺序以外的因素
+                ring.putIfAbsent(murmur3(label, 0, label.length), node);
+            }
+        });
+        this.points = new int[ring.size()];
+        this.owners = new ArrayList<>(ring.size());
+        int i = 0;
+        for (Map.Entry<Integer, T> entry : ring.entrySet()) {
+            points[i++] = entry.getKey();
+            owners.add(entry.getValue());
+        }
+        this.nodes = Collections.unmodifiableMap(new LinkedHashMap<>(nodes));
+    }
+
+    /**
+     * 键所属的节点
+     *
+     * @param key 序列化后的键
+     * @return 节点
+     */
+    public T get(byte[] key) {
+        return owners.get(this.indexOf(hash(key)));
+    }
+
+    /**
+     * 所有节点
+     *
+     * @return 节点
+     */
+    public Collection<T> nodes() {
+        return nodes.values();
+    }
+
+    /**
+     * 计算键的哈希值，存在 hash tag 时只计算括号内的部分
+     *
+     * @param key 序列化后的键
+     * @return 哈希值
+     */
+    public static int hash(byte[] key) {
+        int start = indexOf(key, (byte) '{', 0);
+        if (start >= 0) {
+            int end = indexOf(key, (byte) '}', start + 1);
+            if (end > start + 1) {
+                return murmur3(key, start + 1, end - start - 1);
+            }
+        }
+        return murmur3(key, 0, key.length);
+    }
+
+    /**
+     * 顺时针第一个不小于该哈希值的虚拟节点，超过最大值时回到起点
+     */
+    private int indexOf(int hash) {
+        int low = 0;
+        int high = points.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (points[mid] < hash) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low == points.length ? 0 : low;
+    }
+
+    private static int indexOf(byte[] bytes, byte target, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * MurmurHash3 x86 32 位
+     */
+    static int murmur3(byte[] data, int offset, int length) {
+        return murmur3(data, offset, length, SEED);
+    }
+
+    /**
+     * 指定种子的 MurmurHash3 x86 32 位
+     */
+    static int murmur3(byte[] data, int offset, int length, int seed) {
+        final int c1 = 0xcc9e2d51;
+        final int c2 = 0x1b873593;
+        int h = seed;
+        int roundedEnd = offset + (length & ~3);
+        for (int i = offset; i < roundedEnd; i += 4) {
+            int k = (data[i] & 0xff)
+                    | ((data[i + 1] & 0xff) << 8)
+                    | ((data[i + 2] & 0xff) << 16)
+                    | (data[i + 3] << 24);
+            k *= c1;
+            k = Integer.rotateLeft(k, 15);
+            k *= c2;
+            h ^= k;
+            h = Integer.rotateLeft(h, 13);
+            h = h * 5 + 0xe6546b64;
+        }
+        int remaining = length & 3;
+        if (remaining > 0) {
+            int k = 0;
+            if (remaining == 3) {
+                k ^= (data[roundedEnd + 2] & 0xff) << 16;
+            }
+            if (remaining >= 2) {
+                k ^= (data[roundedEnd + 1] & 0xff) << 8;
+            }
+            k ^= data[roundedEnd] & 0xff;
+            k *= c1;
+            k = Integer.rotateLeft(k, 15);
+            k *= c2;
+            h ^= k;
+        }
+        h ^= length;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
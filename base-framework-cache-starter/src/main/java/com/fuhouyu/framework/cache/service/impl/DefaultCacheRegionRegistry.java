@@ -0,0 +1,80 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.service.CacheRegionRegistry;
+import com.fuhouyu.framework.cache.service.CacheService;
+import org.springframework.beans.factory.BeanFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>
+ * 基于容器的缓存区域注册表，每个区域对应容器中的一个缓存服务 bean，
+ * 从容器中获取可以保证取到的是经过装饰器（热点键、延迟写入等）包装后的同一个实例。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 19:20
+ */
+public class DefaultCacheRegionRegistry implements CacheRegionRegistry {
+
+    private final BeanFactory beanFactory;
+
+    private final Map<String, String> regionBeanNames;
+
+    private final CacheService<String, Object> defaultCacheService;
+
+    /**
+     * 构造函数
+     *
+     * @param beanFactory         beanFactory
+     * @param regionBeanNames     区域名称与 bean 名称的对应关系
+     * @param defaultCacheService 区域未配置时使用的默认缓存服务
+     */
+    public DefaultCacheRegionRegistry(BeanFactory beanFactory, Map<String, String> regionBeanNames,
+                                      CacheService<String, Object> defaultCacheService) {
+        this.beanFactory = beanFactory;
+        this.regionBeanNames = new LinkedHashMap<>(regionBeanNames);
+        this.defaultCacheService = defaultCacheService;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public CacheService<String, Object> getRegion(String name) {
+        String beanName = regionBeanNames.get(name);
+        if (Objects.isNull(beanName)) {
+            return defaultCacheService;
+        }
+        return beanFactory.getBean(beanName, CacheService.class);
+    }
+
+    @Override
+    public boolean containsRegion(String name) {
+        return regionBeanNames.containsKey(name);
+    }
+
+    @Override
+    public Set<String> getRegionNames() {
+        return Collections.unmodifiableSet(regionBeanNames.keySet());
+    }
+}
@@ -0,0 +1,400 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.model.CompareAndSetResult;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
+import com.fuhouyu.framework.cache.model.VersionedValue;
+import com.fuhouyu.framework.cache.service.CacheService;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * 缓存服务装饰器的基类，所有操作原样转发给被装饰的缓存服务，
+ * 子类只需覆盖需要增强的方法。关闭时同时关闭可关闭的被装饰对象，多层装饰时逐层关闭。
+ * </p>
+ *
+ * @param <K> 缓存键的类型
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 17:10
+ */
+public abstract class DelegatingCacheService<K, V> implements CacheService<K, V>, AutoCloseable {
+
+    protected final CacheService<K, V> delegate;
+
+    protected DelegatingCacheService(CacheService<K, V> delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * 被装饰的缓存服务
+     *
+     * @return 缓存服务
+     */
+    public CacheService<K, V> getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void close() {
+        if (delegate instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    // ===== String Operations =====
+
+    @Override
+    public void set(byte[] key, byte[] value) {
+        delegate.set(key, value);
+    }
+
+    @Override
+    public void set(K key, V value) {
+        delegate.set(key, value);
+    }
+
+    @Override
+    public void set(K key, V value, long timeout, TimeUnit unit) {
+        delegate.set(key, value, timeout, unit);
+    }
+
+    @Override
+    public void set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+        delegate.set(key, value, timeout, unit);
+    }
+
+    @Override
+    public V get(K key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public void delete(K key) {
+        delegate.delete(key);
+    }
+
+    @Override
+    public void delete(byte[] key) {
+        delegate.delete(key);
+    }
+
+    // ===== Batch Operations =====
+
+    @Override
+    public Map<K, V> multiGet(Collection<K> keys) {
+        return delegate.multiGet(keys);
+    }
+
+    @Override
+    public List<byte[]> multiGetBytes(List<byte[]> keys) {
+        return delegate.multiGetBytes(keys);
+    }
+
+    @Override
+    public Map<K, ExpiringValue<V>> multiGetWithTtl(Collection<K> keys) {
+        return delegate.multiGetWithTtl(keys);
+    }
+
+    @Override
+    public List<ExpiringValue<byte[]>> multiGetBytesWithTtl(List<byte[]> keys) {
+        return delegate.multiGetBytesWithTtl(keys);
+    }
+
+    @Override
+    public void multiSet(Map<K, V> map, long timeout, TimeUnit unit) {
+        delegate.multiSet(map, timeout, unit);
+    }
+
+    @Override
+    public void multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+        delegate.multiSetBytes(map, timeout, unit);
+    }
+
+    @Override
+    public void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries) {
+        delegate.multiSetBytesWithTtl(entries);
+    }
+
+    @Override
+    public void multiDelete(Collection<K> keys) {
+        delegate.multiDelete(keys);
+    }
+
+    @Override
+    public void multiDeleteBytes(Collection<byte[]> keys) {
+        delegate.multiDeleteBytes(keys);
+    }
+
+    @Override
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        return delegate.getOrLoad(key, loader, timeout, unit);
+    }
+
+    // ===== Hash Operations =====
+
+    @Override
+    public void putHash(K key, K hashKey, V value) {
+        delegate.putHash(key, hashKey, value);
+    }
+
+    @Override
+    public void putHash(K key, K hashKey, V value, long timeout, TimeUnit unit) {
+        delegate.putHash(key, hashKey, value, timeout, unit);
+    }
+
+    @Override
+    public V getHash(K key, K hashKey) {
+        return delegate.getHash(key, hashKey);
+    }
+
+    @Override
+    public void deleteHash(K key, K hashKey) {
+        delegate.deleteHash(key, hashKey);
+    }
+
+    @Override
+    public Map<K, V> getHashAll(K key) {
+        return delegate.getHashAll(key);
+    }
+
+    @Override
+    public void putHashAll(K key, Map<K, V> map) {
+        delegate.putHashAll(key, map);
+    }
+
+    @Override
+    public void putHashAll(K key, Map<K, V> map, long timeout, TimeUnit unit) {
+        delegate.putHashAll(key, map, timeout, unit);
+    }
+
+    // ===== List Operations =====
+
+    @Override
+    public void pushToList(K key, V value) {
+        delegate.pushToList(key, value);
+    }
+
+    @Override
+    public void pushToList(K key, V value, long timeout, TimeUnit unit) {
+        delegate.pushToList(key, value, timeout, unit);
+    }
+
+    @Override
+    public V popFromList(K key) {
+        return delegate.popFromList(key);
+    }
+
+    @Override
+    public List<V> getList(K key) {
+        return delegate.getList(key);
+    }
+
+    // ===== Set Operations =====
+
+    @Override
+    public void addToSet(K key, V value) {
+        delegate.addToSet(key, value);
+    }
+
+    @Override
+    public void addToSet(K key, V value, long timeout, TimeUnit unit) {
+        delegate.addToSet(key, value, timeout, unit);
+    }
+
+    @Override
+    public Set<V> getSet(K key) {
+        return delegate.getSet(key);
+    }
+
+    @Override
+    public void removeFromSet(K key, V value) {
+        delegate.removeFromSet(key, value);
+    }
+
+    // ===== Counter Operations =====
+
+    @Override
+    public long increment(K key, long delta) {
+        return delegate.increment(key, delta);
+    }
+
+    @Override
+    public long increment(K key, long delta, long timeout, TimeUnit unit) {
+        return delegate.increment(key, delta, timeout, unit);
+    }
+
+    @Override
+    public long getCounter(K key) {
+        return delegate.getCounter(key);
+    }
+
+    // ===== Sorted Set Operations =====
+
+    @Override
+    public void addToSortedSet(K key, V value, double score) {
+        delegate.addToSortedSet(key, value, score);
+    }
+
+    @Override
+    public void addToSortedSet(K key, V value, double score, long timeout, TimeUnit unit) {
+        delegate.addToSortedSet(key, value, score, timeout, unit);
+    }
+
+    @Override
+    public double incrementScore(K key, V value, double delta) {
+        return delegate.incrementScore(key, value, delta);
+    }
+
+    @Override
+    public Double getScore(K key, V value) {
+        return delegate.getScore(key, value);
+    }
+
+    @Override
+    public Long rankInSortedSet(K key, V value) {
+        return delegate.rankInSortedSet(key, value);
+    }
+
+    @Override
+    public Long reverseRankInSortedSet(K key, V value) {
+        return delegate.reverseRankInSortedSet(key, value);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> rangeSortedSet(K key, long start, long end) {
+        return delegate.rangeSortedSet(key, start, end);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> reverseRangeSortedSet(K key, long start, long end) {
+        return delegate.reverseRangeSortedSet(key, start, end);
+    }
+
+    @Override
+    public void removeFromSortedSet(K key, V value) {
+        delegate.removeFromSortedSet(key, value);
+    }
+
+    @Override
+    public long sortedSetSize(K key) {
+        return delegate.sortedSetSize(key);
+    }
+
+    // ===== HyperLogLog Operations =====
+
+    @Override
+    public boolean addToHyperLogLog(K key, Collection<V> values) {
+        return delegate.addToHyperLogLog(key, values);
+    }
+
+    @Override
+    public long countHyperLogLog(K key) {
+        return delegate.countHyperLogLog(key);
+    }
+
+    @Override
+    public long countHyperLogLog(Collection<K> keys) {
+        return delegate.countHyperLogLog(keys);
+    }
+
+    // ===== Versioned Operations =====
+
+    @Override
+    public VersionedValue<V> getVersioned(K key) {
+        return delegate.getVersioned(key);
+    }
+
+    @Override
+    public CompareAndSetResult<V> compareAndSet(K key, long expectedVersion, V newValue, long timeout, TimeUnit unit) {
+        return delegate.compareAndSet(key, expectedVersion, newValue, timeout, unit);
+    }
+
+    // ===== Common Operations =====
+
+    @Override
+    public boolean exists(K key) {
+        return delegate.exists(key);
+    }
+
+    @Override
+    public void expire(K key, long timeout) {
+        delegate.expire(key, timeout);
+    }
+
+    @Override
+    public void expire(K key, long timeout, TimeUnit unit) {
+        delegate.expire(key, timeout, unit);
+    }
+
+    @Override
+    public long size(K key) {
+        return delegate.size(key);
+    }
+
+    @Override
+    public void deleteMultiple(Set<K> keys) {
+        delegate.deleteMultiple(keys);
+    }
+
+    // ===== Scan Operations =====
+
+    @Override
+    public Stream<Map.Entry<K, V>> scanHash(K key, int batchSize) {
+        return delegate.scanHash(key, batchSize);
+    }
+
+    @Override
+    public Stream<V> scanList(K key, int batchSize) {
+        return delegate.scanList(key, batchSize);
+    }
+
+    @Override
+    public Stream<V> scanSet(K key, int batchSize) {
+        return delegate.scanSet(key, batchSize);
+    }
+
+    @Override
+    public Stream<K> scanKeys(String pattern, int batchSize) {
+        return delegate.scanKeys(pattern, batchSize);
+    }
+
+    @Override
+    public long deleteByPattern(String pattern, int batchSize) {
+        return delegate.deleteByPattern(pattern, batchSize);
+    }
+}
@@ -0,0 +1,551 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.model.CompareAndSetResult;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
+import com.fuhouyu.framework.cache.model.VersionedValue;
+import com.fuhouyu.framework.cache.service.CacheService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * 热点键探测的缓存服务装饰器，按键的操作均先交给 {@link HotKeyDetector} 采样计数，再转发给被装饰的缓存服务。
+ * </p>
+ * <p>
+ * 开启本地提升后，字符串读取（get、multiGet、getOrLoad）命中上一个窗口的热点键时，
+ * 把读到的值放入一个短过期时间的本地缓存，后续读取直接返回本地的值，不再访问下层缓存。
+ * 当前节点的写入与删除会同时失效本地的值，其他节点的写入只能等本地过期，
+ * 因此本地过期时间即为热点键可接受的最大不一致时间。hash、list、set、有序集合等结构的读取只统计不提升。
+ * </p>
+ *
+ * @param <K> 缓存键的类型
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 17:40
+ */
+public class HotKeyCacheService<K, V> extends DelegatingCacheService<K, V> {
+
+    private final HotKeyDetector detector;
+
+    private final Cache<K, V> local;
+
+    private final Cache<ByteArrayKey, byte[]> localBytes;
+
+    /**
+     * 构造函数，只统计不提升
+     *
+     * @param delegate 被装饰的缓存服务
+     * @param detector 热点键探测
+     */
+    public HotKeyCacheService(CacheService<K, V> delegate, HotKeyDetector detector) {
+        super(delegate);
+        this.detector = detector;
+        this.local = null;
+        this.localBytes = null;
+    }
+
+    /**
+     * 构造函数，热点键提升到本地缓存
+     *
+     * @param delegate         被装饰的缓存服务
+     * @param detector         热点键探测
+     * @param localExpireTime  本地缓存的过期时间
+     * @param localMaximumSize 本地缓存的最大条目数，对象键与 byte[] 键分别计算
+     */
+    public HotKeyCacheService(CacheService<K, V> delegate, HotKeyDetector detector,
+                              Duration localExpireTime, long localMaximumSize) {
+        super(delegate);
+        this.detector = detector;
+        this.local = Caffeine.newBuilder()
+                .expireAfterWrite(localExpireTime)
+                .maximumSize(localMaximumSize)
+                .build();
+        this.localBytes = Caffeine.newBuilder()
+                .expireAfterWrite(localExpireTime)
+                .maximumSize(localMaximumSize)
+                .build();
+    }
+
+    /**
+     * 热点键探测
+     *
+     * @return 热点键探测
+     */
+    public HotKeyDetector getDetector() {
+        return detector;
+    }
+
+    // ===== String Operations =====
+
+    @Override
+    public void set(byte[] key, byte[] value) {
+        this.touchBytes(key);
+        delegate.set(key, value);
+    }
+
+    @Override
+    public void set(K key, V value) {
+        this.touch(key);
+        delegate.set(key, value);
+    }
+
+    @Override
+    public void set(K key, V value, long timeout, TimeUnit unit) {
+        this.touch(key);
+        delegate.set(key, value, timeout, unit);
+    }
+
+    @Override
+    public void set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+        this.touchBytes(key);
+        delegate.set(key, value, timeout, unit);
+    }
+
+    @Override
+    public V get(K key) {
+        detector.record(key);
+        if (Objects.isNull(local)) {
+            return delegate.get(key);
+        }
+        V value = local.getIfPresent(key);
+        if (Objects.nonNull(value)) {
+            return value;
+        }
+        value = delegate.get(key);
+        this.promote(key, value);
+        return value;
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+        detector.recordBytes(key);
+        if (Objects.isNull(localBytes)) {
+            return delegate.get(key);
+        }
+        byte[] value = localBytes.getIfPresent(ByteArrayKey.wrap(key));
+        if (Objects.nonNull(value)) {
+            return value;
+        }
+        value = delegate.get(key);
+        if (Objects.nonNull(value) && detector.isHotBytes(key)) {
+            localBytes.put(ByteArrayKey.copyOf(key), value);
+        }
+        return value;
+    }
+
+    @Override
+    public void delete(K key) {
+        this.touch(key);
+        delegate.delete(key);
+    }
+
+    @Override
+    public void delete(byte[] key) {
+        this.touchBytes(key);
+        delegate.delete(key);
+    }
+
+    // ===== Batch Operations =====
+
+    @Override
+    public Map<K, V> multiGet(Collection<K> keys) {
+        keys.forEach(detector::record);
+        if (Objects.isNull(local)) {
+            return delegate.multiGet(keys);
+        }
+        Map<K, V> result = new HashMap<>(keys.size());
+        List<K> missing = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            V value = local.getIfPresent(key);
+            if (Objects.nonNull(value)) {
+                result.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        Map<K, V> loaded = delegate.multiGet(missing);
+        loaded.forEach(this::promote);
+        result.putAll(loaded);
+        return result;
+    }
+
+    @Override
+    public List<byte[]> multiGetBytes(List<byte[]> keys) {
+        keys.forEach(detector::recordBytes);
+        return delegate.multiGetBytes(keys);
+    }
+
+    @Override
+    public Map<K, ExpiringValue<V>> multiGetWithTtl(Collection<K> keys) {
+        keys.forEach(detector::record);
+        return delegate.multiGetWithTtl(keys);
+    }
+
+    @Override
+    public List<ExpiringValue<byte[]>> multiGetBytesWithTtl(List<byte[]> keys) {
+        keys.forEach(detector::recordBytes);
+        return delegate.multiGetBytesWithTtl(keys);
+    }
+
+    @Override
+    public void multiSet(Map<K, V> map, long timeout, TimeUnit unit) {
+        map.keySet().forEach(this::touch);
+        delegate.multiSet(map, timeout, unit);
+    }
+
+    @Override
+    public void multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+        map.keySet().forEach(this::touchBytes);
+        delegate.multiSetBytes(map, timeout, unit);
+    }
+
+    @Override
+    public void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries) {
+        entries.keySet().forEach(this::touchBytes);
+        delegate.multiSetBytesWithTtl(entries);
+    }
+
+    @Override
+    public void multiDelete(Collection<K> keys) {
+        keys.forEach(this::touch);
+        delegate.multiDelete(keys);
+    }
+
+    @Override
+    public void multiDeleteBytes(Collection<byte[]> keys) {
+        keys.forEach(this::touchBytes);
+        delegate.multiDeleteBytes(keys);
+    }
+
+    @Override
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        detector.record(key);
+        if (Objects.isNull(local)) {
+            return delegate.getOrLoad(key, loader, timeout, unit);
+        }
+        V value = local.getIfPresent(key);
+        if (Objects.nonNull(value)) {
+            return value;
+        }
+        value = delegate.getOrLoad(key, loader, timeout, unit);
+        this.promote(key, value);
+        return value;
+    }
+
+    // ===== Hash Operations =====
+
+    @Override
+    public void putHash(K key, K hashKey, V value) {
+        detector.record(key);
+        delegate.putHash(key, hashKey, value);
+    }
+
+    @Override
+    public void putHash(K key, K hashKey, V value, long timeout, TimeUnit unit) {
+        detector.record(key);
+        delegate.putHash(key, hashKey, value, timeout, unit);
+    }
+
+    @Override
+    public V getHash(K key, K hashKey) {
+        detector.record(key);
+        return delegate.getHash(key, hashKey);
+    }
+
+    @Override
+    public void deleteHash(K key, K hashKey) {
+        detector.record(key);
+        delegate.deleteHash(key, hashKey);
+    }
+
+    @Override
+    public Map<K, V> getHashAll(K key) {
+        detector.record(key);
+        return delegate.getHashAll(key);
+    }
+
+    @Override
+    public void putHashAll(K key, Map<K, V> map) {
+        detector.record(key);
+        delegate.putHashAll(key, map);
+    }
+
+    @Override
+    public void putHashAll(K key, Map<K, V> map, long timeout, TimeUnit unit) {
+        detector.record(key);
+        delegate.putHashAll(key, map, timeout, unit);
+    }
+
+    // ===== List Operations =====
+
+    @Override
+    public void pushToList(K key, V value) {
+        detector.record(key);
+        delegate.pushToList(key, value);
+    }
+
+    @Override
+    public void pushToList(K key, V value, long timeout, TimeUnit unit) {
+        detector.record(key);
+        delegate.pushToList(key, value, timeout, unit);
+    }
+
+    @Override
+    public V popFromList(K key) {
+        detector.record(key);
+        return delegate.popFromList(key);
+    }
+
+    @Override
+    public List<V> getList(K key) {
+        detector.record(key);
+        return delegate.getList(key);
+    }
+
+    // ===== Set Operations =====
+
+    @Override
+    public void addToSet(K key, V value) {
+        detector.record(key);
+        delegate.addToSet(key, value);
+    }
+
+    @Override
+    public void addToSet(K key, V value, long timeout, TimeUnit unit) {
+        detector.record(key);
+        delegate.addToSet(key, value, timeout, unit);
+    }
+
+    @Override
+    public Set<V> getSet(K key) {
+        detector.record(key);
+        return delegate.getSet(key);
+    }
+
+    @Override
+    public void removeFromSet(K key, V value) {
+        detector.record(key);
+        delegate.removeFromSet(key, value);
+    }
+
+    // ===== Counter Operations =====
+
+    @Override
+    public long increment(K key, long delta) {
+        detector.record(key);
+        return delegate.increment(key, delta);
+    }
+
+    @Override
+    public long increment(K key, long delta, long timeout, TimeUnit unit) {
+        detector.record(key);
+        return delegate.increment(key, delta, timeout, unit);
+    }
+
+    @Override
+    public long getCounter(K key) {
+        detector.record(key);
+        return delegate.getCounter(key);
+    }
+
+    // ===== Sorted Set Operations =====
+
+    @Override
+    public void addToSortedSet(K key, V value, double score) {
+        detector.record(key);
+        delegate.addToSortedSet(key, value, score);
+    }
+
+    @Override
+    public void addToSortedSet(K key, V value, double score, long timeout, TimeUnit unit) {
+        detector.record(key);
+        delegate.addToSortedSet(key, value, score, timeout, unit);
+    }
+
+    @Override
+    public double incrementScore(K key, V value, double delta) {
+        detector.record(key);
+        return delegate.incrementScore(key, value, delta);
+    }
+
+    @Override
+    public Double getScore(K key, V value) {
+        detector.record(key);
+        return delegate.getScore(key, value);
+    }
+
+    @Override
+    public Long rankInSortedSet(K key, V value) {
+        detector.record(key);
+        return delegate.rankInSortedSet(key, value);
+    }
+
+    @Override
+    public Long reverseRankInSortedSet(K key, V value) {
+        detector.record(key);
+        return delegate.reverseRankInSortedSet(key, value);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> rangeSortedSet(K key, long start, long end) {
+        detector.record(key);
+        return delegate.rangeSortedSet(key, start, end);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> reverseRangeSortedSet(K key, long start, long end) {
+        detector.record(key);
+        return delegate.reverseRangeSortedSet(key, start, end);
+    }
+
+    @Override
+    public void removeFromSortedSet(K key, V value) {
+        detector.record(key);
+        delegate.removeFromSortedSet(key, value);
+    }
+
+    @Override
+    public long sortedSetSize(K key) {
+        detector.record(key);
+        return delegate.sortedSetSize(key);
+    }
+
+    // ===== HyperLogLog Operations =====
+
+    @Override
+    public boolean addToHyperLogLog(K key, Collection<V> values) {
+        detector.record(key);
+        return delegate.addToHyperLogLog(key, values);
+    }
+
+    @Override
+    public long countHyperLogLog(K key) {
+        detector.record(key);
+        return delegate.countHyperLogLog(key);
+    }
+
+    @Override
+    public long countHyperLogLog(Collection<K> keys) {
+        keys.forEach(detector::record);
+        return delegate.countHyperLogLog(keys);
+    }
+
+    // ===== Versioned Operations =====
+
+    @Override
+    public VersionedValue<V> getVersioned(K key) {
+        detector.record(key);
+        return delegate.getVersioned(key);
+    }
+
+    @Override
+    public CompareAndSetResult<V> compareAndSet(K key, long expectedVersion, V newValue, long timeout, TimeUnit unit) {
+        detector.record(key);
+        return delegate.compareAndSet(key, expectedVersion, newValue, timeout, unit);
+    }
+
+    // ===== Common Operations =====
+
+    @Override
+    public boolean exists(K key) {
+        detector.record(key);
+        return delegate.exists(key);
+    }
+
+    @Override
+    public void expire(K key, long timeout) {
+        this.touch(key);
+        delegate.expire(key, timeout);
+    }
+
+    @Override
+    public void expire(K key, long timeout, TimeUnit unit) {
+        this.touch(key);
+        delegate.expire(key, timeout, unit);
+    }
+
+    @Override
+    public long size(K key) {
+        detector.record(key);
+        return delegate.size(key);
+    }
+
+    @Override
+    public void deleteMultiple(Set<K> keys) {
+        keys.forEach(this::touch);
+        delegate.deleteMultiple(keys);
+    }
+
+    // ===== Scan Operations =====
+
+    @Override
+    public long deleteByPattern(String pattern, int batchSize) {
+        // 按模式删除的键无法逐个对应，直接清空本地提升的值
+        if (Objects.nonNull(local)) {
+            local.invalidateAll();
+            localBytes.invalidateAll();
+        }
+        return delegate.deleteByPattern(pattern, batchSize);
+    }
+
+    /**
+     * 记录一次写入或删除，并失效本地提升的值
+     *
+     * @param key 缓存键
+     */
+    private void touch(K key) {
+        detector.record(key);
+        if (Objects.nonNull(local)) {
+            local.invalidate(key);
+        }
+    }
+
+    /**
+     * 记录一次 byte[] 键的写入或删除，并失效本地提升的值
+     *
+     * @param key 缓存键
+     */
+    private void touchBytes(byte[] key) {
+        detector.recordBytes(key);
+        if (Objects.nonNull(localBytes)) {
+            localBytes.invalidate(ByteArrayKey.wrap(key));
+        }
+    }
+
+    /**
+     * 热点键读到的值放入本地缓存
+     *
+     * @param key   缓存键
+     * @param value 读到的值
+     */
+    private void promote(K key, V value) {
+        if (Objects.nonNull(value) && detector.isHot(key)) {
+            local.put(key, value);
+        }
+    }
+}
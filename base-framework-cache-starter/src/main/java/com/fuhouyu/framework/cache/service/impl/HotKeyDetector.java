@@ -0,0 +1,342 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.model.HotKey;
+import com.fuhouyu.framework.common.utils.LoggerUtil;
+import com.github.benmanes.caffeine.cache.Ticker;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * <p>
+ * 热点键探测，按采样率把缓存操作计入 Count-Min Sketch，
+ * 并用一个容量为 topK 的候选集合保留估算次数最多的键（heavy hitters）。
+ * </p>
+ * <p>
+ * 统计按固定窗口滚动：窗口结束后的第一次记录或查询会把候选集合换算为每秒操作次数生成快照，
+ * 然后清空计数开始下一个窗口。查询返回的始终是上一个完整窗口的快照，
+ * 每秒操作次数不低于阈值的键视为热点键。
+ * </p>
+ * <p>
+ * 计数只做近似统计：窗口切换时并发的少量记录可能计入任意一个窗口，哈希值相同的键会合并计数。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 17:20
+ */
+@Slf4j
+public final class HotKeyDetector {
+
+    private final int depth;
+
+    private final int mask;
+
+    private final int[] seeds;
+
+    private final AtomicLongArray counters;
+
+    private final double sampleRate;
+
+    private final int topK;
+
+    private final long windowNanos;
+
+    private final double hotThreshold;
+
+    private final Ticker ticker;
+
+    private final ConcurrentMap<String, Long> candidates = new ConcurrentHashMap<>();
+
+    private final Object candidateLock = new Object();
+
+    private final Object rotateLock = new Object();
+
+    private final LongAdder sampled = new LongAdder();
+
+    private final List<Consumer<List<HotKey>>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * 进入候选集合所需的最小估算次数，只在候选集合已满时大于0
+     */
+    private volatile long minCandidate;
+
+    private volatile long windowStart;
+
+    private volatile List<HotKey> snapshot = Collections.emptyList();
+
+    private volatile Set<String> hotKeys = Collections.emptySet();
+
+    /**
+     * 构造函数
+     *
+     * @param sampleRate   采样率，取值 (0, 1]
+     * @param topK         保留的候选键数量
+     * @param width        每一行的计数器数量，向上取整为2的幂
+     * @param depth        行数，即哈希函数数量
+     * @param window       统计窗口
+     * @param hotThreshold 视为热点键的每秒操作次数
+     */
+    public HotKeyDetector(double sampleRate, int topK, int width, int depth, Duration window, double hotThreshold) {
+        this(sampleRate, topK, width, depth, window, hotThreshold, Ticker.systemTicker());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param sampleRate   采样率，取值 (0, 1]
+     * @param topK         保留的候选键数量
+     * @param width        每一行的计数器数量，向上取整为2的幂
+     * @param depth        行数，即哈希函数数量
+     * @param window       统计窗口
+     * @param hotThreshold 视为热点键的每秒操作次数
+     * @param ticker       窗口计时使用的时钟（纳秒）
+     */
+    public HotKeyDetector(double sampleRate, int topK, int width, int depth, Duration window, double hotThreshold,
+                          Ticker ticker) {
+        if (sampleRate <= 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("sampleRate must be in (0, 1]: " + sampleRate);
+        }
+        if (topK <= 0 || width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("topK, width and depth must be positive");
+        }
+        int tableWidth = Integer.highestOneBit(Math.max(width - 1, 1)) << 1;
+        this.depth = depth;
+        this.mask = tableWidth - 1;
+        this.counters = new AtomicLongArray(tableWidth * depth);
+        this.seeds = new int[depth];
+        Random random = new Random(0x5DEECE66DL);
+        for (int i = 0; i < depth; i++) {
+            seeds[i] = random.nextInt() | 1;
+        }
+        this.sampleRate = sampleRate;
+        this.topK = topK;
+        this.windowNanos = window.toNanos();
+        this.hotThreshold = hotThreshold;
+        this.ticker = ticker;
+        this.windowStart = ticker.read();
+    }
+
+    /**
+     * 记录一次操作，未被采样时直接返回
+     *
+     * @param key 缓存键
+     */
+    public void record(Object key) {
+        if (this.skip() || Objects.isNull(key)) {
+            return;
+        }
+        this.add(String.valueOf(key));
+    }
+
+    /**
+     * 记录一次 byte[] 键的操作，未被采样时直接返回
+     *
+     * @param key 缓存键
+     */
+    public void recordBytes(byte[] key) {
+        if (this.skip() || Objects.isNull(key)) {
+            return;
+        }
+        this.add(new String(key, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 是否为上一个窗口的热点键
+     *
+     * @param key 缓存键
+     * @return 是否为热点键
+     */
+    public boolean isHot(Object key) {
+        Set<String> current = hotKeys;
+        return !current.isEmpty() && Objects.nonNull(key) && current.contains(String.valueOf(key));
+    }
+
+    /**
+     * byte[] 键是否为上一个窗口的热点键
+     *
+     * @param key 缓存键
+     * @return 是否为热点键
+     */
+    public boolean isHotBytes(byte[] key) {
+        Set<String> current = hotKeys;
+        return !current.isEmpty() && Objects.nonNull(key)
+                && current.contains(new String(key, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 上一个完整窗口内操作最多的键，按每秒操作次数降序，包含未达到热点阈值的候选键
+     *
+     * @return 候选键统计
+     */
+    public List<HotKey> topKeys() {
+        this.rotateIfNecessary(ticker.read());
+        return snapshot;
+    }
+
+    /**
+     * 上一个完整窗口内的热点键，按每秒操作次数降序
+     *
+     * @return 热点键统计
+     */
+    public List<HotKey> hotKeys() {
+        return this.topKeys().stream()
+                .filter(hotKey -> hotKey.getOpsPerSecond() >= hotThreshold)
+                .toList();
+    }
+
+    /**
+     * 累计采样的操作次数
+     *
+     * @return 采样次数
+     */
+    public long sampledCount() {
+        return sampled.sum();
+    }
+
+    /**
+     * 注册窗口切换的监听，参数为新窗口的候选键快照
+     *
+     * @param listener 监听
+     */
+    public void addListener(Consumer<List<HotKey>> listener) {
+        listeners.add(listener);
+    }
+
+    private boolean skip() {
+        return sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate;
+    }
+
+    private void add(String key) {
+        this.rotateIfNecessary(ticker.read());
+        sampled.increment();
+        int hash = key.hashCode();
+        int width = mask + 1;
+        long estimate = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int index = i * width + (mix(hash * seeds[i]) & mask);
+            estimate = Math.min(estimate, counters.incrementAndGet(index));
+        }
+        this.offer(key, estimate);
+    }
+
+    /**
+     * 更新候选集合，已在集合中的键直接更新次数，新键只有超过集合中的最小值时才替换该最小值
+     *
+     * @param key      缓存键
+     * @param estimate 估算次数
+     */
+    private void offer(String key, long estimate) {
+        if (Objects.nonNull(candidates.computeIfPresent(key, (k, old) -> Math.max(old, estimate)))) {
+            return;
+        }
+        if (estimate <= minCandidate) {
+            return;
+        }
+        synchronized (candidateLock) {
+            if (candidates.size() >= topK) {
+                Map.Entry<String, Long> min = null;
+                for (Map.Entry<String, Long> entry : candidates.entrySet()) {
+                    if (Objects.isNull(min) || entry.getValue() < min.getValue()) {
+                        min = entry;
+                    }
+                }
+                if (Objects.nonNull(min)) {
+                    if (estimate <= min.getValue()) {
+                        minCandidate = min.getValue();
+                        return;
+                    }
+                    candidates.remove(min.getKey());
+                }
+            }
+            candidates.merge(key, estimate, Math::max);
+            if (candidates.size() >= topK) {
+                minCandidate = candidates.values().stream().mapToLong(Long::longValue).min().orElse(0);
+            }
+        }
+    }
+
+    private void rotateIfNecessary(long now) {
+        if (now - windowStart < windowNanos) {
+            return;
+        }
+        List<HotKey> current;
+        synchronized (rotateLock) {
+            long start = windowStart;
+            if (now - start < windowNanos) {
+                return;
+            }
+            double seconds = (now - start) / 1_000_000_000.0d;
+            List<HotKey> ranked = new ArrayList<>(candidates.size());
+            candidates.forEach((key, count) -> {
+                long scaled = Math.round(count / sampleRate);
+                ranked.add(new HotKey(key, scaled, scaled / seconds));
+            });
+            ranked.sort(Comparator.comparingDouble(HotKey::getOpsPerSecond).reversed());
+            current = Collections.unmodifiableList(ranked.size() > topK ? ranked.subList(0, topK) : ranked);
+            Set<String> hot = new HashSet<>();
+            for (HotKey hotKey : current) {
+                if (hotKey.getOpsPerSecond() >= hotThreshold) {
+                    hot.add(hotKey.getKey());
+                }
+            }
+            for (int i = 0; i < counters.length(); i++) {
+                counters.set(i, 0);
+            }
+            synchronized (candidateLock) {
+                candidates.clear();
+                minCandidate = 0;
+            }
+            snapshot = current;
+            hotKeys = Collections.unmodifiableSet(hot);
+            windowStart = now;
+        }
+        for (Consumer<List<HotKey>> listener : listeners) {
+            try {
+                listener.accept(current);
+            } catch (RuntimeException e) {
+                LoggerUtil.warn(log, "热点键监听执行失败: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * murmur3 的 32 位 finalizer，打散乘以种子后的哈希值
+     *
+     * @param h 哈希值
+     * @return 打散后的哈希值
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
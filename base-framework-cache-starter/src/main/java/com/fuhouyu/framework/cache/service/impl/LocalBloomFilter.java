@@ -0,0 +1,109 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.service.BloomFilter;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * 当前 jvm 内的布隆过滤器，位数组为 long 数组，写入通过 CAS 完成，读写均无锁
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 18:10
+ */
+public final class LocalBloomFilter implements BloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final long bits;
+
+    private final int hashFunctions;
+
+    /**
+     * 构造函数
+     *
+     * @param bits          位数
+     * @param hashFunctions 哈希函数数量
+     */
+    public LocalBloomFilter(long bits, int hashFunctions) {
+        long wordCount = (bits + Long.SIZE - 1) / Long.SIZE;
+        if (wordCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("bits too large: " + bits);
+        }
+        this.words = new AtomicLongArray((int) wordCount);
+        this.bits = bits;
+        this.hashFunctions = hashFunctions;
+    }
+
+    @Override
+    public boolean put(String element) {
+        boolean changed = false;
+        for (long index : AbstractBloomFilterFactory.bitIndexes(element, hashFunctions, bits)) {
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = words.get(word);
+            while ((current & mask) == 0) {
+                long witness = words.compareAndExchange(word, current, current | mask);
+                if (witness == current) {
+                    changed = true;
+                    break;
+                }
+                current = witness;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    public void putAll(Collection<String> elements) {
+        for (String element : elements) {
+            this.put(element);
+        }
+    }
+
+    @Override
+    public boolean mightContain(String element) {
+        for (long index : AbstractBloomFilterFactory.bitIndexes(element, hashFunctions, bits)) {
+            if ((words.get((int) (index >>> 6)) & 1L << index) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public long bitSize() {
+        return bits;
+    }
+
+    @Override
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < words.length(); i++) {
+            words.set(i, 0);
+        }
+    }
+}
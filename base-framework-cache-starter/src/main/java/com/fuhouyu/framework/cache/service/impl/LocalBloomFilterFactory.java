@@ -0,0 +1,52 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.service.BloomFilter;
+
+/**
+ * <p>
+ * 当前 jvm 内的布隆过滤器工厂
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 18:10
+ */
+public class LocalBloomFilterFactory extends AbstractBloomFilterFactory {
+
+    /**
+     * long 数组能够表示的最大位数
+     */
+    private static final long MAXIMUM_BITS = (long) (Integer.MAX_VALUE - 8) * Long.SIZE;
+
+    /**
+     * 构造函数
+     *
+     * @param expectedInsertions 默认的预计元素数量
+     * @param fpp                默认的误判率
+     * @param maximumBytes       单个过滤器的内存上限（字节）
+     */
+    public LocalBloomFilterFactory(long expectedInsertions, double fpp, long maximumBytes) {
+        super(expectedInsertions, fpp, maximumBytes, MAXIMUM_BITS);
+    }
+
+    @Override
+    protected BloomFilter create(String name, long bits, int hashFunctions) {
+        return new LocalBloomFilter(bits, hashFunctions);
+    }
+}
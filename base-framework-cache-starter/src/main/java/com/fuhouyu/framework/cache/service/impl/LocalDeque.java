@@ -0,0 +1,91 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>
+ * 本地缓存中 list 结构的值，基于无锁的 {@link ConcurrentLinkedDeque}，
+ * 额外维护元素数量，避免 {@link ConcurrentLinkedDeque#size()} 遍历整个队列。
+ * </p>
+ *
+ * @param <E> 元素类型
+ * @author fuhouyu
+ * @since 2026/10/18 14:30
+ */
+final class LocalDeque<E> implements Iterable<E> {
+
+    private final ConcurrentLinkedDeque<E> deque = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * 追加到队尾
+     *
+     * @param element 元素
+     */
+    void addLast(E element) {
+        deque.addLast(element);
+        size.incrementAndGet();
+    }
+
+    /**
+     * 从队头弹出
+     *
+     * @return 元素，队列为空时返回 null
+     */
+    E pollFirst() {
+        E element = deque.pollFirst();
+        if (Objects.nonNull(element)) {
+            size.decrementAndGet();
+        }
+        return element;
+    }
+
+    /**
+     * 元素数量
+     *
+     * @return 元素数量
+     */
+    int size() {
+        return size.get();
+    }
+
+    boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    /**
+     * 当前元素的快照
+     *
+     * @return 元素列表
+     */
+    List<E> snapshot() {
+        return new ArrayList<>(deque);
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return deque.iterator();
+    }
+}
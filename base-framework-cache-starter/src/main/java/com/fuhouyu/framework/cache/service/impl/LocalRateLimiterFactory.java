@@ -0,0 +1,75 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+import com.fuhouyu.framework.cache.service.RateLimiter;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+
+/**
+ * <p>
+ * 当前 jvm 内的限流器工厂，各节点分别计数
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+public class LocalRateLimiterFactory extends AbstractRateLimiterFactory {
+
+    private final long maximumKeys;
+
+    private final Ticker ticker;
+
+    /**
+     * 构造函数
+     *
+     * @param algorithm   默认的限流算法
+     * @param permits     默认每个周期的许可数
+     * @param period      默认的周期
+     * @param maximumKeys 每个限流器最多保存的键数量
+     */
+    public LocalRateLimiterFactory(RateLimiterAlgorithmEnum algorithm, long permits, Duration period,
+                                   long maximumKeys) {
+        this(algorithm, permits, period, maximumKeys, Ticker.systemTicker());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param algorithm   默认的限流算法
+     * @param permits     默认每个周期的许可数
+     * @param period      默认的周期
+     * @param maximumKeys 每个限流器最多保存的键数量
+     * @param ticker      时钟
+     */
+    public LocalRateLimiterFactory(RateLimiterAlgorithmEnum algorithm, long permits, Duration period,
+                                   long maximumKeys, Ticker ticker) {
+        super(algorithm, permits, period);
+        this.maximumKeys = maximumKeys;
+        this.ticker = ticker;
+    }
+
+    @Override
+    protected RateLimiter create(String name, RateLimiterAlgorithmEnum algorithm, long permits, Duration period) {
+        return switch (algorithm) {
+            case TOKEN_BUCKET -> new LocalTokenBucketRateLimiter(permits, period, maximumKeys, ticker);
+            case SLIDING_WINDOW -> new LocalSlidingWindowRateLimiter((int) permits, period, maximumKeys, ticker);
+        };
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+import com.fuhouyu.framework.cache.service.RateLimiter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * 当前 jvm 内的滑动窗口日志限流器，每个键使用一个长度为许可数的环形数组记录最近的获取时间。
+ * 获取许可需将下一个槽位中的时间通过 CAS 替换为当前时间，仅当该时间已早于一个周期时才能替换，
+ * 因此同一个槽位在任意一个周期内最多被占用一次，周期内获取的许可不会超过许可数，整个过程不加锁。
+ * </p>
+ * <p>
+ * 一次获取多个许可时逐个占用槽位，中途失败则将已占用的槽位恢复原值。
+ * 并发竞争同一个槽位时落后的线程可能直接返回失败，限流结果只会偏严不会偏松。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+public final class LocalSlidingWindowRateLimiter implements RateLimiter {
+
+    private final int permits;
+
+    private final Duration period;
+
+    private final long periodNanos;
+
+    private final Ticker ticker;
+
+    private final Cache<String, SlidingLog> states;
+
+    /**
+     * 构造函数
+     *
+     * @param permits     每个周期的许可数
+     * @param period      周期
+     * @param maximumKeys 最多保存的键数量
+     * @param ticker      时钟
+     */
+    public LocalSlidingWindowRateLimiter(int permits, Duration period, long maximumKeys, Ticker ticker) {
+        this.permits = permits;
+        this.period = period;
+        this.periodNanos = period.toNanos();
+        this.ticker = ticker;
+        this.states = Caffeine.newBuilder()
+                .expireAfterAccess(period)
+                .maximumSize(maximumKeys)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int permits) {
+        AbstractRateLimiterFactory.checkPermits(permits);
+        if (permits > this.permits) {
+            return false;
+        }
+        SlidingLog log = states.get(key, k -> new SlidingLog(this.permits));
+        long now = ticker.read();
+        long[] sequences = new long[permits];
+        long[] previous = new long[permits];
+        for (int i = 0; i < permits; i++) {
+            sequences[i] = log.claim(now, periodNanos, previous, i);
+            if (sequences[i] < 0) {
+                log.rollback(now, sequences, previous, i);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public RateLimiterAlgorithmEnum algorithm() {
+        return RateLimiterAlgorithmEnum.SLIDING_WINDOW;
+    }
+
+    @Override
+    public long permits() {
+        return permits;
+    }
+
+    @Override
+    public Duration period() {
+        return period;
+    }
+
+    /**
+     * 单个键的获取记录
+     */
+    private static final class SlidingLog {
+
+        /**
+         * 从未使用过的槽位
+         */
+        private static final long EMPTY = Long.MIN_VALUE;
+
+        private final AtomicLongArray times;
+
+        /**
+         * 下一个待占用槽位的序号，只作为提示，正确性由槽位上的 CAS 保证
+         */
+        private final AtomicLong head = new AtomicLong();
+
+        private SlidingLog(int permits) {
+            long[] initial = new long[permits];
+            Arrays.fill(initial, EMPTY);
+            this.times = new AtomicLongArray(initial);
+        }
+
+        /**
+         * 占用下一个槽位
+         *
+         * @param now         当前时间
+         * @param periodNanos 周期纳秒数
+         * @param previous    记录槽位被替换前的值，用于失败时恢复
+         * @param index       记录在 previous 中的位置
+         * @return 占用的槽位的序号，窗口已满时返回 -1
+         */
+        private long claim(long now, long periodNanos, long[] previous, int index) {
+            while (true) {
+                long sequence = head.get();
+                int slot = (int) (sequence % times.length());
+                long oldest = times.get(slot);
+                if (oldest != EMPTY && now - oldest < periodNanos) {
+                    if (head.get() == sequence) {
+                        return -1;
+                    }
+                    continue;
+                }
+                if (times.compareAndSet(slot, oldest, now)) {
+                    head.compareAndSet(sequence, sequence + 1);
+                    previous[index] = oldest;
+                    return sequence;
+                }
+            }
+        }
+
+        /**
+         * 将已占用的槽位恢复原值，期间没有其它线程占用槽位时同时退回序号
+         *
+         * @param now       占用时写入的时间
+         * @param sequences 已占用的槽位的序号
+         * @param previous  槽位被替换前的值
+         * @param claimed   已占用的槽位数量
+         */
+        private void rollback(long now, long[] sequences, long[] previous, int claimed) {
+            if (claimed == 0) {
+                return;
+            }
+            for (int i = claimed - 1; i >= 0; i--) {
+                times.compareAndSet((int) (sequences[i] % times.length()), now, previous[i]);
+            }
+            head.compareAndSet(sequences[claimed - 1] + 1, sequences[0]);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * 本地缓存中有序集合结构的值，成员的分数存放在 {@link ConcurrentHashMap} 中，
+ * 排序由无锁的 {@link ConcurrentSkipListSet} 维护，读取均不加锁。
+ * 分数相同的成员按最后一次更新的先后排列（redis 按成员的字典序），排名需要遍历，耗时与排名成正比。
+ * </p>
+ * <p>
+ * 写入需在键的 compute 中完成，同一个有序集合同一时刻只有一个写入方；
+ * 更新分数时先移除旧的排序节点再加入新节点，并发的读取可能短暂读不到该成员。
+ * </p>
+ *
+ * @param <E> 成员类型
+ * @author fuhouyu
+ * @since 2026/10/18 20:10
+ */
+final class LocalSortedSet<E> implements Iterable<E> {
+
+    private static final Comparator<Member<?>> ORDER = Comparator.<Member<?>>comparingDouble(Member::score)
+            .thenComparingLong(Member::sequence);
+
+    private final ConcurrentHashMap<E, Member<E>> members = new ConcurrentHashMap<>();
+
+    private final ConcurrentSkipListSet<Member<E>> ordered = new ConcurrentSkipListSet<>(ORDER);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 加入成员，已存在时更新分数
+     *
+     * @param element 成员
+     * @param score   分数
+     */
+    void add(E element, double score) {
+        Member<E> previous = members.get(element);
+        if (Objects.nonNull(previous)) {
+            if (Double.compare(previous.score(), score) == 0) {
+                return;
+            }
+            ordered.remove(previous);
+        }
+        Member<E> member = new Member<>(element, score, sequence.incrementAndGet());
+        ordered.add(member);
+        members.put(element, member);
+    }
+
+    /**
+     * 累加成员的分数，不存在时从0开始
+     *
+     * @param element 成员
+     * @param delta   增量
+     * @return 累加后的分数
+     */
+    double incrementScore(E element, double delta) {
+        Member<E> previous = members.get(element);
+        double score = Objects.isNull(previous) ? delta : previous.score() + delta;
+        this.add(element, score);
+        return score;
+    }
+
+    /**
+     * 成员的分数
+     *
+     * @param element 成员
+     * @return 分数，不存在时返回 null
+     */
+    Double score(E element) {
+        Member<E> member = members.get(element);
+        return Objects.isNull(member) ? null : member.score();
+    }
+
+    /**
+     * 成员的排名
+     *
+     * @param element 成员
+     * @param reverse 是否按分数从高到低
+     * @return 从0开始的排名，不存在时返回 null
+     */
+    Long rank(E element, boolean reverse) {
+        Member<E> member = members.get(element);
+        if (Objects.isNull(member)) {
+            return null;
+        }
+        long rank = reverse ? ordered.tailSet(member, false).size() : ordered.headSet(member, false).size();
+        return rank;
+    }
+
+    /**
+     * 排名在指定区间内的成员及分数，区间规则同 redis ZRANGE
+     *
+     * @param start   起始排名（包含），负数表示倒数
+     * @param end     结束排名（包含），负数表示倒数
+     * @param reverse 是否按分数从高到低
+     * @return 成员及分数
+     */
+    List<Map.Entry<E, Double>> range(long start, long end, boolean reverse) {
+        long size = members.size();
+        long from = start < 0 ? Math.max(0, size + start) : start;
+        long to = end < 0 ? size + end : Math.min(end, size - 1);
+        if (from > to) {
+            return new ArrayList<>();
+        }
+        List<Map.Entry<E, Double>> result = new ArrayList<>((int) Math.min(to - from + 1, 1024));
+        Iterator<Member<E>> iterator = reverse ? ordered.descendingIterator() : ordered.iterator();
+        for (long rank = 0; rank <= to && iterator.hasNext(); rank++) {
+            Member<E> member = iterator.next();
+            if (rank >= from) {
+                result.add(Map.entry(member.element(), member.score()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 移除成员
+     *
+     * @param element 成员
+     */
+    void remove(E element) {
+        Member<E> member = members.remove(element);
+        if (Objects.nonNull(member)) {
+            ordered.remove(member);
+        }
+    }
+
+    /**
+     * 成员数量
+     *
+     * @return 成员数量
+     */
+    int size() {
+        return members.size();
+    }
+
+    boolean isEmpty() {
+        return members.isEmpty();
+    }
+
+    /**
+     * 按分数从低到高遍历成员
+     */
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<Member<E>> iterator = ordered.iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return iterator.next().element();
+            }
+        };
+    }
+
+    /**
+     * 排序节点
+     *
+     * @param element  成员
+     * @param score    分数
+     * @param sequence 更新序号，分数相同时决定先后
+     * @param <E>      成员类型
+     */
+    private record Member<E>(E element, double score, long sequence) {
+
+    }
+}
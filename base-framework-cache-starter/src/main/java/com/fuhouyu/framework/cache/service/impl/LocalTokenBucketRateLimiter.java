@@ -0,0 +1,110 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+import com.fuhouyu.framework.cache.service.RateLimiter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * 当前 jvm 内的令牌桶限流器，以 GCRA 实现：每个键只保存一个理论到达时间，
+ * 获取 n 个许可时将其推后 n 个间隔，推后的时间超过一个周期即为令牌不足。获取过程为 CAS 循环，不加锁。
+ * </p>
+ * <p>
+ * 键在一个周期内未被访问后其状态与新键相同，随之从缓存中淘汰。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+public final class LocalTokenBucketRateLimiter implements RateLimiter {
+
+    private final long permits;
+
+    private final Duration period;
+
+    private final long periodNanos;
+
+    private final long intervalNanos;
+
+    private final Ticker ticker;
+
+    private final Cache<String, AtomicLong> states;
+
+    /**
+     * 构造函数
+     *
+     * @param permits     每个周期的许可数
+     * @param period      周期
+     * @param maximumKeys 最多保存的键数量
+     * @param ticker      时钟
+     */
+    public LocalTokenBucketRateLimiter(long permits, Duration period, long maximumKeys, Ticker ticker) {
+        this.permits = permits;
+        this.period = period;
+        this.periodNanos = period.toNanos();
+        this.intervalNanos = Math.max(1, periodNanos / permits);
+        this.ticker = ticker;
+        this.states = Caffeine.newBuilder()
+                .expireAfterAccess(period)
+                .maximumSize(maximumKeys)
+                .ticker(ticker)
+                .build();
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int permits) {
+        AbstractRateLimiterFactory.checkPermits(permits);
+        if (permits > this.permits) {
+            return false;
+        }
+        long cost = intervalNanos * permits;
+        AtomicLong theoreticalArrival = states.get(key, k -> new AtomicLong(Long.MIN_VALUE));
+        long now = ticker.read();
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + cost;
+            if (next - now > periodNanos) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public RateLimiterAlgorithmEnum algorithm() {
+        return RateLimiterAlgorithmEnum.TOKEN_BUCKET;
+    }
+
+    @Override
+    public long permits() {
+        return permits;
+    }
+
+    @Override
+    public Duration period() {
+        return period;
+    }
+}
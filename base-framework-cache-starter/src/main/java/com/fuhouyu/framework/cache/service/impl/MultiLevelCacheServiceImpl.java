@@ -0,0 +1,870 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.model.CacheInvalidationMessage;
+import com.fuhouyu.framework.cache.model.CompareAndSetResult;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
+import com.fuhouyu.framework.cache.model.VersionedValue;
+import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.common.utils.LoggerUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * 多级缓存实现，本地缓存作为一级缓存，redis 作为二级缓存。
+ * 字符串值的读取优先命中本地缓存，写入、删除、过期操作会通过 redis pub/sub 通知其它节点失效本地缓存，
+ * 设置 {@link RedisStreamInvalidationBus} 后改为通过 redis stream 通知，断线期间错过的通知在重连后补齐。
+ * 本地未命中时同时读取值及其在 redis 中的剩余过期时间，回填本地的过期时间不超过该时间，
+ * redis 中自然过期的键不会在本地继续存活。
+ * </p>
+ * <p>
+ * 键按哈希映射到分段版本号，收到失效通知或本节点写入时先递增版本再修改本地缓存，
+ * 回填前后版本不一致时放弃回填，读取期间到达的失效通知不会被读到的旧值覆盖。
+ * hash、list、set、有序集合、计数器及 HyperLogLog 直接读写 redis，不在本地缓存。
+ * </p>
+ *
+ * @param <K> 缓存键的类型
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 10:25
+ */
+@Slf4j
+public class MultiLevelCacheServiceImpl<K, V> implements CacheService<K, V>, MessageListener,
+        RedisStreamInvalidationBus.Listener, MeterBinder {
+
+    private static final String METRIC_PREFIX = "base.framework.cache.multi-level";
+
+    /**
+     * 清空本地缓存时每批删除的键数量
+     */
+    private static final int INVALIDATE_ALL_BATCH_SIZE = 1000;
+
+    /**
+     * 本地缓存版本号的分段数量，需为2的幂
+     */
+    private static final int VERSION_STRIPES = 1024;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final CacheService<K, V> local;
+
+    private final CacheService<K, V> remote;
+
+    private final RedisTemplate<K, V> redisTemplate;
+
+    private final String channel;
+
+    private final byte[] rawChannel;
+
+    private final long localExpireMillis;
+
+    private final RedisSerializer<CacheInvalidationMessage> messageSerializer =
+            new Jackson2JsonRedisSerializer<>(CacheInvalidationMessage.class);
+
+    private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder localMisses = new LongAdder();
+
+    private final LongAdder invalidationReceived = new LongAdder();
+
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private volatile Timer invalidationLagTimer;
+
+    private RedisStreamInvalidationBus invalidationBus;
+
+    /**
+     * 构造函数
+     *
+     * @param local           本地一级缓存
+     * @param remote          redis 二级缓存
+     * @param redisTemplate   用于发布失效通知及序列化缓存键
+     * @param channel         失效通知频道
+     * @param localExpireTime 本地缓存最长存活时间
+     */
+    public MultiLevelCacheServiceImpl(CacheService<K, V> local,
+                                      CacheService<K, V> remote,
+                                      RedisTemplate<K, V> redisTemplate,
+                                      String channel,
+                                      Duration localExpireTime) {
+        this.local = local;
+        this.remote = remote;
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+        this.rawChannel = channel.getBytes(StandardCharsets.UTF_8);
+        this.localExpireMillis = localExpireTime.toMillis();
+    }
+
+    /**
+     * 通过 redis stream 发布失效通知，订阅由调用方以失效通知频道作为主题完成
+     *
+     * @param invalidationBus 失效通知
+     */
+    public void setInvalidationBus(RedisStreamInvalidationBus invalidationBus) {
+        this.invalidationBus = invalidationBus;
+    }
+
+    // ===== String Operations =====
+
+    @Override
+    public void set(byte[] key, byte[] value) {
+        remote.set(key, value);
+        this.advanceVersion(key);
+        local.set(key, value);
+        local.delete(this.deserializeKey(key));
+        this.publish(Collections.singletonList(key));
+    }
+
+    @Override
+    public void set(K key, V value) {
+        byte[] rawKey = this.rawKey(key);
+        remote.set(key, value);
+        this.advanceVersion(rawKey);
+        local.set(key, value);
+        local.delete(rawKey);
+        this.publish(Collections.singletonList(rawKey));
+    }
+
+    @Override
+    public void set(K key, V value, long timeout, TimeUnit unit) {
+        byte[] rawKey = this.rawKey(key);
+        remote.set(key, value, timeout, unit);
+        this.advanceVersion(rawKey);
+        local.set(key, value, this.localTimeoutMillis(timeout, unit), TimeUnit.MILLISECONDS);
+        local.delete(rawKey);
+        this.publish(Collections.singletonList(rawKey));
+    }
+
+    @Override
+    public void set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+        remote.set(key, value, timeout, unit);
+        this.advanceVersion(key);
+        local.set(key, value, this.localTimeoutMillis(timeout, unit), TimeUnit.MILLISECONDS);
+        local.delete(this.deserializeKey(key));
+        this.publish(Collections.singletonList(key));
+    }
+
+    @Override
+    public V get(K key) {
+        V value = local.get(key);
+        if (Objects.nonNull(value)) {
+            localHits.increment();
+            return value;
+        }
+        localMisses.increment();
+        int stripe = stripe(this.rawKey(key));
+        long version = versions.get(stripe);
+        ExpiringValue<V> remoteValue = remote.multiGetWithTtl(Collections.singletonList(key)).get(key);
+        if (Objects.isNull(remoteValue)) {
+            return null;
+        }
+        this.fillLocal(key, remoteValue, stripe, version);
+        return remoteValue.getValue();
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+        byte[] value = local.get(key);
+        if (Objects.nonNull(value)) {
+            localHits.increment();
+            return value;
+        }
+        localMisses.increment();
+        int stripe = stripe(key);
+        long version = versions.get(stripe);
+        ExpiringValue<byte[]> remoteValue = remote.multiGetBytesWithTtl(Collections.singletonList(key)).get(0);
+        if (Objects.isNull(remoteValue)) {
+            return null;
+        }
+        this.fillLocalBytes(key, remoteValue, stripe, version);
+        return remoteValue.getValue();
+    }
+
+    @Override
+    public void delete(K key) {
+        byte[] rawKey = this.rawKey(key);
+        remote.delete(key);
+        this.advanceVersion(rawKey);
+        local.delete(key);
+        local.delete(rawKey);
+        this.publish(Collections.singletonList(rawKey));
+    }
+
+    @Override
+    public void delete(byte[] key) {
+        remote.delete(key);
+        this.advanceVersion(key);
+        local.delete(key);
+        local.delete(this.deserializeKey(key));
+        this.publish(Collections.singletonList(key));
+    }
+
+    // ===== Batch Operations =====
+
+    @Override
+    public Map<K, V> multiGet(Collection<K> keys) {
+        Map<K, V> result = new HashMap<>(local.multiGet(keys));
+        localHits.add(result.size());
+        if (result.size() == keys.size()) {
+            return result;
+        }
+        List<K> missingKeys = new ArrayList<>(keys.size() - result.size());
+        for (K key : keys) {
+            if (!result.containsKey(key)) {
+                missingKeys.add(key);
+            }
+        }
+        localMisses.add(missingKeys.size());
+        int[] stripes = new int[missingKeys.size()];
+        long[] missingVersions = new long[missingKeys.size()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = stripe(this.rawKey(missingKeys.get(i)));
+            missingVersions[i] = versions.get(stripes[i]);
+        }
+        Map<K, ExpiringValue<V>> remoteValues = remote.multiGetWithTtl(missingKeys);
+        for (int i = 0; i < stripes.length; i++) {
+            K key = missingKeys.get(i);
+            ExpiringValue<V> remoteValue = remoteValues.get(key);
+            if (Objects.nonNull(remoteValue)) {
+                this.fillLocal(key, remoteValue, stripes[i], missingVersions[i]);
+                result.put(key, remoteValue.getValue());
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<byte[]> multiGetBytes(List<byte[]> keys) {
+        List<byte[]> result = new ArrayList<>(local.multiGetBytes(keys));
+        List<byte[]> missingKeys = new ArrayList<>();
+        List<Integer> missingIndexes = new ArrayList<>();
+        for (int i = 0; i < result.size(); i++) {
+            if (Objects.isNull(result.get(i))) {
+                missingKeys.add(keys.get(i));
+                missingIndexes.add(i);
+            }
+        }
+        localHits.add((long) keys.size() - missingKeys.size());
+        if (missingKeys.isEmpty()) {
+            return result;
+        }
+        localMisses.add(missingKeys.size());
+        int[] stripes = new int[missingKeys.size()];
+        long[] missingVersions = new long[missingKeys.size()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = stripe(missingKeys.get(i));
+            missingVersions[i] = versions.get(stripes[i]);
+        }
+        List<ExpiringValue<byte[]>> remoteValues = remote.multiGetBytesWithTtl(missingKeys);
+        for (int i = 0; i < stripes.length; i++) {
+            ExpiringValue<byte[]> remoteValue = remoteValues.get(i);
+            if (Objects.nonNull(remoteValue)) {
+                this.fillLocalBytes(missingKeys.get(i), remoteValue, stripes[i], missingVersions[i]);
+                result.set(missingIndexes.get(i), remoteValue.getValue());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 直接读取 redis 二级缓存，剩余过期时间以二级缓存为准
+     */
+    @Override
+    public Map<K, ExpiringValue<V>> multiGetWithTtl(Collection<K> keys) {
+        return remote.multiGetWithTtl(keys);
+    }
+
+    @Override
+    public List<ExpiringValue<byte[]>> multiGetBytesWithTtl(List<byte[]> keys) {
+        return remote.multiGetBytesWithTtl(keys);
+    }
+
+    @Override
+    public void multiSet(Map<K, V> map, long timeout, TimeUnit unit) {
+        List<byte[]> rawKeys = this.rawKeys(map.keySet());
+        remote.multiSet(map, timeout, unit);
+        this.advanceVersions(rawKeys);
+        local.multiSet(map, this.localTimeoutMillis(timeout, unit), TimeUnit.MILLISECONDS);
+        local.multiDeleteBytes(rawKeys);
+        this.publish(rawKeys);
+    }
+
+    @Override
+    public void multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+        List<byte[]> rawKeys = new ArrayList<>(map.keySet());
+        remote.multiSetBytes(map, timeout, unit);
+        this.advanceVersions(rawKeys);
+        local.multiSetBytes(map, this.localTimeoutMillis(timeout, unit), TimeUnit.MILLISECONDS);
+        local.multiDelete(this.deserializeKeys(rawKeys));
+        this.publish(rawKeys);
+    }
+
+    @Override
+    public void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries) {
+        List<byte[]> rawKeys = new ArrayList<>(entries.keySet());
+        remote.multiSetBytesWithTtl(entries);
+        Map<byte[], ExpiringValue<byte[]>> localEntries = new LinkedHashMap<>(entries.size());
+        entries.forEach((key, value) -> localEntries.put(key, new ExpiringValue<>(value.getValue(),
+                this.localTimeoutMillis(value.getTtlMillis(), TimeUnit.MILLISECONDS))));
+        this.advanceVersions(rawKeys);
+        local.multiSetBytesWithTtl(localEntries);
+        local.multiDelete(this.deserializeKeys(rawKeys));
+        this.publish(rawKeys);
+    }
+
+    @Override
+    public void multiDelete(Collection<K> keys) {
+        List<byte[]> rawKeys = this.rawKeys(keys);
+        remote.multiDelete(keys);
+        this.advanceVersions(rawKeys);
+        local.multiDelete(keys);
+        local.multiDeleteBytes(rawKeys);
+        this.publish(rawKeys);
+    }
+
+    @Override
+    public void multiDeleteBytes(Collection<byte[]> keys) {
+        List<byte[]> rawKeys = new ArrayList<>(keys);
+        remote.multiDeleteBytes(keys);
+        this.advanceVersions(rawKeys);
+        local.multiDeleteBytes(keys);
+        local.multiDelete(this.deserializeKeys(rawKeys));
+        this.publish(rawKeys);
+    }
+
+    // ===== Load Operations =====
+
+    /**
+     * 先查本地缓存，未命中时由 redis 二级缓存完成加载（包括分布式租约），再回填本地缓存。
+     * 回填属于读取行为，不发布失效通知。
+     */
+    @Override
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        V value = local.get(key);
+        if (Objects.nonNull(value)) {
+            localHits.increment();
+            return value;
+        }
+        localMisses.increment();
+        return singleFlight.execute(key, () -> {
+            V cached = local.get(key);
+            if (Objects.nonNull(cached)) {
+                return cached;
+            }
+            int stripe = stripe(this.rawKey(key));
+            long version = versions.get(stripe);
+            V loaded = remote.getOrLoad(key, loader, timeout, unit);
+            if (Objects.nonNull(loaded)) {
+                long ttlMillis = timeout > 0 ? unit.toMillis(timeout) : ExpiringValue.NO_EXPIRE;
+                this.fillLocal(key, new ExpiringValue<>(loaded, ttlMillis), stripe, version);
+            }
+            return loaded;
+        });
+    }
+
+    // ===== Hash Operations =====
+
+    @Override
+    public void putHash(K key, K hashKey, V value) {
+        remote.putHash(key, hashKey, value);
+    }
+
+    @Override
+    public void putHash(K key, K hashKey, V value, long timeout, TimeUnit unit) {
+        remote.putHash(key, hashKey, value, timeout, unit);
+    }
+
+    @Override
+    public V getHash(K key, K hashKey) {
+        return remote.getHash(key, hashKey);
+    }
+
+    @Override
+    public void deleteHash(K key, K hashKey) {
+        remote.deleteHash(key, hashKey);
+    }
+
+    @Override
+    public Map<K, V> getHashAll(K key) {
+        return remote.getHashAll(key);
+    }
+
+    @Override
+    public void putHashAll(K key, Map<K, V> map) {
+        remote.putHashAll(key, map);
+    }
+
+    @Override
+    public void putHashAll(K key, Map<K, V> map, long timeout, TimeUnit unit) {
+        remote.putHashAll(key, map, timeout, unit);
+    }
+
+    // ===== List Operations =====
+
+    @Override
+    public void pushToList(K key, V value) {
+        remote.pushToList(key, value);
+    }
+
+    @Override
+    public void pushToList(K key, V value, long timeout, TimeUnit unit) {
+        remote.pushToList(key, value, timeout, unit);
+    }
+
+    @Override
+    public V popFromList(K key) {
+        return remote.popFromList(key);
+    }
+
+    @Override
+    public List<V> getList(K key) {
+        return remote.getList(key);
+    }
+
+    // ===== Set Operations =====
+
+    @Override
+    public void addToSet(K key, V value) {
+        remote.addToSet(key, value);
+    }
+
+    @Override
+    public void addToSet(K key, V value, long timeout, TimeUnit unit) {
+        remote.addToSet(key, value, timeout, unit);
+    }
+
+    @Override
+    public Set<V> getSet(K key) {
+        return remote.getSet(key);
+    }
+
+    @Override
+    public void removeFromSet(K key, V value) {
+        remote.removeFromSet(key, value);
+    }
+
+    // ===== Counter Operations =====
+
+    @Override
+    public long increment(K key, long delta) {
+        return remote.increment(key, delta);
+    }
+
+    @Override
+    public long increment(K key, long delta, long timeout, TimeUnit unit) {
+        return remote.increment(key, delta, timeout, unit);
+    }
+
+    @Override
+    public long getCounter(K key) {
+        return remote.getCounter(key);
+    }
+
+    // ===== Sorted Set Operations =====
+
+    @Override
+    public void addToSortedSet(K key, V value, double score) {
+        remote.addToSortedSet(key, value, score);
+    }
+
+    @Override
+    public void addToSortedSet(K key, V value, double score, long timeout, TimeUnit unit) {
+        remote.addToSortedSet(key, value, score, timeout, unit);
+    }
+
+    @Override
+    public double incrementScore(K key, V value, double delta) {
+        return remote.incrementScore(key, value, delta);
+    }
+
+    @Override
+    public Double getScore(K key, V value) {
+        return remote.getScore(key, value);
+    }
+
+    @Override
+    public Long rankInSortedSet(K key, V value) {
+        return remote.rankInSortedSet(key, value);
+    }
+
+    @Override
+    public Long reverseRankInSortedSet(K key, V value) {
+        return remote.reverseRankInSortedSet(key, value);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> rangeSortedSet(K key, long start, long end) {
+        return remote.rangeSortedSet(key, start, end);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> reverseRangeSortedSet(K key, long start, long end) {
+        return remote.reverseRangeSortedSet(key, start, end);
+    }
+
+    @Override
+    public void removeFromSortedSet(K key, V value) {
+        remote.removeFromSortedSet(key, value);
+    }
+
+    @Override
+    public long sortedSetSize(K key) {
+        return remote.sortedSetSize(key);
+    }
+
+    // ===== HyperLogLog Operations =====
+
+    @Override
+    public boolean addToHyperLogLog(K key, Collection<V> values) {
+        return remote.addToHyperLogLog(key, values);
+    }
+
+    @Override
+    public long countHyperLogLog(K key) {
+        return remote.countHyperLogLog(key);
+    }
+
+    @Override
+    public long countHyperLogLog(Collection<K> keys) {
+        return remote.countHyperLogLog(keys);
+    }
+
+    // ===== Versioned Operations =====
+
+    @Override
+    public VersionedValue<V> getVersioned(K key) {
+        return remote.getVersioned(key);
+    }
+
+    @Override
+    public CompareAndSetResult<V> compareAndSet(K key, long expectedVersion, V newValue, long timeout, TimeUnit unit) {
+        return remote.compareAndSet(key, expectedVersion, newValue, timeout, unit);
+    }
+
+    // ===== Common Operations =====
+
+    @Override
+    public boolean exists(K key) {
+        return Objects.nonNull(local.get(key)) || remote.exists(key);
+    }
+
+    @Override
+    public void expire(K key, long timeout) {
+        this.expire(key, timeout, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void expire(K key, long timeout, TimeUnit unit) {
+        byte[] rawKey = this.rawKey(key);
+        remote.expire(key, timeout, unit);
+        this.advanceVersion(rawKey);
+        local.delete(key);
+        local.delete(rawKey);
+        this.publish(Collections.singletonList(rawKey));
+    }
+
+    @Override
+    public long size(K key) {
+        return remote.size(key);
+    }
+
+    @Override
+    public void deleteMultiple(Set<K> keys) {
+        List<byte[]> rawKeys = this.rawKeys(keys);
+        remote.deleteMultiple(keys);
+        this.advanceVersions(rawKeys);
+        local.deleteMultiple(keys);
+        local.multiDeleteBytes(rawKeys);
+        this.publish(rawKeys);
+    }
+
+    // ===== Scan Operations =====
+
+    @Override
+    public Stream<Map.Entry<K, V>> scanHash(K key, int batchSize) {
+        return remote.scanHash(key, batchSize);
+    }
+
+    @Override
+    public Stream<V> scanList(K key, int batchSize) {
+        return remote.scanList(key, batchSize);
+    }
+
+    @Override
+    public Stream<V> scanSet(K key, int batchSize) {
+        return remote.scanSet(key, batchSize);
+    }
+
+    @Override
+    public Stream<K> scanKeys(String pattern, int batchSize) {
+        return remote.scanKeys(pattern, batchSize);
+    }
+
+    /**
+     * 遍历 redis 中匹配的键，每批删除后通知其它节点失效，最后清理本地缓存中剩余的匹配键
+     */
+    @Override
+    public long deleteByPattern(String pattern, int batchSize) {
+        long deleted = ScanSupport.forEachBatch(remote.scanKeys(pattern, batchSize), batchSize, keys -> {
+            this.multiDelete(keys);
+            return keys.size();
+        });
+        local.deleteByPattern(pattern, batchSize);
+        return deleted;
+    }
+
+    // ===== Invalidation =====
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        CacheInvalidationMessage invalidationMessage;
+        try {
+            invalidationMessage = messageSerializer.deserialize(message.getBody());
+        } catch (Exception e) {
+            LoggerUtil.warn(log, "多级缓存失效消息解析失败: {}", e.getMessage(), e);
+            return;
+        }
+        if (Objects.nonNull(invalidationMessage)) {
+            this.onInvalidation(invalidationMessage);
+        }
+    }
+
+    @Override
+    public void onInvalidation(CacheInvalidationMessage invalidationMessage) {
+        if (nodeId.equals(invalidationMessage.getNodeId())) {
+            return;
+        }
+        for (byte[] rawKey : invalidationMessage.getKeys()) {
+            this.advanceVersion(rawKey);
+            local.delete(rawKey);
+            local.delete(this.deserializeKey(rawKey));
+        }
+        invalidationReceived.increment();
+        Timer timer = this.invalidationLagTimer;
+        if (Objects.nonNull(timer)) {
+            long lag = System.currentTimeMillis() - invalidationMessage.getTimestamp();
+            timer.record(Math.max(lag, 0), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 清空本地缓存，之后的读取回源 redis
+     */
+    @Override
+    public void onInvalidateAll() {
+        for (int i = 0; i < VERSION_STRIPES; i++) {
+            versions.incrementAndGet(i);
+        }
+        local.deleteByPattern("*", INVALIDATE_ALL_BATCH_SIZE);
+    }
+
+    // ===== Metrics =====
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + ".local.hit.ratio", this, MultiLevelCacheServiceImpl::localHitRatio)
+                .description("本地一级缓存命中率")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".local.requests", localHits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("本地一级缓存请求次数")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".local.requests", localMisses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("本地一级缓存请求次数")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".invalidation.received", invalidationReceived, LongAdder::sum)
+                .description("收到的其它节点失效通知数")
+                .register(registry);
+        this.invalidationLagTimer = Timer.builder(METRIC_PREFIX + ".invalidation.lag")
+                .description("失效通知从发布到本节点处理的延迟")
+                .register(registry);
+    }
+
+    /**
+     * 本地一级缓存命中率
+     *
+     * @return 命中率，没有请求时返回0
+     */
+    public double localHitRatio() {
+        long hits = localHits.sum();
+        long total = hits + localMisses.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * 发布失效通知
+     *
+     * @param rawKeys 序列化后的缓存键
+     */
+    private void publish(List<byte[]> rawKeys) {
+        if (Objects.nonNull(invalidationBus)) {
+            invalidationBus.publish(channel, rawKeys);
+            return;
+        }
+        byte[] body = messageSerializer.serialize(
+                new CacheInvalidationMessage(nodeId, System.currentTimeMillis(), rawKeys));
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(rawChannel, body));
+        } catch (Exception e) {
+            // 通知失败时其它节点依赖本地缓存的过期时间兜底
+            LoggerUtil.warn(log, "多级缓存失效通知发布失败: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 回填本地缓存，回填前后键的版本发生变化时放弃回填，已写入的值一并删除
+     *
+     * @param key         缓存键
+     * @param remoteValue 二级缓存读到的值及剩余过期时间
+     * @param stripe      键的版本分段
+     * @param version     读取二级缓存前的版本
+     */
+    private void fillLocal(K key, ExpiringValue<V> remoteValue, int stripe, long version) {
+        long fillMillis = this.fillMillis(remoteValue);
+        if (fillMillis <= 0 || versions.get(stripe) != version) {
+            return;
+        }
+        local.set(key, remoteValue.getValue(), fillMillis, TimeUnit.MILLISECONDS);
+        if (versions.get(stripe) != version) {
+            local.delete(key);
+        }
+    }
+
+    private void fillLocalBytes(byte[] key, ExpiringValue<byte[]> remoteValue, int stripe, long version) {
+        long fillMillis = this.fillMillis(remoteValue);
+        if (fillMillis <= 0 || versions.get(stripe) != version) {
+            return;
+        }
+        local.set(key, remoteValue.getValue(), fillMillis, TimeUnit.MILLISECONDS);
+        if (versions.get(stripe) != version) {
+            local.delete(key);
+        }
+    }
+
+    /**
+     * 回填本地缓存的过期时间，不超过二级缓存的剩余过期时间及配置的最长存活时间
+     *
+     * @param remoteValue 二级缓存读到的值及剩余过期时间
+     * @return 过期时间（毫秒），小于等于0时不回填
+     */
+    private long fillMillis(ExpiringValue<?> remoteValue) {
+        return remoteValue.isExpiring() ? Math.min(remoteValue.getTtlMillis(), localExpireMillis) : localExpireMillis;
+    }
+
+    /**
+     * 修改本地缓存前递增键的版本，使读取期间开始的回填失效
+     *
+     * @param rawKey 序列化后的缓存键
+     */
+    private void advanceVersion(byte[] rawKey) {
+        versions.incrementAndGet(stripe(rawKey));
+    }
+
+    private void advanceVersions(Collection<byte[]> rawKeys) {
+        for (byte[] rawKey : rawKeys) {
+            this.advanceVersion(rawKey);
+        }
+    }
+
+    private static int stripe(byte[] rawKey) {
+        int hash = Arrays.hashCode(rawKey);
+        return (hash ^ (hash >>> 16)) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * 序列化缓存键
+     *
+     * @param key 缓存键
+     * @return 序列化后的缓存键
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] rawKey(K key) {
+        return ((RedisSerializer<K>) redisTemplate.getKeySerializer()).serialize(key);
+    }
+
+    /**
+     * 反序列化缓存键。对象键与 byte[] 键在本地是两个独立的条目，写入或删除其中一种时需要同时删除另一种
+     *
+     * @param rawKey 序列化后的缓存键
+     * @return 缓存键
+     */
+    @SuppressWarnings("unchecked")
+    private K deserializeKey(byte[] rawKey) {
+        return ((RedisSerializer<K>) redisTemplate.getKeySerializer()).deserialize(rawKey);
+    }
+
+    private List<K> deserializeKeys(Collection<byte[]> rawKeys) {
+        List<K> keys = new ArrayList<>(rawKeys.size());
+        for (byte[] rawKey : rawKeys) {
+            keys.add(this.deserializeKey(rawKey));
+        }
+        return keys;
+    }
+
+    /**
+     * 批量序列化缓存键
+     *
+     * @param keys 缓存键
+     * @return 序列化后的缓存键
+     */
+    private List<byte[]> rawKeys(Collection<K> keys) {
+        List<byte[]> rawKeys = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            rawKeys.add(this.rawKey(key));
+        }
+        return rawKeys;
+    }
+
+    /**
+     * 本地缓存的过期时间不超过配置的最长存活时间
+     *
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 本地缓存过期时间（毫秒）
+     */
+    private long localTimeoutMillis(long timeout, TimeUnit unit) {
+        long millis = unit.toMillis(timeout);
+        if (millis <= 0) {
+            return localExpireMillis;
+        }
+        return Math.min(millis, localExpireMillis);
+    }
+}
@@ -0,0 +1,563 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.util.Assert;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+
+/**
+ * <p>
+ * byte[] 值的堆外存储，值按 slab 方式存放在直接内存中，堆内只保留键及定位信息。
+ * </p>
+ * <p>
+ * 直接内存按固定大小的页申请，总量不超过配置的上限。每页在首次使用时分配给一个块大小等级，
+ * 等级的块大小从 64 字节起按 1.25 倍递增，值写入能容纳它的最小块。
+ * 某个等级没有空闲块且已无法申请新页时，淘汰该等级最久未访问的值。
+ * 过期的值在读取时删除，未读取的过期值随 LRU 淘汰。超过页大小的值不会写入。
+ * </p>
+ * <p>
+ * 按键的哈希分段加锁，每段独占一部分页。直接内存受 {@code -XX:MaxDirectMemorySize} 限制，
+ * 关闭后页由 gc 回收。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 15:40
+ */
+public final class OffHeapByteStore implements AutoCloseable {
+
+    private static final int MIN_CHUNK_SIZE = 64;
+
+    private static final double GROWTH_FACTOR = 1.25;
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private static final long NO_EXPIRE = Long.MAX_VALUE;
+
+    private final Segment[] segments;
+
+    private final int pageSize;
+
+    private final long defaultExpireNanos;
+
+    private final Ticker ticker;
+
+    /**
+     * 构造函数
+     *
+     * @param capacity 直接内存上限（字节）
+     * @param pageSize 页大小（字节），同时是能写入的最大值
+     */
+    public OffHeapByteStore(long capacity, int pageSize) {
+        this(capacity, pageSize, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param capacity   直接内存上限（字节）
+     * @param pageSize   页大小（字节），同时是能写入的最大值
+     * @param expireTime 未指定过期时间写入时的默认过期时间，为 null 时不过期
+     */
+    public OffHeapByteStore(long capacity, int pageSize, Duration expireTime) {
+        this(capacity, pageSize, expireTime, Ticker.systemTicker());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param capacity   直接内存上限（字节）
+     * @param pageSize   页大小（字节），同时是能写入的最大值
+     * @param expireTime 未指定过期时间写入时的默认过期时间，为 null 时不过期
+     * @param ticker     过期时间使用的时钟（纳秒）
+     */
+    public OffHeapByteStore(long capacity, int pageSize, Duration expireTime, Ticker ticker) {
+        Assert.isTrue(pageSize >= MIN_CHUNK_SIZE, "页大小不能小于 " + MIN_CHUNK_SIZE + " 字节");
+        Assert.isTrue(capacity >= pageSize, "堆外内存上限不能小于页大小");
+        long maxPages = capacity / pageSize;
+        int segmentCount = (int) Math.min(MAX_SEGMENTS, maxPages);
+        this.pageSize = pageSize;
+        this.defaultExpireNanos = Objects.isNull(expireTime) ? 0 : expireTime.toNanos();
+        this.ticker = ticker;
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            long segmentPages = maxPages / segmentCount + (i < maxPages % segmentCount ? 1 : 0);
+            Assert.isTrue(segmentPages <= Integer.MAX_VALUE, "堆外内存上限过大");
+            segments[i] = new Segment((int) segmentPages, pageSize);
+        }
+    }
+
+    /**
+     * 写入值
+     *
+     * @param key     键
+     * @param value   值
+     * @param timeout 过期时间，小于等于0时使用默认过期时间
+     * @param unit    时间单位
+     * @return 是否写入，值超过页大小或该等级无可淘汰的值时返回 false，原有的值同样会被删除
+     */
+    public boolean put(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+        long expireNanos = timeout > 0 ? unit.toNanos(timeout) : defaultExpireNanos;
+        long expireAtNanos = expireNanos > 0 ? ticker.read() + expireNanos : NO_EXPIRE;
+        ByteArrayKey lookupKey = ByteArrayKey.wrap(key);
+        return this.segmentFor(lookupKey).put(lookupKey, key, value, expireAtNanos);
+    }
+
+    /**
+     * 读取值
+     *
+     * @param key 键
+     * @return 值的副本，不存在或已过期时返回 null
+     */
+    public byte[] get(byte[] key) {
+        ByteArrayKey lookupKey = ByteArrayKey.wrap(key);
+        return this.segmentFor(lookupKey).get(lookupKey, ticker.read());
+    }
+
+    /**
+     * 删除值
+     *
+     * @param key 键
+     */
+    public void remove(byte[] key) {
+        ByteArrayKey lookupKey = ByteArrayKey.wrap(key);
+        this.segmentFor(lookupKey).remove(lookupKey);
+    }
+
+    /**
+     * 删除键满足条件的值
+     *
+     * @param filter 键的过滤条件，参数为键的内容，不可修改
+     * @return 删除的数量
+     */
+    public long removeIf(Predicate<byte[]> filter) {
+        long removed = 0;
+        for (Segment segment : segments) {
+            removed += segment.removeIf(filter);
+        }
+        return removed;
+    }
+
+    /**
+     * 值的数量，包含尚未清理的过期值
+     *
+     * @return 值的数量
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * 已占用的块大小之和
+     *
+     * @return 字节数
+     */
+    public long usedBytes() {
+        long usedBytes = 0;
+        for (Segment segment : segments) {
+            usedBytes += segment.usedBytes();
+        }
+        return usedBytes;
+    }
+
+    /**
+     * 已申请的直接内存
+     *
+     * @return 字节数
+     */
+    public long allocatedBytes() {
+        long allocatedPages = 0;
+        for (Segment segment : segments) {
+            allocatedPages += segment.allocatedPages();
+        }
+        return allocatedPages * pageSize;
+    }
+
+    /**
+     * 因空间不足被淘汰的值的数量
+     *
+     * @return 淘汰数量
+     */
+    public long evictionCount() {
+        long evictionCount = 0;
+        for (Segment segment : segments) {
+            evictionCount += segment.evictionCount();
+        }
+        return evictionCount;
+    }
+
+    /**
+     * 删除所有值并释放页，之后的写入均返回 false
+     */
+    @Override
+    public void close() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    private Segment segmentFor(ByteArrayKey key) {
+        int hash = key.hashCode();
+        return segments[Math.floorMod(hash ^ (hash >>> 16), segments.length)];
+    }
+
+    /**
+     * 分段，段内的索引、页及各等级的空闲块、LRU 链表由同一把锁保护
+     */
+    private static final class Segment {
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Map<ByteArrayKey, Slot> index = new HashMap<>();
+
+        private final ByteBuffer[] pages;
+
+        private final int pageSize;
+
+        private final SlabClass[] slabClasses;
+
+        private int allocatedPages;
+
+        private long usedBytes;
+
+        private long evictionCount;
+
+        private boolean closed;
+
+        Segment(int maxPages, int pageSize) {
+            this.pages = new ByteBuffer[maxPages];
+            this.pageSize = pageSize;
+            this.slabClasses = createSlabClasses(pageSize);
+        }
+
+        boolean put(ByteArrayKey lookupKey, byte[] rawKey, byte[] value, long expireAtNanos) {
+            SlabClass slabClass = this.slabClassFor(value.length);
+            lock.lock();
+            try {
+                Slot existing = index.get(lookupKey);
+                if (Objects.nonNull(existing)) {
+                    this.removeSlot(existing);
+                }
+                if (closed || Objects.isNull(slabClass)) {
+                    return false;
+                }
+                long address = this.allocate(slabClass);
+                if (address < 0) {
+                    return false;
+                }
+                pages[pageOf(address)].put(offsetOf(address), value);
+                ByteArrayKey key = ByteArrayKey.copyOf(rawKey);
+                Slot slot = new Slot(key, slabClass, address, value.length, expireAtNanos);
+                index.put(key, slot);
+                slabClass.linkFirst(slot);
+                usedBytes += slabClass.chunkSize;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        byte[] get(ByteArrayKey lookupKey, long nowNanos) {
+            lock.lock();
+            try {
+                Slot slot = index.get(lookupKey);
+                if (Objects.isNull(slot)) {
+                    return null;
+                }
+                if (slot.expireAtNanos != NO_EXPIRE && nowNanos - slot.expireAtNanos >= 0) {
+                    this.removeSlot(slot);
+                    return null;
+                }
+                slot.slabClass.moveToFirst(slot);
+                byte[] value = new byte[slot.length];
+                pages[pageOf(slot.address)].get(offsetOf(slot.address), value);
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(ByteArrayKey lookupKey) {
+            lock.lock();
+            try {
+                Slot slot = index.get(lookupKey);
+                if (Objects.nonNull(slot)) {
+                    this.removeSlot(slot);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long removeIf(Predicate<byte[]> filter) {
+            lock.lock();
+            try {
+                List<Slot> matched = new ArrayList<>();
+                for (Slot slot : index.values()) {
+                    if (filter.test(slot.key.bytes())) {
+                        matched.add(slot);
+                    }
+                }
+                matched.forEach(this::removeSlot);
+                return matched.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long size() {
+            lock.lock();
+            try {
+                return index.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long usedBytes() {
+            lock.lock();
+            try {
+                return usedBytes;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long allocatedPages() {
+            lock.lock();
+            try {
+                return allocatedPages;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        long evictionCount() {
+            lock.lock();
+            try {
+                return evictionCount;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+                index.clear();
+                Arrays.fill(pages, null);
+                allocatedPages = 0;
+                usedBytes = 0;
+                for (SlabClass slabClass : slabClasses) {
+                    slabClass.clear();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * 申请一个块：优先使用空闲块，其次申请新页，最后淘汰该等级最久未访问的值
+         *
+         * @param slabClass 块大小等级
+         * @return 块地址，无法申请时返回 -1
+         */
+        private long allocate(SlabClass slabClass) {
+            if (slabClass.hasFree()) {
+                return slabClass.popFree();
+            }
+            if (allocatedPages < pages.length) {
+                int pageIndex = allocatedPages++;
+                pages[pageIndex] = ByteBuffer.allocateDirect(pageSize);
+                for (int i = slabClass.chunksPerPage - 1; i >= 0; i--) {
+                    slabClass.pushFree(addressOf(pageIndex, i * slabClass.chunkSize));
+                }
+                return slabClass.popFree();
+            }
+            Slot eldest = slabClass.tail;
+            if (Objects.isNull(eldest)) {
+                return -1;
+            }
+            this.removeSlot(eldest);
+            evictionCount++;
+            return slabClass.popFree();
+        }
+
+        private void removeSlot(Slot slot) {
+            index.remove(slot.key);
+            slot.slabClass.unlink(slot);
+            slot.slabClass.pushFree(slot.address);
+            usedBytes -= slot.slabClass.chunkSize;
+        }
+
+        private SlabClass slabClassFor(int length) {
+            for (SlabClass slabClass : slabClasses) {
+                if (slabClass.chunkSize >= length) {
+                    return slabClass;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 块大小等级，维护空闲块地址栈及已用块的 LRU 链表（头部最近访问）
+     */
+    private static final class SlabClass {
+
+        private final int chunkSize;
+
+        private final int chunksPerPage;
+
+        private long[] freeChunks = new long[16];
+
+        private int freeCount;
+
+        private Slot head;
+
+        private Slot tail;
+
+        SlabClass(int chunkSize, int chunksPerPage) {
+            this.chunkSize = chunkSize;
+            this.chunksPerPage = chunksPerPage;
+        }
+
+        boolean hasFree() {
+            return freeCount > 0;
+        }
+
+        long popFree() {
+            return freeChunks[--freeCount];
+        }
+
+        void pushFree(long address) {
+            if (freeCount == freeChunks.length) {
+                freeChunks = Arrays.copyOf(freeChunks, freeChunks.length * 2);
+            }
+            freeChunks[freeCount++] = address;
+        }
+
+        void linkFirst(Slot slot) {
+            slot.prev = null;
+            slot.next = head;
+            if (Objects.nonNull(head)) {
+                head.prev = slot;
+            }
+            head = slot;
+            if (Objects.isNull(tail)) {
+                tail = slot;
+            }
+        }
+
+        void unlink(Slot slot) {
+            if (Objects.isNull(slot.prev)) {
+                head = slot.next;
+            } else {
+                slot.prev.next = slot.next;
+            }
+            if (Objects.isNull(slot.next)) {
+                tail = slot.prev;
+            } else {
+                slot.next.prev = slot.prev;
+            }
+            slot.prev = null;
+            slot.next = null;
+        }
+
+        void moveToFirst(Slot slot) {
+            if (head != slot) {
+                this.unlink(slot);
+                this.linkFirst(slot);
+            }
+        }
+
+        void clear() {
+            freeChunks = new long[16];
+            freeCount = 0;
+            head = null;
+            tail = null;
+        }
+    }
+
+    /**
+     * 值在直接内存中的位置，是堆内唯一保留的信息
+     */
+    private static final class Slot {
+
+        private final ByteArrayKey key;
+
+        private final SlabClass slabClass;
+
+        private final long address;
+
+        private final int length;
+
+        private final long expireAtNanos;
+
+        private Slot prev;
+
+        private Slot next;
+
+        Slot(ByteArrayKey key, SlabClass slabClass, long address, int length, long expireAtNanos) {
+            this.key = key;
+            this.slabClass = slabClass;
+            this.address = address;
+            this.length = length;
+            this.expireAtNanos = expireAtNanos;
+        }
+    }
+
+    private static SlabClass[] createSlabClasses(int pageSize) {
+        List<SlabClass> slabClasses = new ArrayList<>();
+        int chunkSize = MIN_CHUNK_SIZE;
+        while (chunkSize < pageSize) {
+            slabClasses.add(new SlabClass(chunkSize, pageSize / chunkSize));
+            // 按 8 字节对齐
+            chunkSize = ((int) (chunkSize * GROWTH_FACTOR) + 7) & ~7;
+        }
+        slabClasses.add(new SlabClass(pageSize, 1));
+        return slabClasses.toArray(new SlabClass[0]);
+    }
+
+    private static long addressOf(int pageIndex, int offset) {
+        return ((long) pageIndex << 32) | offset;
+    }
+
+    private static int pageOf(long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offsetOf(long address) {
+        return (int) address;
+    }
+}
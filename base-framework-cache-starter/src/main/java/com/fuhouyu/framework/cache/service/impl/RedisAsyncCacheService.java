@@ -0,0 +1,438 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.service.AsyncCacheService;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.SetArgs;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 基于 lettuce 异步命令的缓存服务实现。
+ * 键值的序列化方式与 {@link RedisTemplate} 保持一致，因此可以与 {@link RedisCacheService} 读写同一份数据。
+ * 所有命令共用一个连接，lettuce 会将并发发出的命令在该连接上流水线化。
+ * </p>
+ *
+ * @param <K> 缓存键的类型
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 12:10
+ */
+public class RedisAsyncCacheService<K, V> implements AsyncCacheService<K, V>, AutoCloseable {
+
+    private final StatefulConnection<byte[], byte[]> connection;
+
+    private final RedisClusterAsyncCommands<byte[], byte[]> commands;
+
+    private final RedisSerializer<K> keySerializer;
+
+    private final RedisSerializer<V> valueSerializer;
+
+    private final RedisSerializer<K> hashKeySerializer;
+
+    private final RedisSerializer<V> hashValueSerializer;
+
+    @SuppressWarnings("unchecked")
+    public RedisAsyncCacheService(StatefulConnection<byte[], byte[]> connection,
+                                  RedisClusterAsyncCommands<byte[], byte[]> commands,
+                                  RedisTemplate<K, V> redisTemplate) {
+        this.connection = connection;
+        this.commands = commands;
+        this.keySerializer = (RedisSerializer<K>) redisTemplate.getKeySerializer();
+        this.valueSerializer = (RedisSerializer<V>) redisTemplate.getValueSerializer();
+        this.hashKeySerializer = (RedisSerializer<K>) redisTemplate.getHashKeySerializer();
+        this.hashValueSerializer = (RedisSerializer<V>) redisTemplate.getHashValueSerializer();
+    }
+
+    // ===== String Operations =====
+
+    @Override
+    public CompletableFuture<Void> set(byte[] key, byte[] value) {
+        return this.toVoid(commands.set(key, value));
+    }
+
+    @Override
+    public CompletableFuture<Void> set(K key, V value) {
+        return this.toVoid(commands.set(this.rawKey(key), this.rawValue(value)));
+    }
+
+    @Override
+    public CompletableFuture<Void> set(K key, V value, long timeout, TimeUnit unit) {
+        return this.set(this.rawKey(key), this.rawValue(value), timeout, unit);
+    }
+
+    @Override
+    public CompletableFuture<Void> set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+        return this.toVoid(commands.set(key, value, this.setArgs(timeout, unit)));
+    }
+
+    @Override
+    public CompletableFuture<V> get(K key) {
+        return commands.get(this.rawKey(key)).toCompletableFuture()
+                .thenApply(valueSerializer::deserialize);
+    }
+
+    @Override
+    public CompletableFuture<byte[]> get(byte[] key) {
+        return commands.get(key).toCompletableFuture();
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(K key) {
+        return this.toVoid(commands.del(this.rawKey(key)));
+    }
+
+    @Override
+    public CompletableFuture<Void> delete(byte[] key) {
+        return this.toVoid(commands.del(key));
+    }
+
+    // ===== Batch Operations =====
+
+    @Override
+    public CompletableFuture<Map<K, V>> multiGet(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyMap());
+        }
+        List<K> keyList = new ArrayList<>(keys);
+        return commands.mget(this.rawKeys(keyList)).toCompletableFuture()
+                .thenApply(keyValues -> {
+                    Map<K, V> result = new HashMap<>(keyList.size());
+                    for (int i = 0; i < keyList.size(); i++) {
+                        KeyValue<byte[], byte[]> keyValue = keyValues.get(i);
+                        if (keyValue.hasValue()) {
+                            result.put(keyList.get(i), valueSerializer.deserialize(keyValue.getValue()));
+                        }
+                    }
+                    return result;
+                });
+    }
+
+    @Override
+    public CompletableFuture<List<byte[]>> multiGetBytes(List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        return commands.mget(keys.toArray(new byte[0][])).toCompletableFuture()
+                .thenApply(keyValues -> {
+                    List<byte[]> values = new ArrayList<>(keyValues.size());
+                    for (KeyValue<byte[], byte[]> keyValue : keyValues) {
+                        values.add(keyValue.getValueOrElse(null));
+                    }
+                    return values;
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> multiSet(Map<K, V> map, long timeout, TimeUnit unit) {
+        Map<byte[], byte[]> rawMap = new LinkedHashMap<>(map.size());
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            rawMap.put(this.rawKey(entry.getKey()), this.rawValue(entry.getValue()));
+        }
+        return this.multiSetBytes(rawMap, timeout, unit);
+    }
+
+    @Override
+    public CompletableFuture<Void> multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+        if (map.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (timeout <= 0) {
+            return this.toVoid(commands.mset(map));
+        }
+        // MSET 不支持过期时间，这里连续发出 SET，lettuce 不会等待前一条命令的响应
+        SetArgs setArgs = this.setArgs(timeout, unit);
+        List<RedisFuture<String>> futures = new ArrayList<>(map.size());
+        for (Map.Entry<byte[], byte[]> entry : map.entrySet()) {
+            futures.add(commands.set(entry.getKey(), entry.getValue(), setArgs));
+        }
+        return this.allOf(futures);
+    }
+
+    @Override
+    public CompletableFuture<Void> multiDelete(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.toVoid(commands.del(this.rawKeys(keys)));
+    }
+
+    @Override
+    public CompletableFuture<Void> multiDeleteBytes(Collection<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.toVoid(commands.del(keys.toArray(new byte[0][])));
+    }
+
+    // ===== Hash Operations =====
+
+    @Override
+    public CompletableFuture<Void> putHash(K key, K hashKey, V value) {
+        return this.toVoid(commands.hset(this.rawKey(key), this.rawHashKey(hashKey), this.rawHashValue(value)));
+    }
+
+    @Override
+    public CompletableFuture<Void> putHash(K key, K hashKey, V value, long timeout, TimeUnit unit) {
+        return this.evalWithTtl(CacheScripts.HSET_WITH_TTL_SCRIPT, key, timeout, unit,
+                this.rawHashKey(hashKey), this.rawHashValue(value));
+    }
+
+    @Override
+    public CompletableFuture<V> getHash(K key, K hashKey) {
+        return commands.hget(this.rawKey(key), this.rawHashKey(hashKey)).toCompletableFuture()
+                .thenApply(hashValueSerializer::deserialize);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteHash(K key, K hashKey) {
+        return this.toVoid(commands.hdel(this.rawKey(key), this.rawHashKey(hashKey)));
+    }
+
+    @Override
+    public CompletableFuture<Map<K, V>> getHashAll(K key) {
+        return commands.hgetall(this.rawKey(key)).toCompletableFuture()
+                .thenApply(entries -> {
+                    Map<K, V> result = new LinkedHashMap<>(entries.size());
+                    entries.forEach((hashKey, value) -> result.put(hashKeySerializer.deserialize(hashKey),
+                            hashValueSerializer.deserialize(value)));
+                    return result;
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> putHashAll(K key, Map<K, V> map) {
+        if (map.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return this.toVoid(commands.hset(this.rawKey(key), this.rawHash(map)));
+    }
+
+    @Override
+    public CompletableFuture<Void> putHashAll(K key, Map<K, V> map, long timeout, TimeUnit unit) {
+        if (map.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        byte[][] fieldsAndValues = new byte[map.size() * 2][];
+        int i = 0;
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            fieldsAndValues[i++] = this.rawHashKey(entry.getKey());
+            fieldsAndValues[i++] = this.rawHashValue(entry.getValue());
+        }
+        return this.evalWithTtl(CacheScripts.HSET_WITH_TTL_SCRIPT, key, timeout, unit, fieldsAndValues);
+    }
+
+    // ===== List Operations =====
+
+    @Override
+    public CompletableFuture<Void> pushToList(K key, V value) {
+        return this.toVoid(commands.rpush(this.rawKey(key), this.rawValue(value)));
+    }
+
+    @Override
+    public CompletableFuture<Void> pushToList(K key, V value, long timeout, TimeUnit unit) {
+        return this.evalWithTtl(CacheScripts.RPUSH_WITH_TTL_SCRIPT, key, timeout, unit, this.rawValue(value));
+    }
+
+    @Override
+    public CompletableFuture<V> popFromList(K key) {
+        return commands.lpop(this.rawKey(key)).toCompletableFuture()
+                .thenApply(valueSerializer::deserialize);
+    }
+
+    @Override
+    public CompletableFuture<List<V>> getList(K key) {
+        return commands.lrange(this.rawKey(key), 0, -1).toCompletableFuture()
+                .thenApply(values -> {
+                    List<V> result = new ArrayList<>(values.size());
+                    for (byte[] value : values) {
+                        result.add(valueSerializer.deserialize(value));
+                    }
+                    return result;
+                });
+    }
+
+    // ===== Set Operations =====
+
+    @Override
+    public CompletableFuture<Void> addToSet(K key, V value) {
+        return this.toVoid(commands.sadd(this.rawKey(key), this.rawValue(value)));
+    }
+
+    @Override
+    public CompletableFuture<Void> addToSet(K key, V value, long timeout, TimeUnit unit) {
+        return this.evalWithTtl(CacheScripts.SADD_WITH_TTL_SCRIPT, key, timeout, unit, this.rawValue(value));
+    }
+
+    @Override
+    public CompletableFuture<Set<V>> getSet(K key) {
+        return commands.smembers(this.rawKey(key)).toCompletableFuture()
+                .thenApply(values -> {
+                    Set<V> result = new LinkedHashSet<>(values.size());
+                    for (byte[] value : values) {
+                        result.add(valueSerializer.deserialize(value));
+                    }
+                    return result;
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> removeFromSet(K key, V value) {
+        return this.toVoid(commands.srem(this.rawKey(key), this.rawValue(value)));
+    }
+
+    // ===== Common Operations =====
+
+    @Override
+    public CompletableFuture<Boolean> exists(K key) {
+        return commands.exists(this.rawKey(key)).toCompletableFuture()
+                .thenApply(count -> Objects.nonNull(count) && count > 0);
+    }
+
+    @Override
+    public CompletableFuture<Void> expire(K key, long timeout) {
+        return this.expire(key, timeout, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public CompletableFuture<Void> expire(K key, long timeout, TimeUnit unit) {
+        return this.toVoid(commands.pexpire(this.rawKey(key), unit.toMillis(timeout)));
+    }
+
+    @Override
+    public CompletableFuture<Long> size(K key) {
+        return commands.strlen(this.rawKey(key)).toCompletableFuture()
+                .thenApply(size -> Objects.isNull(size) ? 0L : size);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteMultiple(Set<K> keys) {
+        return this.multiDelete(keys);
+    }
+
+    /**
+     * 关闭异步命令使用的连接
+     */
+    @Override
+    public void close() {
+        connection.close();
+    }
+
+    /**
+     * 丢弃命令结果，只保留完成信号
+     *
+     * @param future 命令结果
+     * @return 完成信号
+     */
+    private CompletableFuture<Void> toVoid(RedisFuture<?> future) {
+        return future.toCompletableFuture().thenApply(result -> null);
+    }
+
+    /**
+     * 等待所有命令完成
+     *
+     * @param futures 命令结果
+     * @return 完成信号
+     */
+    private CompletableFuture<Void> allOf(List<? extends RedisFuture<?>> futures) {
+        CompletableFuture<?>[] completableFutures = new CompletableFuture<?>[futures.size()];
+        for (int i = 0; i < futures.size(); i++) {
+            completableFutures[i] = futures.get(i).toCompletableFuture();
+        }
+        return CompletableFuture.allOf(completableFutures);
+    }
+
+    /**
+     * 通过脚本在一次往返中完成写入及设置过期时间，服务端未缓存脚本时改用 EVAL
+     *
+     * @param script  脚本，ARGV[1] 为过期毫秒数
+     * @param key     缓存键
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     * @param args    其余参数
+     * @return 完成信号
+     */
+    private CompletableFuture<Void> evalWithTtl(RedisScript<Long> script, K key, long timeout, TimeUnit unit,
+                                                byte[]... args) {
+        byte[][] keys = {this.rawKey(key)};
+        byte[][] values = new byte[args.length + 1][];
+        values[0] = Long.toString(timeout > 0 ? Math.max(1, unit.toMillis(timeout)) : 0)
+                .getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(args, 0, values, 1, args.length);
+        return commands.<Long>evalsha(script.getSha1(), ScriptOutputType.INTEGER, keys, values)
+                .toCompletableFuture()
+                .exceptionallyCompose(e -> CacheScripts.isNoScriptError(e)
+                        ? commands.<Long>eval(script.getScriptAsString(), ScriptOutputType.INTEGER, keys, values)
+                        .toCompletableFuture()
+                        : CompletableFuture.failedFuture(e))
+                .thenApply(result -> null);
+    }
+
+    /**
+     * 过期时间对应的 SET 参数，小于等于0时不过期
+     *
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return SET 参数
+     */
+    private SetArgs setArgs(long timeout, TimeUnit unit) {
+        return timeout > 0 ? SetArgs.Builder.px(unit.toMillis(timeout)) : new SetArgs();
+    }
+
+    private byte[] rawKey(K key) {
+        return keySerializer.serialize(key);
+    }
+
+    private byte[][] rawKeys(Collection<K> keys) {
+        byte[][] rawKeys = new byte[keys.size()][];
+        int i = 0;
+        for (K key : keys) {
+            rawKeys[i++] = this.rawKey(key);
+        }
+        return rawKeys;
+    }
+
+    private byte[] rawValue(V value) {
+        return valueSerializer.serialize(value);
+    }
+
+    private byte[] rawHashKey(K hashKey) {
+        return hashKeySerializer.serialize(hashKey);
+    }
+
+    private byte[] rawHashValue(V value) {
+        return hashValueSerializer.serialize(value);
+    }
+
+    private Map<byte[], byte[]> rawHash(Map<K, V> map) {
+        Map<byte[], byte[]> rawHash = new LinkedHashMap<>(map.size());
+        map.forEach((hashKey, value) -> rawHash.put(this.rawHashKey(hashKey), this.rawHashValue(value)));
+        return rawHash;
+    }
+}
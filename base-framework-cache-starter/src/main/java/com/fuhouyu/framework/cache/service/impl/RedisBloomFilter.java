@@ -0,0 +1,134 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.service.BloomFilter;
+import org.springframework.data.redis.connection.BitFieldSubCommands;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * 基于 redis 位图的布隆过滤器，整个位数组存放在一个字符串键中，由各节点共享。
+ * 单个元素的 k 个位通过一条 BITFIELD 命令读取或写入，批量添加使用管道。
+ * redis 字符串最大 512MB，位数不能超过 2^32。
+ * </p>
+ * <p>
+ * 各节点需使用相同的位数及哈希函数数量，否则计算出的位置不一致。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 18:10
+ */
+public final class RedisBloomFilter implements BloomFilter {
+
+    private static final BitFieldSubCommands.BitFieldType BIT = BitFieldSubCommands.BitFieldType.unsigned(1);
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final byte[] key;
+
+    private final long bits;
+
+    private final int hashFunctions;
+
+    /**
+     * 构造函数
+     *
+     * @param connectionFactory 连接工厂
+     * @param key               存放位数组的键
+     * @param bits              位数
+     * @param hashFunctions     哈希函数数量
+     */
+    public RedisBloomFilter(RedisConnectionFactory connectionFactory, byte[] key, long bits, int hashFunctions) {
+        this.connectionFactory = connectionFactory;
+        this.key = key;
+        this.bits = bits;
+        this.hashFunctions = hashFunctions;
+    }
+
+    @Override
+    public boolean put(String element) {
+        BitFieldSubCommands commands = this.setCommands(element);
+        List<Long> previous = this.execute(connection -> connection.stringCommands().bitField(key, commands));
+        return Objects.isNull(previous) || previous.contains(0L);
+    }
+
+    @Override
+    public void putAll(Collection<String> elements) {
+        if (elements.isEmpty()) {
+            return;
+        }
+        this.execute(connection -> {
+            connection.openPipeline();
+            try {
+                for (String element : elements) {
+                    connection.stringCommands().bitField(key, this.setCommands(element));
+                }
+            } finally {
+                connection.closePipeline();
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean mightContain(String element) {
+        BitFieldSubCommands commands = BitFieldSubCommands.create();
+        for (long index : AbstractBloomFilterFactory.bitIndexes(element, hashFunctions, bits)) {
+            commands = commands.get(BIT).valueAt(index);
+        }
+        BitFieldSubCommands getCommands = commands;
+        List<Long> values = this.execute(connection -> connection.stringCommands().bitField(key, getCommands));
+        return Objects.nonNull(values) && !values.contains(0L);
+    }
+
+    @Override
+    public long bitSize() {
+        return bits;
+    }
+
+    @Override
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    @Override
+    public void clear() {
+        this.execute(connection -> connection.keyCommands().del(key));
+    }
+
+    private BitFieldSubCommands setCommands(String element) {
+        BitFieldSubCommands commands = BitFieldSubCommands.create();
+        for (long index : AbstractBloomFilterFactory.bitIndexes(element, hashFunctions, bits)) {
+            commands = commands.set(BIT).valueAt(index).to(1);
+        }
+        return commands;
+    }
+
+    private <T> T execute(Function<RedisConnection, T> function) {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return function.apply(connection);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.service.BloomFilter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * redis 布隆过滤器工厂，过滤器的键为前缀加名称
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 18:10
+ */
+public class RedisBloomFilterFactory extends AbstractBloomFilterFactory {
+
+    /**
+     * redis 字符串最大 512MB
+     */
+    private static final long MAXIMUM_BITS = 1L << 32;
+
+    private final Function<byte[], RedisConnectionFactory> connectionFactoryResolver;
+
+    private final String keyPrefix;
+
+    /**
+     * 构造函数
+     *
+     * @param connectionFactoryResolver 按过滤器的键选择连接工厂，分片模式下选择键所属的节点
+     * @param keyPrefix                 键前缀
+     * @param expectedInsertions        默认的预计元素数量
+     * @param fpp                       默认的误判率
+     * @param maximumBytes              单个过滤器的内存上限（字节）
+     */
+    public RedisBloomFilterFactory(Function<byte[], RedisConnectionFactory> connectionFactoryResolver,
+                                   String keyPrefix,
+                                   long expectedInsertions,
+                                   double fpp,
+                                   long maximumBytes) {
+        super(expectedInsertions, fpp, maximumBytes, MAXIMUM_BITS);
+        this.connectionFactoryResolver = connectionFactoryResolver;
+        this.keyPrefix = keyPrefix;
+    }
+
+    @Override
+    protected BloomFilter create(String name, long bits, int hashFunctions) {
+        byte[] key = (keyPrefix + name).getBytes(StandardCharsets.UTF_8);
+        return new RedisBloomFilter(connectionFactoryResolver.apply(key), key, bits, hashFunctions);
+    }
+}
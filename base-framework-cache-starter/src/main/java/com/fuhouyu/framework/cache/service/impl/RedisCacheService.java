@@ -16,18 +16,27 @@
 
 package com.fuhouyu.framework.cache.service.impl;
 
+import com.fuhouyu.framework.cache.model.CompareAndSetResult;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
+import com.fuhouyu.framework.cache.model.VersionedValue;
 import com.fuhouyu.framework.cache.service.CacheService;
 import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
 import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.data.redis.core.*;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.Assert;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * 基于 RedisTemplate 的缓存服务实现。
@@ -38,6 +47,22 @@ import java.util.function.Function;
  */
 public class RedisCacheService<K, V> implements CacheService<K, V> {
 
+    /**
+     * 仅当租约仍属于自己时才释放，避免误删其它节点在租约过期后抢到的租约
+     */
+    private static final byte[] RELEASE_LEASE_SCRIPT = ("if redis.call('get', KEYS[1]) == ARGV[1] then "
+            + "return redis.call('del', KEYS[1]) else return 0 end").getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] LEASE_KEY_SUFFIX = ":load-lease".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] NULL_VALUE_KEY_SUFFIX = ":null-value".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] NULL_VALUE_MARKER = "1".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] VERSION_FIELD = "version".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] VALUE_FIELD = "value".getBytes(StandardCharsets.UTF_8);
+
     private final RedisTemplate<K, V> redisTemplate;
 
     private final HashOperations<K, K, V> hashOperations;
@@ -46,64 +71,366 @@ public class RedisCacheService<K, V> implements CacheService<K, V> {
 
     private final SetOperations<K, V> setOperations;
 
+    private final ZSetOperations<K, V> zSetOperations;
+
+    private final SingleFlight<K, V> singleFlight = new SingleFlight<>();
+
+    /**
+     * 分布式加载租约时长（毫秒），小于等于0时不使用租约
+     */
+    private long loadLeaseMillis;
+
+    private long loadLeaseRetryMillis = 50;
+
+    /**
+     * getOrLoad 空值的过期时间（毫秒），小于等于0时不缓存空值
+     */
+    private long nullValueMillis;
+
+    private TtlJitter ttlJitter = TtlJitter.NONE;
+
+    private RefreshAhead<K> refreshAhead;
+
+    private RedisClientSideCache clientSideCache;
+
     public RedisCacheService(RedisTemplate<K, V> redisTemplate) {
         this.redisTemplate = redisTemplate;
         this.hashOperations = redisTemplate.opsForHash();
         this.listOperations = redisTemplate.opsForList();
         this.setOperations = redisTemplate.opsForSet();
+        this.zSetOperations = redisTemplate.opsForZSet();
+    }
+
+    /**
+     * 开启 getOrLoad 的分布式加载租约，同一时刻只有抢到租约的节点执行加载，其余节点轮询等待缓存写入。
+     *
+     * @param leaseTime     租约时长
+     * @param retryInterval 未抢到租约时轮询缓存的间隔
+     */
+    public void setLoadLease(Duration leaseTime, Duration retryInterval) {
+        this.loadLeaseMillis = leaseTime.toMillis();
+        this.loadLeaseRetryMillis = Math.max(1, retryInterval.toMillis());
+    }
+
+    /**
+     * 设置过期时间抖动，作用于所有带过期时间的写入，{@link #expire} 不受影响
+     *
+     * @param ttlJitter 过期时间抖动
+     */
+    public void setTtlJitter(TtlJitter ttlJitter) {
+        this.ttlJitter = ttlJitter;
+    }
+
+    /**
+     * 开启 getOrLoad 的提前刷新，加载耗时仅记录在当前 jvm，其它节点加载的键不会被提前刷新
+     *
+     * @param refreshAhead 提前刷新
+     */
+    public void setRefreshAhead(RefreshAhead<K> refreshAhead) {
+        this.refreshAhead = refreshAhead;
+    }
+
+    /**
+     * 开启 getOrLoad 的空值缓存。加载结果为空时写入一个独立的标记键（原键加 {@code :null-value} 后缀），
+     * 标记过期前缓存未命中的读取直接返回空，不再调用加载函数。get、multiGet 等读取不受影响，
+     * 写入及删除原键时一并删除标记，否则写入的值过期后仍存活的标记会让 getOrLoad 返回空。
+     *
+     * @param expireTime 空值的过期时间
+     */
+    public void setNullValueExpireTime(Duration expireTime) {
+        this.nullValueMillis = expireTime.toMillis();
+    }
+
+    /**
+     * 开启 redis 服务端协助的客户端缓存，字符串值的读取（get、multiGet 及 getOrLoad）先查本地，
+     * 当前节点的写入及删除同时删除本地的值，其它节点的修改由服务端推送失效
+     *
+     * @param clientSideCache 客户端缓存
+     */
+    public void setClientSideCache(RedisClientSideCache clientSideCache) {
+        this.clientSideCache = clientSideCache;
     }
 
     // ===== String Operations =====
 
     @Override
     public void set(byte[] key, byte[] value) {
-        this.doExecute(redisConnection -> {
-            redisConnection.stringCommands().set(key, value);
-            return value;
-        });
+        if (nullValueMillis > 0) {
+            this.setWithNullValue(key, value, Expiration.persistent());
+        } else {
+            this.doExecute(redisConnection -> {
+                redisConnection.stringCommands().set(key, value);
+                return value;
+            });
+        }
+        this.invalidateLocal(key);
     }
 
 
     @Override
     public void set(K key, V value) {
-
-        redisTemplate.opsForValue().set(key, value);
+        if (nullValueMillis > 0) {
+            this.setWithNullValue(this.rawKey(key), this.rawValue(value), Expiration.persistent());
+        } else {
+            redisTemplate.opsForValue().set(key, value);
+        }
+        this.invalidateLocal(key);
     }
 
     @Override
     public void set(K key, V value, long timeout, TimeUnit unit) {
-        redisTemplate.opsForValue().set(key, value, timeout, unit);
+        if (nullValueMillis > 0) {
+            this.setWithNullValue(this.rawKey(key), this.rawValue(value), this.expiration(timeout, unit));
+        } else {
+            redisTemplate.opsForValue().set(key, value, ttlJitter.apply(timeout), unit);
+        }
+        this.invalidateLocal(key);
     }
 
     @Override
     public void set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
-        this.doExecute(redisConnection -> {
-            redisConnection.stringCommands().set(key, value, Expiration.from(timeout, unit), RedisStringCommands.SetOption.UPSERT);
-            return null;
-        });
+        if (nullValueMillis > 0) {
+            this.setWithNullValue(key, value, this.expiration(timeout, unit));
+        } else {
+            this.doExecute(redisConnection -> {
+                redisConnection.stringCommands().set(key, value, this.expiration(timeout, unit), RedisStringCommands.SetOption.UPSERT);
+                return null;
+            });
+        }
+        this.invalidateLocal(key);
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public V get(K key) {
+        if (Objects.nonNull(clientSideCache)) {
+            return ((RedisSerializer<V>) redisTemplate.getValueSerializer())
+                    .deserialize(clientSideCache.get(this.rawKey(key)));
+        }
         return redisTemplate.opsForValue().get(key);
     }
 
     @Override
     public byte[] get(byte[] key) {
+        if (Objects.nonNull(clientSideCache)) {
+            return clientSideCache.get(key);
+        }
         return this.doExecute(redisConnection -> redisConnection.stringCommands().get(key));
     }
 
     @Override
     public void delete(K key) {
-        redisTemplate.delete(key);
+        if (nullValueMillis > 0) {
+            this.deleteWithNullValues(List.of(this.rawKey(key)));
+        } else {
+            redisTemplate.delete(key);
+        }
+        this.invalidateLocal(key);
     }
 
     @Override
     public void delete(byte[] key) {
-        this.doExecute(redisConnection ->
-                redisConnection.stringCommands().getDel(key)
-        );
+        if (nullValueMillis > 0) {
+            this.deleteWithNullValues(List.of(key));
+        } else {
+            this.doExecute(redisConnection ->
+                    redisConnection.stringCommands().getDel(key)
+            );
+        }
+        this.invalidateLocal(key);
+    }
+
+    // ===== Batch Operations =====
+
+    @Override
+    public Map<K, V> multiGet(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<K> keyList = new ArrayList<>(keys);
+        List<V> values = Objects.isNull(clientSideCache) ? redisTemplate.opsForValue().multiGet(keyList)
+                : this.multiGetFromClientSideCache(keyList);
+        if (Objects.isNull(values)) {
+            return Collections.emptyMap();
+        }
+        Map<K, V> result = new HashMap<>(keyList.size());
+        for (int i = 0; i < keyList.size(); i++) {
+            V value = values.get(i);
+            if (Objects.nonNull(value)) {
+                result.put(keyList.get(i), value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<byte[]> multiGetBytes(List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (Objects.nonNull(clientSideCache)) {
+            return clientSideCache.multiGet(keys);
+        }
+        List<byte[]> values = this.doExecute(redisConnection ->
+                redisConnection.stringCommands().mGet(keys.toArray(new byte[0][])));
+        return Objects.isNull(values) ? Collections.nCopies(keys.size(), null) : values;
+    }
+
+    @Override
+    public Map<K, ExpiringValue<V>> multiGetWithTtl(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        List<K> keyList = new ArrayList<>(keys);
+        List<byte[]> rawKeys = new ArrayList<>(keyList.size());
+        for (K key : keyList) {
+            rawKeys.add(this.rawKey(key));
+        }
+        List<ExpiringValue<byte[]>> rawValues = this.multiGetBytesWithTtl(rawKeys);
+        Map<K, ExpiringValue<V>> result = new HashMap<>(keyList.size());
+        for (int i = 0; i < keyList.size(); i++) {
+            ExpiringValue<byte[]> rawValue = rawValues.get(i);
+            if (Objects.nonNull(rawValue)) {
+                result.put(keyList.get(i), new ExpiringValue<>(this.deserializeValue(rawValue.getValue()),
+                        rawValue.getTtlMillis()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * MGET 与每个键的 PTTL 在同一个 pipeline 中发送，不经过客户端缓存
+     */
+    @Override
+    public List<ExpiringValue<byte[]>> multiGetBytesWithTtl(List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().mGet(keys.toArray(new byte[0][]));
+            for (byte[] key : keys) {
+                connection.keyCommands().pTtl(key);
+            }
+            return null;
+        }, RedisSerializer.byteArray());
+        List<?> values = (List<?>) results.get(0);
+        List<ExpiringValue<byte[]>> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Object value = Objects.isNull(values) ? null : values.get(i);
+            Long ttl = (Long) results.get(i + 1);
+            // PTTL 为 -2 时键在 MGET 之后已过期或被删除
+            if (!(value instanceof byte[] bytes) || Objects.isNull(ttl) || ttl == -2) {
+                result.add(null);
+            } else {
+                result.add(new ExpiringValue<>(bytes, ttl < 0 ? ExpiringValue.NO_EXPIRE : ttl));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void multiSet(Map<K, V> map, long timeout, TimeUnit unit) {
+        if (map.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<K, V> entry : map.entrySet()) {
+                byte[] rawKey = this.rawKey(entry.getKey());
+                connection.stringCommands().set(rawKey, this.rawValue(entry.getValue()),
+                        this.expiration(timeout, unit), RedisStringCommands.SetOption.UPSERT);
+                this.deleteNullValue(connection, rawKey);
+            }
+            return null;
+        });
+        map.keySet().forEach(this::invalidateLocal);
+    }
+
+    @Override
+    public void multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+        if (map.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<byte[], byte[]> entry : map.entrySet()) {
+                connection.stringCommands().set(entry.getKey(), entry.getValue(),
+                        this.expiration(timeout, unit), RedisStringCommands.SetOption.UPSERT);
+                this.deleteNullValue(connection, entry.getKey());
+            }
+            return null;
+        });
+        map.keySet().forEach(this::invalidateLocal);
+    }
+
+    @Override
+    public void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Map.Entry<byte[], ExpiringValue<byte[]>> entry : entries.entrySet()) {
+                connection.stringCommands().set(entry.getKey(), entry.getValue().getValue(),
+                        this.expiration(entry.getValue().getTtlMillis(), TimeUnit.MILLISECONDS),
+                        RedisStringCommands.SetOption.UPSERT);
+                this.deleteNullValue(connection, entry.getKey());
+            }
+            return null;
+        });
+        entries.keySet().forEach(this::invalidateLocal);
+    }
+
+    @Override
+    public void multiDelete(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (nullValueMillis > 0) {
+            List<byte[]> rawKeys = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                rawKeys.add(this.rawKey(key));
+            }
+            this.deleteWithNullValues(rawKeys);
+        } else {
+            redisTemplate.delete(keys);
+        }
+        keys.forEach(this::invalidateLocal);
+    }
 
+    @Override
+    public void multiDeleteBytes(Collection<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (nullValueMillis > 0) {
+            this.deleteWithNullValues(keys);
+        } else {
+            this.doExecute(redisConnection ->
+                    redisConnection.keyCommands().del(keys.toArray(new byte[0][])));
+        }
+        keys.forEach(this::invalidateLocal);
+    }
+
+    // ===== Load Operations =====
+
+    @Override
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        V value = this.get(key);
+        if (Objects.nonNull(value)) {
+            if (Objects.nonNull(refreshAhead) && refreshAhead.shouldRefresh(key)) {
+                // 开启租约时，未抢到租约的节点读到旧值即返回，由持有租约的节点完成刷新
+                refreshAhead.refresh(key, () -> this.loadWithOptionalLease(key, loader, timeout, unit));
+            }
+            return value;
+        }
+        return singleFlight.execute(key, () -> {
+            V cached = this.get(key);
+            if (Objects.nonNull(cached)) {
+                return cached;
+            }
+            if (this.isNullValueCached(key)) {
+                return null;
+            }
+            return this.loadWithOptionalLease(key, loader, timeout, unit);
+        });
     }
 
     // ===== Hash Operations =====
@@ -115,8 +442,8 @@ public class RedisCacheService<K, V> implements CacheService<K, V> {
 
     @Override
     public void putHash(K key, K hashKey, V value, long timeout, TimeUnit unit) {
-        hashOperations.put(key, hashKey, value);
-        redisTemplate.expire(key, timeout, unit);
+        this.evalWithTtl(CacheScripts.HSET_WITH_TTL_SCRIPT, key, timeout, unit,
+                this.rawHashKey(hashKey), this.rawHashValue(value));
     }
 
     @Override
@@ -141,8 +468,16 @@ public class RedisCacheService<K, V> implements CacheService<K, V> {
 
     @Override
     public void putHashAll(K key, Map<K, V> map, long timeout, TimeUnit unit) {
-        hashOperations.putAll(key, map);
-        redisTemplate.expire(key, timeout, unit);
+        if (map.isEmpty()) {
+            return;
+        }
+        byte[][] fieldsAndValues = new byte[map.size() * 2][];
+        int i = 0;
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            fieldsAndValues[i++] = this.rawHashKey(entry.getKey());
+            fieldsAndValues[i++] = this.rawHashValue(entry.getValue());
+        }
+        this.evalWithTtl(CacheScripts.HSET_WITH_TTL_SCRIPT, key, timeout, unit, fieldsAndValues);
     }
 
     // ===== List Operations =====
@@ -154,8 +489,7 @@ public class RedisCacheService<K, V> implements CacheService<K, V> {
 
     @Override
     public void pushToList(K key, V value, long timeout, TimeUnit unit) {
-        listOperations.rightPush(key, value);
-        redisTemplate.expire(key, timeout, unit);
+        this.evalWithTtl(CacheScripts.RPUSH_WITH_TTL_SCRIPT, key, timeout, unit, this.rawValue(value));
     }
 
     @Override
@@ -177,10 +511,8 @@ public class RedisCacheService<K, V> implements CacheService<K, V> {
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public void addToSet(K key, V value, long timeout, TimeUnit unit) {
-        setOperations.add(key, value);
-        redisTemplate.expire(key, timeout, unit);
+        this.evalWithTtl(CacheScripts.SADD_WITH_TTL_SCRIPT, key, timeout, unit, this.rawValue(value));
     }
 
     @Override
@@ -193,6 +525,152 @@ public class RedisCacheService<K, V> implements CacheService<K, V> {
         setOperations.remove(key, value);
     }
 
+    // ===== Counter Operations =====
+
+    /**
+     * 计数器以 redis 的整数字符串存储，不经过值的序列化
+     */
+    @Override
+    public long increment(K key, long delta) {
+        byte[] rawKey = this.rawKey(key);
+        Long value = this.doExecute(redisConnection -> redisConnection.stringCommands().incrBy(rawKey, delta));
+        return Objects.isNull(value) ? 0 : value;
+    }
+
+    /**
+     * 计数器没有过期时间时设置过期时间，不做抖动，避免固定窗口的长度不一致
+     */
+    @Override
+    public long increment(K key, long delta, long timeout, TimeUnit unit) {
+        long ttlMillis = timeout > 0 ? Math.max(1, unit.toMillis(timeout)) : 0;
+        Long value = this.eval(CacheScripts.INCRBY_WITH_TTL_SCRIPT, key, ttlMillis,
+                Long.toString(delta).getBytes(StandardCharsets.UTF_8));
+        return Objects.isNull(value) ? 0 : value;
+    }
+
+    @Override
+    public long getCounter(K key) {
+        byte[] rawKey = this.rawKey(key);
+        byte[] value = this.doExecute(redisConnection -> redisConnection.stringCommands().get(rawKey));
+        return Objects.isNull(value) ? 0 : Long.parseLong(new String(value, StandardCharsets.UTF_8));
+    }
+
+    // ===== Sorted Set Operations =====
+
+    @Override
+    public void addToSortedSet(K key, V value, double score) {
+        zSetOperations.add(key, value, score);
+    }
+
+    @Override
+    public void addToSortedSet(K key, V value, double score, long timeout, TimeUnit unit) {
+        this.evalWithTtl(CacheScripts.ZADD_WITH_TTL_SCRIPT, key, timeout, unit,
+                rawScore(score), this.rawValue(value));
+    }
+
+    @Override
+    public double incrementScore(K key, V value, double delta) {
+        Double score = zSetOperations.incrementScore(key, value, delta);
+        return Objects.isNull(score) ? 0 : score;
+    }
+
+    @Override
+    public Double getScore(K key, V value) {
+        return zSetOperations.score(key, value);
+    }
+
+    @Override
+    public Long rankInSortedSet(K key, V value) {
+        return zSetOperations.rank(key, value);
+    }
+
+    @Override
+    public Long reverseRankInSortedSet(K key, V value) {
+        return zSetOperations.reverseRank(key, value);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> rangeSortedSet(K key, long start, long end) {
+        return toEntries(zSetOperations.rangeWithScores(key, start, end));
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> reverseRangeSortedSet(K key, long start, long end) {
+        return toEntries(zSetOperations.reverseRangeWithScores(key, start, end));
+    }
+
+    @Override
+    public void removeFromSortedSet(K key, V value) {
+        zSetOperations.remove(key, value);
+    }
+
+    @Override
+    public long sortedSetSize(K key) {
+        Long size = zSetOperations.zCard(key);
+        return Objects.isNull(size) ? 0 : size;
+    }
+
+    // ===== HyperLogLog Operations =====
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean addToHyperLogLog(K key, Collection<V> values) {
+        if (values.isEmpty()) {
+            return false;
+        }
+        Long changed = redisTemplate.opsForHyperLogLog().add(key, (V[]) values.toArray());
+        return Objects.nonNull(changed) && changed > 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public long countHyperLogLog(K key) {
+        Long count = redisTemplate.opsForHyperLogLog().size(key);
+        return Objects.isNull(count) ? 0 : count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public long countHyperLogLog(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long count = redisTemplate.opsForHyperLogLog().size((K[]) keys.toArray());
+        return Objects.isNull(count) ? 0 : count;
+    }
+
+    // ===== Versioned Operations =====
+
+    @Override
+    public VersionedValue<V> getVersioned(K key) {
+        List<byte[]> fields = this.doExecute(redisConnection ->
+                redisConnection.hashCommands().hMGet(this.rawKey(key), VERSION_FIELD, VALUE_FIELD));
+        if (Objects.isNull(fields) || Objects.isNull(fields.get(0))) {
+            return null;
+        }
+        return new VersionedValue<>(this.deserializeValue(fields.get(1)),
+                Long.parseLong(new String(fields.get(0), StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 带版本号的值以 hash 保存，版本检查与写入在一个脚本中完成，冲突时同时返回当前值
+     */
+    @Override
+    public CompareAndSetResult<V> compareAndSet(K key, long expectedVersion, V newValue, long timeout, TimeUnit unit) {
+        long ttlMillis = timeout > 0 ? Math.max(1, unit.toMillis(ttlJitter.apply(timeout))) : 0;
+        List<Object> result = this.evalScript(CacheScripts.COMPARE_AND_SET_SCRIPT, ReturnType.MULTI, key, ttlMillis,
+                Long.toString(expectedVersion).getBytes(StandardCharsets.UTF_8), this.rawValue(newValue));
+        long version = (Long) result.get(1);
+        if ((Long) result.get(0) == 1) {
+            return CompareAndSetResult.success(new VersionedValue<>(newValue, version));
+        }
+        if (version == 0) {
+            return CompareAndSetResult.conflict(null);
+        }
+        byte[] rawCurrent = result.size() > 2 ? (byte[]) result.get(2) : null;
+        return CompareAndSetResult.conflict(new VersionedValue<>(this.deserializeValue(rawCurrent), version));
+    }
+
     // ===== Common Operations =====
 
     @Override
@@ -218,15 +696,465 @@ public class RedisCacheService<K, V> implements CacheService<K, V> {
 
     @Override
     public void deleteMultiple(Set<K> keys) {
-        redisTemplate.delete(keys);
+        this.multiDelete(keys);
+    }
+
+    // ===== Scan Operations =====
+
+    @Override
+    public Stream<Map.Entry<K, V>> scanHash(K key, int batchSize) {
+        return hashOperations.scan(key, this.scanOptions(null, batchSize)).stream();
     }
 
-    private byte[] doExecute(Function<RedisConnection, byte[]> redisConnectionFunction) {
+    @Override
+    public Stream<V> scanList(K key, int batchSize) {
+        Assert.isTrue(batchSize > 0, "批量大小必须大于0");
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
+                new ListWindowIterator(key, batchSize), Spliterator.ORDERED), false);
+    }
+
+    @Override
+    public Stream<V> scanSet(K key, int batchSize) {
+        return setOperations.scan(key, this.scanOptions(null, batchSize)).stream();
+    }
+
+    @Override
+    public Stream<K> scanKeys(String pattern, int batchSize) {
+        return redisTemplate.scan(this.scanOptions(pattern, batchSize)).stream();
+    }
+
+    /**
+     * 通过 SCAN 分批遍历，每批使用 UNLINK 在后台线程释放内存
+     */
+    @Override
+    public long deleteByPattern(String pattern, int batchSize) {
+        return ScanSupport.forEachBatch(this.scanKeys(pattern, batchSize), batchSize, keys -> {
+            Long deleted = redisTemplate.unlink(keys);
+            keys.forEach(this::invalidateLocal);
+            return Objects.isNull(deleted) ? 0 : deleted;
+        });
+    }
+
+    /**
+     * 通过客户端缓存批量读取
+     *
+     * @param keys 缓存键
+     * @return 与缓存键顺序一一对应的值
+     */
+    @SuppressWarnings("unchecked")
+    private List<V> multiGetFromClientSideCache(List<K> keys) {
+        List<byte[]> rawKeys = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            rawKeys.add(this.rawKey(key));
+        }
+        RedisSerializer<V> valueSerializer = (RedisSerializer<V>) redisTemplate.getValueSerializer();
+        List<byte[]> rawValues = clientSideCache.multiGet(rawKeys);
+        List<V> values = new ArrayList<>(rawValues.size());
+        for (byte[] rawValue : rawValues) {
+            values.add(valueSerializer.deserialize(rawValue));
+        }
+        return values;
+    }
+
+    /**
+     * 当前节点写入或删除后立即删除客户端缓存中的值
+     *
+     * @param key 缓存键
+     */
+    private void invalidateLocal(K key) {
+        if (Objects.nonNull(clientSideCache)) {
+            clientSideCache.invalidate(this.rawKey(key));
+        }
+    }
+
+    private void invalidateLocal(byte[] key) {
+        if (Objects.nonNull(clientSideCache)) {
+            clientSideCache.invalidate(key);
+        }
+    }
+
+    private <T> T doExecute(Function<RedisConnection, T> redisConnectionFunction) {
         return redisTemplate.opsForValue().getOperations()
-                .execute((RedisCallback<byte[]>) connection -> {
+                .execute((RedisCallback<T>) connection -> {
                     try (connection) {
                         return redisConnectionFunction.apply(connection);
                     }
                 });
     }
+
+    /**
+     * 序列化缓存键
+     *
+     * @param key 缓存键
+     * @return 序列化后的缓存键
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] rawKey(K key) {
+        return ((RedisSerializer<K>) redisTemplate.getKeySerializer()).serialize(key);
+    }
+
+    /**
+     * 反序列化缓存值
+     *
+     * @param rawValue 序列化后的缓存值
+     * @return 缓存值
+     */
+    @SuppressWarnings("unchecked")
+    private V deserializeValue(byte[] rawValue) {
+        return ((RedisSerializer<V>) redisTemplate.getValueSerializer()).deserialize(rawValue);
+    }
+
+    /**
+     * 序列化缓存值
+     *
+     * @param value 缓存值
+     * @return 序列化后的缓存值
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] rawValue(V value) {
+        return ((RedisSerializer<V>) redisTemplate.getValueSerializer()).serialize(value);
+    }
+
+    /**
+     * 序列化 hash 字段
+     *
+     * @param hashKey hash 字段
+     * @return 序列化后的 hash 字段
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] rawHashKey(K hashKey) {
+        return ((RedisSerializer<K>) redisTemplate.getHashKeySerializer()).serialize(hashKey);
+    }
+
+    /**
+     * 序列化 hash 值
+     *
+     * @param value hash 值
+     * @return 序列化后的 hash 值
+     */
+    @SuppressWarnings("unchecked")
+    private byte[] rawHashValue(V value) {
+        return ((RedisSerializer<V>) redisTemplate.getHashValueSerializer()).serialize(value);
+    }
+
+    /**
+     * 通过脚本在一次往返中完成写入及设置过期时间。
+     * 优先使用 EVALSHA，服务端尚未缓存脚本时改用 EVAL，之后的调用即可命中缓存。
+     *
+     * @param script  脚本，ARGV[1] 为过期毫秒数
+     * @param key     缓存键
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     * @param args    其余参数
+     */
+    private void evalWithTtl(RedisScript<Long> script, K key, long timeout, TimeUnit unit, byte[]... args) {
+        long ttlMillis = timeout > 0 ? Math.max(1, unit.toMillis(ttlJitter.apply(timeout))) : 0;
+        this.eval(script, key, ttlMillis, args);
+    }
+
+    /**
+     * 执行脚本，优先使用 EVALSHA
+     *
+     * @param script    脚本，ARGV[1] 为过期毫秒数
+     * @param key       缓存键
+     * @param ttlMillis 过期毫秒数，小于等于0时不过期
+     * @param args      其余参数
+     * @return 脚本的返回值
+     */
+    private Long eval(RedisScript<Long> script, K key, long ttlMillis, byte[]... args) {
+        return this.evalScript(script, ReturnType.INTEGER, key, ttlMillis, args);
+    }
+
+    /**
+     * 执行脚本，优先使用 EVALSHA
+     *
+     * @param script     脚本，ARGV[1] 为过期毫秒数
+     * @param returnType 返回值类型
+     * @param key        缓存键
+     * @param ttlMillis  过期毫秒数，小于等于0时不过期
+     * @param args       其余参数
+     * @param <T>        返回值类型
+     * @return 脚本的返回值
+     */
+    private <T> T evalScript(RedisScript<?> script, ReturnType returnType, K key, long ttlMillis, byte[]... args) {
+        byte[][] keysAndArgs = new byte[args.length + 2][];
+        keysAndArgs[0] = this.rawKey(key);
+        keysAndArgs[1] = Long.toString(ttlMillis).getBytes(StandardCharsets.UTF_8);
+        System.arraycopy(args, 0, keysAndArgs, 2, args.length);
+        return this.doExecute(redisConnection -> {
+            RedisScriptingCommands scriptingCommands = redisConnection.scriptingCommands();
+            try {
+                return scriptingCommands.evalSha(script.getSha1(), returnType, 1, keysAndArgs);
+            } catch (RuntimeException e) {
+                if (!CacheScripts.isNoScriptError(e)) {
+                    throw e;
+                }
+                return scriptingCommands.eval(script.getScriptAsString().getBytes(StandardCharsets.UTF_8),
+                        returnType, 1, keysAndArgs);
+            }
+        });
+    }
+
+    /**
+     * 序列化分数，无穷大使用 redis 的写法
+     *
+     * @param score 分数
+     * @return 序列化后的分数
+     */
+    private static byte[] rawScore(double score) {
+        String raw;
+        if (Double.isInfinite(score)) {
+            raw = score > 0 ? "+inf" : "-inf";
+        } else {
+            raw = Double.toString(score);
+        }
+        return raw.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 有序集合的成员及分数转为有序的列表
+     *
+     * @param tuples 成员及分数
+     * @return 成员及分数
+     */
+    private List<Map.Entry<V, Double>> toEntries(Set<ZSetOperations.TypedTuple<V>> tuples) {
+        if (Objects.isNull(tuples)) {
+            return new ArrayList<>();
+        }
+        List<Map.Entry<V, Double>> entries = new ArrayList<>(tuples.size());
+        for (ZSetOperations.TypedTuple<V> tuple : tuples) {
+            entries.add(Map.entry(tuple.getValue(), tuple.getScore()));
+        }
+        return entries;
+    }
+
+    /**
+     * SCAN 参数
+     *
+     * @param pattern   匹配规则，为 null 时不过滤
+     * @param batchSize 每批数量
+     * @return SCAN 参数
+     */
+    private ScanOptions scanOptions(String pattern, int batchSize) {
+        Assert.isTrue(batchSize > 0, "批量大小必须大于0");
+        ScanOptions.ScanOptionsBuilder builder = ScanOptions.scanOptions().count(batchSize);
+        if (Objects.nonNull(pattern)) {
+            builder.match(pattern);
+        }
+        return builder.build();
+    }
+
+    /**
+     * 过期时间，小于等于0时不过期，每次调用单独抖动
+     *
+     * @param timeout 过期时间
+     * @param unit    时间单位
+     * @return 过期时间
+     */
+    private Expiration expiration(long timeout, TimeUnit unit) {
+        return timeout > 0 ? Expiration.from(ttlJitter.apply(timeout), unit) : Expiration.persistent();
+    }
+
+    /**
+     * 调用加载函数并写入缓存
+     *
+     * @param key     缓存键
+     * @param loader  加载函数
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     * @return 加载结果
+     */
+    private V load(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        long start = System.nanoTime();
+        V loaded = loader.apply(key);
+        if (Objects.isNull(loaded)) {
+            if (nullValueMillis > 0) {
+                byte[] nullValueKey = this.suffixKey(key, NULL_VALUE_KEY_SUFFIX);
+                this.doExecute(redisConnection -> redisConnection.stringCommands().set(nullValueKey, NULL_VALUE_MARKER,
+                        Expiration.milliseconds(nullValueMillis), RedisStringCommands.SetOption.UPSERT));
+            }
+            return null;
+        }
+        if (timeout > 0) {
+            this.set(key, loaded, timeout, unit);
+        } else {
+            this.set(key, loaded);
+        }
+        if (Objects.nonNull(refreshAhead)) {
+            refreshAhead.recordLoad(key, System.nanoTime() - start, timeout, unit);
+        }
+        return loaded;
+    }
+
+    private V loadWithOptionalLease(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        return loadLeaseMillis > 0 ? this.loadWithLease(key, loader, timeout, unit)
+                : this.load(key, loader, timeout, unit);
+    }
+
+    /**
+     * 抢占分布式租约后再加载，未抢到时轮询等待持有者写入缓存。
+     * 持有者加载失败会释放租约，持有者宕机时租约自然过期，等待方随后抢到租约自行加载。
+     *
+     * @param key     缓存键
+     * @param loader  加载函数
+     * @param timeout 过期时间，小于等于0时不过期
+     * @param unit    时间单位
+     * @return 缓存值
+     */
+    private V loadWithLease(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        byte[] leaseKey = this.suffixKey(key, LEASE_KEY_SUFFIX);
+        byte[] token = UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8);
+        long deadline = System.currentTimeMillis() + loadLeaseMillis;
+        while (!this.tryAcquireLease(leaseKey, token)) {
+            if (System.currentTimeMillis() >= deadline || !this.sleep(loadLeaseRetryMillis)) {
+                // 等待超时或线程被中断，放弃协调直接加载
+                return this.load(key, loader, timeout, unit);
+            }
+            V cached = this.get(key);
+            if (Objects.nonNull(cached)) {
+                return cached;
+            }
+            if (this.isNullValueCached(key)) {
+                // 持有者加载结果为空
+                return null;
+            }
+        }
+        try {
+            return this.load(key, loader, timeout, unit);
+        } finally {
+            this.releaseLease(leaseKey, token);
+        }
+    }
+
+    private boolean tryAcquireLease(byte[] leaseKey, byte[] token) {
+        Boolean acquired = this.doExecute(redisConnection -> redisConnection.stringCommands().set(leaseKey, token,
+                Expiration.milliseconds(loadLeaseMillis), RedisStringCommands.SetOption.SET_IF_ABSENT));
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    private void releaseLease(byte[] leaseKey, byte[] token) {
+        this.doExecute(redisConnection -> redisConnection.scriptingCommands()
+                .eval(RELEASE_LEASE_SCRIPT, ReturnType.INTEGER, 1, leaseKey, token));
+    }
+
+    private byte[] suffixKey(K key, byte[] suffix) {
+        return this.suffixKey(this.rawKey(key), suffix);
+    }
+
+    private byte[] suffixKey(byte[] rawKey, byte[] suffix) {
+        byte[] suffixKey = Arrays.copyOf(rawKey, rawKey.length + suffix.length);
+        System.arraycopy(suffix, 0, suffixKey, rawKey.length, suffix.length);
+        return suffixKey;
+    }
+
+    private boolean isNullValueCached(K key) {
+        if (nullValueMillis <= 0) {
+            return false;
+        }
+        byte[] nullValueKey = this.suffixKey(key, NULL_VALUE_KEY_SUFFIX);
+        Boolean exists = this.doExecute(redisConnection -> redisConnection.keyCommands().exists(nullValueKey));
+        return Boolean.TRUE.equals(exists);
+    }
+
+    /**
+     * 删除键及其空值标记
+     *
+     * @param keys 序列化后的缓存键
+     */
+    private void deleteWithNullValues(Collection<byte[]> keys) {
+        byte[][] rawKeys = new byte[keys.size() * 2][];
+        int i = 0;
+        for (byte[] key : keys) {
+            rawKeys[i++] = key;
+            rawKeys[i++] = this.suffixKey(key, NULL_VALUE_KEY_SUFFIX);
+        }
+        this.doExecute(redisConnection -> redisConnection.keyCommands().del(rawKeys));
+    }
+
+    /**
+     * 写入值，并在同一个 pipeline 中删除空值标记
+     *
+     * @param rawKey     序列化后的缓存键
+     * @param rawValue   序列化后的缓存值
+     * @param expiration 过期时间
+     */
+    private void setWithNullValue(byte[] rawKey, byte[] rawValue, Expiration expiration) {
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.stringCommands().set(rawKey, rawValue, expiration, RedisStringCommands.SetOption.UPSERT);
+            connection.keyCommands().del(this.suffixKey(rawKey, NULL_VALUE_KEY_SUFFIX));
+            return null;
+        });
+    }
+
+    /**
+     * 在批量写入的 pipeline 中删除空值标记，未开启空值缓存时不执行
+     *
+     * @param connection pipeline 连接
+     * @param rawKey     序列化后的缓存键
+     */
+    private void deleteNullValue(RedisConnection connection, byte[] rawKey) {
+        if (nullValueMillis > 0) {
+            connection.keyCommands().del(this.suffixKey(rawKey, NULL_VALUE_KEY_SUFFIX));
+        }
+    }
+
+    /**
+     * 休眠指定时间
+     *
+     * @param millis 毫秒
+     * @return 被中断时返回 false
+     */
+    private boolean sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 按 LRANGE 窗口分批读取 list，读到不足一批时结束
+     */
+    private final class ListWindowIterator implements Iterator<V> {
+
+        private final K key;
+
+        private final int batchSize;
+
+        private long start;
+
+        private Iterator<V> window = Collections.emptyIterator();
+
+        private boolean exhausted;
+
+        ListWindowIterator(K key, int batchSize) {
+            this.key = key;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!window.hasNext() && !exhausted) {
+                List<V> values = listOperations.range(key, start, start + batchSize - 1);
+                if (Objects.isNull(values) || values.size() < batchSize) {
+                    exhausted = true;
+                }
+                if (Objects.nonNull(values)) {
+                    start += values.size();
+                    window = values.iterator();
+                }
+            }
+            return window.hasNext();
+        }
+
+        @Override
+        public V next() {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return window.next();
+        }
+    }
 }
@@ -0,0 +1,422 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.common.utils.LoggerUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.StatefulRedisConnectionImpl;
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.protocol.ProtocolVersion;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * redis 服务端协助的客户端缓存（CLIENT TRACKING）。在独立的 RESP3 连接上开启跟踪，
+ * 读取通过该连接完成并缓存在当前 jvm，服务端在键被修改、删除或过期时通过同一个连接推送失效消息，
+ * 收到后删除本地的值，未修改的键再次读取时不需要访问 redis，也不会读到旧值。
+ * </p>
+ * <p>
+ * 默认模式下服务端只通知当前连接读取过的键；广播模式下服务端按前缀通知所有键的修改，不记录读取过的键，
+ * 服务端内存占用与键数量无关，但会收到更多不相关的失效消息。
+ * </p>
+ * <p>
+ * 读取前先放入占位，读到的值只有在占位仍然存在时才写入本地，读取期间到达的失效消息会删除占位，
+ * 避免把失效前读到的旧值缓存下来。连接断开期间失效消息会丢失，因此断开时清空本地缓存，
+ * 重新连接后的首次读取重新开启跟踪。服务端不支持时只通过该连接读取，不做本地缓存。
+ * </p>
+ * <p>
+ * RESP2 连接上 CLIENT TRACKING 同样执行成功，但失效消息不会推送到该连接，本地的值永远不会失效，
+ * 因此连接协商的协议不是 RESP3 时同样只读取不缓存。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 20:40
+ */
+@Slf4j
+public class RedisClientSideCache implements AutoCloseable, MeterBinder {
+
+    private static final String METRIC_PREFIX = "base.framework.cache.client-tracking";
+
+    private static final String INVALIDATE = "invalidate";
+
+    /**
+     * 键不存在，服务端同样会跟踪读取过的不存在的键
+     */
+    private static final byte[] MISSING = new byte[0];
+
+    private final RedisClient client;
+
+    private final StatefulRedisConnection<byte[], byte[]> connection;
+
+    private final TrackingArgs trackingArgs;
+
+    private final Cache<ByteArrayKey, Object> local;
+
+    private final PushListener pushListener = this::onPushMessage;
+
+    private final RedisConnectionStateListener stateListener = new ConnectionStateListener();
+
+    /**
+     * 连接断开一次加一，读取前后不一致时说明期间跟踪可能已失效，读到的值不再缓存
+     */
+    private final AtomicLong epoch = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * 已开启跟踪时的 epoch，与当前 epoch 相同时跟踪有效
+     */
+    private volatile long trackedEpoch = -1;
+
+    private volatile boolean unsupported;
+
+    /**
+     * 构造函数
+     *
+     * @param client      lettuce 客户端，需使用 RESP3 协议
+     * @param broadcast   是否使用广播模式
+     * @param prefixes    广播模式下关注的键前缀，为空时关注所有键
+     * @param maximumSize 本地最多缓存的键数量
+     */
+    public RedisClientSideCache(RedisClient client, boolean broadcast, Collection<String> prefixes, long maximumSize) {
+        this(client, client.connect(ByteArrayCodec.INSTANCE), broadcast, prefixes, maximumSize);
+    }
+
+    /**
+     * 构造函数，使用已建立的连接
+     *
+     * @param client      lettuce 客户端，用于监听连接断开
+     * @param connection  跟踪使用的连接
+     * @param broadcast   是否使用广播模式
+     * @param prefixes    广播模式下关注的键前缀，为空时关注所有键
+     * @param maximumSize 本地最多缓存的键数量
+     */
+    RedisClientSideCache(RedisClient client, StatefulRedisConnection<byte[], byte[]> connection,
+                         boolean broadcast, Collection<String> prefixes, long maximumSize) {
+        this.client = client;
+        TrackingArgs args = TrackingArgs.Builder.enabled();
+        if (broadcast) {
+            args.bcast();
+            if (!prefixes.isEmpty()) {
+                args.prefixes(prefixes.toArray(new String[0]));
+            }
+        }
+        this.trackingArgs = args;
+        this.local = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+        this.connection = connection;
+        this.connection.addListener(pushListener);
+        client.addListener(stateListener);
+        ProtocolVersion protocolVersion = negotiatedProtocolVersion(connection);
+        if (protocolVersion != ProtocolVersion.RESP3) {
+            this.unsupported = true;
+            LoggerUtil.warn(log, "redis 客户端缓存需要 RESP3 协议，当前连接协议: {}，不再缓存在本地", protocolVersion);
+        }
+    }
+
+    /**
+     * 读取值，本地没有时通过跟踪连接读取并缓存
+     *
+     * @param key 缓存键
+     * @return 缓存值，不存在时返回 null
+     */
+    public byte[] get(byte[] key) {
+        Object cached = local.getIfPresent(ByteArrayKey.wrap(key));
+        if (cached instanceof byte[] value) {
+            hits.increment();
+            return value == MISSING ? null : value;
+        }
+        misses.increment();
+        // 先取 epoch 再确认跟踪，确认之后的断开都能在写入本地前发现
+        long currentEpoch = epoch.get();
+        if (!this.ensureTracking(currentEpoch)) {
+            return connection.sync().get(key);
+        }
+        ByteArrayKey localKey = ByteArrayKey.copyOf(key);
+        Object placeholder = new Object();
+        boolean owner = Objects.isNull(local.asMap().putIfAbsent(localKey, placeholder));
+        try {
+            byte[] value = connection.sync().get(key);
+            if (owner && currentEpoch == epoch.get()) {
+                local.asMap().replace(localKey, placeholder, Objects.isNull(value) ? MISSING : value);
+            }
+            return value;
+        } finally {
+            if (owner) {
+                local.asMap().remove(localKey, placeholder);
+            }
+        }
+    }
+
+    /**
+     * 批量读取，本地没有的键通过跟踪连接一次 MGET 读取并缓存
+     *
+     * @param keys 缓存键
+     * @return 与缓存键顺序一一对应的值，不存在的键对应 null
+     */
+    public List<byte[]> multiGet(List<byte[]> keys) {
+        List<byte[]> values = new ArrayList<>(keys.size());
+        List<Integer> missingIndexes = new ArrayList<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Object cached = local.getIfPresent(ByteArrayKey.wrap(keys.get(i)));
+            if (cached instanceof byte[] value) {
+                values.add(value == MISSING ? null : value);
+            } else {
+                values.add(null);
+                missingIndexes.add(i);
+            }
+        }
+        hits.add(keys.size() - missingIndexes.size());
+        misses.add(missingIndexes.size());
+        if (missingIndexes.isEmpty()) {
+            return values;
+        }
+        byte[][] missingKeys = new byte[missingIndexes.size()][];
+        for (int i = 0; i < missingKeys.length; i++) {
+            missingKeys[i] = keys.get(missingIndexes.get(i));
+        }
+        long currentEpoch = epoch.get();
+        if (!this.ensureTracking(currentEpoch)) {
+            this.fill(values, missingIndexes, connection.sync().mget(missingKeys));
+            return values;
+        }
+        ByteArrayKey[] localKeys = new ByteArrayKey[missingKeys.length];
+        Object[] placeholders = new Object[missingKeys.length];
+        for (int i = 0; i < missingKeys.length; i++) {
+            localKeys[i] = ByteArrayKey.copyOf(missingKeys[i]);
+            Object placeholder = new Object();
+            if (Objects.isNull(local.asMap().putIfAbsent(localKeys[i], placeholder))) {
+                placeholders[i] = placeholder;
+            }
+        }
+        try {
+            List<KeyValue<byte[], byte[]>> loaded = connection.sync().mget(missingKeys);
+            this.fill(values, missingIndexes, loaded);
+            if (currentEpoch == epoch.get()) {
+                for (int i = 0; i < localKeys.length; i++) {
+                    if (Objects.nonNull(placeholders[i])) {
+                        byte[] value = values.get(missingIndexes.get(i));
+                        local.asMap().replace(localKeys[i], placeholders[i], Objects.isNull(value) ? MISSING : value);
+                    }
+                }
+            }
+            return values;
+        } finally {
+            for (int i = 0; i < localKeys.length; i++) {
+                if (Objects.nonNull(placeholders[i])) {
+                    local.asMap().remove(localKeys[i], placeholders[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 删除本地的值，当前节点写入后立即调用，不等待服务端的失效消息，保证能读到自己的写入
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(byte[] key) {
+        local.invalidate(ByteArrayKey.wrap(key));
+    }
+
+    /**
+     * 清空本地缓存
+     */
+    public void invalidateAll() {
+        local.invalidateAll();
+    }
+
+    /**
+     * 本地缓存的键数量
+     *
+     * @return 键数量
+     */
+    public long localSize() {
+        return local.estimatedSize();
+    }
+
+    /**
+     * 是否已开启跟踪
+     *
+     * @return 是否已开启
+     */
+    public boolean isTracking() {
+        return trackedEpoch == epoch.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("客户端缓存请求次数")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("客户端缓存请求次数")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".invalidations", invalidations, LongAdder::sum)
+                .description("收到的服务端失效消息数")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        client.removeListener(stateListener);
+        connection.removeListener(pushListener);
+        connection.close();
+        local.invalidateAll();
+    }
+
+    /**
+     * 确保跟踪已开启，连接重建后需要重新开启
+     *
+     * @param currentEpoch 调用方读取到的 epoch
+     * @return 该 epoch 下跟踪是否有效，服务端不支持时返回 false
+     */
+    private boolean ensureTracking(long currentEpoch) {
+        if (trackedEpoch == currentEpoch) {
+            return true;
+        }
+        if (unsupported) {
+            return false;
+        }
+        synchronized (this) {
+            long latest = epoch.get();
+            if (trackedEpoch != latest && !unsupported) {
+                boolean reconnected = trackedEpoch >= 0;
+                try {
+                    if (reconnected) {
+                        // 正常情况下新连接尚未开启跟踪，先关闭可避免重复开启广播前缀时报错
+                        connection.sync().clientTracking(TrackingArgs.Builder.enabled(false));
+                    }
+                    connection.sync().clientTracking(trackingArgs);
+                    // 开启期间连接再次断开时 epoch 已变化，留给下一次读取重新开启
+                    trackedEpoch = latest;
+                } catch (RuntimeException e) {
+                    if (!reconnected) {
+                        unsupported = true;
+                        LoggerUtil.warn(log, "redis 客户端缓存开启失败，不再缓存在本地，需要 redis 6 及以上版本且使用 RESP3 协议: {}",
+                                e.getMessage(), e);
+                    } else {
+                        LoggerUtil.warn(log, "redis 客户端缓存重新开启跟踪失败: {}", e.getMessage(), e);
+                    }
+                }
+            }
+            return trackedEpoch == currentEpoch;
+        }
+    }
+
+    /**
+     * 连接实际协商的协议，服务端不支持 HELLO 时 lettuce 会降级为 RESP2
+     *
+     * @param connection 连接
+     * @return 协商的协议，无法获取时返回 null
+     */
+    private static ProtocolVersion negotiatedProtocolVersion(StatefulRedisConnection<byte[], byte[]> connection) {
+        if (connection instanceof StatefulRedisConnectionImpl<byte[], byte[]> impl) {
+            return impl.getConnectionState().getNegotiatedProtocolVersion();
+        }
+        return null;
+    }
+
+    private void fill(List<byte[]> values, List<Integer> indexes, List<KeyValue<byte[], byte[]>> loaded) {
+        for (int i = 0; i < indexes.size() && i < loaded.size(); i++) {
+            KeyValue<byte[], byte[]> keyValue = loaded.get(i);
+            values.set(indexes.get(i), keyValue.hasValue() ? keyValue.getValue() : null);
+        }
+    }
+
+    /**
+     * 处理服务端推送的失效消息，内容为被修改的键，为空时表示整个库被清空
+     *
+     * @param message 推送消息
+     */
+    private void onPushMessage(PushMessage message) {
+        if (!INVALIDATE.equals(message.getType())) {
+            return;
+        }
+        invalidations.increment();
+        List<Object> content = message.getContent(RedisClientSideCache::toBytes);
+        Object keys = content.size() > 1 ? content.get(1) : null;
+        if (keys instanceof List<?> keyList) {
+            for (Object key : keyList) {
+                if (key instanceof byte[] bytes) {
+                    local.invalidate(ByteArrayKey.wrap(bytes));
+                }
+            }
+            return;
+        }
+        local.invalidateAll();
+    }
+
+    private static byte[] toBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * 跟踪连接断开时失效消息会丢失，清空本地缓存并在下次读取时重新开启跟踪
+     */
+    private final class ConnectionStateListener implements RedisConnectionStateListener {
+
+        @Override
+        public void onRedisConnected(RedisChannelHandler<?, ?> channelHandler, SocketAddress socketAddress) {
+            // 重新连接后由下一次读取开启跟踪，不在 io 线程中执行阻塞命令
+        }
+
+        @Override
+        public void onRedisDisconnected(RedisChannelHandler<?, ?> channelHandler) {
+            if (channelHandler != connection) {
+                return;
+            }
+            epoch.incrementAndGet();
+            local.invalidateAll();
+        }
+
+        @Override
+        public void onRedisExceptionCaught(RedisChannelHandler<?, ?> channelHandler, Throwable cause) {
+            // 异常由发起命令的调用方处理
+        }
+    }
+}
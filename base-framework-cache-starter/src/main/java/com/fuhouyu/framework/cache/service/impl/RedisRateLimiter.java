@@ -0,0 +1,242 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+import com.fuhouyu.framework.cache.service.RateLimiter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * 基于 redis 的限流器，计数由各节点共享，每次获取为一次 lua 脚本调用，时间取 redis 服务端时间，不受节点时钟偏差影响。
+ * 令牌桶以 GCRA 实现，每个键是一个保存理论到达时间的字符串；滑动窗口日志每个键是一个有序集合，每个许可一个成员。
+ * 脚本在 TIME 之后写入数据，需要 redis 5 及以上版本（默认按效果复制脚本）。
+ * </p>
+ * <p>
+ * 开启本地预获取后，向 redis 获取许可时一次最多获取 leasePermits 个，多出的部分在本地保存 leaseTime，
+ * 期间的获取先在本地扣减，用完或过期后再访问 redis，以减少热点键上的网络往返。
+ * 预获取的许可在 redis 中已被扣减，过期未用完的部分作废，各节点的配额也不再均等，
+ * 因此 leasePermits 应远小于许可数。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+public final class RedisRateLimiter implements RateLimiter {
+
+    private final Function<byte[], RedisConnectionFactory> connectionFactoryResolver;
+
+    private final String keyPrefix;
+
+    private final RateLimiterAlgorithmEnum algorithm;
+
+    private final long permits;
+
+    private final Duration period;
+
+    private final long leasePermits;
+
+    private final Cache<String, AtomicLong> leases;
+
+    private final String memberPrefix = UUID.randomUUID() + ":";
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param connectionFactoryResolver 按键选择连接工厂，分片模式下选择键所属的节点
+     * @param keyPrefix                 键前缀，限流的键追加在其后
+     * @param algorithm                 限流算法
+     * @param permits                   每个周期的许可数
+     * @param period                    周期
+     * @param leasePermits              本地预获取的许可数，小于等于1时不预获取
+     * @param leaseTime                 预获取的许可在本地的有效期
+     * @param maximumKeys               本地最多保存预获取许可的键数量
+     */
+    public RedisRateLimiter(Function<byte[], RedisConnectionFactory> connectionFactoryResolver,
+                            String keyPrefix,
+                            RateLimiterAlgorithmEnum algorithm,
+                            long permits,
+                            Duration period,
+                            long leasePermits,
+                            Duration leaseTime,
+                            long maximumKeys) {
+        this(connectionFactoryResolver, keyPrefix, algorithm, permits, period, leasePermits, leaseTime, maximumKeys,
+                Ticker.systemTicker());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param connectionFactoryResolver 按键选择连接工厂，分片模式下选择键所属的节点
+     * @param keyPrefix                 键前缀，限流的键追加在其后
+     * @param algorithm                 限流算法
+     * @param permits                   每个周期的许可数
+     * @param period                    周期
+     * @param leasePermits              本地预获取的许可数，小于等于1时不预获取
+     * @param leaseTime                 预获取的许可在本地的有效期
+     * @param maximumKeys               本地最多保存预获取许可的键数量
+     * @param ticker                    预获取许可的有效期使用的时钟（纳秒）
+     */
+    public RedisRateLimiter(Function<byte[], RedisConnectionFactory> connectionFactoryResolver,
+                            String keyPrefix,
+                            RateLimiterAlgorithmEnum algorithm,
+                            long permits,
+                            Duration period,
+                            long leasePermits,
+                            Duration leaseTime,
+                            long maximumKeys,
+                            Ticker ticker) {
+        this.connectionFactoryResolver = connectionFactoryResolver;
+        this.keyPrefix = keyPrefix;
+        this.algorithm = algorithm;
+        this.permits = permits;
+        this.period = period;
+        this.leasePermits = Math.min(leasePermits, permits);
+        this.leases = this.leasePermits > 1 ? Caffeine.newBuilder()
+                .expireAfterWrite(leaseTime)
+                .maximumSize(maximumKeys)
+                .ticker(ticker)
+                .build() : null;
+    }
+
+    @Override
+    public boolean tryAcquire(String key, int permits) {
+        AbstractRateLimiterFactory.checkPermits(permits);
+        if (permits > this.permits) {
+            return false;
+        }
+        if (Objects.isNull(leases)) {
+            return this.acquire(key, permits, permits) > 0;
+        }
+        AtomicLong lease = leases.getIfPresent(key);
+        if (Objects.nonNull(lease) && take(lease, permits)) {
+            return true;
+        }
+        long granted = this.acquire(key, permits, Math.max(permits, leasePermits));
+        if (granted <= 0) {
+            return false;
+        }
+        if (granted > permits) {
+            // 并发预获取的剩余许可累加到同一个租约上，直接覆盖会丢掉其它线程已经从 redis 取走的许可。
+            // 已存在的租约只累加不重新写入，保持其原有的有效期，避免持续预获取的键一直不过期
+            AtomicLong current = leases.asMap().putIfAbsent(key, new AtomicLong(granted - permits));
+            if (Objects.nonNull(current)) {
+                current.addAndGet(granted - permits);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public RateLimiterAlgorithmEnum algorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public long permits() {
+        return permits;
+    }
+
+    @Override
+    public Duration period() {
+        return period;
+    }
+
+    /**
+     * 向 redis 获取许可
+     *
+     * @param key        限流的键
+     * @param minPermits 最少获取的许可数
+     * @param maxPermits 最多获取的许可数
+     * @return 实际获取的许可数，不足最少许可数时返回0
+     */
+    private long acquire(String key, long minPermits, long maxPermits) {
+        long periodMicros = Math.max(1, period.toNanos() / 1000);
+        byte[] rawKey = (keyPrefix + key).getBytes(StandardCharsets.UTF_8);
+        if (algorithm == RateLimiterAlgorithmEnum.TOKEN_BUCKET) {
+            return this.eval(CacheScripts.TOKEN_BUCKET_SCRIPT, rawKey,
+                    Math.max(1, periodMicros / permits), periodMicros, minPermits, maxPermits);
+        }
+        return this.eval(CacheScripts.SLIDING_WINDOW_SCRIPT, rawKey, periodMicros, permits, minPermits, maxPermits,
+                memberPrefix + sequence.incrementAndGet() + ":");
+    }
+
+    /**
+     * 执行脚本，优先使用 EVALSHA
+     *
+     * @param script 脚本
+     * @param rawKey 键
+     * @param args   参数
+     * @return 脚本的返回值
+     */
+    private long eval(RedisScript<Long> script, byte[] rawKey, Object... args) {
+        byte[][] keysAndArgs = new byte[args.length + 1][];
+        keysAndArgs[0] = rawKey;
+        for (int i = 0; i < args.length; i++) {
+            keysAndArgs[i + 1] = String.valueOf(args[i]).getBytes(StandardCharsets.UTF_8);
+        }
+        try (RedisConnection connection = connectionFactoryResolver.apply(rawKey).getConnection()) {
+            RedisScriptingCommands scriptingCommands = connection.scriptingCommands();
+            Long result;
+            try {
+                result = scriptingCommands.evalSha(script.getSha1(), ReturnType.INTEGER, 1, keysAndArgs);
+            } catch (RuntimeException e) {
+                if (!CacheScripts.isNoScriptError(e)) {
+                    throw e;
+                }
+                result = scriptingCommands.eval(script.getScriptAsString().getBytes(StandardCharsets.UTF_8),
+                        ReturnType.INTEGER, 1, keysAndArgs);
+            }
+            return Objects.isNull(result) ? 0 : result;
+        }
+    }
+
+    /**
+     * 从本地预获取的许可中扣减
+     *
+     * @param lease   剩余的许可
+     * @param permits 扣减的许可数
+     * @return 是否扣减成功
+     */
+    private static boolean take(AtomicLong lease, int permits) {
+        while (true) {
+            long remaining = lease.get();
+            if (remaining < permits) {
+                return false;
+            }
+            if (lease.compareAndSet(remaining, remaining - permits)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+import com.fuhouyu.framework.cache.service.RateLimiter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * <p>
+ * redis 限流器工厂，限流的键为前缀加限流器名称加键
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+public class RedisRateLimiterFactory extends AbstractRateLimiterFactory {
+
+    private final Function<byte[], RedisConnectionFactory> connectionFactoryResolver;
+
+    private final String keyPrefix;
+
+    private final long leasePermits;
+
+    private final Duration leaseTime;
+
+    private final long maximumKeys;
+
+    /**
+     * 构造函数
+     *
+     * @param connectionFactoryResolver 按限流的键选择连接工厂，分片模式下选择键所属的节点
+     * @param keyPrefix                 键前缀
+     * @param algorithm                 默认的限流算法
+     * @param permits                   默认每个周期的许可数
+     * @param period                    默认的周期
+     * @param leasePermits              本地预获取的许可数，小于等于1时不预获取
+     * @param leaseTime                 预获取的许可在本地的有效期
+     * @param maximumKeys               每个限流器本地最多保存预获取许可的键数量
+     */
+    public RedisRateLimiterFactory(Function<byte[], RedisConnectionFactory> connectionFactoryResolver,
+                                   String keyPrefix,
+                                   RateLimiterAlgorithmEnum algorithm,
+                                   long permits,
+                                   Duration period,
+                                   long leasePermits,
+                                   Duration leaseTime,
+                                   long maximumKeys) {
+        super(algorithm, permits, period);
+        this.connectionFactoryResolver = connectionFactoryResolver;
+        this.keyPrefix = keyPrefix;
+        this.leasePermits = leasePermits;
+        this.leaseTime = leaseTime;
+        this.maximumKeys = maximumKeys;
+    }
+
+    @Override
+    protected RateLimiter create(String name, RateLimiterAlgorithmEnum algorithm, long permits, Duration period) {
+        return new RedisRateLimiter(connectionFactoryResolver, keyPrefix + name + ":", algorithm, permits, period,
+                leasePermits, leaseTime, maximumKeys);
+    }
+}
@@ -0,0 +1,402 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.model.CacheInvalidationMessage;
+import com.fuhouyu.framework.common.utils.LoggerUtil;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>
+ * 基于 redis stream 的跨节点失效通知。与 pub/sub 不同，通知保存在 stream 中，
+ * 每个节点记录自己读取到的位置，断线重连后从该位置继续读取，补齐断线期间错过的通知。
+ * </p>
+ * <p>
+ * 每条通知带有连续的序号，读到的序号不连续时说明错过的通知已被 stream 的长度上限裁剪，
+ * 此时无法逐个补齐，改为清空所有订阅方的本地缓存。每次读取最多 batchSize 条通知，
+ * 按主题合并后一次性交给订阅方。多个多级缓存可共用一个 stream，以主题区分。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:00
+ */
+@Slf4j
+public class RedisStreamInvalidationBus implements AutoCloseable, MeterBinder {
+
+    private static final String METRIC_PREFIX = "base.framework.cache.invalidation-stream";
+
+    private static final String FIELD_SEQ = "seq";
+
+    private static final String FIELD_TOPIC = "topic";
+
+    private static final String FIELD_BODY = "body";
+
+    /**
+     * stream 为空时的起始位置
+     */
+    private static final String INITIAL_ID = "0-0";
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final byte[] streamKey;
+
+    private final byte[] maxLength;
+
+    private final int batchSize;
+
+    private final Duration pollTimeout;
+
+    private final long retryIntervalMillis;
+
+    private final RedisSerializer<CacheInvalidationMessage> messageSerializer =
+            new Jackson2JsonRedisSerializer<>(CacheInvalidationMessage.class);
+
+    private final ConcurrentMap<String, Listener> listeners = new ConcurrentHashMap<>();
+
+    private final LongAdder published = new LongAdder();
+
+    private final LongAdder received = new LongAdder();
+
+    private final LongAdder gaps = new LongAdder();
+
+    private final Thread pollThread;
+
+    private volatile boolean running;
+
+    /**
+     * 已读取的最后一条通知的 id，只在读取线程中访问
+     */
+    private String lastId;
+
+    /**
+     * 已读取的最后一条通知的序号，小于0时表示未知，只在读取线程中访问
+     */
+    private long lastSeq = -1;
+
+    /**
+     * 构造函数
+     *
+     * @param connectionFactory redis连接工厂
+     * @param streamKey         保存失效通知的 stream
+     * @param maxLength         stream 的近似最大长度，超出后裁剪最早的通知
+     * @param batchSize         每次读取的最大通知数
+     * @param pollTimeout       每次阻塞读取的最长等待时间
+     * @param retryInterval     读取失败后的重试间隔
+     */
+    public RedisStreamInvalidationBus(RedisConnectionFactory connectionFactory,
+                                      String streamKey,
+                                      long maxLength,
+                                      int batchSize,
+                                      Duration pollTimeout,
+                                      Duration retryInterval) {
+        Assert.isTrue(maxLength > 0, "maxLength 必须大于0");
+        Assert.isTrue(batchSize > 0, "batchSize 必须大于0");
+        this.connectionFactory = connectionFactory;
+        this.streamKey = streamKey.getBytes(StandardCharsets.UTF_8);
+        this.maxLength = Long.toString(maxLength).getBytes(StandardCharsets.UTF_8);
+        this.batchSize = batchSize;
+        this.pollTimeout = pollTimeout;
+        this.retryIntervalMillis = retryInterval.toMillis();
+        this.pollThread = new Thread(this::poll, "cache-invalidation-stream");
+        this.pollThread.setDaemon(true);
+    }
+
+    /**
+     * 启动读取线程
+     */
+    public void start() {
+        running = true;
+        pollThread.start();
+    }
+
+    /**
+     * 订阅主题的失效通知，同一主题只保留最后一个订阅方
+     *
+     * @param topic    主题
+     * @param listener 订阅方
+     */
+    public void subscribe(String topic, Listener listener) {
+        listeners.put(topic, listener);
+    }
+
+    /**
+     * 发布失效通知，发布失败时其它节点依赖本地缓存的过期时间兜底
+     *
+     * @param topic   主题
+     * @param rawKeys 序列化后的缓存键
+     */
+    public void publish(String topic, List<byte[]> rawKeys) {
+        byte[] body = messageSerializer.serialize(
+                new CacheInvalidationMessage(nodeId, System.currentTimeMillis(), rawKeys));
+        byte[][] keysAndArgs = {streamKey, maxLength, topic.getBytes(StandardCharsets.UTF_8), body};
+        RedisScript<Long> script = CacheScripts.XADD_INVALIDATION_SCRIPT;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            RedisScriptingCommands scriptingCommands = connection.scriptingCommands();
+            try {
+                scriptingCommands.evalSha(script.getSha1(), ReturnType.INTEGER, 1, keysAndArgs);
+            } catch (RuntimeException e) {
+                if (!CacheScripts.isNoScriptError(e)) {
+                    throw e;
+                }
+                scriptingCommands.eval(script.getScriptAsString().getBytes(StandardCharsets.UTF_8),
+                        ReturnType.INTEGER, 1, keysAndArgs);
+            }
+            published.increment();
+        } catch (Exception e) {
+            LoggerUtil.warn(log, "缓存失效通知写入 stream 失败: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        pollThread.interrupt();
+        pollThread.join(pollTimeout.toMillis() + retryIntervalMillis);
+    }
+
+    // ===== Metrics =====
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".published", published, LongAdder::sum)
+                .description("当前节点写入的失效通知数")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".received", received, LongAdder::sum)
+                .description("收到的其它节点失效通知数")
+                .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".gaps", gaps, LongAdder::sum)
+                .description("通知被裁剪而清空本地缓存的次数")
+                .register(registry);
+    }
+
+    // ===== Poll =====
+
+    /**
+     * 读取线程，连接异常时关闭连接，间隔一段时间后从上次读取的位置重新读取
+     */
+    private void poll() {
+        RedisConnection connection = null;
+        boolean failed = false;
+        while (running) {
+            try {
+                if (Objects.isNull(connection)) {
+                    connection = connectionFactory.getConnection();
+                }
+                if (Objects.isNull(lastId)) {
+                    this.initOffset(connection);
+                }
+                List<ByteRecord> records = connection.streamCommands().xRead(
+                        StreamReadOptions.empty().count(batchSize).block(pollTimeout),
+                        StreamOffset.create(streamKey, ReadOffset.from(lastId)));
+                if (failed) {
+                    failed = false;
+                    LoggerUtil.info(log, "缓存失效通知 stream 恢复读取，从 {} 继续", lastId);
+                }
+                if (Objects.nonNull(records) && !records.isEmpty()) {
+                    this.dispatch(records);
+                }
+            } catch (Exception e) {
+                this.closeQuietly(connection);
+                connection = null;
+                if (!running) {
+                    break;
+                }
+                if (!failed) {
+                    failed = true;
+                    LoggerUtil.warn(log, "缓存失效通知 stream 读取失败，{} 毫秒后重试: {}",
+                            retryIntervalMillis, e.getMessage(), e);
+                }
+                try {
+                    TimeUnit.MILLISECONDS.sleep(retryIntervalMillis);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        this.closeQuietly(connection);
+    }
+
+    /**
+     * 首次读取时从 stream 当前最后一条通知之后开始，启动前的通知与本节点无关，只在读取线程中调用
+     *
+     * @param connection redis连接
+     */
+    void initOffset(RedisConnection connection) {
+        List<ByteRecord> last = connection.streamCommands().xRevRange(streamKey, Range.unbounded(),
+                Limit.limit().count(1));
+        if (Objects.isNull(last) || last.isEmpty()) {
+            lastId = INITIAL_ID;
+            return;
+        }
+        lastId = last.get(0).getId().getValue();
+        lastSeq = this.parseSeq(this.field(last.get(0), FIELD_SEQ));
+    }
+
+    /**
+     * 处理一次读取到的通知，按主题合并后交给订阅方；序号不连续时清空所有订阅方的本地缓存，只在读取线程中调用
+     *
+     * @param records 读取到的通知
+     */
+    void dispatch(List<ByteRecord> records) {
+        boolean gap = false;
+        Map<String, Batch> batches = new HashMap<>();
+        for (ByteRecord record : records) {
+            long seq = this.parseSeq(this.field(record, FIELD_SEQ));
+            if (lastSeq >= 0 && seq >= 0 && seq != lastSeq + 1) {
+                gap = true;
+            }
+            lastSeq = seq;
+            lastId = record.getId().getValue();
+            if (gap) {
+                continue;
+            }
+            byte[] topic = this.field(record, FIELD_TOPIC);
+            CacheInvalidationMessage message;
+            try {
+                message = messageSerializer.deserialize(this.field(record, FIELD_BODY));
+            } catch (Exception e) {
+                LoggerUtil.warn(log, "缓存失效通知解析失败: {}", e.getMessage(), e);
+                continue;
+            }
+            if (Objects.isNull(topic) || Objects.isNull(message) || nodeId.equals(message.getNodeId())) {
+                continue;
+            }
+            received.increment();
+            batches.computeIfAbsent(new String(topic, StandardCharsets.UTF_8), ignored -> new Batch())
+                    .add(message);
+        }
+        if (gap) {
+            gaps.increment();
+            LoggerUtil.warn(log, "缓存失效通知已被裁剪，无法补齐，清空本地缓存，当前位置: {}", lastId);
+            listeners.values().forEach(this::invalidateAll);
+            return;
+        }
+        batches.forEach((topic, batch) -> {
+            Listener listener = listeners.get(topic);
+            if (Objects.nonNull(listener)) {
+                try {
+                    listener.onInvalidation(new CacheInvalidationMessage(null, batch.timestamp, batch.keys));
+                } catch (RuntimeException e) {
+                    LoggerUtil.warn(log, "缓存失效通知处理失败: {}", e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    private void invalidateAll(Listener listener) {
+        try {
+            listener.onInvalidateAll();
+        } catch (RuntimeException e) {
+            LoggerUtil.warn(log, "清空本地缓存失败: {}", e.getMessage(), e);
+        }
+    }
+
+    private byte[] field(ByteRecord record, String name) {
+        byte[] rawName = name.getBytes(StandardCharsets.UTF_8);
+        for (Map.Entry<byte[], byte[]> entry : record.getValue().entrySet()) {
+            if (Arrays.equals(rawName, entry.getKey())) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    private long parseSeq(byte[] rawSeq) {
+        if (Objects.isNull(rawSeq)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(new String(rawSeq, StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void closeQuietly(RedisConnection connection) {
+        if (Objects.isNull(connection)) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (Exception e) {
+            LoggerUtil.warn(log, "关闭缓存失效通知连接失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 失效通知的订阅方
+     */
+    public interface Listener {
+
+        /**
+         * 一次读取中同一主题的通知合并后调用一次
+         *
+         * @param message 合并后的通知，时间戳为其中最早的发布时间
+         */
+        void onInvalidation(CacheInvalidationMessage message);
+
+        /**
+         * 错过的通知无法补齐，需要清空本地缓存
+         */
+        void onInvalidateAll();
+    }
+
+    /**
+     * 一次读取中同一主题的通知
+     */
+    private static final class Batch {
+
+        private final List<byte[]> keys = new ArrayList<>();
+
+        private long timestamp = Long.MAX_VALUE;
+
+        private void add(CacheInvalidationMessage message) {
+            if (Objects.nonNull(message.getKeys())) {
+                keys.addAll(message.getKeys());
+            }
+            timestamp = Math.min(timestamp, message.getTimestamp());
+        }
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.common.utils.LoggerUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 提前刷新，基于概率的提前重算（XFetch）：
+ * 每次命中时以 {@code now - delta * beta * ln(random) >= expireAt} 判断是否需要刷新，
+ * 其中 delta 为上一次加载耗时。越接近过期、加载越慢，提前刷新的概率越大，
+ * 使热点键在过期前由单个请求异步刷新，而不是在过期瞬间由所有请求同时加载。
+ * </p>
+ * <p>
+ * 另外可以指定固定的刷新间隔（refresh after write），距上一次加载超过该间隔后的首次命中会触发刷新，
+ * 与过期时间无关，未指定过期时间的键也可以刷新。
+ * </p>
+ * <p>
+ * 加载耗时及过期时间记录在当前 jvm 的有界缓存中，刷新任务提交到线程池，线程池拒绝时直接放弃本次刷新。
+ * </p>
+ *
+ * @param <K> 缓存键的类型
+ * @author fuhouyu
+ * @since 2026/10/18 13:10
+ */
+@Slf4j
+public final class RefreshAhead<K> implements AutoCloseable {
+
+    private final double beta;
+
+    private final long refreshAfterWriteNanos;
+
+    private final Executor executor;
+
+    private final Cache<K, LoadStamp> stamps;
+
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 构造函数
+     *
+     * @param beta        提前刷新系数，越大越倾向于提前刷新，通常为 1
+     * @param executor    执行刷新的有界线程池
+     * @param maximumSize 最多记录的键数量
+     */
+    public RefreshAhead(double beta, Executor executor, long maximumSize) {
+        this(beta, null, executor, maximumSize);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param beta              提前刷新系数，越大越倾向于提前刷新，小于等于0时不按概率提前刷新
+     * @param refreshAfterWrite 固定刷新间隔，为 null 时不按间隔刷新
+     * @param executor          执行刷新的线程池
+     * @param maximumSize       最多记录的键数量
+     */
+    public RefreshAhead(double beta, Duration refreshAfterWrite, Executor executor, long maximumSize) {
+        this.beta = beta;
+        this.refreshAfterWriteNanos = Objects.isNull(refreshAfterWrite) ? 0 : refreshAfterWrite.toNanos();
+        this.executor = executor;
+        this.stamps = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .build();
+    }
+
+    /**
+     * 记录一次加载
+     *
+     * @param key          缓存键
+     * @param computeNanos 加载耗时（纳秒）
+     * @param timeout      写入的过期时间，小于等于0时不过期，只参与固定间隔刷新
+     * @param unit         时间单位
+     */
+    public void recordLoad(K key, long computeNanos, long timeout, TimeUnit unit) {
+        long now = System.nanoTime();
+        long expireAtNanos = timeout > 0 ? now + unit.toNanos(timeout) : Long.MAX_VALUE;
+        if (expireAtNanos == Long.MAX_VALUE && refreshAfterWriteNanos <= 0) {
+            stamps.invalidate(key);
+            return;
+        }
+        stamps.put(key, new LoadStamp(computeNanos, now, expireAtNanos));
+    }
+
+    /**
+     * 缓存命中时判断是否需要提前刷新
+     *
+     * @param key 缓存键
+     * @return 是否需要提前刷新
+     */
+    public boolean shouldRefresh(K key) {
+        LoadStamp stamp = stamps.getIfPresent(key);
+        if (Objects.isNull(stamp)) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (refreshAfterWriteNanos > 0 && now - stamp.loadedAtNanos() >= refreshAfterWriteNanos) {
+            return true;
+        }
+        if (beta <= 0 || stamp.expireAtNanos() == Long.MAX_VALUE) {
+            return false;
+        }
+        // 1 - nextDouble() 取值 (0, 1]，避免 ln(0)
+        double random = 1.0d - ThreadLocalRandom.current().nextDouble();
+        double gap = -stamp.computeNanos() * beta * Math.log(random);
+        return now + gap >= stamp.expireAtNanos();
+    }
+
+    /**
+     * 异步刷新，同一个键同一时刻只会提交一次
+     *
+     * @param key    缓存键
+     * @param reload 刷新逻辑，需自行重新记录加载
+     */
+    public void refresh(K key, Runnable reload) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    reload.run();
+                } catch (RuntimeException e) {
+                    LoggerUtil.warn(log, "缓存提前刷新失败, key: {}, {}", key, e.getMessage(), e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 刷新线程池已满，等待下一次命中或自然过期后再加载
+            refreshing.remove(key);
+        }
+    }
+
+    /**
+     * 关闭刷新线程池，共享的公共线程池不受影响
+     */
+    @Override
+    public void close() {
+        if (executor instanceof ExecutorService executorService && executor != ForkJoinPool.commonPool()) {
+            executorService.shutdown();
+        }
+    }
+
+    /**
+     * 加载记录
+     *
+     * @param computeNanos  加载耗时
+     * @param loadedAtNanos 加载完成时间点
+     * @param expireAtNanos 过期时间点，不过期时为 {@link Long#MAX_VALUE}
+     */
+    private record LoadStamp(long computeNanos, long loadedAtNanos, long expireAtNanos) {
+
+    }
+}
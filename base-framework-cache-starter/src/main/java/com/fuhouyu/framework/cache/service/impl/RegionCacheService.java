@@ -0,0 +1,583 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.model.CompareAndSetResult;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
+import com.fuhouyu.framework.cache.model.VersionedValue;
+import com.fuhouyu.framework.cache.service.CacheService;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * 缓存区域的装饰器：所有键加上区域前缀，使共用同一个 redis 的区域互不冲突；
+ * 未指定过期时间的写入使用区域的默认过期时间；并统计区域的命中及未命中次数。
+ * </p>
+ * <p>
+ * 只有键会加前缀，hash 的字段不受影响；遍历返回的键会去掉前缀。
+ * hash、list、set 不带过期时间的写入同样按默认过期时间重新设置整个键的过期时间。
+ * </p>
+ *
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 19:20
+ */
+public class RegionCacheService<V> extends DelegatingCacheService<String, V> {
+
+    private final String name;
+
+    private final String keyPrefix;
+
+    private final byte[] keyPrefixBytes;
+
+    private final String keyPrefixGlob;
+
+    private final long defaultTtlMillis;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * 构造函数
+     *
+     * @param delegate   区域的缓存服务
+     * @param name       区域名称
+     * @param keyPrefix  键前缀，为空时不加前缀
+     * @param defaultTtl 默认过期时间，为 null 时不过期
+     */
+    public RegionCacheService(CacheService<String, V> delegate, String name, String keyPrefix, Duration defaultTtl) {
+        super(delegate);
+        this.name = name;
+        this.keyPrefix = Objects.isNull(keyPrefix) ? "" : keyPrefix;
+        this.keyPrefixBytes = this.keyPrefix.getBytes(StandardCharsets.UTF_8);
+        this.keyPrefixGlob = ScanSupport.escapeGlob(this.keyPrefix);
+        this.defaultTtlMillis = Objects.isNull(defaultTtl) ? 0 : defaultTtl.toMillis();
+    }
+
+    /**
+     * 区域名称
+     *
+     * @return 区域名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 键前缀
+     *
+     * @return 键前缀
+     */
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+
+    /**
+     * 命中次数，统计 get、multiGet 及 getOrLoad
+     *
+     * @return 命中次数
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * 未命中次数，统计 get、multiGet 及 getOrLoad
+     *
+     * @return 未命中次数
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    // ===== String Operations =====
+
+    @Override
+    public void set(byte[] key, byte[] value) {
+        if (defaultTtlMillis > 0) {
+            delegate.set(this.prefixed(key), value, defaultTtlMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        delegate.set(this.prefixed(key), value);
+    }
+
+    @Override
+    public void set(String key, V value) {
+        if (defaultTtlMillis > 0) {
+            delegate.set(this.prefixed(key), value, defaultTtlMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        delegate.set(this.prefixed(key), value);
+    }
+
+    @Override
+    public void set(String key, V value, long timeout, TimeUnit unit) {
+        delegate.set(this.prefixed(key), value, timeout, unit);
+    }
+
+    @Override
+    public void set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+        delegate.set(this.prefixed(key), value, timeout, unit);
+    }
+
+    @Override
+    public V get(String key) {
+        return this.record(delegate.get(this.prefixed(key)));
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+        return this.record(delegate.get(this.prefixed(key)));
+    }
+
+    @Override
+    public void delete(String key) {
+        delegate.delete(this.prefixed(key));
+    }
+
+    @Override
+    public void delete(byte[] key) {
+        delegate.delete(this.prefixed(key));
+    }
+
+    // ===== Batch Operations =====
+
+    @Override
+    public Map<String, V> multiGet(Collection<String> keys) {
+        Map<String, String> originals = new LinkedHashMap<>(keys.size());
+        for (String key : keys) {
+            originals.put(this.prefixed(key), key);
+        }
+        Map<String, V> values = delegate.multiGet(originals.keySet());
+        Map<String, V> result = new HashMap<>(values.size());
+        values.forEach((key, value) -> result.put(originals.get(key), value));
+        hits.add(result.size());
+        misses.add(originals.size() - result.size());
+        return result;
+    }
+
+    @Override
+    public List<byte[]> multiGetBytes(List<byte[]> keys) {
+        List<byte[]> values = delegate.multiGetBytes(this.prefixedBytes(keys));
+        for (byte[] value : values) {
+            this.record(value);
+        }
+        return values;
+    }
+
+    @Override
+    public Map<String, ExpiringValue<V>> multiGetWithTtl(Collection<String> keys) {
+        Map<String, String> originals = new LinkedHashMap<>(keys.size());
+        for (String key : keys) {
+            originals.put(this.prefixed(key), key);
+        }
+        Map<String, ExpiringValue<V>> values = delegate.multiGetWithTtl(originals.keySet());
+        Map<String, ExpiringValue<V>> result = new HashMap<>(values.size());
+        values.forEach((key, value) -> result.put(originals.get(key), value));
+        hits.add(result.size());
+        misses.add(originals.size() - result.size());
+        return result;
+    }
+
+    @Override
+    public List<ExpiringValue<byte[]>> multiGetBytesWithTtl(List<byte[]> keys) {
+        List<ExpiringValue<byte[]>> values = delegate.multiGetBytesWithTtl(this.prefixedBytes(keys));
+        for (ExpiringValue<byte[]> value : values) {
+            this.record(value);
+        }
+        return values;
+    }
+
+    @Override
+    public void multiSet(Map<String, V> map, long timeout, TimeUnit unit) {
+        Map<String, V> prefixed = new LinkedHashMap<>(map.size());
+        map.forEach((key, value) -> prefixed.put(this.prefixed(key), value));
+        if (timeout <= 0 && defaultTtlMillis > 0) {
+            delegate.multiSet(prefixed, defaultTtlMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        delegate.multiSet(prefixed, timeout, unit);
+    }
+
+    @Override
+    public void multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+        Map<byte[], byte[]> prefixed = new LinkedHashMap<>(map.size());
+        map.forEach((key, value) -> prefixed.put(this.prefixed(key), value));
+        if (timeout <= 0 && defaultTtlMillis > 0) {
+            delegate.multiSetBytes(prefixed, defaultTtlMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        delegate.multiSetBytes(prefixed, timeout, unit);
+    }
+
+    @Override
+    public void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries) {
+        Map<byte[], ExpiringValue<byte[]>> prefixed = new LinkedHashMap<>(entries.size());
+        entries.forEach((key, value) -> {
+            long ttlMillis = value.getTtlMillis();
+            prefixed.put(this.prefixed(key), ttlMillis <= 0 && defaultTtlMillis > 0
+                    ? new ExpiringValue<>(value.getValue(), defaultTtlMillis) : value);
+        });
+        delegate.multiSetBytesWithTtl(prefixed);
+    }
+
+    @Override
+    public void multiDelete(Collection<String> keys) {
+        delegate.multiDelete(this.prefixed(keys));
+    }
+
+    @Override
+    public void multiDeleteBytes(Collection<byte[]> keys) {
+        delegate.multiDeleteBytes(this.prefixedBytes(keys));
+    }
+
+    @Override
+    public V getOrLoad(String key, Function<? super String, ? extends V> loader, long timeout, TimeUnit unit) {
+        boolean[] loaded = new boolean[1];
+        Function<String, V> regionLoader = ignored -> {
+            loaded[0] = true;
+            return loader.apply(key);
+        };
+        V value = timeout <= 0 && defaultTtlMillis > 0
+                ? delegate.getOrLoad(this.prefixed(key), regionLoader, defaultTtlMillis, TimeUnit.MILLISECONDS)
+                : delegate.getOrLoad(this.prefixed(key), regionLoader, timeout, unit);
+        if (loaded[0]) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    // ===== Hash Operations =====
+
+    @Override
+    public void putHash(String key, String hashKey, V value) {
+        if (defaultTtlMillis > 0) {
+            delegate.putHash(this.prefixed(key), hashKey, value, defaultTtlMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        delegate.putHash(this.prefixed(key), hashKey, value);
+    }
+
+    @Override
+    public void putHash(String key, String hashKey, V value, long timeout, TimeUnit unit) {
+        delegate.putHash(this.prefixed(key), hashKey, value, timeout, unit);
+    }
+
+    @Override
+    public V getHash(String key, String hashKey) {
+        return delegate.getHash(this.prefixed(key), hashKey);
+    }
+
+    @Override
+    public void deleteHash(String key, String hashKey) {
+        delegate.deleteHash(this.prefixed(key), hashKey);
+    }
+
+    @Override
+    public Map<String, V> getHashAll(String key) {
+        return delegate.getHashAll(this.prefixed(key));
+    }
+
+    @Override
+    public void putHashAll(String key, Map<String, V> map) {
+        if (defaultTtlMillis > 0) {
+            delegate.putHashAll(this.prefixed(key), map, defaultTtlMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        delegate.putHashAll(this.prefixed(key), map);
+    }
+
+    @Override
+    public void putHashAll(String key, Map<String, V> map, long timeout, TimeUnit unit) {
+        delegate.putHashAll(this.prefixed(key), map, timeout, unit);
+    }
+
+    // ===== List Operations =====
+
+    @Override
+    public void pushToList(String key, V value) {
+        if (defaultTtlMillis > 0) {
+            delegate.pushToList(this.prefixed(key), value, defaultTtlMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        delegate.pushToList(this.prefixed(key), value);
+    }
+
+    @Override
+    public void pushToList(String key, V value, long timeout, TimeUnit unit) {
+        delegate.pushToList(this.prefixed(key), value, timeout, unit);
+    }
+
+    @Override
+    public V popFromList(String key) {
+        return delegate.popFromList(this.prefixed(key));
+    }
+
+    @Override
+    public List<V> getList(String key) {
+        return delegate.getList(this.prefixed(key));
+    }
+
+    // ===== Set Operations =====
+
+    @Override
+    public void addToSet(String key, V value) {
+        if (defaultTtlMillis > 0) {
+            delegate.addToSet(this.prefixed(key), value, defaultTtlMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        delegate.addToSet(this.prefixed(key), value);
+    }
+
+    @Override
+    public void addToSet(String key, V value, long timeout, TimeUnit unit) {
+        delegate.addToSet(this.prefixed(key), value, timeout, unit);
+    }
+
+    @Override
+    public Set<V> getSet(String key) {
+        return delegate.getSet(this.prefixed(key));
+    }
+
+    @Override
+    public void removeFromSet(String key, V value) {
+        delegate.removeFromSet(this.prefixed(key), value);
+    }
+
+    // ===== Counter Operations =====
+
+    @Override
+    public long increment(String key, long delta) {
+        if (defaultTtlMillis > 0) {
+            return delegate.increment(this.prefixed(key), delta, defaultTtlMillis, TimeUnit.MILLISECONDS);
+        }
+        return delegate.increment(this.prefixed(key), delta);
+    }
+
+    @Override
+    public long increment(String key, long delta, long timeout, TimeUnit unit) {
+        return delegate.increment(this.prefixed(key), delta, timeout, unit);
+    }
+
+    @Override
+    public long getCounter(String key) {
+        return delegate.getCounter(this.prefixed(key));
+    }
+
+    // ===== Sorted Set Operations =====
+
+    @Override
+    public void addToSortedSet(String key, V value, double score) {
+        if (defaultTtlMillis > 0) {
+            delegate.addToSortedSet(this.prefixed(key), value, score, defaultTtlMillis, TimeUnit.MILLISECONDS);
+            return;
+        }
+        delegate.addToSortedSet(this.prefixed(key), value, score);
+    }
+
+    @Override
+    public void addToSortedSet(String key, V value, double score, long timeout, TimeUnit unit) {
+        delegate.addToSortedSet(this.prefixed(key), value, score, timeout, unit);
+    }
+
+    @Override
+    public double incrementScore(String key, V value, double delta) {
+        return delegate.incrementScore(this.prefixed(key), value, delta);
+    }
+
+    @Override
+    public Double getScore(String key, V value) {
+        return delegate.getScore(this.prefixed(key), value);
+    }
+
+    @Override
+    public Long rankInSortedSet(String key, V value) {
+        return delegate.rankInSortedSet(this.prefixed(key), value);
+    }
+
+    @Override
+    public Long reverseRankInSortedSet(String key, V value) {
+        return delegate.reverseRankInSortedSet(this.prefixed(key), value);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> rangeSortedSet(String key, long start, long end) {
+        return delegate.rangeSortedSet(this.prefixed(key), start, end);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> reverseRangeSortedSet(String key, long start, long end) {
+        return delegate.reverseRangeSortedSet(this.prefixed(key), start, end);
+    }
+
+    @Override
+    public void removeFromSortedSet(String key, V value) {
+        delegate.removeFromSortedSet(this.prefixed(key), value);
+    }
+
+    @Override
+    public long sortedSetSize(String key) {
+        return delegate.sortedSetSize(this.prefixed(key));
+    }
+
+    // ===== HyperLogLog Operations =====
+
+    @Override
+    public boolean addToHyperLogLog(String key, Collection<V> values) {
+        return delegate.addToHyperLogLog(this.prefixed(key), values);
+    }
+
+    @Override
+    public long countHyperLogLog(String key) {
+        return delegate.countHyperLogLog(this.prefixed(key));
+    }
+
+    @Override
+    public long countHyperLogLog(Collection<String> keys) {
+        return delegate.countHyperLogLog(this.prefixed(keys));
+    }
+
+    // ===== Versioned Operations =====
+
+    @Override
+    public VersionedValue<V> getVersioned(String key) {
+        return delegate.getVersioned(this.prefixed(key));
+    }
+
+    @Override
+    public CompareAndSetResult<V> compareAndSet(String key, long expectedVersion, V newValue,
+                                                long timeout, TimeUnit unit) {
+        if (timeout <= 0 && defaultTtlMillis > 0) {
+            return delegate.compareAndSet(this.prefixed(key), expectedVersion, newValue,
+                    defaultTtlMillis, TimeUnit.MILLISECONDS);
+        }
+        return delegate.compareAndSet(this.prefixed(key), expectedVersion, newValue, timeout, unit);
+    }
+
+    // ===== Common Operations =====
+
+    @Override
+    public boolean exists(String key) {
+        return delegate.exists(this.prefixed(key));
+    }
+
+    @Override
+    public void expire(String key, long timeout) {
+        delegate.expire(this.prefixed(key), timeout);
+    }
+
+    @Override
+    public void expire(String key, long timeout, TimeUnit unit) {
+        delegate.expire(this.prefixed(key), timeout, unit);
+    }
+
+    @Override
+    public long size(String key) {
+        return delegate.size(this.prefixed(key));
+    }
+
+    @Override
+    public void deleteMultiple(Set<String> keys) {
+        delegate.deleteMultiple(new LinkedHashSet<>(this.prefixed(keys)));
+    }
+
+    // ===== Scan Operations =====
+
+    @Override
+    public Stream<Map.Entry<String, V>> scanHash(String key, int batchSize) {
+        return delegate.scanHash(this.prefixed(key), batchSize);
+    }
+
+    @Override
+    public Stream<V> scanList(String key, int batchSize) {
+        return delegate.scanList(this.prefixed(key), batchSize);
+    }
+
+    @Override
+    public Stream<V> scanSet(String key, int batchSize) {
+        return delegate.scanSet(this.prefixed(key), batchSize);
+    }
+
+    @Override
+    public Stream<String> scanKeys(String pattern, int batchSize) {
+        return delegate.scanKeys(keyPrefixGlob + pattern, batchSize)
+                .map(key -> key.startsWith(keyPrefix) ? key.substring(keyPrefix.length()) : key);
+    }
+
+    @Override
+    public long deleteByPattern(String pattern, int batchSize) {
+        return delegate.deleteByPattern(keyPrefixGlob + pattern, batchSize);
+    }
+
+    private String prefixed(String key) {
+        return keyPrefix.isEmpty() ? key : keyPrefix + key;
+    }
+
+    private byte[] prefixed(byte[] key) {
+        if (keyPrefixBytes.length == 0) {
+            return key;
+        }
+        byte[] prefixed = new byte[keyPrefixBytes.length + key.length];
+        System.arraycopy(keyPrefixBytes, 0, prefixed, 0, keyPrefixBytes.length);
+        System.arraycopy(key, 0, prefixed, keyPrefixBytes.length, key.length);
+        return prefixed;
+    }
+
+    private List<String> prefixed(Collection<String> keys) {
+        List<String> prefixed = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            prefixed.add(this.prefixed(key));
+        }
+        return prefixed;
+    }
+
+    private List<byte[]> prefixedBytes(Collection<byte[]> keys) {
+        List<byte[]> prefixed = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            prefixed.add(this.prefixed(key));
+        }
+        return prefixed;
+    }
+
+    private <T> T record(T value) {
+        if (Objects.isNull(value)) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+}
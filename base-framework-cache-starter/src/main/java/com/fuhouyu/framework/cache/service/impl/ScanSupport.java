@@ -0,0 +1,143 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * 遍历相关的公共方法：按批处理流中的元素，以及把 redis 的 glob 匹配规则转换为正则表达式供本地缓存使用。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 17:10
+ */
+final class ScanSupport {
+
+    private static final String REGEX_SPECIAL_CHARS = "\\.[]{}()<>*+-=!?^$|";
+
+    private static final String GLOB_SPECIAL_CHARS = "\\*?[]";
+
+    private ScanSupport() {
+    }
+
+    /**
+     * 按批处理流中的元素，处理完毕后关闭流
+     *
+     * @param stream    流
+     * @param batchSize 每批数量
+     * @param action    每批的处理逻辑，返回处理的数量
+     * @param <T>       元素类型
+     * @return 处理的总数量
+     */
+    static <T> long forEachBatch(Stream<T> stream, int batchSize, ToLongFunction<List<T>> action) {
+        Assert.isTrue(batchSize > 0, "批量大小必须大于0");
+        long total = 0;
+        try (stream) {
+            List<T> batch = new ArrayList<>(batchSize);
+            Iterator<T> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() >= batchSize) {
+                    total += action.applyAsLong(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                total += action.applyAsLong(batch);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 把 redis 的 glob 匹配规则转换为正则表达式，支持 {@code *}、{@code ?}、{@code [...]}、{@code [^...]} 及反斜杠转义
+     *
+     * @param glob glob 匹配规则
+     * @return 正则表达式
+     */
+    static Pattern compileGlob(String glob) {
+        StringBuilder regex = new StringBuilder(glob.length() + 8);
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                regex.append(".*");
+            } else if (c == '?') {
+                regex.append('.');
+            } else if (c == '\\' && i + 1 < glob.length()) {
+                appendLiteral(regex, glob.charAt(++i));
+            } else if (c == '[' && isCharClass(glob, i)) {
+                int end = glob.indexOf(']', i + 2);
+                String body = glob.substring(i + 1, end);
+                regex.append('[');
+                if (body.startsWith("^")) {
+                    regex.append('^');
+                    body = body.substring(1);
+                }
+                regex.append(body.replace("[", "\\[").replace("&", "\\&"));
+                regex.append(']');
+                i = end;
+            } else {
+                appendLiteral(regex, c);
+            }
+        }
+        return Pattern.compile(regex.toString(), Pattern.DOTALL);
+    }
+
+    /**
+     * 转义 glob 的特殊字符，使其按字面匹配，用于拼接固定的键前缀
+     *
+     * @param literal 字面值
+     * @return 转义后的 glob
+     */
+    static String escapeGlob(String literal) {
+        StringBuilder glob = new StringBuilder(literal.length() + 4);
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (GLOB_SPECIAL_CHARS.indexOf(c) >= 0) {
+                glob.append('\\');
+            }
+            glob.append(c);
+        }
+        return glob.toString();
+    }
+
+    /**
+     * 从该位置开始是否为非空的字符集合，不完整或为空时按普通字符处理
+     */
+    private static boolean isCharClass(String glob, int start) {
+        int end = glob.indexOf(']', start + 2);
+        if (end < 0) {
+            return false;
+        }
+        return !(end == start + 2 && glob.charAt(start + 1) == '^');
+    }
+
+    private static void appendLiteral(StringBuilder regex, char c) {
+        if (REGEX_SPECIAL_CHARS.indexOf(c) >= 0) {
+            regex.append('\\');
+        }
+        regex.append(c);
+    }
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.model.CompareAndSetResult;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
+import com.fuhouyu.framework.cache.model.VersionedValue;
+import com.fuhouyu.framework.cache.service.CacheService;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * 客户端分片的缓存服务，按一致性哈希把键分散到多个相互独立的 redis 节点，
+ * 每个分片是一个普通的 {@link RedisCacheService}。
+ * </p>
+ * <p>
+ * 单键操作直接转发到键所属的分片；批量操作先按分片分组，每个分片执行一次批量命令或管道，
+ * 结果按原有顺序合并。hash tag 规则与 redis cluster 一致，见 {@link ConsistentHashRing}。
+ * </p>
+ *
+ * @param <K> 缓存键的类型
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 16:20
+ */
+public class ShardedRedisCacheService<K, V> implements CacheService<K, V> {
+
+    /**
+     * 跨分片合并计数时临时键的前缀
+     */
+    private static final String HYPER_LOG_LOG_TEMP_PREFIX = "sharded:pfcount:";
+
+    /**
+     * 跨分片合并计数时临时键的过期时间（秒），删除失败时由过期清理
+     */
+    private static final long HYPER_LOG_LOG_TEMP_SECONDS = 60;
+
+    private final ConsistentHashRing<CacheService<K, V>> ring;
+
+    private final RedisSerializer<K> keySerializer;
+
+    /**
+     * 构造函数
+     *
+     * @param shards        分片名称及分片，名称决定分片在哈希环上的位置
+     * @param keySerializer 键的序列化方式，需与各分片一致
+     * @param virtualNodes  每个分片的虚拟节点数量
+     */
+    public ShardedRedisCacheService(Map<String, ? extends CacheService<K, V>> shards,
+                                    RedisSerializer<K> keySerializer,
+                                    int virtualNodes) {
+        this.ring = new ConsistentHashRing<>(new LinkedHashMap<>(shards), virtualNodes);
+        this.keySerializer = keySerializer;
+    }
+
+    /**
+     * 键所属的分片
+     *
+     * @param key 缓存键
+     * @return 分片
+     */
+    public CacheService<K, V> shardFor(K key) {
+        return ring.get(keySerializer.serialize(key));
+    }
+
+    /**
+     * 键所属的分片
+     *
+     * @param key 缓存键
+     * @return 分片
+     */
+    public CacheService<K, V> shardFor(byte[] key) {
+        return ring.get(key);
+    }
+
+    // ===== String Operations =====
+
+    @Override
+    public void set(byte[] key, byte[] value) {
+        this.shardFor(key).set(key, value);
+    }
+
+    @Override
+    public void set(K key, V value) {
+        this.shardFor(key).set(key, value);
+    }
+
+    @Override
+    public void set(K key, V value, long timeout, TimeUnit unit) {
+        this.shardFor(key).set(key, value, timeout, unit);
+    }
+
+    @Override
+    public void set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+        this.shardFor(key).set(key, value, timeout, unit);
+    }
+
+    @Override
+    public V get(K key) {
+        return this.shardFor(key).get(key);
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+        return this.shardFor(key).get(key);
+    }
+
+    @Override
+    public void delete(K key) {
+        this.shardFor(key).delete(key);
+    }
+
+    @Override
+    public void delete(byte[] key) {
+        this.shardFor(key).delete(key);
+    }
+
+    // ===== Batch Operations =====
+
+    @Override
+    public Map<K, V> multiGet(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<K, V> result = new HashMap<>(keys.size());
+        this.groupKeys(keys).forEach((shard, shardKeys) -> result.putAll(shard.multiGet(shardKeys)));
+        return result;
+    }
+
+    @Override
+    public List<byte[]> multiGetBytes(List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        // 记录每个键的原始位置，按分片取回后放回原位
+        Map<CacheService<K, V>, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            positions.computeIfAbsent(this.shardFor(keys.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        byte[][] values = new byte[keys.size()][];
+        positions.forEach((shard, indexes) -> {
+            List<byte[]> shardKeys = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                shardKeys.add(keys.get(index));
+            }
+            List<byte[]> shardValues = shard.multiGetBytes(shardKeys);
+            for (int i = 0; i < indexes.size(); i++) {
+                values[indexes.get(i)] = shardValues.get(i);
+            }
+        });
+        return Arrays.asList(values);
+    }
+
+    @Override
+    public Map<K, ExpiringValue<V>> multiGetWithTtl(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<K, ExpiringValue<V>> result = new HashMap<>(keys.size());
+        this.groupKeys(keys).forEach((shard, shardKeys) -> result.putAll(shard.multiGetWithTtl(shardKeys)));
+        return result;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ExpiringValue<byte[]>> multiGetBytesWithTtl(List<byte[]> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<CacheService<K, V>, List<Integer>> positions = new LinkedHashMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            positions.computeIfAbsent(this.shardFor(keys.get(i)), shard -> new ArrayList<>()).add(i);
+        }
+        ExpiringValue<byte[]>[] values = new ExpiringValue[keys.size()];
+        positions.forEach((shard, indexes) -> {
+            List<byte[]> shardKeys = new ArrayList<>(indexes.size());
+            for (int index : indexes) {
+                shardKeys.add(keys.get(index));
+            }
+            List<ExpiringValue<byte[]>> shardValues = shard.multiGetBytesWithTtl(shardKeys);
+            for (int i = 0; i < indexes.size(); i++) {
+                values[indexes.get(i)] = shardValues.get(i);
+            }
+        });
+        return Arrays.asList(values);
+    }
+
+    @Override
+    public void multiSet(Map<K, V> map, long timeout, TimeUnit unit) {
+        Map<CacheService<K, V>, Map<K, V>> groups = new LinkedHashMap<>();
+        map.forEach((key, value) ->
+                groups.computeIfAbsent(this.shardFor(key), shard -> new HashMap<>()).put(key, value));
+        groups.forEach((shard, shardMap) -> shard.multiSet(shardMap, timeout, unit));
+    }
+
+    @Override
+    public void multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+        Map<CacheService<K, V>, Map<byte[], byte[]>> groups = new LinkedHashMap<>();
+        map.forEach((key, value) ->
+                groups.computeIfAbsent(this.shardFor(key), shard -> new HashMap<>()).put(key, value));
+        groups.forEach((shard, shardMap) -> shard.multiSetBytes(shardMap, timeout, unit));
+    }
+
+    @Override
+    public void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries) {
+        Map<CacheService<K, V>, Map<byte[], ExpiringValue<byte[]>>> groups = new LinkedHashMap<>();
+        entries.forEach((key, value) ->
+                groups.computeIfAbsent(this.shardFor(key), shard -> new HashMap<>()).put(key, value));
+        groups.forEach(CacheService::multiSetBytesWithTtl);
+    }
+
+    @Override
+    public void multiDelete(Collection<K> keys) {
+        this.groupKeys(keys).forEach(CacheService::multiDelete);
+    }
+
+    @Override
+    public void multiDeleteBytes(Collection<byte[]> keys) {
+        Map<CacheService<K, V>, List<byte[]>> groups = new LinkedHashMap<>();
+        for (byte[] key : keys) {
+            groups.computeIfAbsent(this.shardFor(key), shard -> new ArrayList<>()).add(key);
+        }
+        groups.forEach(CacheService::multiDeleteBytes);
+    }
+
+    // ===== Load Operations =====
+
+    @Override
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        return this.shardFor(key).getOrLoad(key, loader, timeout, unit);
+    }
+
+    // ===== Hash Operations =====
+
+    @Override
+    public void putHash(K key, K hashKey, V value) {
+        this.shardFor(key).putHash(key, hashKey, value);
+    }
+
+    @Override
+    public void putHash(K key, K hashKey, V value, long timeout, TimeUnit unit) {
+        this.shardFor(key).putHash(key, hashKey, value, timeout, unit);
+    }
+
+    @Override
+    public V getHash(K key, K hashKey) {
+        return this.shardFor(key).getHash(key, hashKey);
+    }
+
+    @Override
+    public void deleteHash(K key, K hashKey) {
+        this.shardFor(key).deleteHash(key, hashKey);
+    }
+
+    @Override
+    public Map<K, V> getHashAll(K key) {
+        return this.shardFor(key).getHashAll(key);
+    }
+
+    @Override
+    public void putHashAll(K key, Map<K, V> map) {
+        this.shardFor(key).putHashAll(key, map);
+    }
+
+    @Override
+    public void putHashAll(K key, Map<K, V> map, long timeout, TimeUnit unit) {
+        this.shardFor(key).putHashAll(key, map, timeout, unit);
+    }
+
+    // ===== List Operations =====
+
+    @Override
+    public void pushToList(K key, V value) {
+        this.shardFor(key).pushToList(key, value);
+    }
+
+    @Override
+    public void pushToList(K key, V value, long timeout, TimeUnit unit) {
+        this.shardFor(key).pushToList(key, value, timeout, unit);
+    }
+
+    @Override
+    public V popFromList(K key) {
+        return this.shardFor(key).popFromList(key);
+    }
+
+    @Override
+    public List<V> getList(K key) {
+        return this.shardFor(key).getList(key);
+    }
+
+    // ===== Set Operations =====
+
+    @Override
+    public void addToSet(K key, V value) {
+        this.shardFor(key).addToSet(key, value);
+    }
+
+    @Override
+    public void addToSet(K key, V value, long timeout, TimeUnit unit) {
+        this.shardFor(key).addToSet(key, value, timeout, unit);
+    }
+
+    @Override
+    public Set<V> getSet(K key) {
+        return this.shardFor(key).getSet(key);
+    }
+
+    @Override
+    public void removeFromSet(K key, V value) {
+        this.shardFor(key).removeFromSet(key, value);
+    }
+
+    // ===== Counter Operations =====
+
+    @Override
+    public long increment(K key, long delta) {
+        return this.shardFor(key).increment(key, delta);
+    }
+
+    @Override
+    public long increment(K key, long delta, long timeout, TimeUnit unit) {
+        return this.shardFor(key).increment(key, delta, timeout, unit);
+    }
+
+    @Override
+    public long getCounter(K key) {
+        return this.shardFor(key).getCounter(key);
+    }
+
+    // ===== Sorted Set Operations =====
+
+    @Override
+    public void addToSortedSet(K key, V value, double score) {
+        this.shardFor(key).addToSortedSet(key, value, score);
+    }
+
+    @Override
+    public void addToSortedSet(K key, V value, double score, long timeout, TimeUnit unit) {
+        this.shardFor(key).addToSortedSet(key, value, score, timeout, unit);
+    }
+
+    @Override
+    public double incrementScore(K key, V value, double delta) {
+        return this.shardFor(key).incrementScore(key, value, delta);
+    }
+
+    @Override
+    public Double getScore(K key, V value) {
+        return this.shardFor(key).getScore(key, value);
+    }
+
+    @Override
+    public Long rankInSortedSet(K key, V value) {
+        return this.shardFor(key).rankInSortedSet(key, value);
+    }
+
+    @Override
+    public Long reverseRankInSortedSet(K key, V value) {
+        return this.shardFor(key).reverseRankInSortedSet(key, value);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> rangeSortedSet(K key, long start, long end) {
+        return this.shardFor(key).rangeSortedSet(key, start, end);
+    }
+
+    @Override
+    public List<Map.Entry<V, Double>> reverseRangeSortedSet(K key, long start, long end) {
+        return this.shardFor(key).reverseRangeSortedSet(key, start, end);
+    }
+
+    @Override
+    public void removeFromSortedSet(K key, V value) {
+        this.shardFor(key).removeFromSortedSet(key, value);
+    }
+
+    @Override
+    public long sortedSetSize(K key) {
+        return this.shardFor(key).sortedSetSize(key);
+    }
+
+    // ===== HyperLogLog Operations =====
+
+    @Override
+    public boolean addToHyperLogLog(K key, Collection<V> values) {
+        return this.shardFor(key).addToHyperLogLog(key, values);
+    }
+
+    @Override
+    public long countHyperLogLog(K key) {
+        return this.shardFor(key).countHyperLogLog(key);
+    }
+
+    /**
+     * 键在同一个分片时直接合并计数。分布在多个分片时，每个其余分片一次读取 HyperLogLog 的原始值（redis 中为字符串），
+     * 写入键最多的分片上的临时键，与该分片上的键一次合并计数后删除临时键。
+     * 临时键通过键的序列化方式还原为键，需使用字符串类的序列化方式。
+     * 可使用 hash tag（如 {@code {uv}:2026-10-18}）将需要合并计数的键放在同一分片，避免额外的往返
+     */
+    @Override
+    public long countHyperLogLog(Collection<K> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Map<CacheService<K, V>, List<K>> groups = this.groupKeys(keys);
+        Map.Entry<CacheService<K, V>, List<K>> target = null;
+        for (Map.Entry<CacheService<K, V>, List<K>> group : groups.entrySet()) {
+            if (Objects.isNull(target) || group.getValue().size() > target.getValue().size()) {
+                target = group;
+            }
+        }
+        CacheService<K, V> targetShard = target.getKey();
+        List<K> mergeKeys = new ArrayList<>(target.getValue());
+        Map<byte[], byte[]> copies = new LinkedHashMap<>();
+        String tempPrefix = HYPER_LOG_LOG_TEMP_PREFIX + UUID.randomUUID() + ":";
+        for (Map.Entry<CacheService<K, V>, List<K>> group : groups.entrySet()) {
+            if (group.getKey() == targetShard) {
+                continue;
+            }
+            List<byte[]> rawKeys = group.getValue().stream().map(keySerializer::serialize).toList();
+            for (byte[] value : group.getKey().multiGetBytes(rawKeys)) {
+                if (Objects.nonNull(value)) {
+                    byte[] tempKey = (tempPrefix + copies.size()).getBytes(StandardCharsets.UTF_8);
+                    copies.put(tempKey, value);
+                    mergeKeys.add(keySerializer.deserialize(tempKey));
+                }
+            }
+        }
+        if (copies.isEmpty()) {
+            return targetShard.countHyperLogLog(target.getValue());
+        }
+        targetShard.multiSetBytes(copies, HYPER_LOG_LOG_TEMP_SECONDS, TimeUnit.SECONDS);
+        try {
+            return targetShard.countHyperLogLog(mergeKeys);
+        } finally {
+            targetShard.multiDeleteBytes(copies.keySet());
+        }
+    }
+
+    // ===== Versioned Operations =====
+
+    @Override
+    public VersionedValue<V> getVersioned(K key) {
+        return this.shardFor(key).getVersioned(key);
+    }
+
+    @Override
+    public CompareAndSetResult<V> compareAndSet(K key, long expectedVersion, V newValue, long timeout, TimeUnit unit) {
+        return this.shardFor(key).compareAndSet(key, expectedVersion, newValue, timeout, unit);
+    }
+
+    // ===== Common Operations =====
+
+    @Override
+    public boolean exists(K key) {
+        return this.shardFor(key).exists(key);
+    }
+
+    @Override
+    public void expire(K key, long timeout) {
+        this.shardFor(key).expire(key, timeout);
+    }
+
+    @Override
+    public void expire(K key, long timeout, TimeUnit unit) {
+        this.shardFor(key).expire(key, timeout, unit);
+    }
+
+    @Override
+    public long size(K key) {
+        return this.shardFor(key).size(key);
+    }
+
+    @Override
+    public void deleteMultiple(Set<K> keys) {
+        this.groupKeys(keys).forEach((shard, shardKeys) -> shard.deleteMultiple(new HashSet<>(shardKeys)));
+    }
+
+    // ===== Scan Operations =====
+
+    @Override
+    public Stream<Map.Entry<K, V>> scanHash(K key, int batchSize) {
+        return this.shardFor(key).scanHash(key, batchSize);
+    }
+
+    @Override
+    public Stream<V> scanList(K key, int batchSize) {
+        return this.shardFor(key).scanList(key, batchSize);
+    }
+
+    @Override
+    public Stream<V> scanSet(K key, int batchSize) {
+        return this.shardFor(key).scanSet(key, batchSize);
+    }
+
+    /**
+     * 依次遍历各分片，每个分片的游标在遍历完后关闭
+     */
+    @Override
+    public Stream<K> scanKeys(String pattern, int batchSize) {
+        return ring.nodes().stream().flatMap(shard -> shard.scanKeys(pattern, batchSize));
+    }
+
+    @Override
+    public long deleteByPattern(String pattern, int batchSize) {
+        long deleted = 0;
+        for (CacheService<K, V> shard : ring.nodes()) {
+            deleted += shard.deleteByPattern(pattern, batchSize);
+        }
+        return deleted;
+    }
+
+    /**
+     * 按分片对键分组
+     *
+     * @param keys 缓存键
+     * @return 分片及其键
+     */
+    private Map<CacheService<K, V>, List<K>> groupKeys(Collection<K> keys) {
+        Map<CacheService<K, V>, List<K>> groups = new LinkedHashMap<>();
+        for (K key : keys) {
+            groups.computeIfAbsent(this.shardFor(key), shard -> new ArrayList<>()).add(key);
+        }
+        return groups;
+    }
+}
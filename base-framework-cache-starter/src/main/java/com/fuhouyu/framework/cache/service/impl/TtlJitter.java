@@ -0,0 +1,67 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * <p>
+ * 过期时间随机抖动，避免同一批以相同过期时间写入的键在同一时刻集中失效。
+ * 抖动只会缩短过期时间，取值范围为 {@code [timeout * (1 - ratio), timeout]}，不会让数据存活得比调用方要求的更久。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 13:00
+ */
+public final class TtlJitter {
+
+    /**
+     * 不抖动
+     */
+    public static final TtlJitter NONE = new TtlJitter(0);
+
+    private final double ratio;
+
+    /**
+     * 构造函数
+     *
+     * @param ratio 抖动比例，取值 [0, 1)
+     */
+    public TtlJitter(double ratio) {
+        if (ratio < 0 || ratio >= 1) {
+            throw new IllegalArgumentException("ttl jitter ratio must be in [0, 1): " + ratio);
+        }
+        this.ratio = ratio;
+    }
+
+    /**
+     * 对过期时间进行抖动，时间单位保持不变
+     *
+     * @param timeout 过期时间，小于等于0时原样返回
+     * @return 抖动后的过期时间，至少为 1
+     */
+    public long apply(long timeout) {
+        if (timeout <= 0 || ratio == 0) {
+            return timeout;
+        }
+        long range = (long) (timeout * ratio);
+        if (range <= 0) {
+            return timeout;
+        }
+        return Math.max(1, timeout - ThreadLocalRandom.current().nextLong(range + 1));
+    }
+}
@@ -0,0 +1,775 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.enums.WriteBehindDurabilityEnum;
+import com.fuhouyu.framework.cache.model.CompareAndSetResult;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
+import com.fuhouyu.framework.cache.model.VersionedValue;
+import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.common.utils.LoggerUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * <p>
+ * 延迟写入（write-behind）的缓存服务装饰器。字符串值（set、multiSet）及 hash 字段（putHash、putHashAll）
+ * 的写入先放入内存缓冲区，同一个键在刷新前的多次写入只保留最后一次，hash 按字段合并；
+ * 缓冲区的键数量达到批量大小或到达刷新间隔时，由后台线程分批刷新，字符串值按过期时间分组通过管道批量写入，
+ * 每个 hash 的所有字段通过一条命令写入。
+ * </p>
+ * <p>
+ * 当前 jvm 内的读取会先查缓冲区及正在刷新的数据，能读到自己尚未刷新的写入；其他节点只能在刷新后读到。
+ * 删除、设置过期时间等无法合并的操作会先丢弃或刷新该键在缓冲区中的数据再转发，
+ * 与刷新互斥，不会被更早的延迟写入覆盖；计数器操作同样会先写入该键在缓冲区中的数据。
+ * list、set、有序集合及 HyperLogLog 的操作不经过缓冲区。
+ * </p>
+ * <p>
+ * 缓冲区的键数量达到上限时，新键的写入直接转发。写入的 byte[] 值会被复制，对象值按引用缓存，写入后不应再修改。
+ * 关闭时默认刷新缓冲区中剩余的数据，未刷新的写入在进程异常退出时丢失。
+ * </p>
+ *
+ * @param <K> 缓存键的类型
+ * @param <V> 缓存值的类型
+ * @author fuhouyu
+ * @since 2026/10/18 18:40
+ */
+@Slf4j
+public class WriteBehindCacheService<K, V> extends DelegatingCacheService<K, V> {
+
+    private final ConcurrentMap<BufferKey, Pending> buffer = new ConcurrentHashMap<>();
+
+    /**
+     * 已从缓冲区取出、正在写入的数据，写入完成前读取仍能读到
+     */
+    private final ConcurrentMap<BufferKey, Pending> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 刷新持有写锁，无法合并的操作持有读锁，保证这些操作不会与同一个键的刷新交错
+     */
+    private final ReentrantReadWriteLock flushLock = new ReentrantReadWriteLock();
+
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final ScheduledExecutorService scheduler;
+
+    private final int batchSize;
+
+    private final int maximumPending;
+
+    private final WriteBehindDurabilityEnum durability;
+
+    private final boolean flushOnClose;
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder flushed = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private volatile boolean closed;
+
+    /**
+     * 构造函数
+     *
+     * @param delegate       被装饰的缓存服务
+     * @param flushInterval  刷新间隔
+     * @param batchSize      每批刷新的最大键数量，缓冲区达到该数量时立即刷新
+     * @param maximumPending 缓冲区的最大键数量
+     * @param durability     可靠性级别
+     * @param flushOnClose   关闭时是否刷新剩余数据
+     */
+    public WriteBehindCacheService(CacheService<K, V> delegate, Duration flushInterval, int batchSize,
+                                   int maximumPending, WriteBehindDurabilityEnum durability, boolean flushOnClose) {
+        super(delegate);
+        this.batchSize = Math.max(1, batchSize);
+        this.maximumPending = maximumPending;
+        this.durability = durability;
+        this.flushOnClose = flushOnClose;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cache-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long intervalMillis = Math.max(1, flushInterval.toMillis());
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 缓冲区中等待刷新的键数量
+     *
+     * @return 键数量
+     */
+    public int pendingCount() {
+        return buffer.size();
+    }
+
+    /**
+     * 被合并掉的写入次数
+     *
+     * @return 写入次数
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * 已刷新的键数量
+     *
+     * @return 键数量
+     */
+    public long flushedCount() {
+        return flushed.sum();
+    }
+
+    /**
+     * 刷新失败的键数量，重试成功的键会重复计入
+     *
+     * @return 键数量
+     */
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    // ===== String Operations =====
+
+    @Override
+    public void set(byte[] key, byte[] value) {
+        this.bufferWrite(this.bytesKey(key), value.clone(), 0, () -> delegate.set(key, value));
+    }
+
+    @Override
+    public void set(K key, V value) {
+        this.bufferWrite(new BufferKey(Kind.VALUE, key), value, 0, () -> delegate.set(key, value));
+    }
+
+    @Override
+    public void set(K key, V value, long timeout, TimeUnit unit) {
+        this.bufferWrite(new BufferKey(Kind.VALUE, key), value, toMillis(timeout, unit),
+                () -> delegate.set(key, value, timeout, unit));
+    }
+
+    @Override
+    public void set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+        this.bufferWrite(this.bytesKey(key), value.clone(), toMillis(timeout, unit),
+                () -> delegate.set(key, value, timeout, unit));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(K key) {
+        Pending pending = this.pending(new BufferKey(Kind.VALUE, key));
+        return Objects.isNull(pending) ? delegate.get(key) : (V) pending.value;
+    }
+
+    @Override
+    public byte[] get(byte[] key) {
+        Pending pending = this.pending(new BufferKey(Kind.BYTES, ByteArrayKey.wrap(key)));
+        return Objects.isNull(pending) ? delegate.get(key) : bytesValue(pending);
+    }
+
+    @Override
+    public void delete(K key) {
+        this.direct(List.of(new BufferKey(Kind.VALUE, key), new BufferKey(Kind.HASH, key)), true,
+                () -> delegate.delete(key));
+    }
+
+    @Override
+    public void delete(byte[] key) {
+        this.direct(List.of(new BufferKey(Kind.BYTES, ByteArrayKey.wrap(key))), true, () -> delegate.delete(key));
+    }
+
+    // ===== Batch Operations =====
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<K, V> multiGet(Collection<K> keys) {
+        Map<K, V> result = new HashMap<>(keys.size());
+        List<K> missing = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            Pending pending = this.pending(new BufferKey(Kind.VALUE, key));
+            if (Objects.isNull(pending)) {
+                missing.add(key);
+            } else {
+                result.put(key, (V) pending.value);
+            }
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(delegate.multiGet(missing));
+        }
+        return result;
+    }
+
+    @Override
+    public List<byte[]> multiGetBytes(List<byte[]> keys) {
+        List<byte[]> values = delegate.multiGetBytes(keys);
+        List<byte[]> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Pending pending = this.pending(new BufferKey(Kind.BYTES, ByteArrayKey.wrap(keys.get(i))));
+            result.add(Objects.isNull(pending) ? values.get(i) : bytesValue(pending));
+        }
+        return result;
+    }
+
+    /**
+     * 缓冲区中的值尚未写入，剩余过期时间按写入时指定的过期时间返回
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<K, ExpiringValue<V>> multiGetWithTtl(Collection<K> keys) {
+        Map<K, ExpiringValue<V>> result = new HashMap<>(keys.size());
+        List<K> missing = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            Pending pending = this.pending(new BufferKey(Kind.VALUE, key));
+            if (Objects.isNull(pending)) {
+                missing.add(key);
+            } else {
+                result.put(key, new ExpiringValue<>((V) pending.value, ttlMillis(pending)));
+            }
+        }
+        if (!missing.isEmpty()) {
+            result.putAll(delegate.multiGetWithTtl(missing));
+        }
+        return result;
+    }
+
+    @Override
+    public List<ExpiringValue<byte[]>> multiGetBytesWithTtl(List<byte[]> keys) {
+        List<ExpiringValue<byte[]>> values = delegate.multiGetBytesWithTtl(keys);
+        List<ExpiringValue<byte[]>> result = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Pending pending = this.pending(new BufferKey(Kind.BYTES, ByteArrayKey.wrap(keys.get(i))));
+            result.add(Objects.isNull(pending) ? values.get(i)
+                    : new ExpiringValue<>(bytesValue(pending), ttlMillis(pending)));
+        }
+        return result;
+    }
+
+    @Override
+    public void multiSet(Map<K, V> map, long timeout, TimeUnit unit) {
+        long timeoutMillis = toMillis(timeout, unit);
+        map.forEach((key, value) -> this.bufferWrite(new BufferKey(Kind.VALUE, key), value, timeoutMillis,
+                () -> delegate.multiSet(Collections.singletonMap(key, value), timeout, unit)));
+    }
+
+    @Override
+    public void multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+        long timeoutMillis = toMillis(timeout, unit);
+        map.forEach((key, value) -> this.bufferWrite(this.bytesKey(key), value.clone(), timeoutMillis,
+                () -> delegate.set(key, value, timeout, unit)));
+    }
+
+    @Override
+    public void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries) {
+        entries.forEach((key, value) -> {
+            long ttlMillis = value.getTtlMillis();
+            this.bufferWrite(this.bytesKey(key), value.getValue().clone(), toMillis(ttlMillis, TimeUnit.MILLISECONDS),
+                    () -> delegate.set(key, value.getValue(), ttlMillis, TimeUnit.MILLISECONDS));
+        });
+    }
+
+    @Override
+    public void multiDelete(Collection<K> keys) {
+        List<BufferKey> bufferKeys = new ArrayList<>(keys.size() * 2);
+        for (K key : keys) {
+            bufferKeys.add(new BufferKey(Kind.VALUE, key));
+            bufferKeys.add(new BufferKey(Kind.HASH, key));
+        }
+        this.direct(bufferKeys, true, () -> delegate.multiDelete(keys));
+    }
+
+    @Override
+    public void multiDeleteBytes(Collection<byte[]> keys) {
+        List<BufferKey> bufferKeys = new ArrayList<>(keys.size());
+        for (byte[] key : keys) {
+            bufferKeys.add(new BufferKey(Kind.BYTES, ByteArrayKey.wrap(key)));
+        }
+        this.direct(bufferKeys, true, () -> delegate.multiDeleteBytes(keys));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getOrLoad(K key, Function<? super K, ? extends V> loader, long timeout, TimeUnit unit) {
+        Pending pending = this.pending(new BufferKey(Kind.VALUE, key));
+        return Objects.isNull(pending) ? delegate.getOrLoad(key, loader, timeout, unit) : (V) pending.value;
+    }
+
+    // ===== Hash Operations =====
+
+    @Override
+    public void putHash(K key, K hashKey, V value) {
+        this.bufferHash(key, Collections.singletonMap(hashKey, value), 0, () -> delegate.putHash(key, hashKey, value));
+    }
+
+    @Override
+    public void putHash(K key, K hashKey, V value, long timeout, TimeUnit unit) {
+        this.bufferHash(key, Collections.singletonMap(hashKey, value), toMillis(timeout, unit),
+                () -> delegate.putHash(key, hashKey, value, timeout, unit));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V getHash(K key, K hashKey) {
+        Pending pending = this.pending(new BufferKey(Kind.HASH, key));
+        if (Objects.nonNull(pending)) {
+            V value = ((Map<K, V>) pending.value).get(hashKey);
+            if (Objects.nonNull(value)) {
+                return value;
+            }
+        }
+        return delegate.getHash(key, hashKey);
+    }
+
+    @Override
+    public void deleteHash(K key, K hashKey) {
+        this.direct(List.of(new BufferKey(Kind.HASH, key)), false, () -> delegate.deleteHash(key, hashKey));
+    }
+
+    @Override
+    public Map<K, V> getHashAll(K key) {
+        return this.direct(List.of(new BufferKey(Kind.HASH, key)), false, () -> delegate.getHashAll(key));
+    }
+
+    @Override
+    public void putHashAll(K key, Map<K, V> map) {
+        this.bufferHash(key, map, 0, () -> delegate.putHashAll(key, map));
+    }
+
+    @Override
+    public void putHashAll(K key, Map<K, V> map, long timeout, TimeUnit unit) {
+        this.bufferHash(key, map, toMillis(timeout, unit), () -> delegate.putHashAll(key, map, timeout, unit));
+    }
+
+    // ===== Counter Operations =====
+
+    @Override
+    public long increment(K key, long delta) {
+        return this.direct(List.of(new BufferKey(Kind.VALUE, key)), false, () -> delegate.increment(key, delta));
+    }
+
+    @Override
+    public long increment(K key, long delta, long timeout, TimeUnit unit) {
+        return this.direct(List.of(new BufferKey(Kind.VALUE, key)), false,
+                () -> delegate.increment(key, delta, timeout, unit));
+    }
+
+    @Override
+    public long getCounter(K key) {
+        return this.direct(List.of(new BufferKey(Kind.VALUE, key)), false, () -> delegate.getCounter(key));
+    }
+
+    // ===== Versioned Operations =====
+
+    @Override
+    public VersionedValue<V> getVersioned(K key) {
+        return this.direct(List.of(new BufferKey(Kind.VALUE, key)), false, () -> delegate.getVersioned(key));
+    }
+
+    @Override
+    public CompareAndSetResult<V> compareAndSet(K key, long expectedVersion, V newValue, long timeout, TimeUnit unit) {
+        return this.direct(List.of(new BufferKey(Kind.VALUE, key)), false,
+                () -> delegate.compareAndSet(key, expectedVersion, newValue, timeout, unit));
+    }
+
+    // ===== Common Operations =====
+
+    @Override
+    public boolean exists(K key) {
+        if (Objects.nonNull(this.pending(new BufferKey(Kind.VALUE, key)))
+                || Objects.nonNull(this.pending(new BufferKey(Kind.HASH, key)))) {
+            return true;
+        }
+        return delegate.exists(key);
+    }
+
+    @Override
+    public void expire(K key, long timeout) {
+        this.direct(List.of(new BufferKey(Kind.VALUE, key), new BufferKey(Kind.HASH, key)), false,
+                () -> delegate.expire(key, timeout));
+    }
+
+    @Override
+    public void expire(K key, long timeout, TimeUnit unit) {
+        this.direct(List.of(new BufferKey(Kind.VALUE, key), new BufferKey(Kind.HASH, key)), false,
+                () -> delegate.expire(key, timeout, unit));
+    }
+
+    @Override
+    public long size(K key) {
+        return this.direct(List.of(new BufferKey(Kind.HASH, key)), false, () -> delegate.size(key));
+    }
+
+    @Override
+    public void deleteMultiple(Set<K> keys) {
+        this.multiDelete(keys);
+    }
+
+    // ===== Scan Operations =====
+
+    @Override
+    public Stream<Map.Entry<K, V>> scanHash(K key, int batchSize) {
+        return this.direct(List.of(new BufferKey(Kind.HASH, key)), false, () -> delegate.scanHash(key, batchSize));
+    }
+
+    @Override
+    public Stream<K> scanKeys(String pattern, int batchSize) {
+        this.flush();
+        return delegate.scanKeys(pattern, batchSize);
+    }
+
+    @Override
+    public long deleteByPattern(String pattern, int batchSize) {
+        this.flush();
+        return delegate.deleteByPattern(pattern, batchSize);
+    }
+
+    /**
+     * 刷新缓冲区中的全部数据，失败的批次按可靠性级别处理后不再继续刷新
+     */
+    public void flush() {
+        while (!buffer.isEmpty()) {
+            Lock lock = flushLock.writeLock();
+            lock.lock();
+            try {
+                List<Map.Entry<BufferKey, Pending>> batch = this.drain();
+                if (batch.isEmpty()) {
+                    return;
+                }
+                try {
+                    this.writeBatch(batch);
+                    flushed.add(batch.size());
+                } catch (RuntimeException e) {
+                    failed.add(batch.size());
+                    this.handleFailure(batch, e);
+                    return;
+                } finally {
+                    batch.forEach(entry -> inFlight.remove(entry.getKey(), entry.getValue()));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 停止后台刷新，并按配置刷新或丢弃缓冲区中剩余的数据
+     */
+    @Override
+    public void close() {
+        closed = true;
+        scheduler.shutdown();
+        if (flushOnClose) {
+            this.flush();
+        } else if (!buffer.isEmpty()) {
+            LoggerUtil.warn(log, "缓存延迟写入关闭，丢弃 {} 个未刷新的键", buffer.size());
+            buffer.clear();
+        }
+        super.close();
+    }
+
+    /**
+     * 写入缓冲区，缓冲区已满或不再缓冲时直接转发
+     *
+     * @param bufferKey     缓冲区的键
+     * @param value         值
+     * @param timeoutMillis 过期时间（毫秒），小于等于0时不过期
+     * @param direct        直接转发的写入
+     */
+    private void bufferWrite(BufferKey bufferKey, Object value, long timeoutMillis, Runnable direct) {
+        if (!this.canBuffer(bufferKey)) {
+            this.direct(List.of(bufferKey), false, direct);
+            return;
+        }
+        if (Objects.nonNull(buffer.put(bufferKey, new Pending(value, timeoutMillis)))) {
+            coalesced.increment();
+        }
+        this.afterBuffered();
+    }
+
+    /**
+     * hash 字段写入缓冲区，与缓冲区中同一个 hash 的字段合并，过期时间以最后一次指定的为准
+     *
+     * @param key           缓存键
+     * @param fields        字段及值
+     * @param timeoutMillis 过期时间（毫秒），小于等于0时不修改过期时间
+     * @param direct        直接转发的写入
+     */
+    @SuppressWarnings("unchecked")
+    private void bufferHash(K key, Map<K, V> fields, long timeoutMillis, Runnable direct) {
+        BufferKey bufferKey = new BufferKey(Kind.HASH, key);
+        if (!this.canBuffer(bufferKey)) {
+            this.direct(List.of(bufferKey), false, direct);
+            return;
+        }
+        buffer.compute(bufferKey, (k, pending) -> {
+            Pending merged = Objects.isNull(pending) ? new Pending(new ConcurrentHashMap<K, V>(), 0) : pending;
+            Map<K, V> hash = (Map<K, V>) merged.value;
+            fields.forEach((hashKey, value) -> {
+                if (Objects.nonNull(hash.put(hashKey, value))) {
+                    coalesced.increment();
+                }
+            });
+            if (timeoutMillis > 0) {
+                merged.timeoutMillis = timeoutMillis;
+            }
+            return merged;
+        });
+        this.afterBuffered();
+    }
+
+    private boolean canBuffer(BufferKey bufferKey) {
+        return durability != WriteBehindDurabilityEnum.WRITE_THROUGH && !closed
+                && (buffer.size() < maximumPending || buffer.containsKey(bufferKey));
+    }
+
+    private void afterBuffered() {
+        if (closed) {
+            // 与关闭并发的写入可能错过关闭时的刷新，由写入方自行刷新
+            this.flush();
+            return;
+        }
+        if (buffer.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                scheduler.execute(() -> {
+                    flushRequested.set(false);
+                    this.flushQuietly();
+                });
+            } catch (RejectedExecutionException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void direct(Collection<BufferKey> bufferKeys, boolean discard, Runnable operation) {
+        this.direct(bufferKeys, discard, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * 执行无法合并的操作，先丢弃或写入相关键在缓冲区中的数据，写入的数据在写入完成前仍能读到
+     *
+     * @param bufferKeys 相关的缓冲区键
+     * @param discard    是否丢弃，为 false 时先写入
+     * @param operation  操作
+     * @param <T>        结果类型
+     * @return 操作结果
+     */
+    private <T> T direct(Collection<BufferKey> bufferKeys, boolean discard, Supplier<T> operation) {
+        Lock lock = flushLock.readLock();
+        lock.lock();
+        try {
+            List<Map.Entry<BufferKey, Pending>> entries = new ArrayList<>(bufferKeys.size());
+            for (BufferKey bufferKey : bufferKeys) {
+                if (discard) {
+                    buffer.remove(bufferKey);
+                    continue;
+                }
+                // 与 drain 相同，先放入正在写入的集合再移除；并发写入替换了值时重新读取
+                Pending pending;
+                while (Objects.nonNull(pending = buffer.get(bufferKey))) {
+                    inFlight.put(bufferKey, pending);
+                    if (buffer.remove(bufferKey, pending)) {
+                        entries.add(Map.entry(bufferKey, pending));
+                        break;
+                    }
+                    inFlight.remove(bufferKey, pending);
+                }
+            }
+            if (!entries.isEmpty()) {
+                try {
+                    this.writeBatch(entries);
+                } finally {
+                    entries.forEach(entry -> inFlight.remove(entry.getKey(), entry.getValue()));
+                }
+            }
+            return operation.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Pending pending(BufferKey bufferKey) {
+        Pending pending = buffer.get(bufferKey);
+        return Objects.nonNull(pending) ? pending : inFlight.get(bufferKey);
+    }
+
+    /**
+     * 缓冲区中的 byte[] 值，返回副本，调用方修改不会影响待写入的数据
+     *
+     * @param pending 缓冲的数据
+     * @return 值的副本
+     */
+    private static byte[] bytesValue(Pending pending) {
+        return ((byte[]) pending.value).clone();
+    }
+
+    private static long ttlMillis(Pending pending) {
+        return pending.timeoutMillis > 0 ? pending.timeoutMillis : ExpiringValue.NO_EXPIRE;
+    }
+
+    /**
+     * 从缓冲区取出一批数据，先放入正在刷新的集合再移除，读取始终能在其中一处读到
+     *
+     * @return 一批数据
+     */
+    private List<Map.Entry<BufferKey, Pending>> drain() {
+        List<Map.Entry<BufferKey, Pending>> batch = new ArrayList<>(Math.min(batchSize, buffer.size()));
+        for (Map.Entry<BufferKey, Pending> entry : buffer.entrySet()) {
+            if (batch.size() >= batchSize) {
+                break;
+            }
+            BufferKey bufferKey = entry.getKey();
+            Pending pending = entry.getValue();
+            inFlight.put(bufferKey, pending);
+            if (buffer.remove(bufferKey, pending)) {
+                batch.add(Map.entry(bufferKey, pending));
+            } else {
+                inFlight.remove(bufferKey, pending);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * 写入一批数据，字符串值按过期时间分组批量写入，每个 hash 写入一次
+     *
+     * @param batch 一批数据
+     */
+    @SuppressWarnings("unchecked")
+    private void writeBatch(List<Map.Entry<BufferKey, Pending>> batch) {
+        Map<Long, Map<K, V>> values = new HashMap<>();
+        Map<Long, Map<byte[], byte[]>> bytes = new HashMap<>();
+        for (Map.Entry<BufferKey, Pending> entry : batch) {
+            BufferKey bufferKey = entry.getKey();
+            Pending pending = entry.getValue();
+            switch (bufferKey.kind()) {
+                case VALUE -> values.computeIfAbsent(pending.timeoutMillis, timeout -> new HashMap<>())
+                        .put((K) bufferKey.key(), (V) pending.value);
+                case BYTES -> bytes.computeIfAbsent(pending.timeoutMillis, timeout -> new HashMap<>())
+                        .put(((ByteArrayKey) bufferKey.key()).bytes(), (byte[]) pending.value);
+                case HASH -> {
+                    Map<K, V> hash = new HashMap<>((Map<K, V>) pending.value);
+                    if (pending.timeoutMillis > 0) {
+                        delegate.putHashAll((K) bufferKey.key(), hash, pending.timeoutMillis, TimeUnit.MILLISECONDS);
+                    } else {
+                        delegate.putHashAll((K) bufferKey.key(), hash);
+                    }
+                }
+            }
+        }
+        values.forEach((timeout, map) -> delegate.multiSet(map, timeout, TimeUnit.MILLISECONDS));
+        bytes.forEach((timeout, map) -> delegate.multiSetBytes(map, timeout, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 刷新失败时按可靠性级别丢弃，或在没有更新的写入时放回缓冲区
+     *
+     * @param batch 失败的批次
+     * @param e     异常
+     */
+    @SuppressWarnings("unchecked")
+    private void handleFailure(List<Map.Entry<BufferKey, Pending>> batch, RuntimeException e) {
+        if (durability != WriteBehindDurabilityEnum.RETRY) {
+            LoggerUtil.warn(log, "缓存延迟写入失败，丢弃 {} 个键: {}", batch.size(), e.getMessage(), e);
+            return;
+        }
+        LoggerUtil.warn(log, "缓存延迟写入失败，{} 个键等待重试: {}", batch.size(), e.getMessage(), e);
+        for (Map.Entry<BufferKey, Pending> entry : batch) {
+            Pending failedPending = entry.getValue();
+            if (entry.getKey().kind() != Kind.HASH) {
+                buffer.putIfAbsent(entry.getKey(), failedPending);
+                continue;
+            }
+            buffer.compute(entry.getKey(), (k, pending) -> {
+                if (Objects.isNull(pending)) {
+                    return failedPending;
+                }
+                ((Map<K, V>) failedPending.value).forEach(((Map<K, V>) pending.value)::putIfAbsent);
+                if (pending.timeoutMillis <= 0) {
+                    pending.timeoutMillis = failedPending.timeoutMillis;
+                }
+                return pending;
+            });
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            this.flush();
+        } catch (RuntimeException e) {
+            LoggerUtil.warn(log, "缓存延迟写入刷新异常: {}", e.getMessage(), e);
+        }
+    }
+
+    private BufferKey bytesKey(byte[] key) {
+        return new BufferKey(Kind.BYTES, ByteArrayKey.copyOf(key));
+    }
+
+    private static long toMillis(long timeout, TimeUnit unit) {
+        return timeout > 0 ? Math.max(1, unit.toMillis(timeout)) : 0;
+    }
+
+    /**
+     * 缓冲的数据类型
+     */
+    private enum Kind {
+
+        VALUE,
+
+        BYTES,
+
+        HASH
+    }
+
+    /**
+     * 缓冲区的键，byte[] 键使用 {@link ByteArrayKey}
+     *
+     * @param kind 数据类型
+     * @param key  缓存键
+     */
+    private record BufferKey(Kind kind, Object key) {
+
+    }
+
+    /**
+     * 等待刷新的数据，hash 的字段只在缓冲区的 compute 中修改
+     */
+    private static final class Pending {
+
+        private final Object value;
+
+        private volatile long timeoutMillis;
+
+        private Pending(Object value, long timeoutMillis) {
+            this.value = value;
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+}
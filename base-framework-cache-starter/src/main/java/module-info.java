@@ -20,16 +20,33 @@ module base.framework.cache.starter {
     requires transitive com.fasterxml.jackson.annotation;
     requires transitive com.fasterxml.jackson.databind;
     requires org.checkerframework.checker.qual;
+    requires static com.fasterxml.jackson.dataformat.smile;
+    requires static com.fasterxml.jackson.dataformat.cbor;
+    requires static com.esotericsoftware.kryo.kryo5;
+    requires static org.lz4.java;
+    requires static com.github.luben.zstd_jni;
+    requires lettuce.core;
+    requires org.aspectj.weaver;
+    requires micrometer.core;
+    requires spring.beans;
     requires spring.boot;
     requires spring.boot.autoconfigure;
+    requires static spring.boot.actuator;
     requires spring.context;
+    requires spring.core;
+    requires spring.expression;
     requires spring.tx;
     requires spring.data.redis;
 
     // 需要导出的类
     exports com.fuhouyu.framework.cache;
+    exports com.fuhouyu.framework.cache.annotations;
+    exports com.fuhouyu.framework.cache.aspectj;
+    exports com.fuhouyu.framework.cache.endpoint;
     exports com.fuhouyu.framework.cache.enums;
+    exports com.fuhouyu.framework.cache.model;
     exports com.fuhouyu.framework.cache.properties;
+    exports com.fuhouyu.framework.cache.serializer;
     exports com.fuhouyu.framework.cache.service;
     exports com.fuhouyu.framework.cache.service.impl;
 
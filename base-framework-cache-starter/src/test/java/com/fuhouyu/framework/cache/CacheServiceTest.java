@@ -16,19 +16,91 @@
 
 package com.fuhouyu.framework.cache;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fuhouyu.framework.cache.annotations.CacheInvalidate;
+import com.fuhouyu.framework.cache.annotations.Cached;
+import com.fuhouyu.framework.cache.enums.CacheCompressionEnum;
+import com.fuhouyu.framework.cache.enums.CacheValueCodecEnum;
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+import com.fuhouyu.framework.cache.enums.WriteBehindDurabilityEnum;
+import com.fuhouyu.framework.cache.model.CacheInvalidationMessage;
+import com.fuhouyu.framework.cache.model.CompareAndSetResult;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
+import com.fuhouyu.framework.cache.model.HotKey;
+import com.fuhouyu.framework.cache.model.VersionedValue;
+import com.fuhouyu.framework.cache.properties.CacheServiceProperties;
+import com.fuhouyu.framework.cache.serializer.CompactRedisSerializer;
+import com.fuhouyu.framework.cache.service.AsyncCacheService;
+import com.fuhouyu.framework.cache.service.BloomFilter;
+import com.fuhouyu.framework.cache.service.BloomFilterFactory;
 import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.RateLimiter;
+import com.fuhouyu.framework.cache.service.RateLimiterFactory;
+import com.fuhouyu.framework.cache.service.impl.ByteArrayKey;
+import com.fuhouyu.framework.cache.service.impl.CacheExpiry;
+import com.fuhouyu.framework.cache.service.impl.CaffeineCacheServiceImpl;
+import com.fuhouyu.framework.cache.service.impl.CaffeineSnapshot;
+import com.fuhouyu.framework.cache.service.impl.ConsistentHashRing;
+import com.fuhouyu.framework.cache.service.impl.DelegatingCacheService;
+import com.fuhouyu.framework.cache.service.impl.HotKeyCacheService;
+import com.fuhouyu.framework.cache.service.impl.HotKeyDetector;
+import com.fuhouyu.framework.cache.service.impl.LocalBloomFilterFactory;
+import com.fuhouyu.framework.cache.service.impl.LocalRateLimiterFactory;
+import com.fuhouyu.framework.cache.service.impl.MultiLevelCacheServiceImpl;
+import com.fuhouyu.framework.cache.service.impl.OffHeapByteStore;
+import com.fuhouyu.framework.cache.service.impl.RedisStreamInvalidationBus;
+import com.fuhouyu.framework.cache.service.impl.RegionCacheService;
+import com.fuhouyu.framework.cache.service.impl.ShardedRedisCacheService;
+import com.fuhouyu.framework.cache.service.impl.TtlJitter;
+import com.fuhouyu.framework.cache.service.impl.WriteBehindCacheService;
+import com.fuhouyu.framework.common.utils.LoggerUtil;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
 import org.springframework.boot.autoconfigure.data.redis.RedisAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.test.context.TestPropertySource;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -42,9 +114,12 @@ import static org.junit.jupiter.api.Assertions.*;
  */
 @SpringBootTest(classes = {
         CacheAutoConfiguration.class,
-        RedisAutoConfiguration.class
+        RedisAutoConfiguration.class,
+        AopAutoConfiguration.class,
+        CacheServiceTest.CachedTestService.class
 })
 @TestPropertySource(locations = {"classpath:application.yaml"})
+@Slf4j
 class CacheServiceTest {
 
 
@@ -55,6 +130,15 @@ class CacheServiceTest {
     @Autowired
     private CacheService<String, Object> cacheService;
 
+    @Autowired
+    private AsyncCacheService<String, Object> asyncCacheService;
+
+    @Autowired
+    private CachedTestService cachedTestService;
+
+    @Autowired
+    private RateLimiterFactory rateLimiterFactory;
+
     @BeforeEach
     void setup() {
         cacheBigKey = UUID.randomUUID().toString();
@@ -130,6 +214,1026 @@ class CacheServiceTest {
         cacheService.set(cacheBigKey.getBytes(StandardCharsets.UTF_8), cacheValue.getBytes(StandardCharsets.UTF_8));
         byte[] bytes = cacheService.get(cacheBigKey.getBytes(StandardCharsets.UTF_8));
         assertEquals(cacheValue, new String(bytes, StandardCharsets.UTF_8));
+        assertArrayEquals(bytes, asyncCacheService.get(cacheBigKey.getBytes(StandardCharsets.UTF_8)).join());
+        cacheService.delete(cacheBigKey.getBytes(StandardCharsets.UTF_8));
+        assertNull(cacheService.get(cacheBigKey.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testMultiple() {
+        String otherKey = UUID.randomUUID().toString();
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put(cacheBigKey, cacheValue);
+        map.put(otherKey, cacheValue);
+        cacheService.multiSet(map, 3, TimeUnit.SECONDS);
+        assertEquals(map, cacheService.multiGet(List.of(cacheBigKey, otherKey, cacheValue)));
+        cacheService.multiDelete(Set.of(cacheBigKey, otherKey));
+        assertTrue(cacheService.multiGet(List.of(cacheBigKey, otherKey)).isEmpty());
+
+        byte[] key = cacheBigKey.getBytes(StandardCharsets.UTF_8);
+        byte[] missingKey = otherKey.getBytes(StandardCharsets.UTF_8);
+        byte[] value = cacheValue.getBytes(StandardCharsets.UTF_8);
+        Map<byte[], byte[]> bytesMap = new LinkedHashMap<>();
+        bytesMap.put(key, value);
+        cacheService.multiSetBytes(bytesMap, 3, TimeUnit.SECONDS);
+        List<byte[]> values = cacheService.multiGetBytes(List.of(key, missingKey));
+        assertArrayEquals(value, values.get(0));
+        assertNull(values.get(1));
+        cacheService.multiDeleteBytes(List.of(key));
+        assertNull(cacheService.get(key));
+    }
+
+    @Test
+    void testAsync() {
+        String otherKey = UUID.randomUUID().toString();
+        CompletableFuture.allOf(
+                asyncCacheService.set(cacheBigKey, cacheValue),
+                asyncCacheService.set(otherKey, cacheValue, 3, TimeUnit.SECONDS)
+        ).join();
+        // 同步与异步服务读写的是同一份缓存
+        assertEquals(cacheValue, cacheService.get(cacheBigKey));
+
+        CompletableFuture<Object> first = asyncCacheService.get(cacheBigKey);
+        CompletableFuture<Object> second = asyncCacheService.get(otherKey);
+        assertEquals(cacheValue, first.thenCombine(second, (a, b) -> a.equals(b) ? a : null).join());
+        assertEquals(Map.of(cacheBigKey, cacheValue, otherKey, cacheValue),
+                asyncCacheService.multiGet(List.of(cacheBigKey, otherKey)).join());
+
+        asyncCacheService.multiDelete(List.of(cacheBigKey, otherKey)).join();
+        assertNull(asyncCacheService.get(cacheBigKey).join());
+    }
+
+    @Test
+    void testGetOrLoad() throws InterruptedException {
+        AtomicInteger loadCount = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Object>> futures = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return cacheService.getOrLoad(cacheBigKey, key -> {
+                    loadCount.incrementAndGet();
+                    try {
+                        Thread.sleep(100);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return cacheValue;
+                }, 3, TimeUnit.SECONDS);
+            }));
+        }
+        start.countDown();
+        for (Future<Object> future : futures) {
+            assertEquals(cacheValue, assertDoesNotThrow(() -> future.get()));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(3, TimeUnit.SECONDS));
+        // 并发未命中只会触发一次加载
+        assertEquals(1, loadCount.get());
+        assertEquals(cacheValue, cacheService.get(cacheBigKey));
+
+        assertNull(cacheService.getOrLoad(cacheValue, key -> null, 3, TimeUnit.SECONDS));
+        assertNull(cacheService.get(cacheValue));
         cacheService.delete(cacheBigKey);
     }
+
+    @Test
+    void testTtlJitter() {
+        TtlJitter ttlJitter = new TtlJitter(0.2);
+        for (int i = 0; i < 1000; i++) {
+            long timeout = ttlJitter.apply(1000);
+            assertTrue(timeout >= 800 && timeout <= 1000);
+        }
+        assertEquals(0, ttlJitter.apply(0));
+        assertEquals(1000, TtlJitter.NONE.apply(1000));
+        assertThrows(IllegalArgumentException.class, () -> new TtlJitter(1));
+    }
+
+    @Test
+    void testCompactRedisSerializer() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("key", cacheValue);
+        value.put("list", List.of(cacheValue.repeat(200)));
+        CompactRedisSerializer json = new CompactRedisSerializer(objectMapper,
+                CacheValueCodecEnum.JSON, CacheCompressionEnum.NONE, 1024);
+        byte[] legacy = json.serialize(value);
+        // json 且未压缩时与历史格式一致，不带头字节
+        assertEquals('{', legacy[0]);
+
+        for (CacheValueCodecEnum codec : CacheValueCodecEnum.values()) {
+            for (CacheCompressionEnum compression : CacheCompressionEnum.values()) {
+                CompactRedisSerializer serializer = new CompactRedisSerializer(objectMapper, codec, compression, 64);
+                byte[] bytes = serializer.serialize(value);
+                assertEquals(value, serializer.deserialize(bytes));
+                assertEquals(value, json.deserialize(bytes));
+                assertEquals(value, serializer.deserialize(legacy));
+                if (compression != CacheCompressionEnum.NONE) {
+                    assertTrue(bytes.length < legacy.length);
+                }
+            }
+        }
+        assertNull(json.deserialize(json.serialize(null)));
+    }
+
+    @Test
+    void testConcurrentStructures() throws InterruptedException {
+        int threads = 8;
+        int perThread = 1000;
+        String listKey = cacheBigKey + ":list";
+        String setKey = cacheBigKey + ":set";
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            executor.execute(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    String field = thread + ":" + j;
+                    cacheService.putHash(cacheBigKey, field, cacheValue);
+                    cacheService.pushToList(listKey, field);
+                    cacheService.addToSet(setKey, field);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, cacheService.getHashAll(cacheBigKey).size());
+        assertEquals(threads * perThread, cacheService.getList(listKey).size());
+        assertEquals(threads * perThread, cacheService.getSet(setKey).size());
+        cacheService.deleteMultiple(Set.of(cacheBigKey, listKey, setKey));
+    }
+
+    @Test
+    void testStructureTtl() {
+        CaffeineCacheServiceImpl<String, Object> service = variableExpiryCacheService(Long.MAX_VALUE);
+        String hashKey = cacheBigKey + ":hash";
+        String listKey = cacheBigKey + ":list";
+        String setKey = cacheBigKey + ":set";
+        // 过期时间小于等于0时不过期，与 redis 一致
+        service.putHash(hashKey, "field", cacheValue, 0, TimeUnit.SECONDS);
+        service.putHashAll(hashKey, Map.of("other", cacheValue), 0, TimeUnit.SECONDS);
+        service.pushToList(listKey, cacheValue, 0, TimeUnit.SECONDS);
+        service.addToSet(setKey, cacheValue, -1, TimeUnit.SECONDS);
+        assertEquals(2, service.getHashAll(hashKey).size());
+        assertEquals(List.of(cacheValue), service.getList(listKey));
+        assertEquals(Set.of(cacheValue), service.getSet(setKey));
+        Map<String, ExpiringValue<Object>> values = service.multiGetWithTtl(List.of(hashKey, listKey, setKey));
+        values.values().forEach(value -> assertFalse(value.isExpiring()));
+
+        // 过期时间与写入在同一次 compute 中设置
+        service.putHash(hashKey, "field", cacheValue, 60, TimeUnit.SECONDS);
+        service.pushToList(listKey, cacheValue, 60, TimeUnit.SECONDS);
+        service.addToSet(setKey, cacheValue, 60, TimeUnit.SECONDS);
+        values = service.multiGetWithTtl(List.of(hashKey, listKey, setKey));
+        assertEquals(3, values.size());
+        values.values().forEach(value ->
+                assertTrue(value.getTtlMillis() > 0 && value.getTtlMillis() <= 60_000, value.toString()));
+
+        // 计数器的过期时间只在创建时设置，之后的写入不会重置
+        AtomicLong nanos = new AtomicLong();
+        CaffeineCacheServiceImpl<String, Object> ticking = variableExpiryCacheService(Long.MAX_VALUE, nanos::get);
+        String counterKey = cacheBigKey + ":counter";
+        assertEquals(1, ticking.increment(counterKey, 1, 1, TimeUnit.SECONDS));
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(2, ticking.increment(counterKey, 1, 1, TimeUnit.HOURS));
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertEquals(0, ticking.getCounter(counterKey));
+
+        // 过期时间小于等于0时按默认过期时间写入
+        String stringKey = cacheBigKey + ":string";
+        ticking.set(stringKey, cacheValue, 0, TimeUnit.SECONDS);
+        assertEquals(cacheValue, ticking.get(stringKey));
+        ticking.set(stringKey, cacheValue, -1, TimeUnit.SECONDS);
+        assertFalse(ticking.multiGetWithTtl(List.of(stringKey)).get(stringKey).isExpiring());
+        ticking.set(stringKey.getBytes(StandardCharsets.UTF_8), new byte[]{1}, 0, TimeUnit.SECONDS);
+        assertArrayEquals(new byte[]{1}, ticking.get(stringKey.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testCounterAndSortedSet() throws InterruptedException {
+        int threads = 8;
+        int perThread = 1000;
+        String counterKey = cacheBigKey + ":counter";
+        String rankKey = cacheBigKey + ":rank";
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    cacheService.increment(counterKey, 1, 1, TimeUnit.HOURS);
+                    cacheService.incrementScore(rankKey, "player:" + j % 10, 1);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(threads * perThread, cacheService.getCounter(counterKey));
+        assertEquals(threads * perThread - 1, cacheService.decrement(counterKey, 1));
+        assertEquals(0, cacheService.getCounter(cacheBigKey + ":absent"));
+        assertEquals(threads * perThread / 10.0d, cacheService.getScore(rankKey, "player:0"));
+
+        cacheService.addToSortedSet(rankKey, "player:top", 1000000, 1, TimeUnit.HOURS);
+        cacheService.addToSortedSet(rankKey, "player:last", -1);
+        assertEquals(12, cacheService.sortedSetSize(rankKey));
+        List<Map.Entry<Object, Double>> top = cacheService.reverseRangeSortedSet(rankKey, 0, 2);
+        assertEquals(3, top.size());
+        assertEquals("player:top", top.get(0).getKey());
+        assertEquals(0L, cacheService.reverseRankInSortedSet(rankKey, "player:top"));
+        assertEquals(0L, cacheService.rankInSortedSet(rankKey, "player:last"));
+        assertEquals("player:last", cacheService.rangeSortedSet(rankKey, 0, 0).get(0).getKey());
+        assertEquals("player:top", cacheService.rangeSortedSet(rankKey, -1, -1).get(0).getKey());
+        cacheService.removeFromSortedSet(rankKey, "player:top");
+        assertNull(cacheService.reverseRankInSortedSet(rankKey, "player:top"));
+        assertNull(cacheService.getScore(rankKey, "player:top"));
+        assertThrows(IllegalStateException.class, () -> cacheService.increment(rankKey, 1));
+        cacheService.deleteMultiple(Set.of(counterKey, rankKey));
+        assertEquals(0, cacheService.sortedSetSize(rankKey));
+    }
+
+    @Test
+    void testCompareAndSet() throws Exception {
+        String key = cacheBigKey + ":versioned";
+        assertNull(cacheService.getVersioned(key));
+        CompareAndSetResult<Object> created = cacheService.compareAndSet(key, 0, 0, 1, TimeUnit.HOURS);
+        assertTrue(created.isSuccess());
+        assertEquals(1, created.getVersion());
+        // 版本号不一致时不写入，并返回当前值
+        CompareAndSetResult<Object> conflict = cacheService.compareAndSet(key, 0, 100);
+        assertFalse(conflict.isSuccess());
+        assertEquals(1, conflict.getVersion());
+        assertEquals(0, conflict.getCurrent().getValue());
+
+        // 并发读-改-写，冲突后重试，不丢失更新
+        int threads = 8;
+        int perThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < perThread; j++) {
+                        VersionedValue<Object> current = cacheService.getVersioned(key);
+                        while (!cacheService.compareAndSet(key, current.getVersion(),
+                                (Integer) current.getValue() + 1).isSuccess()) {
+                            current = cacheService.getVersioned(key);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        VersionedValue<Object> versioned = cacheService.getVersioned(key);
+        assertEquals(threads * perThread, versioned.getValue());
+        assertEquals(threads * perThread + 1, versioned.getVersion());
+
+        cacheService.set(cacheBigKey, cacheValue);
+        assertThrows(IllegalStateException.class, () -> cacheService.compareAndSet(cacheBigKey, 0, cacheValue));
+        cacheService.deleteMultiple(Set.of(key, cacheBigKey));
+        assertNull(cacheService.getVersioned(key));
+
+        // 过期时间与写入在同一次 compute 中设置，冲突时不修改原值的过期时间
+        CaffeineCacheServiceImpl<String, Object> service = variableExpiryCacheService(Long.MAX_VALUE);
+        assertTrue(service.compareAndSet(key, 0, cacheValue, 60, TimeUnit.SECONDS).isSuccess());
+        long ttlMillis = service.multiGetWithTtl(List.of(key)).get(key).getTtlMillis();
+        assertTrue(ttlMillis > 0 && ttlMillis <= 60_000, String.valueOf(ttlMillis));
+        assertFalse(service.compareAndSet(key, 0, cacheValue, 1, TimeUnit.HOURS).isSuccess());
+        ttlMillis = service.multiGetWithTtl(List.of(key)).get(key).getTtlMillis();
+        assertTrue(ttlMillis > 0 && ttlMillis <= 60_000, String.valueOf(ttlMillis));
+    }
+
+    @Test
+    void testRateLimiter() throws Exception {
+        assertSame(rateLimiterFactory.getRateLimiter("test"), rateLimiterFactory.getRateLimiter("test"));
+        assertEquals(RateLimiterAlgorithmEnum.TOKEN_BUCKET, rateLimiterFactory.getRateLimiter("test").algorithm());
+
+        AtomicLong nanos = new AtomicLong();
+        LocalRateLimiterFactory factory = new LocalRateLimiterFactory(RateLimiterAlgorithmEnum.TOKEN_BUCKET, 10,
+                Duration.ofSeconds(1), 100, nanos::get);
+        // 令牌桶允许一次性用完容量，之后按速率补充
+        RateLimiter tokenBucket = factory.getRateLimiter("token-bucket");
+        for (int i = 0; i < 10; i++) {
+            assertTrue(tokenBucket.tryAcquire("user"));
+        }
+        assertFalse(tokenBucket.tryAcquire("user"));
+        assertTrue(tokenBucket.tryAcquire("other"));
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertFalse(tokenBucket.tryAcquire("user", 2));
+        assertTrue(tokenBucket.tryAcquire("user"));
+        assertFalse(tokenBucket.tryAcquire("user", 11));
+        assertThrows(IllegalArgumentException.class, () -> tokenBucket.tryAcquire("user", 0));
+
+        // 滑动窗口内最多获取许可数个，最早的记录超过一个周期后才能再次获取
+        RateLimiter slidingWindow = factory.getRateLimiter("sliding-window",
+                RateLimiterAlgorithmEnum.SLIDING_WINDOW, 5, Duration.ofSeconds(1));
+        assertTrue(slidingWindow.tryAcquire("user", 3));
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertFalse(slidingWindow.tryAcquire("user", 3));
+        assertTrue(slidingWindow.tryAcquire("user", 2));
+        assertFalse(slidingWindow.tryAcquire("user"));
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        assertTrue(slidingWindow.tryAcquire("user", 3));
+        assertFalse(slidingWindow.tryAcquire("user"));
+
+        // 并发获取时成功的次数不超过许可数
+        for (RateLimiter rateLimiter : List.of(
+                factory.getRateLimiter("concurrent-token-bucket", RateLimiterAlgorithmEnum.TOKEN_BUCKET,
+                        100, Duration.ofHours(1)),
+                factory.getRateLimiter("concurrent-sliding-window", RateLimiterAlgorithmEnum.SLIDING_WINDOW,
+                        100, Duration.ofHours(1)))) {
+            AtomicInteger acquired = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    futures.add(executor.submit(() -> {
+                        for (int j = 0; j < 1000; j++) {
+                            if (rateLimiter.tryAcquire("user")) {
+                                acquired.incrementAndGet();
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get(10, TimeUnit.SECONDS);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+            assertTrue(acquired.get() <= 100, rateLimiter.algorithm() + ": " + acquired.get());
+            assertTrue(acquired.get() > 0);
+        }
+    }
+
+    @Test
+    void testHyperLogLog() {
+        String today = cacheBigKey + ":uv:today";
+        String yesterday = cacheBigKey + ":uv:yesterday";
+        int visitors = 100000;
+        List<Object> batch = new ArrayList<>(1000);
+        for (int i = 0; i < visitors; i++) {
+            batch.add("user:" + i);
+            if (batch.size() == 1000) {
+                assertTrue(cacheService.addToHyperLogLog(today, batch));
+                batch.clear();
+            }
+        }
+        // 重复的访问不会改变计数
+        assertFalse(cacheService.addToHyperLogLog(today, List.of("user:1", "user:2")));
+        long count = cacheService.countHyperLogLog(today);
+        assertTrue(Math.abs(count - visitors) < visitors * 0.02, "count: " + count);
+        List<Object> overlap = IntStream.range(visitors / 2, visitors * 3 / 2)
+                .mapToObj(i -> "user:" + i).collect(Collectors.toList());
+        cacheService.addToHyperLogLog(yesterday, overlap);
+        long union = cacheService.countHyperLogLog(List.of(today, yesterday));
+        assertTrue(Math.abs(union - visitors * 3 / 2) < visitors * 0.03, "union: " + union);
+        assertEquals(0, cacheService.countHyperLogLog(cacheBigKey + ":uv:absent"));
+        cacheService.deleteMultiple(Set.of(today, yesterday));
+    }
+
+    @Test
+    void testCaffeineMaximumSize() throws InterruptedException {
+        CacheServiceProperties properties = new CacheServiceProperties();
+        properties.getCaffeine().setInitialCapacity(16);
+        properties.getCaffeine().setMaximumSize(100);
+        properties.getCaffeine().setRecordStats(true);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        AsyncCache<String, Object> cache = new CaffeineCacheAutoconfiguration()
+                .caffeineAsyncCache(properties, beanFactory, beanFactory.getBeanProvider(MeterRegistry.class));
+        CacheService<String, Object> service = new CaffeineCacheServiceImpl<>(cache.synchronous());
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            int thread = i;
+            executor.execute(() -> {
+                for (int j = 0; j < 10000; j++) {
+                    String key = thread + ":" + j;
+                    service.set(key, cacheValue);
+                    service.get(key);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+        cache.synchronous().cleanUp();
+        assertTrue(cache.synchronous().estimatedSize() <= 100);
+        assertTrue(cache.synchronous().stats().evictionCount() > 0);
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", "cacheService").functionCounter());
+    }
+
+    @Test
+    void testOffHeapBytes() {
+        AtomicLong nanos = new AtomicLong();
+        CaffeineCacheServiceImpl<String, Object> service = new CaffeineCacheServiceImpl<>(
+                Caffeine.newBuilder().<String, Object>build());
+        try (OffHeapByteStore offHeapStore = new OffHeapByteStore(4 * 1024, 1024, null, nanos::get)) {
+            service.setOffHeapStore(offHeapStore);
+            byte[] key = cacheBigKey.getBytes(StandardCharsets.UTF_8);
+            byte[] value = cacheValue.getBytes(StandardCharsets.UTF_8);
+            service.set(key, value);
+            assertArrayEquals(value, service.get(key));
+            assertEquals(1, offHeapStore.size());
+
+            // 超过页大小的值存放在堆内，并删除堆外的旧值
+            byte[] largeValue = new byte[2048];
+            service.set(key, largeValue);
+            assertEquals(0, offHeapStore.size());
+            assertArrayEquals(largeValue, service.get(key));
+            service.delete(key);
+            assertNull(service.get(key));
+
+            service.set(key, value, 50, TimeUnit.MILLISECONDS);
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(49));
+            assertArrayEquals(value, service.get(key));
+            nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+            assertNull(service.get(key));
+
+            // 写满后按 LRU 淘汰
+            for (int i = 0; i < 100; i++) {
+                service.set(("off-heap:" + i).getBytes(StandardCharsets.UTF_8), new byte[500]);
+            }
+            assertTrue(offHeapStore.evictionCount() > 0);
+            assertTrue(offHeapStore.allocatedBytes() <= 4 * 1024);
+            assertTrue(offHeapStore.size() <= 4);
+            assertNotNull(service.get("off-heap:99".getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    void testShardedCacheService() {
+        Map<String, CacheService<String, Object>> shards = new LinkedHashMap<>();
+        for (int i = 0; i < 3; i++) {
+            shards.put("shard-" + i, new CaffeineCacheServiceImpl<>(Caffeine.newBuilder().<String, Object>build()));
+        }
+        ShardedRedisCacheService<String, Object> service =
+                new ShardedRedisCacheService<>(shards, new StringRedisSerializer(), 160);
+
+        // 虚拟节点使键大致均匀分布
+        Map<CacheService<String, Object>, Integer> counts = new HashMap<>();
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < 3000; i++) {
+            values.put("key:" + i, i);
+            counts.merge(service.shardFor("key:" + i), 1, Integer::sum);
+        }
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 600 && count < 1400, "分布不均: " + count));
+
+        service.multiSet(values, 0, TimeUnit.SECONDS);
+        assertEquals(values, service.multiGet(values.keySet()));
+        assertFalse(shards.get("shard-0").multiGet(values.keySet()).isEmpty());
+
+        // hash tag 相同的键落在同一个分片
+        assertSame(service.shardFor("token:{abc}:access"), service.shardFor("token:{abc}:refresh"));
+        assertEquals(ConsistentHashRing.hash("{abc}".getBytes(StandardCharsets.UTF_8)),
+                ConsistentHashRing.hash("abc".getBytes(StandardCharsets.UTF_8)));
+
+        List<byte[]> byteKeys = new ArrayList<>();
+        Map<byte[], byte[]> byteValues = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            byte[] key = ("bytes:" + i).getBytes(StandardCharsets.UTF_8);
+            byteKeys.add(key);
+            byteValues.put(key, String.valueOf(i).getBytes(StandardCharsets.UTF_8));
+        }
+        service.multiSetBytes(byteValues, 0, TimeUnit.SECONDS);
+        List<byte[]> byteResult = service.multiGetBytes(byteKeys);
+        for (int i = 0; i < byteKeys.size(); i++) {
+            assertEquals(String.valueOf(i), new String(byteResult.get(i), StandardCharsets.UTF_8));
+        }
+        service.multiDeleteBytes(byteKeys);
+        service.multiDelete(values.keySet());
+        assertTrue(service.multiGet(values.keySet()).isEmpty());
+
+        // 删除一个分片后，其余分片上的键不会迁移
+        Map<String, CacheService<String, Object>> remaining = new LinkedHashMap<>(shards);
+        remaining.remove("shard-2");
+        ShardedRedisCacheService<String, Object> shrunk =
+                new ShardedRedisCacheService<>(remaining, new StringRedisSerializer(), 160);
+        for (String key : values.keySet()) {
+            CacheService<String, Object> shard = service.shardFor(key);
+            if (shard != shards.get("shard-2")) {
+                assertSame(shard, shrunk.shardFor(key));
+            }
+        }
+    }
+
+    @Test
+    void testMultiLevelCacheService() {
+        CaffeineCacheServiceImpl<String, Object> remote = variableExpiryCacheService(Long.MAX_VALUE);
+        AtomicReference<Runnable> duringRead = new AtomicReference<>();
+        CacheService<String, Object> racingRemote = new DelegatingCacheService<>(remote) {
+            @Override
+            public Map<String, ExpiringValue<Object>> multiGetWithTtl(Collection<String> keys) {
+                Map<String, ExpiringValue<Object>> values = super.multiGetWithTtl(keys);
+                Runnable action = duringRead.getAndSet(null);
+                if (Objects.nonNull(action)) {
+                    action.run();
+                }
+                return values;
+            }
+        };
+        RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        Duration localExpireTime = Duration.ofMinutes(1);
+        CaffeineCacheServiceImpl<String, Object> localA = variableExpiryCacheService(localExpireTime.toNanos());
+        CaffeineCacheServiceImpl<String, Object> localB = variableExpiryCacheService(localExpireTime.toNanos());
+        MultiLevelCacheServiceImpl<String, Object> nodeA = new MultiLevelCacheServiceImpl<>(
+                localA, remote, redisTemplate, "test:invalidation", localExpireTime);
+        MultiLevelCacheServiceImpl<String, Object> nodeB = new MultiLevelCacheServiceImpl<>(
+                localB, racingRemote, redisTemplate, "test:invalidation", localExpireTime);
+        nodeA.setInvalidationBus(new LoopbackInvalidationBus(nodeB));
+        nodeB.setInvalidationBus(new LoopbackInvalidationBus(nodeA));
+        String key = cacheBigKey + ":multi-level";
+
+        // 其它节点的写入和删除通过失效通知删除本地的值，绕过多级缓存的写入在本地过期前不可见
+        nodeA.set(key, "v1");
+        assertEquals("v1", nodeB.get(key));
+        remote.set(key, "bypass");
+        assertEquals("v1", nodeB.get(key));
+        nodeA.set(key, "v2");
+        assertEquals("v2", nodeB.get(key));
+        nodeA.delete(key);
+        assertNull(nodeB.get(key));
+        Map<String, Object> values = Map.of(key + ":1", 1, key + ":2", 2);
+        nodeA.multiSet(values, 0, TimeUnit.SECONDS);
+        assertEquals(values, nodeB.multiGet(values.keySet()));
+        nodeA.multiDelete(values.keySet());
+        assertTrue(nodeB.multiGet(values.keySet()).isEmpty());
+
+        // 回填本地的过期时间不超过 redis 中的剩余过期时间
+        remote.set(key + ":ttl", "short", 5, TimeUnit.SECONDS);
+        assertEquals("short", nodeB.get(key + ":ttl"));
+        long ttlMillis = localB.multiGetWithTtl(List.of(key + ":ttl")).get(key + ":ttl").getTtlMillis();
+        assertTrue(ttlMillis > 0 && ttlMillis <= 5000, "本地过期时间: " + ttlMillis);
+        byte[] rawKey = (key + ":bytes").getBytes(StandardCharsets.UTF_8);
+        remote.set(rawKey, new byte[]{1}, 5, TimeUnit.SECONDS);
+        assertArrayEquals(new byte[]{1}, nodeB.get(rawKey));
+        ttlMillis = localB.multiGetBytesWithTtl(List.of(rawKey)).get(0).getTtlMillis();
+        assertTrue(ttlMillis > 0 && ttlMillis <= 5000, "本地过期时间: " + ttlMillis);
+        remote.set(key + ":persistent", "long");
+        assertEquals("long", nodeB.get(key + ":persistent"));
+        ttlMillis = localB.multiGetWithTtl(List.of(key + ":persistent")).get(key + ":persistent").getTtlMillis();
+        assertTrue(ttlMillis > 5000 && ttlMillis <= localExpireTime.toMillis(), "本地过期时间: " + ttlMillis);
+
+        // 读取 redis 期间收到的失效通知优先，读到的旧值不回填本地
+        nodeA.set(key, "v1");
+        duringRead.set(() -> nodeA.set(key, "v2"));
+        assertEquals("v1", nodeB.get(key));
+        assertEquals("v2", nodeB.get(key));
+
+        // 对象键与 byte[] 键在本地是两个条目，写入或删除其中一种时另一种也从本地删除
+        String formKey = key + ":form";
+        byte[] rawFormKey = formKey.getBytes(StandardCharsets.UTF_8);
+        remote.set(rawFormKey, new byte[]{1});
+        assertArrayEquals(new byte[]{1}, nodeB.get(rawFormKey));
+        nodeB.set(formKey, "object");
+        assertNull(localB.get(rawFormKey));
+        assertEquals("object", nodeB.get(formKey));
+        nodeB.set(rawFormKey, new byte[]{2});
+        assertNull(localB.get(formKey));
+        assertArrayEquals(new byte[]{2}, nodeB.get(rawFormKey));
+        nodeB.multiDelete(List.of(formKey));
+        assertNull(localB.get(rawFormKey));
+    }
+
+    @Test
+    void testScan() {
+        String prefix = cacheBigKey + ":scan";
+        for (int i = 0; i < 10; i++) {
+            cacheService.putHash(prefix + ":hash", "field:" + i, i);
+            cacheService.pushToList(prefix + ":list", i);
+            cacheService.addToSet(prefix + ":set", i);
+        }
+        cacheService.set((prefix + ":bytes").getBytes(StandardCharsets.UTF_8), new byte[]{1});
+        try (Stream<Map.Entry<String, Object>> hash = cacheService.scanHash(prefix + ":hash", 3)) {
+            assertEquals(10, hash.count());
+        }
+        try (Stream<Object> list = cacheService.scanList(prefix + ":list", 3)) {
+            assertEquals(cacheService.getList(prefix + ":list"), list.toList());
+        }
+        try (Stream<Object> set = cacheService.scanSet(prefix + ":set", 3)) {
+            assertEquals(10, set.count());
+        }
+        try (Stream<String> keys = cacheService.scanKeys(prefix + ":[hl]*", 3)) {
+            assertEquals(Set.of(prefix + ":hash", prefix + ":list"), keys.collect(Collectors.toSet()));
+        }
+        assertEquals(4, cacheService.deleteByPattern(prefix + ":*", 2));
+        assertFalse(cacheService.exists(prefix + ":set"));
+        assertNull(cacheService.get((prefix + ":bytes").getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void testHotKey() {
+        AtomicLong nanos = new AtomicLong();
+        HotKeyDetector detector = new HotKeyDetector(1.0d, 3, 256, 4, Duration.ofMillis(300), 10, nanos::get);
+        CacheService<String, Object> local = new CaffeineCacheServiceImpl<>(Caffeine.newBuilder().build());
+        CacheService<String, Object> hotKeyCacheService =
+                new HotKeyCacheService<>(local, detector, Duration.ofSeconds(5), 100);
+        String hotKey = cacheBigKey + ":hot";
+        hotKeyCacheService.set(hotKey, "v1");
+        for (int i = 0; i < 100; i++) {
+            hotKeyCacheService.get(hotKey);
+            hotKeyCacheService.get(cacheBigKey + ":cold:" + (i % 20));
+        }
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        List<HotKey> hotKeys = detector.hotKeys();
+        assertEquals(hotKey, hotKeys.get(0).getKey());
+        assertTrue(hotKeys.get(0).getCount() >= 100);
+        assertTrue(detector.topKeys().size() <= 3);
+
+        // 热点键提升到本地后，绕过装饰器的写入在本地过期前不可见，经过装饰器的写入会失效本地的值
+        assertEquals("v1", hotKeyCacheService.get(hotKey));
+        local.set(hotKey, "v2");
+        assertEquals("v1", hotKeyCacheService.get(hotKey));
+        hotKeyCacheService.set(hotKey, "v3");
+        assertEquals("v3", hotKeyCacheService.get(hotKey));
+    }
+
+    @Test
+    void testNullValueAndBloomFilter() {
+        CaffeineCacheServiceImpl<String, Object> local = new CaffeineCacheServiceImpl<>(Caffeine.newBuilder().build());
+        local.setNullValueCache(Duration.ofSeconds(5), 100);
+        AtomicInteger loads = new AtomicInteger();
+        String missingKey = cacheBigKey + ":missing";
+        assertNull(local.getOrLoad(missingKey, key -> {
+            loads.incrementAndGet();
+            return null;
+        }, 0, TimeUnit.SECONDS));
+        assertNull(local.getOrLoad(missingKey, key -> {
+            loads.incrementAndGet();
+            return "loaded";
+        }, 0, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+        // 删除时清除空值，下一次读取重新加载
+        local.delete(missingKey);
+        assertEquals("loaded", local.getOrLoad(missingKey, key -> {
+            loads.incrementAndGet();
+            return "loaded";
+        }, 0, TimeUnit.SECONDS));
+        assertEquals(2, loads.get());
+
+        BloomFilterFactory bloomFilterFactory = new LocalBloomFilterFactory(1000, 0.01, 1024 * 1024);
+        BloomFilter bloomFilter = bloomFilterFactory.getBloomFilter("user");
+        assertSame(bloomFilter, bloomFilterFactory.getBloomFilter("user"));
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add("user:" + i);
+        }
+        bloomFilter.putAll(ids);
+        assertFalse(bloomFilter.put("user:0"));
+        assertTrue(ids.stream().allMatch(bloomFilter::mightContain));
+        long falsePositives = IntStream.range(0, 10000)
+                .filter(i -> bloomFilter.mightContain("absent:" + i))
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+        // 超过内存上限时按上限创建
+        assertEquals(128, new LocalBloomFilterFactory(1000, 0.01, 16).getBloomFilter("capped").bitSize());
+    }
+
+    @Test
+    void testSetClearsNullValue() {
+        AtomicLong nanos = new AtomicLong();
+        CaffeineCacheServiceImpl<String, Object> local = variableExpiryCacheService(Long.MAX_VALUE, nanos::get);
+        local.setNullValueCache(Duration.ofHours(1), 100);
+        String key = cacheBigKey + ":null-then-set";
+        assertNull(local.getOrLoad(key, k -> null, 0, TimeUnit.SECONDS));
+
+        // 写入后清除空值，写入的值过期后重新加载，而不是被仍存活的空值挡住
+        local.set(key, "v1", 1, TimeUnit.SECONDS);
+        assertEquals("v1", local.get(key));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertNull(local.get(key));
+        assertEquals("loaded", local.getOrLoad(key, k -> "loaded", 0, TimeUnit.SECONDS));
+
+        String multiKey = cacheBigKey + ":null-then-multi-set";
+        assertNull(local.getOrLoad(multiKey, k -> null, 0, TimeUnit.SECONDS));
+        local.multiSet(Map.of(multiKey, "v1"), 1, TimeUnit.SECONDS);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals("loaded", local.getOrLoad(multiKey, k -> "loaded", 0, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testWriteBehind() {
+        CacheService<String, Object> local = new CaffeineCacheServiceImpl<>(Caffeine.newBuilder().build());
+        String prefix = cacheBigKey + ":write-behind";
+        try (WriteBehindCacheService<String, Object> writeBehind = new WriteBehindCacheService<>(local,
+                Duration.ofHours(1), 1000, 10, WriteBehindDurabilityEnum.BEST_EFFORT, true)) {
+            for (int i = 0; i < 100; i++) {
+                writeBehind.set(prefix + ":counter", i);
+                writeBehind.putHash(prefix + ":hash", "field:" + (i % 3), i);
+            }
+            // 刷新前当前 jvm 能读到自己的写入，下层缓存中还没有
+            assertNull(local.get(prefix + ":counter"));
+            assertEquals(99, writeBehind.get(prefix + ":counter"));
+            assertEquals(99, writeBehind.getHash(prefix + ":hash", "field:0"));
+            assertEquals(2, writeBehind.pendingCount());
+            assertEquals(196, writeBehind.coalescedCount());
+
+            writeBehind.flush();
+            assertEquals(0, writeBehind.pendingCount());
+            assertEquals(99, local.get(prefix + ":counter"));
+            assertEquals(3, local.getHashAll(prefix + ":hash").size());
+
+            // 删除丢弃未刷新的写入
+            writeBehind.set(prefix + ":deleted", "v");
+            writeBehind.delete(prefix + ":deleted");
+            assertNull(writeBehind.get(prefix + ":deleted"));
+
+            // 缓冲区满后新键直接写入
+            for (int i = 0; i < 20; i++) {
+                writeBehind.set(prefix + ":full:" + i, i);
+            }
+            assertEquals(10, writeBehind.pendingCount());
+            assertEquals(19, local.get(prefix + ":full:19"));
+            writeBehind.set(prefix + ":last", "v");
+        }
+        // 关闭时刷新剩余数据
+        assertEquals(0, local.get(prefix + ":full:0"));
+        assertEquals("v", local.get(prefix + ":last"));
+    }
+
+    @Test
+    void testWriteBehindReadDuringWrite() {
+        CacheService<String, Object> local = new CaffeineCacheServiceImpl<>(Caffeine.newBuilder().build());
+        String key = cacheBigKey + ":write-behind:in-flight";
+        AtomicReference<Runnable> duringWrite = new AtomicReference<>();
+        CacheService<String, Object> slowLocal = new DelegatingCacheService<>(local) {
+            @Override
+            public void multiSet(Map<String, Object> map, long timeout, TimeUnit unit) {
+                Runnable action = duringWrite.getAndSet(null);
+                if (Objects.nonNull(action)) {
+                    action.run();
+                }
+                super.multiSet(map, timeout, unit);
+            }
+        };
+        try (WriteBehindCacheService<String, Object> writeBehind = new WriteBehindCacheService<>(slowLocal,
+                Duration.ofHours(1), 1000, 10, WriteBehindDurabilityEnum.BEST_EFFORT, true)) {
+            // 设置过期时间前先写入缓冲的值，写入完成前读取仍能读到缓冲的值
+            writeBehind.set(key, "v");
+            AtomicReference<Object> readDuringWrite = new AtomicReference<>();
+            duringWrite.set(() -> readDuringWrite.set(writeBehind.get(key)));
+            writeBehind.expire(key, 1, TimeUnit.HOURS);
+            assertEquals("v", readDuringWrite.get());
+            assertEquals(0, writeBehind.pendingCount());
+            assertEquals("v", local.get(key));
+
+            // 读取缓冲区中的 byte[] 返回副本，修改不影响待写入的数据
+            byte[] bytesKey = (key + ":bytes").getBytes(StandardCharsets.UTF_8);
+            writeBehind.set(bytesKey, new byte[]{1, 2});
+            writeBehind.get(bytesKey)[0] = 9;
+            writeBehind.multiGetBytes(List.of(bytesKey)).get(0)[1] = 9;
+            assertArrayEquals(new byte[]{1, 2}, writeBehind.get(bytesKey));
+            writeBehind.flush();
+            assertArrayEquals(new byte[]{1, 2}, local.get(bytesKey));
+        }
+    }
+
+    @Test
+    void testCacheRegion() {
+        AtomicLong nanos = new AtomicLong();
+        CacheService<String, Object> local = new CaffeineCacheServiceImpl<>(Caffeine.newBuilder()
+                .expireAfter(new CacheExpiry(Long.MAX_VALUE, false))
+                .ticker(nanos::get)
+                .build());
+        RegionCacheService<Object> region = new RegionCacheService<>(local, "token", "token:", Duration.ofMillis(200));
+        region.set(cacheBigKey, cacheValue);
+        region.set(cacheBigKey + ":ttl", cacheValue, 1, TimeUnit.HOURS);
+        // 下层缓存中的键带有区域前缀
+        assertEquals(cacheValue, local.get("token:" + cacheBigKey));
+        assertNull(local.get(cacheBigKey));
+        assertEquals(cacheValue, region.get(cacheBigKey));
+        assertEquals(Set.of(cacheBigKey, cacheBigKey + ":ttl"),
+                region.multiGet(List.of(cacheBigKey, cacheBigKey + ":ttl", "missing")).keySet());
+        try (Stream<String> keys = region.scanKeys(cacheBigKey + "*", 100)) {
+            assertEquals(Set.of(cacheBigKey, cacheBigKey + ":ttl"), keys.collect(Collectors.toSet()));
+        }
+        assertEquals(3, region.hitCount());
+        assertEquals(1, region.missCount());
+
+        // 未指定过期时间的写入使用区域的默认过期时间
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(400));
+        assertNull(region.get(cacheBigKey));
+        assertEquals(cacheValue, region.get(cacheBigKey + ":ttl"));
+        assertEquals(1, region.deleteByPattern(cacheBigKey + "*", 100));
+        assertFalse(local.exists("token:" + cacheBigKey + ":ttl"));
+    }
+
+    @Test
+    void testCaffeineSnapshot(@TempDir Path directory) throws Exception {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfter(new CacheExpiry(Long.MAX_VALUE, false));
+        Cache<String, Object> cache = builder.build();
+        Cache<ByteArrayKey, byte[]> bytesCache = builder.build();
+        CaffeineCacheServiceImpl<String, Object> local = new CaffeineCacheServiceImpl<>(cache, bytesCache);
+        local.set(cacheBigKey, new ArrayList<>(List.of(cacheValue)));
+        local.set(cacheBigKey + ":ttl", cacheValue, 1, TimeUnit.HOURS);
+        local.set(cacheBigKey.getBytes(StandardCharsets.UTF_8), cacheValue.getBytes(StandardCharsets.UTF_8));
+        CompactRedisSerializer serializer = new CompactRedisSerializer(new ObjectMapper(),
+                CacheValueCodecEnum.KRYO, CacheCompressionEnum.NONE, 0);
+        Path path = directory.resolve("caffeine.snapshot");
+        // 关闭时写入快照
+        try (CaffeineSnapshot<String, Object> ignored = new CaffeineSnapshot<>(cache, bytesCache, serializer, path,
+                Duration.ofHours(1), 4, true)) {
+            assertFalse(Files.exists(path));
+        }
+        assertTrue(Files.exists(path));
+
+        Cache<String, Object> restoredCache = builder.build();
+        Cache<ByteArrayKey, byte[]> restoredBytesCache = builder.build();
+        CaffeineSnapshot<String, Object> snapshot = new CaffeineSnapshot<>(restoredCache, restoredBytesCache,
+                serializer, path, Duration.ofHours(1), 4, false);
+        assertEquals(3, snapshot.restore());
+        CaffeineCacheServiceImpl<String, Object> restored =
+                new CaffeineCacheServiceImpl<>(restoredCache, restoredBytesCache);
+        assertEquals(List.of(cacheValue), restored.get(cacheBigKey));
+        assertArrayEquals(cacheValue.getBytes(StandardCharsets.UTF_8),
+                restored.get(cacheBigKey.getBytes(StandardCharsets.UTF_8)));
+        // 按剩余时间恢复
+        long remaining = restoredCache.policy().expireVariably().orElseThrow()
+                .getExpiresAfter(cacheBigKey + ":ttl", TimeUnit.MINUTES).orElseThrow();
+        assertTrue(remaining >= 58 && remaining < 60);
+        // 已存在的键不会被覆盖，超过最长保留时间的快照被忽略
+        assertEquals(0, snapshot.restore());
+        TimeUnit.MILLISECONDS.sleep(5);
+        assertEquals(0, new CaffeineSnapshot<>(builder.build(), null, serializer, path,
+                Duration.ofMillis(1), 4, false).restore());
+        // 格式不兼容的文件被忽略
+        Files.write(path, new byte[64]);
+        assertEquals(0, new CaffeineSnapshot<>(builder.build(), null, serializer, path,
+                Duration.ofHours(1), 4, false).restore());
+    }
+
+    @Test
+    void testCachedAnnotation() throws Exception {
+        int loads = cachedTestService.loads.get();
+        assertEquals(cacheBigKey + ":" + cacheValue, cachedTestService.load(cacheBigKey, cacheValue));
+        assertEquals(cacheBigKey + ":" + cacheValue, cachedTestService.load(cacheBigKey, "ignored"));
+        assertEquals(loads + 1, cachedTestService.loads.get());
+        // 单参数的键直接取参数值
+        assertEquals(cacheBigKey + ":" + cacheValue, cacheService.get("test:cached:" + cacheBigKey));
+        cachedTestService.invalidate(cacheBigKey);
+        assertNull(cacheService.get("test:cached:" + cacheBigKey));
+        assertEquals(cacheBigKey + ":ignored", cachedTestService.load(cacheBigKey, "ignored"));
+        assertEquals(loads + 2, cachedTestService.loads.get());
+
+        // 超过编译阈值后结果不变，条件不满足时不使用缓存
+        for (int i = 0; i < 300; i++) {
+            assertEquals(cacheBigKey + ":1", cachedTestService.loadVersion(cacheBigKey, 1));
+        }
+        assertEquals(loads + 3, cachedTestService.loads.get());
+        assertEquals(cacheBigKey + ":1", cacheService.get("test:cached-version:" + cacheBigKey + ":1"));
+        cachedTestService.loadVersion(cacheBigKey, 0);
+        cachedTestService.loadVersion(cacheBigKey, 0);
+        assertEquals(loads + 5, cachedTestService.loads.get());
+
+        // 受检异常原样抛出，Optional 缓存其中的值
+        assertThrows(IOException.class, () -> cachedTestService.fail(cacheBigKey));
+        assertEquals(Optional.of(cacheBigKey), cachedTestService.find(cacheBigKey));
+        assertEquals(cacheBigKey, cacheService.get("test:cached-optional:" + cacheBigKey));
+        assertEquals(Optional.empty(), cachedTestService.find(""));
+
+        // 并发未命中时只执行一次方法
+        int threads = 8;
+        String key = cacheBigKey + ":concurrent";
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            loads = cachedTestService.loads.get();
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cachedTestService.slowLoad(key);
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                assertEquals(key, future.get());
+            }
+            assertEquals(loads + 1, cachedTestService.loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * byte[] 键读取的对比，默认不执行，通过 {@code -Dbenchmark=true} 开启。
+     * 输出按 {@code new String(key)} 作为键与按 {@link ByteArrayKey} 作为键的每次读取耗时，不做断言，
+     * 单次计时受 JIT 及 GC 影响，需要稳定的对比结果时应使用 JMH。
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkBytesKey() {
+        int keys = 10000;
+        int rounds = 50;
+        byte[][] rawKeys = new byte[keys][];
+        Cache<Object, Object> stringKeyCache = Caffeine.newBuilder().maximumSize(keys).build();
+        Cache<ByteArrayKey, byte[]> bytesKeyCache = Caffeine.newBuilder().maximumSize(keys).<ByteArrayKey, byte[]>build();
+        byte[] value = cacheValue.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < keys; i++) {
+            rawKeys[i] = ("user:token:" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+            stringKeyCache.put(new String(rawKeys[i]), value);
+            bytesKeyCache.put(ByteArrayKey.copyOf(rawKeys[i]), value);
+        }
+        // 预热
+        for (int round = 0; round < rounds; round++) {
+            for (byte[] rawKey : rawKeys) {
+                assertNotNull(stringKeyCache.getIfPresent(new String(rawKey)));
+                assertNotNull(bytesKeyCache.getIfPresent(ByteArrayKey.wrap(rawKey)));
+            }
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (byte[] rawKey : rawKeys) {
+                assertNotNull(stringKeyCache.getIfPresent(new String(rawKey)));
+            }
+        }
+        long stringKeyNanos = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (byte[] rawKey : rawKeys) {
+                assertNotNull(bytesKeyCache.getIfPresent(ByteArrayKey.wrap(rawKey)));
+            }
+        }
+        long bytesKeyNanos = System.nanoTime() - start;
+        long operations = (long) keys * rounds;
+        LoggerUtil.info(log, "new String(key): {} ns/op, ByteArrayKey: {} ns/op",
+                stringKeyNanos / operations, bytesKeyNanos / operations);
+    }
+
+    private static CaffeineCacheServiceImpl<String, Object> variableExpiryCacheService(long expireNanos) {
+        return variableExpiryCacheService(expireNanos, Ticker.systemTicker());
+    }
+
+    private static CaffeineCacheServiceImpl<String, Object> variableExpiryCacheService(long expireNanos, Ticker ticker) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfter(new CacheExpiry(expireNanos, true))
+                .ticker(ticker);
+        return new CaffeineCacheServiceImpl<>(builder.build(), builder.build());
+    }
+
+    /**
+     * 把失效通知直接交给另一个节点，代替 redis stream
+     */
+    static class LoopbackInvalidationBus extends RedisStreamInvalidationBus {
+
+        private final RedisStreamInvalidationBus.Listener peer;
+
+        LoopbackInvalidationBus(RedisStreamInvalidationBus.Listener peer) {
+            super(null, "test:invalidation", 1, 1, Duration.ZERO, Duration.ZERO);
+            this.peer = peer;
+        }
+
+        @Override
+        public void publish(String topic, List<byte[]> rawKeys) {
+            peer.onInvalidation(new CacheInvalidationMessage(null, System.currentTimeMillis(), rawKeys));
+        }
+    }
+
+    /**
+     * 缓存注解测试使用的服务
+     */
+    static class CachedTestService {
+
+        private final AtomicInteger loads = new AtomicInteger();
+
+        @Cached(name = "test:cached", key = "#id", timeout = 60)
+        public String load(String id, String value) {
+            loads.incrementAndGet();
+            return id + ":" + value;
+        }
+
+        @Cached(name = "test:cached-version", key = "#id + ':' + #version", condition = "#version > 0")
+        public String loadVersion(String id, int version) {
+            loads.incrementAndGet();
+            return id + ":" + version;
+        }
+
+        @Cached(name = "test:cached-optional", key = "#p0")
+        public Optional<String> find(String id) {
+            return id.isEmpty() ? Optional.empty() : Optional.of(id);
+        }
+
+        @Cached(name = "test:cached-fail")
+        public String fail(String id) throws IOException {
+            throw new IOException(id);
+        }
+
+        @Cached(name = "test:cached-slow", timeout = 1, unit = TimeUnit.MINUTES)
+        public String slowLoad(String id) throws InterruptedException {
+            loads.incrementAndGet();
+            TimeUnit.MILLISECONDS.sleep(100);
+            return id;
+        }
+
+        @CacheInvalidate(name = "test:cached", key = "#id")
+        public void invalidate(String id) {
+        }
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache;
+
+import com.fuhouyu.framework.cache.properties.CacheServiceProperties;
+import com.fuhouyu.framework.cache.service.impl.RedisCacheService;
+import com.fuhouyu.framework.common.utils.LoggerUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>
+ * redis 缓存服务的测试，带过期时间的写入通过模拟的连接校验脚本及参数，不需要 redis。
+ * 对比测试需要本地 redis，默认不执行，通过 {@code -Dbenchmark=true} 开启，
+ * redis 地址通过 {@code -Dbenchmark.redis.host} 指定，默认 localhost
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 22:30
+ */
+@Slf4j
+class RedisCacheServiceTest {
+
+    private static final String KEY = "script:key";
+
+    private RedisScriptingCommands scriptingCommands;
+
+    private RedisCacheService<String, String> service;
+
+    @BeforeEach
+    void setup() {
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        scriptingCommands = mock(RedisScriptingCommands.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+        // 服务端未缓存脚本，每次调用都改用 EVAL，可以从脚本内容确认执行的命令
+        when(scriptingCommands.evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class)))
+                .thenThrow(new RedisSystemException("NOSCRIPT No matching script", null));
+        RedisTemplate<String, String> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setDefaultSerializer(StringRedisSerializer.UTF_8);
+        redisTemplate.afterPropertiesSet();
+        service = new RedisCacheService<>(redisTemplate);
+    }
+
+    @Test
+    void testWriteWithTtlArguments() {
+        // ARGV[1] 为过期毫秒数，其后为各命令的参数
+        service.putHash(KEY, "field", "value", 60, TimeUnit.SECONDS);
+        assertArgs(this.lastCall("hset"), "60000", "field", "value");
+
+        Map<String, String> hash = new LinkedHashMap<>();
+        hash.put("f1", "v1");
+        hash.put("f2", "v2");
+        service.putHashAll(KEY, hash, 2, TimeUnit.MINUTES);
+        assertArgs(this.lastCall("hset"), "120000", "f1", "v1", "f2", "v2");
+
+        // 过期时间小于等于0时不过期，不足1毫秒时按1毫秒
+        service.pushToList(KEY, "item", 0, TimeUnit.SECONDS);
+        assertArgs(this.lastCall("rpush"), "0", "item");
+        service.addToSet(KEY, "member", 500, TimeUnit.MICROSECONDS);
+        assertArgs(this.lastCall("sadd"), "1", "member");
+
+        service.addToSortedSet(KEY, "member", 1.5, 1, TimeUnit.SECONDS);
+        assertArgs(this.lastCall("zadd"), "1000", "1.5", "member");
+        service.addToSortedSet(KEY, "member", Double.NEGATIVE_INFINITY, 1, TimeUnit.SECONDS);
+        assertArgs(this.lastCall("zadd"), "1000", "-inf", "member");
+    }
+
+    @Test
+    void testIncrementWithTtl() {
+        when(scriptingCommands.eval(any(byte[].class), eq(ReturnType.INTEGER), eq(1), any(byte[][].class)))
+                .thenReturn(3L);
+        assertEquals(3, service.increment(KEY, 3, 2, TimeUnit.SECONDS));
+        assertArgs(this.lastCall("incrby"), "2000", "3");
+        service.increment(KEY, -1, -1, TimeUnit.SECONDS);
+        assertArgs(this.lastCall("incrby"), "0", "-1");
+    }
+
+    @Test
+    void testEvalShaFirst() {
+        service.pushToList(KEY, "item", 1, TimeUnit.SECONDS);
+        // 先尝试 EVALSHA，参数与 EVAL 相同
+        ArgumentCaptor<byte[][]> keysAndArgs = ArgumentCaptor.forClass(byte[][].class);
+        verify(scriptingCommands).evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), keysAndArgs.capture());
+        assertArgs(keysAndArgs.getValue(), "1000", "item");
+        assertArgs(this.lastCall("rpush"), "1000", "item");
+    }
+
+    /**
+     * 带过期时间写入 hash 的对比，写入后单独 expire 需要两次往返，脚本只需要一次。
+     * 只输出两者的耗时，不做断言，耗时受机器及网络影响
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkWriteWithTtl() {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(System.getProperty("benchmark.redis.host", "localhost"), 6379));
+        connectionFactory.afterPropertiesSet();
+        try {
+            RedisTemplate<String, Object> redisTemplate =
+                    RedisCacheAutoConfiguration.createRedisTemplate(connectionFactory, new CacheServiceProperties());
+            RedisCacheService<String, Object> redisCacheService = new RedisCacheService<>(redisTemplate);
+            String key = UUID.randomUUID() + ":ttl";
+            String value = UUID.randomUUID().toString();
+            int operations = 10000;
+            // 预热，同时使服务端缓存脚本
+            for (int i = 0; i < 1000; i++) {
+                redisTemplate.opsForHash().put(key, "field:" + i, value);
+                redisTemplate.expire(key, 60, TimeUnit.SECONDS);
+                redisCacheService.putHash(key, "field:" + i, value, 60, TimeUnit.SECONDS);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                redisTemplate.opsForHash().put(key, "field:" + i, value);
+                redisTemplate.expire(key, 60, TimeUnit.SECONDS);
+            }
+            long twoRoundTripNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int i = 0; i < operations; i++) {
+                redisCacheService.putHash(key, "field:" + i, value, 60, TimeUnit.SECONDS);
+            }
+            long scriptNanos = System.nanoTime() - start;
+            assertTrue(redisTemplate.getExpire(key) > 0);
+            redisTemplate.delete(key);
+            LoggerUtil.info(log, "hset + expire: {} us/op, script: {} us/op",
+                    twoRoundTripNanos / operations / 1000, scriptNanos / operations / 1000);
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    /**
+     * 最近一次执行的脚本的键及参数
+     *
+     * @param command 脚本中应执行的命令
+     * @return 键及参数
+     */
+    private byte[][] lastCall(String command) {
+        ArgumentCaptor<byte[]> script = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<byte[][]> keysAndArgs = ArgumentCaptor.forClass(byte[][].class);
+        verify(scriptingCommands, atLeastOnce()).eval(script.capture(), eq(ReturnType.INTEGER), eq(1),
+                keysAndArgs.capture());
+        assertTrue(new String(script.getValue(), StandardCharsets.UTF_8).contains("redis.call('" + command + "'"),
+                command);
+        return keysAndArgs.getValue();
+    }
+
+    private static void assertArgs(byte[][] keysAndArgs, String... args) {
+        assertEquals(args.length + 1, keysAndArgs.length);
+        assertArrayEquals(KEY.getBytes(StandardCharsets.UTF_8), keysAndArgs[0]);
+        for (int i = 0; i < args.length; i++) {
+            assertEquals(args[i], new String(keysAndArgs[i + 1], StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import io.lettuce.core.ConnectionState;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateListener;
+import io.lettuce.core.StatefulRedisConnectionImpl;
+import io.lettuce.core.TrackingArgs;
+import io.lettuce.core.api.push.PushListener;
+import io.lettuce.core.api.push.PushMessage;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>
+ * 客户端缓存的占位与 epoch 校验，使用模拟的连接，不需要 redis
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 22:50
+ */
+class RedisClientSideCacheTest {
+
+    private static final byte[] KEY = "client-tracking:key".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] VALUE = "v1".getBytes(StandardCharsets.UTF_8);
+
+    private RedisClient client;
+
+    private StatefulRedisConnectionImpl<byte[], byte[]> connection;
+
+    private RedisCommands<byte[], byte[]> commands;
+
+    private ConnectionState connectionState;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        client = mock(RedisClient.class);
+        connection = mock(StatefulRedisConnectionImpl.class);
+        commands = mock(RedisCommands.class);
+        connectionState = mock(ConnectionState.class);
+        when(connection.sync()).thenReturn(commands);
+        when(connection.getConnectionState()).thenReturn(connectionState);
+        when(connectionState.getNegotiatedProtocolVersion()).thenReturn(ProtocolVersion.RESP3);
+    }
+
+    @Test
+    void testCacheUntilInvalidated() {
+        RedisClientSideCache cache = this.createCache();
+        PushListener pushListener = this.pushListener();
+        when(commands.get(KEY)).thenReturn(VALUE);
+
+        assertArrayEquals(VALUE, cache.get(KEY));
+        assertArrayEquals(VALUE, cache.get(KEY));
+        verify(commands, times(1)).get(KEY);
+        verify(commands, times(1)).clientTracking(any(TrackingArgs.class));
+        assertTrue(cache.isTracking());
+
+        pushListener.onPushMessage(invalidateMessage(KEY));
+        assertEquals(0, cache.localSize());
+        assertArrayEquals(VALUE, cache.get(KEY));
+        verify(commands, times(2)).get(KEY);
+    }
+
+    @Test
+    void testInvalidationDuringRead() {
+        RedisClientSideCache cache = this.createCache();
+        PushListener pushListener = this.pushListener();
+        // 读取返回之前收到失效消息，占位被删除，读到的旧值不写入本地
+        when(commands.get(KEY)).thenAnswer(invocation -> {
+            pushListener.onPushMessage(invalidateMessage(KEY));
+            return VALUE;
+        });
+
+        assertArrayEquals(VALUE, cache.get(KEY));
+        assertEquals(0, cache.localSize());
+    }
+
+    @Test
+    void testDisconnectDuringRead() {
+        RedisClientSideCache cache = this.createCache();
+        RedisConnectionStateListener stateListener = this.stateListener();
+        // 读取期间连接断开，epoch 变化，读到的值不写入本地
+        when(commands.get(KEY)).thenAnswer(invocation -> {
+            stateListener.onRedisDisconnected(connection);
+            return VALUE;
+        });
+
+        assertArrayEquals(VALUE, cache.get(KEY));
+        assertEquals(0, cache.localSize());
+        assertFalse(cache.isTracking());
+
+        // 重新连接后的首次读取先关闭再重新开启跟踪
+        when(commands.get(KEY)).thenReturn(VALUE);
+        assertArrayEquals(VALUE, cache.get(KEY));
+        assertEquals(1, cache.localSize());
+        assertTrue(cache.isTracking());
+        verify(commands, times(3)).clientTracking(any(TrackingArgs.class));
+    }
+
+    @Test
+    void testResp2NotCached() {
+        when(connectionState.getNegotiatedProtocolVersion()).thenReturn(ProtocolVersion.RESP2);
+        RedisClientSideCache cache = this.createCache();
+        when(commands.get(KEY)).thenReturn(VALUE);
+
+        assertArrayEquals(VALUE, cache.get(KEY));
+        assertArrayEquals(VALUE, cache.get(KEY));
+        verify(commands, times(2)).get(KEY);
+        verify(commands, never()).clientTracking(any(TrackingArgs.class));
+        assertEquals(0, cache.localSize());
+        assertFalse(cache.isTracking());
+    }
+
+    private RedisClientSideCache createCache() {
+        return new RedisClientSideCache(client, connection, false, List.of(), 100);
+    }
+
+    private PushListener pushListener() {
+        ArgumentCaptor<PushListener> captor = ArgumentCaptor.forClass(PushListener.class);
+        verify(connection).addListener(captor.capture());
+        return captor.getValue();
+    }
+
+    private RedisConnectionStateListener stateListener() {
+        ArgumentCaptor<RedisConnectionStateListener> captor = ArgumentCaptor.forClass(RedisConnectionStateListener.class);
+        verify(client).addListener(captor.capture());
+        return captor.getValue();
+    }
+
+    private static PushMessage invalidateMessage(byte[] key) {
+        PushMessage message = mock(PushMessage.class);
+        when(message.getType()).thenReturn("invalidate");
+        when(message.getContent(any())).thenReturn(List.of("invalidate".getBytes(StandardCharsets.UTF_8), List.of(key)));
+        return message;
+    }
+}
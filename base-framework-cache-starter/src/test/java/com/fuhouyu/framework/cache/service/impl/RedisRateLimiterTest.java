@@ -0,0 +1,193 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.ReturnType;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>
+ * redis 限流器的脚本结果处理及本地预获取许可的计数，使用模拟的连接，不需要 redis
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 23:10
+ */
+class RedisRateLimiterTest {
+
+    private static final String KEY = "user";
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private RedisConnectionFactory connectionFactory;
+
+    private RedisScriptingCommands scriptingCommands;
+
+    @BeforeEach
+    void setup() {
+        connectionFactory = mock(RedisConnectionFactory.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        scriptingCommands = mock(RedisScriptingCommands.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+    }
+
+    @Test
+    void testScriptResult() {
+        RedisRateLimiter rateLimiter = this.rateLimiter(RateLimiterAlgorithmEnum.TOKEN_BUCKET, 0);
+        when(scriptingCommands.evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class)))
+                .thenReturn(1L, 0L, null);
+        assertTrue(rateLimiter.tryAcquire(KEY));
+        // 脚本返回0或空时不足最少许可数
+        assertFalse(rateLimiter.tryAcquire(KEY));
+        assertFalse(rateLimiter.tryAcquire(KEY));
+        // 超过每个周期的许可数时不访问 redis
+        assertFalse(rateLimiter.tryAcquire(KEY, 101));
+
+        ArgumentCaptor<byte[][]> captor = ArgumentCaptor.forClass(byte[][].class);
+        verify(scriptingCommands, times(3)).evalSha(eq(CacheScripts.TOKEN_BUCKET_SCRIPT.getSha1()),
+                eq(ReturnType.INTEGER), eq(1), captor.capture());
+        byte[][] keysAndArgs = captor.getValue();
+        assertArrayEquals(bytes("rate:" + KEY), keysAndArgs[0]);
+        // 每个许可的间隔、周期（微秒）、最少及最多获取的许可数
+        assertArrayEquals(bytes("10000"), keysAndArgs[1]);
+        assertArrayEquals(bytes("1000000"), keysAndArgs[2]);
+        assertArrayEquals(bytes("1"), keysAndArgs[3]);
+        assertArrayEquals(bytes("1"), keysAndArgs[4]);
+    }
+
+    @Test
+    void testSlidingWindowMembers() {
+        RedisRateLimiter rateLimiter = this.rateLimiter(RateLimiterAlgorithmEnum.SLIDING_WINDOW, 0);
+        when(scriptingCommands.evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class)))
+                .thenReturn(2L);
+        assertTrue(rateLimiter.tryAcquire(KEY, 2));
+        assertTrue(rateLimiter.tryAcquire(KEY, 2));
+
+        ArgumentCaptor<byte[][]> captor = ArgumentCaptor.forClass(byte[][].class);
+        verify(scriptingCommands, times(2)).evalSha(eq(CacheScripts.SLIDING_WINDOW_SCRIPT.getSha1()),
+                eq(ReturnType.INTEGER), eq(1), captor.capture());
+        byte[][] first = captor.getAllValues().get(0);
+        byte[][] second = captor.getAllValues().get(1);
+        assertArrayEquals(bytes("1000000"), first[1]);
+        assertArrayEquals(bytes("100"), first[2]);
+        assertArrayEquals(bytes("2"), first[3]);
+        // 每次调用的成员前缀不同，同一微秒内的获取不会互相覆盖
+        assertNotEquals(new String(first[5], StandardCharsets.UTF_8), new String(second[5], StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testNoScriptFallback() {
+        RedisRateLimiter rateLimiter = this.rateLimiter(RateLimiterAlgorithmEnum.TOKEN_BUCKET, 0);
+        when(scriptingCommands.evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class)))
+                .thenThrow(new RedisSystemException("NOSCRIPT No matching script", null));
+        when(scriptingCommands.eval(any(byte[].class), eq(ReturnType.INTEGER), eq(1), any(byte[][].class)))
+                .thenReturn(1L);
+        assertTrue(rateLimiter.tryAcquire(KEY));
+        verify(scriptingCommands).eval(any(byte[].class), eq(ReturnType.INTEGER), eq(1), any(byte[][].class));
+    }
+
+    @Test
+    void testLease() {
+        RedisRateLimiter rateLimiter = this.rateLimiter(RateLimiterAlgorithmEnum.TOKEN_BUCKET, 10);
+        when(scriptingCommands.evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class)))
+                .thenReturn(10L, 3L, 0L);
+        // 一次获取10个，剩余9个在本地扣减
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryAcquire(KEY));
+        }
+        verify(scriptingCommands, times(1)).evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class));
+        // 本地不足时向 redis 获取，redis 不足最多许可数时按实际获取的数量计
+        assertTrue(rateLimiter.tryAcquire(KEY, 2));
+        assertTrue(rateLimiter.tryAcquire(KEY));
+        assertFalse(rateLimiter.tryAcquire(KEY));
+        verify(scriptingCommands, times(3)).evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class));
+    }
+
+    @Test
+    void testConcurrentLeaseMerged() {
+        RedisRateLimiter rateLimiter = this.rateLimiter(RateLimiterAlgorithmEnum.TOKEN_BUCKET, 10);
+        AtomicLong calls = new AtomicLong();
+        // 第一次获取的结果返回前，另一个线程的获取先写入租约
+        when(scriptingCommands.evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class)))
+                .thenAnswer(invocation -> {
+                    long call = calls.incrementAndGet();
+                    if (call == 1) {
+                        assertTrue(rateLimiter.tryAcquire(KEY));
+                    }
+                    return call <= 2 ? 10L : 0L;
+                });
+        assertTrue(rateLimiter.tryAcquire(KEY));
+        // 两次获取的剩余许可累加，而不是互相覆盖
+        for (int i = 0; i < 18; i++) {
+            assertTrue(rateLimiter.tryAcquire(KEY));
+        }
+        assertFalse(rateLimiter.tryAcquire(KEY));
+        verify(scriptingCommands, times(3)).evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class));
+    }
+
+    @Test
+    void testLeaseKeepsExpiry() {
+        RedisRateLimiter rateLimiter = this.rateLimiter(RateLimiterAlgorithmEnum.TOKEN_BUCKET, 10);
+        when(scriptingCommands.evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class)))
+                .thenReturn(10L);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(rateLimiter.tryAcquire(KEY));
+        }
+        // 租约用完后再次预获取，累加到已有的租约上，不延长其有效期
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertTrue(rateLimiter.tryAcquire(KEY));
+        verify(scriptingCommands, times(2)).evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class));
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(600));
+        assertTrue(rateLimiter.tryAcquire(KEY));
+        verify(scriptingCommands, times(3)).evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), any(byte[][].class));
+    }
+
+    private RedisRateLimiter rateLimiter(RateLimiterAlgorithmEnum algorithm, long leasePermits) {
+        return new RedisRateLimiter(key -> connectionFactory, "rate:", algorithm, 100, Duration.ofSeconds(1),
+                leasePermits, Duration.ofSeconds(1), 100, nanos::get);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.model.CacheInvalidationMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.stream.ByteRecord;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>
+ * stream 失效通知的读取位置、序号校验与合并，使用模拟的连接，不需要 redis
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 23:00
+ */
+class RedisStreamInvalidationBusTest {
+
+    private static final String STREAM_KEY = "test:invalidation";
+
+    private static final String TOPIC = "test";
+
+    private final RedisSerializer<CacheInvalidationMessage> messageSerializer =
+            new Jackson2JsonRedisSerializer<>(CacheInvalidationMessage.class);
+
+    private RedisConnectionFactory connectionFactory;
+
+    private RedisConnection connection;
+
+    private RedisStreamCommands streamCommands;
+
+    private RedisScriptingCommands scriptingCommands;
+
+    private RedisStreamInvalidationBus bus;
+
+    private RecordingListener listener;
+
+    @BeforeEach
+    void setup() {
+        connectionFactory = mock(RedisConnectionFactory.class);
+        connection = mock(RedisConnection.class);
+        streamCommands = mock(RedisStreamCommands.class);
+        scriptingCommands = mock(RedisScriptingCommands.class);
+        when(connectionFactory.getConnection()).thenReturn(connection);
+        when(connection.streamCommands()).thenReturn(streamCommands);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+        bus = new RedisStreamInvalidationBus(connectionFactory, STREAM_KEY, 1000, 100,
+                Duration.ofSeconds(1), Duration.ofSeconds(1));
+        listener = new RecordingListener();
+        bus.subscribe(TOPIC, listener);
+    }
+
+    @Test
+    void testContiguousBatch() {
+        this.initOffset(record("5-0", 5, TOPIC, message("node-a", 200, "k0")));
+        bus.dispatch(List.of(
+                record("6-0", 6, TOPIC, message("node-a", 300, "k1")),
+                record("7-0", 7, TOPIC, message("node-b", 100, "k2")),
+                record("8-0", 8, "other", message("node-b", 100, "k3"))));
+
+        // 同一主题的通知合并为一次，时间戳取最早的发布时间，未订阅的主题忽略
+        assertEquals(0, listener.invalidateAll);
+        assertEquals(1, listener.messages.size());
+        CacheInvalidationMessage merged = listener.messages.get(0);
+        assertEquals(100, merged.getTimestamp());
+        assertEquals(2, merged.getKeys().size());
+        assertArrayEquals(bytes("k1"), merged.getKeys().get(0));
+        assertArrayEquals(bytes("k2"), merged.getKeys().get(1));
+
+        bus.dispatch(List.of(record("9-0", 9, TOPIC, message("node-a", 400, "k4"))));
+        assertEquals(0, listener.invalidateAll);
+        assertEquals(2, listener.messages.size());
+    }
+
+    @Test
+    void testSequenceGap() {
+        this.initOffset(record("5-0", 5, TOPIC, message("node-a", 200, "k0")));
+        // 序号 6 已被裁剪，后续的通知不再逐个处理，直接清空本地缓存
+        bus.dispatch(List.of(
+                record("7-0", 7, TOPIC, message("node-a", 300, "k1")),
+                record("8-0", 8, TOPIC, message("node-a", 300, "k2"))));
+        assertEquals(1, listener.invalidateAll);
+        assertEquals(0, listener.messages.size());
+
+        // 清空后从最新的序号继续校验
+        bus.dispatch(List.of(record("9-0", 9, TOPIC, message("node-a", 400, "k3"))));
+        assertEquals(1, listener.invalidateAll);
+        assertEquals(1, listener.messages.size());
+    }
+
+    @Test
+    void testEmptyStream() {
+        this.initOffset();
+        // stream 为空时没有已知的序号，首次读取不会判定为不连续
+        bus.dispatch(List.of(record("1-0", 3, TOPIC, message("node-a", 100, "k1"))));
+        assertEquals(0, listener.invalidateAll);
+        assertEquals(1, listener.messages.size());
+    }
+
+    @Test
+    void testSkipOwnMessages() {
+        this.initOffset(record("5-0", 5, TOPIC, message("node-a", 200, "k0")));
+        bus.publish(TOPIC, List.of(bytes("own")));
+        ArgumentCaptor<byte[][]> captor = ArgumentCaptor.forClass(byte[][].class);
+        verify(scriptingCommands).evalSha(anyString(), eq(ReturnType.INTEGER), eq(1), captor.capture());
+        byte[] ownBody = captor.getValue()[3];
+
+        bus.dispatch(List.of(
+                record("6-0", 6, TOPIC, ownBody),
+                record("7-0", 7, TOPIC, message("node-a", 300, "k1"))));
+        // 自己发布的通知跳过，但仍然计入序号，不会判定为不连续
+        assertEquals(0, listener.invalidateAll);
+        assertEquals(1, listener.messages.size());
+        assertEquals(1, listener.messages.get(0).getKeys().size());
+        assertArrayEquals(bytes("k1"), listener.messages.get(0).getKeys().get(0));
+
+        bus.dispatch(List.of(record("8-0", 8, TOPIC, ownBody)));
+        assertEquals(0, listener.invalidateAll);
+        assertEquals(1, listener.messages.size());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void initOffset(ByteRecord... last) {
+        when(streamCommands.xRevRange(any(byte[].class), any(Range.class), any(Limit.class)))
+                .thenReturn(List.of(last));
+        bus.initOffset(connection);
+    }
+
+    private byte[] message(String nodeId, long timestamp, String key) {
+        return messageSerializer.serialize(new CacheInvalidationMessage(nodeId, timestamp, List.of(bytes(key))));
+    }
+
+    private static ByteRecord record(String id, long seq, String topic, byte[] body) {
+        Map<byte[], byte[]> fields = new LinkedHashMap<>();
+        fields.put(bytes("seq"), bytes(Long.toString(seq)));
+        fields.put(bytes("topic"), bytes(topic));
+        fields.put(bytes("body"), body);
+        return StreamRecords.newRecord().in(bytes(STREAM_KEY)).withId(id).ofBytes(fields);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static final class RecordingListener implements RedisStreamInvalidationBus.Listener {
+
+        private final List<CacheInvalidationMessage> messages = new ArrayList<>();
+
+        private int invalidateAll;
+
+        @Override
+        public void onInvalidation(CacheInvalidationMessage message) {
+            messages.add(message);
+        }
+
+        @Override
+        public void onInvalidateAll() {
+            invalidateAll++;
+        }
+    }
+}
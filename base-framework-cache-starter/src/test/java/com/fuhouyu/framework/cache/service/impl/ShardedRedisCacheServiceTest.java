@@ -0,0 +1,136 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.fuhouyu.framework.cache.service.impl;
+
+import com.fuhouyu.framework.cache.service.CacheService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * <p>
+ * 分片缓存服务跨分片合并 HyperLogLog 计数，使用模拟的分片，不需要 redis
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 23:20
+ */
+class ShardedRedisCacheServiceTest {
+
+    private static final byte[] DUMP = "HYLL".getBytes(StandardCharsets.UTF_8);
+
+    private ShardedRedisCacheService<String, Object> shardedCacheService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        Map<String, CacheService<String, Object>> shards = new LinkedHashMap<>();
+        shards.put("shard-0", mock(CacheService.class));
+        shards.put("shard-1", mock(CacheService.class));
+        shardedCacheService = new ShardedRedisCacheService<>(shards, new StringRedisSerializer(), 160);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCountHyperLogLogAcrossShards() {
+        String first = "uv:0";
+        String second = this.keyOnOtherShard(first);
+        String third = "{" + first + "}:1";
+        CacheService<String, Object> target = shardedCacheService.shardFor(first);
+        CacheService<String, Object> other = shardedCacheService.shardFor(second);
+        assertNotSame(target, other);
+        when(other.multiGetBytes(anyList())).thenReturn(List.of(DUMP));
+        when(target.countHyperLogLog(any(Collection.class))).thenReturn(42L);
+
+        assertEquals(42, shardedCacheService.countHyperLogLog(List.of(first, second, third)));
+
+        // 其余分片的原始值写入键最多的分片上的临时键，一次合并计数后删除
+        ArgumentCaptor<Map<byte[], byte[]>> copies = ArgumentCaptor.forClass(Map.class);
+        verify(target).multiSetBytes(copies.capture(), anyLong(), eq(TimeUnit.SECONDS));
+        assertEquals(1, copies.getValue().size());
+        byte[] tempKey = copies.getValue().keySet().iterator().next();
+        assertArrayEquals(DUMP, copies.getValue().get(tempKey));
+        ArgumentCaptor<Collection<String>> counted = ArgumentCaptor.forClass(Collection.class);
+        verify(target).countHyperLogLog(counted.capture());
+        assertEquals(List.of(first, third, new String(tempKey, StandardCharsets.UTF_8)),
+                new ArrayList<>(counted.getValue()));
+        verify(target).multiDeleteBytes(copies.getValue().keySet());
+        verify(other, never()).countHyperLogLog(any(Collection.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCountHyperLogLogSingleShard() {
+        List<String> keys = List.of("{uv}:1", "{uv}:2");
+        CacheService<String, Object> shard = shardedCacheService.shardFor(keys.get(0));
+        when(shard.countHyperLogLog(any(Collection.class))).thenReturn(7L);
+
+        assertEquals(7, shardedCacheService.countHyperLogLog(keys));
+        verify(shard).countHyperLogLog(keys);
+        verify(shard, never()).multiSetBytes(any(), anyLong(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCountHyperLogLogMissingOnOtherShard() {
+        String first = "uv:0";
+        String second = this.keyOnOtherShard(first);
+        CacheService<String, Object> target = shardedCacheService.shardFor(first);
+        CacheService<String, Object> other = shardedCacheService.shardFor(second);
+        List<byte[]> missing = new ArrayList<>();
+        missing.add(null);
+        when(other.multiGetBytes(anyList())).thenReturn(missing);
+        when(target.countHyperLogLog(any(Collection.class))).thenReturn(3L);
+
+        // 其余分片上的键不存在时不写临时键
+        assertEquals(3, shardedCacheService.countHyperLogLog(List.of(first, second)));
+        verify(target).countHyperLogLog(List.of(first));
+        verify(target, never()).multiSetBytes(any(), anyLong(), any());
+    }
+
+    private String keyOnOtherShard(String key) {
+        CacheService<String, Object> shard = shardedCacheService.shardFor(key);
+        for (int i = 1; ; i++) {
+            String candidate = "uv:" + i;
+            if (shardedCacheService.shardFor(candidate) != shard) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -17,7 +17,7 @@
 package com.fuhouyu.framework.security;
 
 import com.fuhouyu.framework.cache.CacheAutoConfiguration;
-import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.CacheRegionRegistry;
 import com.fuhouyu.framework.security.core.passwordencoder.PasswordEncoderFactory;
 import com.fuhouyu.framework.security.token.TokenStore;
 import com.fuhouyu.framework.security.token.TokenStoreCache;
@@ -49,16 +49,21 @@ import java.util.List;
 @AutoConfigureAfter(CacheAutoConfiguration.class)
 public class SecurityAutoConfiguration {
 
+    /**
+     * token 存储使用的缓存区域，未配置该区域时使用默认的缓存服务
+     */
+    private static final String TOKEN_CACHE_REGION = "token";
+
     /**
      * redisToken存储.
      *
-     * @param cacheService 缓存对象
+     * @param cacheRegionRegistry 缓存区域注册表
      * @return token存储.
      */
     @Bean
     @ConditionalOnMissingBean(TokenStore.class)
-    public TokenStore tokenStore(CacheService<String, Object> cacheService) {
-        return new TokenStoreCache("user", cacheService);
+    public TokenStore tokenStore(CacheRegionRegistry cacheRegionRegistry) {
+        return new TokenStoreCache("user", cacheRegionRegistry.getRegion(TOKEN_CACHE_REGION));
     }
 
 
@@ -16,6 +16,7 @@
 
 package com.fuhouyu.framework.security.token;
 
+import com.fuhouyu.framework.cache.model.ExpiringValue;
 import com.fuhouyu.framework.cache.service.CacheService;
 import com.fuhouyu.framework.common.utils.LoggerUtil;
 import com.fuhouyu.framework.security.entity.TokenEntity;
@@ -33,6 +34,10 @@ import org.springframework.security.oauth2.core.OAuth2RefreshToken;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
@@ -151,7 +156,6 @@ public class TokenStoreCache implements TokenStore {
             // 如果refresh Token为null，则生成一个
             if (auth2RefreshToken == null) {
                 OAuth2RefreshToken refreshToken = this.createRefreshToken(refreshTokenExpireSeconds);
-                this.storeRefreshToken(refreshToken, authentication);
                 tokenEntity.setRefreshToken(refreshToken);
                 this.storeTokenEntity(tokenEntity, authentication);
             }
@@ -161,7 +165,6 @@ public class TokenStoreCache implements TokenStore {
         OAuth2AccessToken accessToken = this.createAccessToken(
                 authentication, accessTokenExpireSeconds);
         OAuth2RefreshToken refreshToken = this.createRefreshToken(refreshTokenExpireSeconds);
-        this.storeRefreshToken(refreshToken, authentication);
         tokenEntity = new TokenEntity(accessToken, refreshToken);
         this.storeTokenEntity(tokenEntity, authentication);
         return tokenEntity;
@@ -186,28 +189,38 @@ public class TokenStoreCache implements TokenStore {
         return serializationStrategy.deserialize(bytes);
     }
 
+    /**
+     * access token 及 refresh token 的所有键，以及两者之间的关联在一次批量写入中完成
+     */
     @Override
     public void storeTokenEntity(TokenEntity tokenEntity, Authentication authentication) {
 
         byte[] tokenEntityBytes = this.serialize(tokenEntity);
         byte[] serializedAuth = serialize(authentication);
 
+        Map<byte[], ExpiringValue<byte[]>> entries = new LinkedHashMap<>();
         OAuth2AccessToken accessToken = tokenEntity.getAccessToken();
         long accessTokenExpireTime = this.expireTimeSeconds(accessToken.getExpiresAt());
-        cacheService.set(this.serializeKey(ACCESS + accessToken.getTokenValue()),
-                tokenEntityBytes,
-                accessTokenExpireTime, TimeUnit.SECONDS);
-        cacheService.set(this.serializeKey(AUTH + accessToken.getTokenValue()),
-                serializedAuth, accessTokenExpireTime, TimeUnit.SECONDS);
-        cacheService.set(this
-                        .serializeKey(AUTH_TO_ACCESS + authenticationKeyGenerator.extractKey(authentication)),
-                tokenEntityBytes, accessTokenExpireTime, TimeUnit.SECONDS);
+        this.putEntry(entries, this.serializeKey(ACCESS + accessToken.getTokenValue()),
+                tokenEntityBytes, accessTokenExpireTime);
+        this.putEntry(entries, this.serializeKey(AUTH + accessToken.getTokenValue()),
+                serializedAuth, accessTokenExpireTime);
+        this.putEntry(entries,
+                this.serializeKey(AUTH_TO_ACCESS + authenticationKeyGenerator.extractKey(authentication)),
+                tokenEntityBytes, accessTokenExpireTime);
 
         OAuth2RefreshToken refreshToken = tokenEntity.getRefreshToken();
         if (Objects.nonNull(refreshToken) && Objects.nonNull(
                 refreshToken.getTokenValue())) {
-            this.storeRefreshToken(refreshToken, authentication);
+            this.putRefreshToken(entries, refreshToken, serializedAuth);
+            // 删除 access token 时通过该关联删除 refresh token 的关联，删除 refresh token 时通过该关联删除 access token
+            this.putEntry(entries, this.serializeKey(ACCESS_TO_REFRESH + accessToken.getTokenValue()),
+                    serializationStrategy.serialize(refreshToken.getTokenValue()), accessTokenExpireTime);
+            this.putEntry(entries, this.serializeKey(REFRESH_TO_ACCESS + refreshToken.getTokenValue()),
+                    serializationStrategy.serialize(accessToken.getTokenValue()),
+                    this.expireTimeSeconds(refreshToken.getExpiresAt()));
         }
+        this.multiSet(entries);
     }
 
 
@@ -218,9 +231,10 @@ public class TokenStoreCache implements TokenStore {
 
     @Override
     public void removeTokenEntity(@NonNull TokenEntity tokenEntity) {
-        this.removeAccessToken(tokenEntity.getAccessToken());
-        this.removeRefreshToken(tokenEntity.getRefreshToken());
-
+        OAuth2AccessToken accessToken = tokenEntity.getAccessToken();
+        OAuth2RefreshToken refreshToken = tokenEntity.getRefreshToken();
+        this.removeTokens(Objects.isNull(accessToken) ? null : accessToken.getTokenValue(),
+                Objects.isNull(refreshToken) ? null : refreshToken.getTokenValue());
     }
 
     @Override
@@ -238,23 +252,14 @@ public class TokenStoreCache implements TokenStore {
 
     @Override
     public void removeAccessToken(String tokenValue) {
-        Authentication authentication = this.readAuthentication(tokenValue);
-        if (Objects.nonNull(authentication)) {
-            cacheService.delete(this.serializeKey(AUTH_TO_ACCESS + authenticationKeyGenerator.extractKey(authentication)));
-        }
-        cacheService.delete(this.serializeKey(AUTH + tokenValue));
-        cacheService.delete(this.serializeKey(ACCESS + tokenValue));
+        this.removeTokens(tokenValue, null);
     }
 
     @Override
     public void storeRefreshToken(OAuth2RefreshToken refreshToken, Authentication authentication) {
-        byte[] refreshKey = this.serializeKey(REFRESH + refreshToken.getTokenValue());
-        byte[] refreshAuthKey = this.serializeKey(REFRESH_AUTH + refreshToken.getTokenValue());
-
-        long expire = this.expireTimeSeconds(refreshToken.getExpiresAt());
-        cacheService.set(refreshKey, serialize(refreshToken), expire, TimeUnit.SECONDS);
-        cacheService.set(refreshAuthKey, serialize(authentication), expire, TimeUnit.SECONDS);
-
+        Map<byte[], ExpiringValue<byte[]>> entries = new LinkedHashMap<>();
+        this.putRefreshToken(entries, refreshToken, serialize(authentication));
+        this.multiSet(entries);
     }
 
     @Override
@@ -273,20 +278,7 @@ public class TokenStoreCache implements TokenStore {
 
     @Override
     public void removeRefreshToken(String tokenValue) {
-        byte[] refreshKey = this.serializeKey(REFRESH + tokenValue);
-        byte[] refreshAuthKey = this.serializeKey(REFRESH_AUTH + tokenValue);
-        byte[] refresh2AccessKey = this.serializeKey(REFRESH_TO_ACCESS + tokenValue);
-        cacheService.delete(refreshKey);
-        cacheService.delete(refreshAuthKey);
-        cacheService.delete(refresh2AccessKey);
-
-        byte[] accessTokenBytes = cacheService.get(refreshKey);
-        if (Objects.isNull(accessTokenBytes)) {
-            return;
-        }
-        String accessTokenValue = serializationStrategy.deserializeString(accessTokenBytes);
-        byte[] access2RefreshKey = this.serializeKey(ACCESS_TO_REFRESH + accessTokenValue);
-        cacheService.delete(access2RefreshKey);
+        this.removeTokens(null, tokenValue);
     }
 
     @Override
@@ -339,6 +331,98 @@ public class TokenStoreCache implements TokenStore {
         return tokenEntity;
     }
 
+    /**
+     * 删除 access token 及 refresh token 的所有键，先一次批量读取确定关联的键，再一次批量删除
+     *
+     * @param accessTokenValue  access token，为空时不删除
+     * @param refreshTokenValue refresh token，为空时不删除
+     */
+    private void removeTokens(String accessTokenValue, String refreshTokenValue) {
+        List<byte[]> readKeys = new ArrayList<>(2);
+        byte[] authKey = null;
+        if (Objects.nonNull(accessTokenValue)) {
+            authKey = this.serializeKey(AUTH + accessTokenValue);
+            readKeys.add(authKey);
+        }
+        byte[] refresh2AccessKey = null;
+        if (Objects.nonNull(refreshTokenValue)) {
+            refresh2AccessKey = this.serializeKey(REFRESH_TO_ACCESS + refreshTokenValue);
+            readKeys.add(refresh2AccessKey);
+        }
+        if (readKeys.isEmpty()) {
+            return;
+        }
+        List<byte[]> values = cacheService.multiGetBytes(readKeys);
+
+        List<byte[]> deleteKeys = new ArrayList<>(7);
+        int index = 0;
+        if (Objects.nonNull(authKey)) {
+            Authentication authentication = serializationStrategy.deserialize(values.get(index++));
+            if (Objects.nonNull(authentication)) {
+                deleteKeys.add(this.serializeKey(AUTH_TO_ACCESS + authenticationKeyGenerator.extractKey(authentication)));
+            }
+            deleteKeys.add(authKey);
+            deleteKeys.add(this.serializeKey(ACCESS + accessTokenValue));
+            deleteKeys.add(this.serializeKey(ACCESS_TO_REFRESH + accessTokenValue));
+        }
+        if (Objects.nonNull(refresh2AccessKey)) {
+            deleteKeys.add(this.serializeKey(REFRESH + refreshTokenValue));
+            deleteKeys.add(this.serializeKey(REFRESH_AUTH + refreshTokenValue));
+            deleteKeys.add(refresh2AccessKey);
+            // 删除前读取 refresh token 关联的 access token
+            byte[] accessTokenBytes = values.get(index);
+            if (Objects.nonNull(accessTokenBytes)) {
+                String accessTokenOfRefresh = serializationStrategy.deserializeString(accessTokenBytes);
+                deleteKeys.add(this.serializeKey(ACCESS_TO_REFRESH + accessTokenOfRefresh));
+            }
+        }
+        cacheService.multiDeleteBytes(deleteKeys);
+    }
+
+    /**
+     * 添加 refresh token 的键到批量写入中
+     *
+     * @param entries        键及其值与过期时间
+     * @param refreshToken   refresh token
+     * @param serializedAuth 序列化后的认证信息
+     */
+    private void putRefreshToken(Map<byte[], ExpiringValue<byte[]>> entries,
+                                 OAuth2RefreshToken refreshToken, byte[] serializedAuth) {
+        long expire = this.expireTimeSeconds(refreshToken.getExpiresAt());
+        this.putEntry(entries, this.serializeKey(REFRESH + refreshToken.getTokenValue()),
+                serialize(refreshToken), expire);
+        this.putEntry(entries, this.serializeKey(REFRESH_AUTH + refreshToken.getTokenValue()),
+                serializedAuth, expire);
+    }
+
+    /**
+     * 添加一个键到批量写入中，已过期的令牌不写入，否则批量写入会把小于等于0的过期时间当作永不过期
+     *
+     * @param entries 键及其值与过期时间
+     * @param key     键
+     * @param value   值
+     * @param expire  过期时间（秒），-1 表示永不过期，0 表示已过期
+     */
+    private void putEntry(Map<byte[], ExpiringValue<byte[]>> entries, byte[] key, byte[] value, long expire) {
+        if (expire == 0) {
+            return;
+        }
+        entries.put(key, new ExpiringValue<>(value,
+                expire < 0 ? ExpiringValue.NO_EXPIRE : TimeUnit.SECONDS.toMillis(expire)));
+    }
+
+    /**
+     * 批量写入，所有令牌都已过期时不访问缓存
+     *
+     * @param entries 键及其值与过期时间
+     */
+    private void multiSet(Map<byte[], ExpiringValue<byte[]>> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        cacheService.multiSetBytesWithTtl(entries);
+    }
+
     /**
      * 序列化对象.
      *
@@ -378,7 +462,7 @@ public class TokenStoreCache implements TokenStore {
      * 返回过期时间
      *
      * @param expiresAt 过期时间
-     * @return 过期时间
+     * @return 剩余的过期时间（秒），过期时间不存在时返回 -1，已过期时返回 0
      */
     private long expireTimeSeconds(Instant expiresAt) {
         if (Objects.isNull(expiresAt)) {
@@ -386,6 +470,6 @@ public class TokenStoreCache implements TokenStore {
             return -1;
         }
         long epochSecond = expiresAt.getEpochSecond();
-        return epochSecond - Instant.now().atZone(zoneId).toInstant().getEpochSecond();
+        return Math.max(epochSecond - Instant.now().atZone(zoneId).toInstant().getEpochSecond(), 0);
     }
 }
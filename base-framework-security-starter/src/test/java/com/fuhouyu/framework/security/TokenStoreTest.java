@@ -18,12 +18,18 @@ package com.fuhouyu.framework.security;
 
 import com.fuhouyu.framework.cache.CacheAutoConfiguration;
 import com.fuhouyu.framework.cache.CaffeineCacheAutoconfiguration;
+import com.fuhouyu.framework.cache.model.ExpiringValue;
 import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.impl.DelegatingCacheService;
+import com.fuhouyu.framework.common.utils.LoggerUtil;
 import com.fuhouyu.framework.security.entity.TokenEntity;
 import com.fuhouyu.framework.security.token.TokenStore;
+import com.fuhouyu.framework.security.token.TokenStoreCache;
+import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.TestComponent;
@@ -34,14 +40,22 @@ import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.security.oauth2.core.OAuth2RefreshToken;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * <p>
@@ -58,6 +72,7 @@ import java.util.List;
 
 })
 @TestPropertySource(locations = {"classpath:application.yaml"})
+@Slf4j
 class TokenStoreTest {
 
 
@@ -97,6 +112,213 @@ class TokenStoreTest {
         Assertions.assertNull(tokenStore.readRefreshToken(tokenEntity.getRefreshToken().getTokenValue()), "refresh token 未被清除");
     }
 
+    @Test
+    void testTokenStoreRoundTrips() {
+        RoundTripCacheService roundTrips = new RoundTripCacheService(cacheService, 0);
+        TokenStoreCache tokenStoreCache = new TokenStoreCache("round-trip", roundTrips);
+
+        // 登录：读取已有 token 一次，写入 access token 及 refresh token 一次
+        TokenEntity tokenEntity = tokenStoreCache.createToken(authentication, 60, 120);
+        Assertions.assertEquals(2, roundTrips.count.get());
+        Assertions.assertNotNull(tokenStoreCache.readAuthentication(tokenEntity.getAccessToken()));
+        Assertions.assertNotNull(tokenStoreCache.readAuthenticationForRefreshToken(tokenEntity.getRefreshToken()));
+        Assertions.assertEquals(tokenEntity.getAccessToken().getTokenValue(),
+                tokenStoreCache.createToken(authentication, 60, 120).getAccessToken().getTokenValue());
+
+        // 登出：批量读取关联的键一次，批量删除一次
+        roundTrips.count.set(0);
+        tokenStoreCache.removeTokenEntity(tokenEntity);
+        Assertions.assertEquals(2, roundTrips.count.get());
+        Assertions.assertNull(tokenStoreCache.readTokenEntity(tokenEntity.getAccessToken().getTokenValue()));
+        Assertions.assertNull(tokenStoreCache.readAuthentication(tokenEntity.getAccessToken()));
+        Assertions.assertNull(tokenStoreCache.readRefreshToken(tokenEntity.getRefreshToken().getTokenValue()));
+        Assertions.assertNull(tokenStoreCache.readAuthenticationForRefreshToken(tokenEntity.getRefreshToken()));
+        Assertions.assertNull(tokenStoreCache.getTokenEntity(authentication));
+    }
+
+    @Test
+    void testRemoveAccessTokenUsingRefreshToken() {
+        TokenStoreCache tokenStoreCache = new TokenStoreCache("refresh-to-access", cacheService);
+        TokenEntity tokenEntity = tokenStoreCache.createToken(authentication, 60, 120);
+
+        // access token 与 refresh token 的关联随令牌一并写入，可通过 refresh token 移除 access token
+        tokenStoreCache.removeAccessTokenUsingRefreshToken(tokenEntity.getRefreshToken());
+        Assertions.assertNull(tokenStoreCache.readTokenEntity(tokenEntity.getAccessToken().getTokenValue()));
+        Assertions.assertNull(tokenStoreCache.readAuthentication(tokenEntity.getAccessToken()));
+        Assertions.assertNotNull(tokenStoreCache.readRefreshToken(tokenEntity.getRefreshToken().getTokenValue()));
+        tokenStoreCache.removeRefreshToken(tokenEntity.getRefreshToken());
+    }
+
+    @Test
+    void testExpiredTokenNotStored() {
+        RoundTripCacheService roundTrips = new RoundTripCacheService(cacheService, 0);
+        TokenStoreCache tokenStoreCache = new TokenStoreCache("expired", roundTrips);
+        Instant now = Instant.now();
+        OAuth2AccessToken expiredAccessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "expired-access", now.minusSeconds(120), now.minusSeconds(60));
+        OAuth2RefreshToken refreshToken = new OAuth2RefreshToken("live-refresh", now, now.plusSeconds(60));
+
+        // 已过期的 access token 不写入，未过期的 refresh token 正常写入
+        tokenStoreCache.storeTokenEntity(new TokenEntity(expiredAccessToken, refreshToken), authentication);
+        Assertions.assertEquals(1, roundTrips.count.get());
+        Assertions.assertNull(tokenStoreCache.readTokenEntity(expiredAccessToken.getTokenValue()));
+        Assertions.assertNull(tokenStoreCache.readAuthentication(expiredAccessToken));
+        Assertions.assertNull(tokenStoreCache.getTokenEntity(authentication));
+        Assertions.assertNotNull(tokenStoreCache.readRefreshToken(refreshToken.getTokenValue()));
+
+        // 全部过期时不访问缓存
+        roundTrips.count.set(0);
+        OAuth2RefreshToken expiredRefreshToken = new OAuth2RefreshToken("expired-refresh",
+                now.minusSeconds(120), now.minusSeconds(60));
+        tokenStoreCache.storeTokenEntity(new TokenEntity(expiredAccessToken, expiredRefreshToken), authentication);
+        Assertions.assertEquals(0, roundTrips.count.get());
+        Assertions.assertNull(tokenStoreCache.readRefreshToken(expiredRefreshToken.getTokenValue()));
+        tokenStoreCache.removeRefreshToken(refreshToken);
+    }
+
+    /**
+     * 登录及登出的延迟，通过 {@code -Dbenchmark=true} 开启。
+     * 每次缓存调用模拟一次网络往返（默认 1ms，可通过 {@code -Dbenchmark.rtt.micros} 调整），
+     * 在相同的往返延迟下分别测量逐个键访问缓存与批量访问缓存的 p99 并输出，只断言往返次数。
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmarkLoginLatency() {
+        long rttMicros = Long.getLong("benchmark.rtt.micros", 1000);
+        int logins = 500;
+        RoundTripCacheService perKey = new PerKeyCacheService(cacheService, rttMicros);
+        long[] perKeyP99 = this.loginLogoutP99(new TokenStoreCache("benchmark-per-key", perKey), logins);
+        RoundTripCacheService batched = new RoundTripCacheService(cacheService, rttMicros);
+        long[] batchedP99 = this.loginLogoutP99(new TokenStoreCache("benchmark-batched", batched), logins);
+        LoggerUtil.info(log, "rtt: {} us, per key: login p99 {} us, logout p99 {} us, round trips {}; "
+                        + "batched: login p99 {} us, logout p99 {} us, round trips {}",
+                rttMicros, perKeyP99[0] / 1000, perKeyP99[1] / 1000, perKey.count.get(),
+                batchedP99[0] / 1000, batchedP99[1] / 1000, batched.count.get());
+        // 批量访问时登录与登出各 2 次往返
+        Assertions.assertEquals(4 * logins, batched.count.get());
+        Assertions.assertTrue(perKey.count.get() > batched.count.get());
+    }
+
+    /**
+     * 依次登录并登出不同的用户，返回登录及登出的 p99（纳秒）
+     *
+     * @param tokenStoreCache token 存储
+     * @param logins          登录次数
+     * @return 登录及登出的 p99
+     */
+    private long[] loginLogoutP99(TokenStoreCache tokenStoreCache, int logins) {
+        long[] loginNanos = new long[logins];
+        long[] logoutNanos = new long[logins];
+        for (int i = 0; i < logins; i++) {
+            User user = new User("benchmarkUser" + i, "testPassword", Collections.emptyList());
+            Authentication userAuthentication =
+                    new UsernamePasswordAuthenticationToken(user, user.getPassword(), user.getAuthorities());
+            long start = System.nanoTime();
+            TokenEntity tokenEntity = tokenStoreCache.createToken(userAuthentication, 60, 120);
+            loginNanos[i] = System.nanoTime() - start;
+            start = System.nanoTime();
+            tokenStoreCache.removeTokenEntity(tokenEntity);
+            logoutNanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(loginNanos);
+        Arrays.sort(logoutNanos);
+        return new long[]{loginNanos[logins * 99 / 100], logoutNanos[logins * 99 / 100]};
+    }
+
+    /**
+     * 统计缓存调用次数，每次调用等待指定的时间模拟一次网络往返
+     */
+    private static class RoundTripCacheService extends DelegatingCacheService<String, Object> {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        private final long rttMicros;
+
+        RoundTripCacheService(CacheService<String, Object> delegate, long rttMicros) {
+            super(delegate);
+            this.rttMicros = rttMicros;
+        }
+
+        @Override
+        public void set(byte[] key, byte[] value, long timeout, TimeUnit unit) {
+            this.roundTrip();
+            super.set(key, value, timeout, unit);
+        }
+
+        @Override
+        public byte[] get(byte[] key) {
+            this.roundTrip();
+            return super.get(key);
+        }
+
+        @Override
+        public void delete(byte[] key) {
+            this.roundTrip();
+            super.delete(key);
+        }
+
+        @Override
+        public List<byte[]> multiGetBytes(List<byte[]> keys) {
+            this.roundTrip();
+            return super.multiGetBytes(keys);
+        }
+
+        @Override
+        public void multiSetBytes(Map<byte[], byte[]> map, long timeout, TimeUnit unit) {
+            this.roundTrip();
+            super.multiSetBytes(map, timeout, unit);
+        }
+
+        @Override
+        public void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries) {
+            this.roundTrip();
+            super.multiSetBytesWithTtl(entries);
+        }
+
+        @Override
+        public void multiDeleteBytes(Collection<byte[]> keys) {
+            this.roundTrip();
+            super.multiDeleteBytes(keys);
+        }
+
+        private void roundTrip() {
+            count.incrementAndGet();
+            if (rttMicros > 0) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(rttMicros));
+            }
+        }
+    }
+
+    /**
+     * 把批量操作拆成逐个键的操作，每个键一次往返，作为批量访问的对照
+     */
+    private static class PerKeyCacheService extends RoundTripCacheService {
+
+        PerKeyCacheService(CacheService<String, Object> delegate, long rttMicros) {
+            super(delegate, rttMicros);
+        }
+
+        @Override
+        public List<byte[]> multiGetBytes(List<byte[]> keys) {
+            List<byte[]> values = new ArrayList<>(keys.size());
+            for (byte[] key : keys) {
+                values.add(this.get(key));
+            }
+            return values;
+        }
+
+        @Override
+        public void multiSetBytesWithTtl(Map<byte[], ExpiringValue<byte[]>> entries) {
+            entries.forEach((key, value) -> this.set(key, value.getValue(), value.getTtlMillis(),
+                    TimeUnit.MILLISECONDS));
+        }
+
+        @Override
+        public void multiDeleteBytes(Collection<byte[]> keys) {
+            keys.forEach(this::delete);
+        }
+    }
+
     @TestComponent
     public static class AuthenticationProvider {
 
@@ -16,8 +16,9 @@
 
 package com.fuhouyu.framework.web;
 
-import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.CacheRegionRegistry;
 import com.fuhouyu.framework.web.aspectj.NoRepeatSubmitAspectj;
+import com.fuhouyu.framework.web.constants.FormTokenConstant;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 
@@ -32,11 +33,11 @@ import org.springframework.context.annotation.Bean;
 @RequiredArgsConstructor
 public class FormAutoConfiguration {
 
-    private final CacheService<String, Object> cacheService;
+    private final CacheRegionRegistry cacheRegionRegistry;
 
 
     @Bean
     public NoRepeatSubmitAspectj noDuplicateSubmitAspect() {
-        return new NoRepeatSubmitAspectj(cacheService);
+        return new NoRepeatSubmitAspectj(cacheRegionRegistry.getRegion(FormTokenConstant.CACHE_REGION));
     }
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.web;
+
+import com.fuhouyu.framework.cache.service.RateLimiterFactory;
+import com.fuhouyu.framework.web.aspectj.RateLimitAspectj;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * <p>
+ * 接口限流自动装配类
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+public class RateLimitAutoConfiguration {
+
+    /**
+     * 接口限流切面
+     *
+     * @param rateLimiterFactory 限流器工厂
+     * @return 限流切面
+     */
+    @Bean
+    public RateLimitAspectj rateLimitAspect(RateLimiterFactory rateLimiterFactory) {
+        return new RateLimitAspectj(rateLimiterFactory);
+    }
+}
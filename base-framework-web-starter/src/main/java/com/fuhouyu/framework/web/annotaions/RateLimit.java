@@ -0,0 +1,86 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.web.annotaions;
+
+import com.fuhouyu.framework.cache.enums.RateLimiterAlgorithmEnum;
+
+import java.lang.annotation.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>
+ * 接口限流注解，超过限制时返回 429
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD})
+@Documented
+public @interface RateLimit {
+
+    /**
+     * 限流器名称，为空时使用 {@code 类名.方法名}，名称相同的接口共用配额
+     *
+     * @return 限流器名称
+     */
+    String name() default "";
+
+    /**
+     * 限流的键，SpEL 表达式，可通过 {@code #参数名} 引用方法参数，通过 {@code #request} 引用当前请求，
+     * 如 {@code #request.remoteAddr} 按 ip 限流。为空时所有调用共用配额
+     *
+     * @return 限流的键
+     */
+    String key() default "";
+
+    /**
+     * 每个周期的许可数，小于等于0时使用配置的限流算法、许可数及周期
+     *
+     * @return 许可数
+     */
+    long permits() default 0;
+
+    /**
+     * 周期
+     *
+     * @return 周期
+     */
+    long period() default 1;
+
+    /**
+     * 周期的时间单位
+     *
+     * @return 时间单位
+     */
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * 限流算法
+     *
+     * @return 限流算法
+     */
+    RateLimiterAlgorithmEnum algorithm() default RateLimiterAlgorithmEnum.TOKEN_BUCKET;
+
+    /**
+     * 超过限制时的错误信息
+     *
+     * @return 错误信息
+     */
+    String message() default "Too many requests.";
+}
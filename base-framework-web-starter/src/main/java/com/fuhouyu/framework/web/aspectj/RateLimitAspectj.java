@@ -0,0 +1,192 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.web.aspectj;
+
+import com.fuhouyu.framework.cache.service.RateLimiter;
+import com.fuhouyu.framework.cache.service.RateLimiterFactory;
+import com.fuhouyu.framework.web.annotaions.RateLimit;
+import com.fuhouyu.framework.web.enums.ResponseCodeEnum;
+import com.fuhouyu.framework.web.exception.WebServiceException;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.ast.Literal;
+import org.springframework.expression.spel.standard.SpelExpression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>
+ * 接口限流切面，限流器、参数名及键表达式按方法解析一次后缓存。
+ * 常量键在解析时求值，只引用单个参数的键直接取参数值，都不需要创建表达式上下文。
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+@Aspect
+@RequiredArgsConstructor
+public class RateLimitAspectj {
+
+    /**
+     * 未指定键时所有调用共用的键
+     */
+    private static final String GLOBAL_KEY = "global";
+
+    /**
+     * 只引用单个变量的表达式，如 {@code #id}
+     */
+    private static final Pattern VARIABLE_REFERENCE = Pattern.compile("#(\\w+)");
+
+    private final RateLimiterFactory rateLimiterFactory;
+
+    private final ParameterNameDiscoverer discoverer = new DefaultParameterNameDiscoverer();
+
+    private final ConcurrentMap<Method, LimitTarget> targets = new ConcurrentHashMap<>();
+
+    /**
+     * 切面，当在使用{@link RateLimit}注解后，会在这里获取许可，获取失败时不执行方法
+     *
+     * @param joinPoint 连接点
+     * @param rateLimit 限流注解
+     * @return obj
+     * @throws Throwable 异常信息
+     */
+    @Around(value = "@annotation(rateLimit)")
+    public Object doAround(ProceedingJoinPoint joinPoint, RateLimit rateLimit) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        LimitTarget target = targets.get(method);
+        if (Objects.isNull(target)) {
+            target = targets.computeIfAbsent(method, key -> this.createTarget(method, rateLimit));
+        }
+        if (!target.rateLimiter().tryAcquire(target.generateKey(joinPoint.getTarget(), joinPoint.getArgs()))) {
+            throw new WebServiceException(ResponseCodeEnum.TOO_MANY_REQUESTS, rateLimit.message());
+        }
+        return joinPoint.proceed();
+    }
+
+    private LimitTarget createTarget(Method method, RateLimit rateLimit) {
+        String name = StringUtils.hasText(rateLimit.name()) ? rateLimit.name()
+                : method.getDeclaringClass().getName() + "." + method.getName();
+        RateLimiter rateLimiter = rateLimit.permits() > 0
+                ? rateLimiterFactory.getRateLimiter(name, rateLimit.algorithm(), rateLimit.permits(),
+                Duration.of(rateLimit.period(), rateLimit.unit().toChronoUnit()))
+                : rateLimiterFactory.getRateLimiter(name);
+        if (!StringUtils.hasText(rateLimit.key())) {
+            return new LimitTarget(rateLimiter, GLOBAL_KEY, -1, null, null);
+        }
+        String[] parameterNames = discoverer.getParameterNames(method);
+        String[][] variableNames = new String[method.getParameterCount()][];
+        for (int i = 0; i < variableNames.length; i++) {
+            variableNames[i] = Objects.isNull(parameterNames)
+                    ? new String[]{"p" + i, "a" + i}
+                    : new String[]{parameterNames[i], "p" + i, "a" + i};
+        }
+        int keyParameterIndex = this.keyParameterIndex(rateLimit.key(), variableNames);
+        if (keyParameterIndex >= 0) {
+            return new LimitTarget(rateLimiter, null, keyParameterIndex, null, null);
+        }
+        SpelExpressionParser parser = new SpelExpressionParser(
+                new SpelParserConfiguration(SpelCompilerMode.MIXED, method.getDeclaringClass().getClassLoader()));
+        Expression key = parser.parseExpression(rateLimit.key());
+        if (key instanceof SpelExpression spelExpression && spelExpression.getAST() instanceof Literal) {
+            return new LimitTarget(rateLimiter, String.valueOf(key.getValue()), -1, null, null);
+        }
+        return new LimitTarget(rateLimiter, null, -1, key, variableNames);
+    }
+
+    /**
+     * 键只引用单个参数时返回参数下标
+     *
+     * @param key           键表达式
+     * @param variableNames 每个参数可用的变量名
+     * @return 参数下标，不是单个参数时返回 -1
+     */
+    private int keyParameterIndex(String key, String[][] variableNames) {
+        Matcher matcher = VARIABLE_REFERENCE.matcher(key.trim());
+        if (!matcher.matches()) {
+            return -1;
+        }
+        String variableName = matcher.group(1);
+        for (int i = 0; i < variableNames.length; i++) {
+            for (String name : variableNames[i]) {
+                if (name.equals(variableName)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 方法对应的限流器及键，常量键、参数下标、键表达式三者只使用其一
+     *
+     * @param rateLimiter       限流器
+     * @param constantKey       常量键，未指定键时为所有调用共用的键
+     * @param keyParameterIndex 键直接引用的参数下标，小于0时不使用
+     * @param keyExpression     键表达式
+     * @param variableNames     每个参数在表达式中可用的变量名
+     */
+    private record LimitTarget(RateLimiter rateLimiter, String constantKey, int keyParameterIndex,
+                               Expression keyExpression, String[][] variableNames) {
+
+        /**
+         * 计算本次调用的限流键
+         *
+         * @param target 目标对象
+         * @param args   参数
+         * @return 限流键
+         */
+        String generateKey(Object target, Object[] args) {
+            if (Objects.nonNull(constantKey)) {
+                return constantKey;
+            }
+            if (keyParameterIndex >= 0) {
+                return ObjectUtils.nullSafeToString(args[keyParameterIndex]);
+            }
+            StandardEvaluationContext context = new StandardEvaluationContext(target);
+            for (int i = 0; i < args.length; i++) {
+                for (String variableName : variableNames[i]) {
+                    context.setVariable(variableName, args[i]);
+                }
+            }
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                context.setVariable("request", attributes.getRequest());
+            }
+            return String.valueOf(keyExpression.getValue(context));
+        }
+    }
+}
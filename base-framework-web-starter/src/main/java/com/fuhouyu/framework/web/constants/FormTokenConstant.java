@@ -35,6 +35,11 @@ public class FormTokenConstant {
      */
     public static final long EXPIRE_TIME = 60 * 10L;
 
+    /**
+     * 表单token使用的缓存区域，未配置该区域时使用默认的缓存服务
+     */
+    public static final String CACHE_REGION = "form";
+
     private FormTokenConstant() {
     }
 }
@@ -16,7 +16,7 @@
 
 package com.fuhouyu.framework.web.controller;
 
-import com.fuhouyu.framework.cache.service.CacheService;
+import com.fuhouyu.framework.cache.service.CacheRegionRegistry;
 import com.fuhouyu.framework.common.response.BaseResponse;
 import com.fuhouyu.framework.web.annotaions.PrepareHttpBody;
 import com.fuhouyu.framework.web.constants.FormTokenConstant;
@@ -49,7 +49,7 @@ public class BaseFormController {
     @Value("${spring.application.name}")
     private String applicationName;
 
-    private final CacheService<String, Object> cacheService;
+    private final CacheRegionRegistry cacheRegionRegistry;
 
 
     /**
@@ -64,7 +64,7 @@ public class BaseFormController {
     @PrepareHttpBody
     public BaseResponse<String> formToken() {
         String token = String.format("%s_%s", applicationName, UUID.randomUUID().toString().replace("-", ""));
-        cacheService.set(FormTokenConstant.TOKEN_PREFIX + token,
+        cacheRegionRegistry.getRegion(FormTokenConstant.CACHE_REGION).set(FormTokenConstant.TOKEN_PREFIX + token,
                 true, FormTokenConstant.EXPIRE_TIME, TimeUnit.SECONDS);
         return ResponseHelper.success(token);
     }
@@ -61,6 +61,11 @@ public enum ResponseCodeEnum implements BaseResponseCode {
      */
     NOT_SUPPORT_MEDIA_TYPE(415, "不支持的媒体类型"),
 
+    /**
+     * 请求过于频繁
+     */
+    TOO_MANY_REQUESTS(429, "请求过于频繁"),
+
     /**
      * 服务内部错误
      */
@@ -26,6 +26,7 @@ module base.framework.web.starter {
     requires spring.boot.autoconfigure;
     requires spring.context;
     requires spring.core;
+    requires spring.expression;
     requires spring.tx;
     requires spring.web;
     requires spring.webmvc;
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.fuhouyu.framework.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fuhouyu.framework.cache.CacheAutoConfiguration;
+import com.fuhouyu.framework.common.response.BaseResponse;
+import com.fuhouyu.framework.common.utils.JacksonUtil;
+import com.fuhouyu.framework.kms.KmsAutoConfiguration;
+import com.fuhouyu.framework.web.annotaions.RateLimit;
+import com.fuhouyu.framework.web.response.ResponseHelper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * <p>
+ * 接口限流测试类
+ * </p>
+ *
+ * @author fuhouyu
+ * @since 2026/10/18 21:20
+ */
+@SpringBootTest(classes = {
+        KmsAutoConfiguration.class,
+        WebAutoConfiguration.class,
+        CacheAutoConfiguration.class
+})
+@ExtendWith(SpringExtension.class)
+@AutoConfigureMockMvc
+@EnableWebMvc
+@TestPropertySource(locations = {"classpath:application.yaml"})
+@EnableAspectJAutoProxy
+class WebRateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testRateLimit() throws Exception {
+        Assertions.assertEquals(200, this.request("alice"));
+        Assertions.assertEquals(200, this.request("alice"));
+        Assertions.assertEquals(429, this.request("alice"));
+        // 按参数分别计数
+        Assertions.assertEquals(200, this.request("bob"));
+    }
+
+    @Test
+    void testRateLimitKeyExpression() throws Exception {
+        // 表达式键按求值结果计数
+        Assertions.assertEquals(200, this.request("/v1/rateLimit/expression", "alice"));
+        Assertions.assertEquals(429, this.request("/v1/rateLimit/expression", "alice"));
+        Assertions.assertEquals(200, this.request("/v1/rateLimit/expression", "bob"));
+        // 常量键所有调用共用配额
+        Assertions.assertEquals(200, this.request("/v1/rateLimit/constant", "alice"));
+        Assertions.assertEquals(429, this.request("/v1/rateLimit/constant", "bob"));
+    }
+
+    private int request(String user) throws Exception {
+        return this.request("/v1/rateLimit", user);
+    }
+
+    private int request(String path, String user) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.get(path)
+                        .param("user", user))
+                .andExpect(status().isOk()).andReturn();
+        Map<String, Object> response = JacksonUtil.readValue(mvcResult.getResponse().getContentAsString(),
+                new TypeReference<Map<String, Object>>() {
+                });
+        return ((Number) response.get("code")).intValue();
+    }
+
+    @RestController
+    public static class RateLimitController {
+
+        @RateLimit(key = "#user", permits = 2, period = 1, unit = TimeUnit.HOURS)
+        @GetMapping("/v1/rateLimit")
+        public BaseResponse<Boolean> success(@RequestParam("user") String user) {
+            return ResponseHelper.success(true);
+        }
+
+        @RateLimit(key = "'user:' + #user + ':' + #request.method", permits = 1, period = 1, unit = TimeUnit.HOURS)
+        @GetMapping("/v1/rateLimit/expression")
+        public BaseResponse<Boolean> expression(@RequestParam("user") String user) {
+            return ResponseHelper.success(true);
+        }
+
+        @RateLimit(key = "'shared'", permits = 1, period = 1, unit = TimeUnit.HOURS)
+        @GetMapping("/v1/rateLimit/constant")
+        public BaseResponse<Boolean> constant(@RequestParam("user") String user) {
+            return ResponseHelper.success(true);
+        }
+
+    }
+}